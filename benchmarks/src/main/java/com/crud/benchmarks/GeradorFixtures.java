@@ -0,0 +1,80 @@
+package com.crud.benchmarks;
+
+import com.crud.model.Pessoa;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Gera arquivos de dados determinísticos para os benchmarks.
+ * Os arquivos ficam em target/fixtures e são reaproveitados entre execuções.
+ */
+public final class GeradorFixtures {
+
+    private static final String[] NOMES = {
+        "Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique",
+        "Isabela", "Joao", "Larissa", "Marcos", "Natalia", "Otavio", "Paula", "Rafael"
+    };
+    private static final String[] SOBRENOMES = {
+        "Silva", "Santos", "Oliveira", "Souza", "Pereira", "Costa", "Rodrigues", "Almeida"
+    };
+    private static final String[] DOMINIOS = {
+        "gmail.com", "hotmail.com", "empresa.com.br", "outlook.com"
+    };
+
+    private GeradorFixtures() {
+    }
+
+    /**
+     * Cria a pessoa de número informado. A mesma posição gera sempre os mesmos dados.
+     *
+     * @param i Número da pessoa
+     * @return Pessoa gerada
+     */
+    public static Pessoa pessoa(int i) {
+        String nome = NOMES[i % NOMES.length] + " " + SOBRENOMES[(i / NOMES.length) % SOBRENOMES.length];
+        String email = "pessoa" + i + "@" + DOMINIOS[i % DOMINIOS.length];
+        String telefone = String.format("(%02d) 9%04d-%04d", 11 + i % 80, (i / 10000) % 10000, i % 10000);
+        return new Pessoa(nome, email, telefone);
+    }
+
+    /**
+     * Retorna o email da pessoa de número informado.
+     *
+     * @param i Número da pessoa
+     * @return Email gerado
+     */
+    public static String email(int i) {
+        return pessoa(i).getEmail();
+    }
+
+    /**
+     * Retorna o caminho de um arquivo com a quantidade de pessoas informada,
+     * gerando-o se ainda não existir.
+     *
+     * @param quantidade Quantidade de pessoas
+     * @return Caminho do arquivo de fixture
+     * @throws IOException Se ocorrer erro na escrita
+     */
+    public static synchronized Path arquivo(int quantidade) throws IOException {
+        Path arquivo = Paths.get("target", "fixtures", "pessoas-" + quantidade + ".txt");
+        if (Files.exists(arquivo)) {
+            return arquivo;
+        }
+
+        Files.createDirectories(arquivo.getParent());
+        Path temporario = arquivo.resolveSibling(arquivo.getFileName() + ".tmp");
+        // Nomes sem acento: o repositório usa a codificação padrão da plataforma
+        try (BufferedWriter writer = Files.newBufferedWriter(temporario, Charset.defaultCharset())) {
+            for (int i = 0; i < quantidade; i++) {
+                writer.write(pessoa(i).toFileFormat());
+                writer.newLine();
+            }
+        }
+        Files.move(temporario, arquivo);
+        return arquivo;
+    }
+}
@@ -0,0 +1,148 @@
+package com.crud.benchmarks;
+
+import com.crud.repository.ArvoreBMais;
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Mede quantas páginas uma busca lê na {@link ArvoreBMais} (índice de
+ * emails do modo {@code arvore}) com muitas chaves e um buffer pequeno.
+ *
+ * Monta a árvore com a carga ordenada, reabre o arquivo com o buffer
+ * vazio e faz buscas aleatórias, contando as páginas lidas do disco (faltas
+ * no buffer) por busca. Em seguida insere chaves novas, fora de ordem, e
+ * mede de novo. Termina com código 1 se a altura passar de 4 níveis ou se a
+ * média de páginas lidas por busca passar do máximo, para poder ser usada
+ * como verificação.
+ *
+ * Uso: java -cp target/benchmarks.jar com.crud.benchmarks.MedicaoIndiceArvore
+ *     [quantidade] [buscas] [paginasEmMemoria] [leiturasMaximas]
+ */
+public final class MedicaoIndiceArvore {
+
+    private static final long QUANTIDADE_PADRAO = 50_000_000L;
+    private static final int BUSCAS_PADRAO = 100_000;
+    private static final int ALTURA_MAXIMA = 4;
+    private static final double LEITURAS_MAXIMAS_PADRAO = 3.0;
+    private static final int INSERCOES = 100_000;
+    private static final int TAMANHO_LISTAGEM = 1_000;
+
+    private MedicaoIndiceArvore() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long quantidade = args.length > 0 ? Long.parseLong(args[0]) : QUANTIDADE_PADRAO;
+        int buscas = args.length > 1 ? Integer.parseInt(args[1]) : BUSCAS_PADRAO;
+        int paginasEmMemoria = args.length > 2 ? Integer.parseInt(args[2]) : ArvoreBMais.PAGINAS_EM_MEMORIA_PADRAO;
+        double leiturasMaximas = args.length > 3 ? Double.parseDouble(args[3]) : LEITURAS_MAXIMAS_PADRAO;
+
+        File arquivo = File.createTempFile("medicao", ".bpt");
+        arquivo.delete();
+        try {
+            long inicio = System.nanoTime();
+            try (ArvoreBMais arvore = new ArvoreBMais(arquivo, paginasEmMemoria)) {
+                arvore.carregarOrdenado(chavesOrdenadas(quantidade));
+            }
+            long carga = System.nanoTime() - inicio;
+
+            boolean aprovado;
+            try (ArvoreBMais arvore = new ArvoreBMais(arquivo, paginasEmMemoria)) {
+                System.out.printf("Chaves:            %,d%n", arvore.getQuantidade());
+                System.out.printf("Carga ordenada:    %.1f s (%,d bytes em disco, %.1f bytes/chave)%n",
+                        carga / 1e9, arquivo.length(), (double) arquivo.length() / arvore.getQuantidade());
+                System.out.printf("Altura:            %d%n", arvore.getAltura());
+                System.out.printf("Buffer:            %d páginas de %d bytes%n%n",
+                        paginasEmMemoria, ArvoreBMais.TAMANHO_PAGINA);
+
+                double antes = medirBuscas(arvore, quantidade, buscas, "Após a carga");
+                medirListagem(arvore, quantidade);
+
+                Random aleatorio = new Random(7);
+                long inicioInsercoes = System.nanoTime();
+                for (int i = 0; i < INSERCOES; i++) {
+                    arvore.inserir(chave(Math.floorMod(aleatorio.nextLong(), quantidade)) + "-" + i, i);
+                }
+                System.out.printf("%nInserções:         %,d fora de ordem em %.1f s, altura %d%n%n", INSERCOES,
+                        (System.nanoTime() - inicioInsercoes) / 1e9, arvore.getAltura());
+                double depois = medirBuscas(arvore, quantidade, buscas, "Após as inserções");
+
+                aprovado = arvore.getAltura() <= ALTURA_MAXIMA
+                        && Math.max(antes, depois) <= leiturasMaximas;
+                System.out.printf("%nMáximo:            altura %d, %.2f página(s) lida(s) por busca%n",
+                        ALTURA_MAXIMA, leiturasMaximas);
+            }
+            if (!aprovado) {
+                System.out.println("FALHA: altura ou leituras por busca acima do máximo");
+                System.exit(1);
+            }
+        } finally {
+            arquivo.delete();
+        }
+    }
+
+    /**
+     * Busca chaves existentes em ordem aleatória e retorna a média de
+     * páginas lidas do disco por busca.
+     */
+    private static double medirBuscas(ArvoreBMais arvore, long quantidade, int buscas, String titulo)
+            throws IOException {
+        Random aleatorio = new Random(42);
+        long leituras = arvore.getLeiturasPagina();
+        long acertos = arvore.getAcertos();
+        long inicio = System.nanoTime();
+        for (int i = 0; i < buscas; i++) {
+            long indice = Math.floorMod(aleatorio.nextLong(), quantidade);
+            if (arvore.buscar(chave(indice)) != indice) {
+                throw new IllegalStateException("Chave não encontrada: " + chave(indice));
+            }
+        }
+        long tempo = System.nanoTime() - inicio;
+        double lidas = (double) (arvore.getLeiturasPagina() - leituras) / buscas;
+        double emMemoria = (double) (arvore.getAcertos() - acertos) / buscas;
+        System.out.printf("%s: %,d buscas aleatórias, %.1f µs/busca%n", titulo, buscas, tempo / 1e3 / buscas);
+        System.out.printf("  Páginas por busca: %.2f lidas do disco + %.2f no buffer%n", lidas, emMemoria);
+        return lidas;
+    }
+
+    /**
+     * Lista um intervalo a partir de uma chave aleatória (como uma página da
+     * paginação por email) e mostra as páginas lidas.
+     */
+    private static void medirListagem(ArvoreBMais arvore, long quantidade) throws IOException {
+        long leituras = arvore.getLeiturasPagina();
+        long inicio = System.nanoTime();
+        List<ArvoreBMais.Entrada> entradas = arvore.listar(chave(quantidade / 3), null, TAMANHO_LISTAGEM);
+        long tempo = System.nanoTime() - inicio;
+        System.out.printf("Listagem:          %,d chaves em ordem, %d página(s) lida(s), %.2f ms%n",
+                entradas.size(), arvore.getLeiturasPagina() - leituras, tempo / 1e6);
+    }
+
+    /**
+     * Emails com o número completado com zeros, para que a ordem numérica
+     * seja a ordem das chaves.
+     */
+    private static String chave(long indice) {
+        String numero = Long.toString(indice);
+        return "pessoa" + "0000000000".substring(numero.length()) + numero + "@exemplo.com.br";
+    }
+
+    private static Iterator<ArvoreBMais.Entrada> chavesOrdenadas(long quantidade) {
+        return new Iterator<>() {
+            private long proxima;
+
+            @Override
+            public boolean hasNext() {
+                return proxima < quantidade;
+            }
+
+            @Override
+            public ArvoreBMais.Entrada next() {
+                long indice = proxima++;
+                return new ArvoreBMais.Entrada(chave(indice), indice);
+            }
+        };
+    }
+}
@@ -0,0 +1,82 @@
+package com.crud.benchmarks;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.ArmazemColunar;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Mede o heap ocupado pela mesma quantidade de pessoas em uma
+ * {@code List<Pessoa>} e no {@link ArmazemColunar}.
+ *
+ * Cada estrutura é montada sozinha e medida pela diferença do heap usado
+ * após coletas completas. Termina com código 1 se a economia ficar abaixo
+ * do mínimo esperado, para poder ser usada como verificação.
+ *
+ * Uso: java -cp target/benchmarks.jar com.crud.benchmarks.MedicaoMemoria [quantidade] [economiaMinima]
+ */
+public final class MedicaoMemoria {
+
+    private static final int QUANTIDADE_PADRAO = 1_000_000;
+    private static final double ECONOMIA_MINIMA_PADRAO = 3.0;
+
+    private static final MemoryMXBean MEMORIA = ManagementFactory.getMemoryMXBean();
+
+    /** Mantém a estrutura medida alcançável até a medição. */
+    private static Object retida;
+
+    private MedicaoMemoria() {
+    }
+
+    public static void main(String[] args) {
+        int quantidade = args.length > 0 ? Integer.parseInt(args[0]) : QUANTIDADE_PADRAO;
+        double economiaMinima = args.length > 1 ? Double.parseDouble(args[1]) : ECONOMIA_MINIMA_PADRAO;
+
+        long lista = medir(() -> {
+            List<Pessoa> pessoas = new ArrayList<>();
+            for (int i = 0; i < quantidade; i++) {
+                pessoas.add(GeradorFixtures.pessoa(i));
+            }
+            return pessoas;
+        });
+        long colunar = medir(() -> {
+            ArmazemColunar armazem = new ArmazemColunar();
+            for (int i = 0; i < quantidade; i++) {
+                armazem.adicionar(GeradorFixtures.pessoa(i));
+            }
+            return armazem;
+        });
+
+        double economia = (double) lista / colunar;
+        System.out.printf("Pessoas:        %,d%n", quantidade);
+        System.out.printf("List<Pessoa>:   %,d bytes (%.1f bytes/pessoa)%n", lista, (double) lista / quantidade);
+        System.out.printf("ArmazemColunar: %,d bytes (%.1f bytes/pessoa)%n", colunar, (double) colunar / quantidade);
+        System.out.printf("Economia:       %.2fx (mínimo %.2fx)%n", economia, economiaMinima);
+
+        if (economia < economiaMinima) {
+            System.out.println("FALHA: economia abaixo do mínimo");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Mede o aumento do heap usado, após coletas, ao montar a estrutura.
+     */
+    private static long medir(Supplier<Object> montagem) {
+        long antes = heapUsado();
+        retida = montagem.get();
+        long depois = heapUsado();
+        retida = null;
+        return depois - antes;
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return MEMORIA.getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,45 @@
+package com.crud.benchmarks;
+
+import com.crud.model.Pessoa;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks da conversão de Pessoa de e para o formato do arquivo.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PessoaBenchmark {
+
+    private String linha;
+    private Pessoa pessoa;
+
+    @Setup
+    public void preparar() {
+        pessoa = GeradorFixtures.pessoa(12345);
+        linha = pessoa.toFileFormat();
+    }
+
+    @Benchmark
+    public Pessoa fromFileFormat() {
+        return Pessoa.fromFileFormat(linha);
+    }
+
+    @Benchmark
+    public String toFileFormat() {
+        return pessoa.toFileFormat();
+    }
+}
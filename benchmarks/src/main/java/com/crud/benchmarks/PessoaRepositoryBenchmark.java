@@ -0,0 +1,111 @@
+package com.crud.benchmarks;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.PessoaRepository;
+import com.crud.repository.PessoaRepositoryIndexado;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks das operações do PessoaRepository sobre arquivos de 1 mil,
+ * 100 mil e 1 milhão de pessoas.
+ *
+ * As operações de escrita restauram o arquivo original antes de cada
+ * chamada (fora da medição), para que todas meçam o mesmo volume de dados.
+ * O modo indexado é medido na busca por email, para comparação com a
+ * busca linear.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+@State(Scope.Benchmark)
+public class PessoaRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int tamanho;
+
+    private Path fixture;
+    private Path arquivo;
+    private PessoaRepository repository;
+    private PessoaRepositoryIndexado repositoryIndexado;
+    private List<Pessoa> pessoas;
+    private String emailMeio;
+    private int proximoNovo;
+
+    @Setup(Level.Trial)
+    public void prepararDados() throws IOException {
+        fixture = GeradorFixtures.arquivo(tamanho);
+        arquivo = Files.createTempFile("pessoas-bench", ".txt");
+        Files.copy(fixture, arquivo, StandardCopyOption.REPLACE_EXISTING);
+
+        repository = new PessoaRepository(arquivo.toString());
+        repositoryIndexado = new PessoaRepositoryIndexado(fixture.toString());
+        repositoryIndexado.buscarPorEmail(""); // Carrega o índice fora da medição
+        pessoas = repository.lerTodas();
+        emailMeio = GeradorFixtures.email(tamanho / 2);
+        proximoNovo = tamanho;
+    }
+
+    @Setup(Level.Invocation)
+    public void restaurarArquivo(org.openjdk.jmh.infra.BenchmarkParams parametros) throws IOException {
+        // Apenas as operações de escrita alteram o arquivo
+        String nome = parametros.getBenchmark();
+        if (nome.endsWith("adicionar") || nome.endsWith("atualizar") || nome.endsWith("remover")
+                || nome.endsWith("salvarTodas")) {
+            Files.copy(fixture, arquivo, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Benchmark
+    public List<Pessoa> lerTodas() throws IOException {
+        return repository.lerTodas();
+    }
+
+    @Benchmark
+    public void salvarTodas() throws IOException {
+        repository.salvarTodas(pessoas);
+    }
+
+    @Benchmark
+    public Pessoa buscarPorEmail() throws IOException {
+        return repository.buscarPorEmail(emailMeio);
+    }
+
+    @Benchmark
+    public Pessoa buscarPorEmailIndexado() throws IOException {
+        return repositoryIndexado.buscarPorEmail(emailMeio);
+    }
+
+    @Benchmark
+    public boolean adicionar() throws IOException {
+        return repository.adicionar(GeradorFixtures.pessoa(proximoNovo++));
+    }
+
+    @Benchmark
+    public boolean atualizar() throws IOException {
+        return repository.atualizar(new Pessoa("Nome Atualizado", emailMeio, "(11) 90000-0000"));
+    }
+
+    @Benchmark
+    public boolean remover() throws IOException {
+        return repository.remover(emailMeio);
+    }
+}
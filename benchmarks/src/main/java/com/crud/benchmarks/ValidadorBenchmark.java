@@ -0,0 +1,56 @@
+package com.crud.benchmarks;
+
+import com.crud.util.Validador;
+import com.crud.util.ValidadorRapido;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks da validação completa de uma pessoa, com as expressões
+ * regulares do Validador e com a varredura do ValidadorRapido.
+ *
+ * Para medir a alocação por chamada, execute com o profiler de GC:
+ * {@code java -jar target/benchmarks.jar ValidadorBenchmark -prof gc}
+ * e observe a métrica gc.alloc.rate.norm (bytes por operação).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ValidadorBenchmark {
+
+    private String nome = "Maria da Silva";
+    private String email = "maria.silva@empresa.com.br";
+    private String telefone = "(11) 98765-4321";
+    private String emailInvalido = "maria.silva@empresa";
+
+    @Benchmark
+    public String validarDadosValidos() {
+        return Validador.validarDados(nome, email, telefone);
+    }
+
+    @Benchmark
+    public String validarDadosEmailInvalido() {
+        return Validador.validarDados(nome, emailInvalido, telefone);
+    }
+
+    @Benchmark
+    public String validarDadosValidosRapido() {
+        return ValidadorRapido.validarDados(nome, email, telefone);
+    }
+
+    @Benchmark
+    public String validarDadosEmailInvalidoRapido() {
+        return ValidadorRapido.validarDados(nome, emailInvalido, telefone);
+    }
+}
@@ -1,6 +1,39 @@
 package com.crud;
 
+import com.crud.metricas.Metricas;
+import com.crud.metricas.RelatorioPeriodico;
+import com.crud.replicacao.PessoaRepositoryReplica;
+import com.crud.replicacao.ServidorReplicacao;
+import com.crud.repository.ArvoreBMais;
+import com.crud.repository.CarregadorParalelo;
+import com.crud.repository.ConversorFormato;
+import com.crud.repository.EscritorEmLote;
+import com.crud.repository.FeedAlteracoes;
+import com.crud.repository.PessoaRepository;
+import com.crud.repository.PessoaRepositoryArvore;
+import com.crud.repository.PessoaRepositoryBinario;
+import com.crud.repository.PessoaRepositoryComCache;
+import com.crud.repository.PessoaRepositoryCompacto;
+import com.crud.repository.PessoaRepositoryConcorrente;
+import com.crud.repository.PessoaRepositoryIndexado;
+import com.crud.repository.PessoaRepositoryJournal;
+import com.crud.repository.PessoaRepositoryParticionado;
+import com.crud.repository.PessoaRepositorySeguro;
+import com.crud.repository.PessoaRepositoryVersionado;
+import com.crud.service.FormatoArquivo;
+import com.crud.service.ImportacaoService;
 import com.crud.service.PessoaService;
+import com.crud.service.RelatorioImportacao;
+import com.crud.servidor.ServidorHttp;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 /**
@@ -12,13 +45,54 @@ public class Main {
     private static PessoaService pessoaService;
     private static Scanner scanner;
 
+    // Quantidade de pessoas exibidas por página na listagem
+    private static final int TAMANHO_PAGINA = 20;
+
     /**
      * Método principal que inicia a aplicação.
      * 
-     * @param args Argumentos da linha de comando (não utilizados)
+     * @param args Argumentos da linha de comando (ex: --repositorio=indexado)
      */
     public static void main(String[] args) {
-        pessoaService = new PessoaService();
+        String conversao = lerArgumento(args, "converter", null);
+        if (conversao != null) {
+            converterArquivo(conversao, lerArgumento(args, "origem", null), lerArgumento(args, "destino", null));
+            return;
+        }
+
+        if (temArgumento(args, "servidor")) {
+            iniciarRelatorioMetricas(Long.parseLong(lerArgumento(args, "metricas-intervalo", "60")));
+            // O servidor atende várias requisições ao mesmo tempo: por padrão, usa o repositório concorrente
+            iniciarServidor(criarRepositorio(args, "concorrente"),
+                    Integer.parseInt(lerArgumento(args, "porta", String.valueOf(ServidorHttp.PORTA_PADRAO))),
+                    Integer.parseInt(lerArgumento(args, "limite-concorrencia",
+                            String.valueOf(ServidorHttp.LIMITE_PADRAO))));
+            return;
+        }
+
+        PessoaRepository repositorio = criarRepositorio(args, "arquivo");
+
+        String reparticionamento = lerArgumento(args, "reparticionar", null);
+        if (reparticionamento != null) {
+            reparticionar(repositorio, Integer.parseInt(reparticionamento));
+            return;
+        }
+
+        String importacao = lerArgumento(args, "importar", null);
+        String exportacao = lerArgumento(args, "exportar", null);
+        if (importacao != null || exportacao != null) {
+            String arquivo = importacao != null ? importacao : exportacao;
+            String formato = lerArgumento(args, "formato", null);
+            FormatoArquivo formatoArquivo = formato != null
+                ? FormatoArquivo.valueOf(formato.toUpperCase()) : FormatoArquivo.pelaExtensao(arquivo);
+            transferirEmMassa(new ImportacaoService(repositorio), importacao != null, Paths.get(arquivo), formatoArquivo);
+            fecharRepositorio(repositorio);
+            return;
+        }
+
+        iniciarRelatorioMetricas(Long.parseLong(lerArgumento(args, "metricas-intervalo", "0")));
+        carregarNaInicializacao(repositorio);
+        pessoaService = new PessoaService(repositorio);
         scanner = new Scanner(System.in);
         
         System.out.println("========================================");
@@ -47,8 +121,23 @@ public class Main {
                 case 5:
                     removerPessoa();
                     break;
+                case 6:
+                    buscarPessoaPorNome();
+                    break;
+                case 7:
+                    buscarPessoaPorTelefone();
+                    break;
+                case 8:
+                    exibirMetricas(repositorio);
+                    break;
                 case 0:
                     executando = false;
+                    if (repositorio instanceof PessoaRepositoryComCache) {
+                        PessoaRepositoryComCache comCache = (PessoaRepositoryComCache) repositorio;
+                        System.out.println("\n" + comCache.getCache());
+                        System.out.println(comCache.getEstatisticasFiltro());
+                    }
+                    fecharRepositorio(repositorio);
                     System.out.println("\nEncerrando o sistema...");
                     System.out.println("Obrigado por usar o Sistema CRUD!");
                     break;
@@ -64,6 +153,389 @@ public class Main {
         scanner.close();
     }
 
+    /**
+     * Lê o valor de um argumento no formato --nome=valor.
+     * 
+     * @param args Argumentos da linha de comando
+     * @param nome Nome do argumento
+     * @param padrao Valor retornado se o argumento não for informado
+     * @return Valor do argumento ou o valor padrão
+     */
+    private static String lerArgumento(String[] args, String nome, String padrao) {
+        String prefixo = "--" + nome + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefixo)) {
+                return arg.substring(prefixo.length());
+            }
+        }
+        return padrao;
+    }
+
+    /**
+     * Verifica se um argumento sem valor (ex: --servidor) foi informado.
+     * 
+     * @param args Argumentos da linha de comando
+     * @param nome Nome do argumento
+     * @return true se o argumento foi informado
+     */
+    private static boolean temArgumento(String[] args, String nome) {
+        for (String arg : args) {
+            if (arg.equals("--" + nome)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Cria o repositório correspondente ao modo escolhido.
+     * 
+     * Modos: arquivo, indexado, journal, binario, concorrente, cache,
+     * particionado, seguro, compacto, versionado ou arvore (--repositorio=).
+     * No modo arvore, --arvore-paginas= define as páginas de cada índice
+     * mantidas em memória.
+     * No modo journal, --sync=operacao|intervalo|sistema e --sync-intervalo-ms=
+     * definem a política de sincronização com o disco. No modo cache,
+     * --cache-capacidade= e --cache-ttl-ms= configuram o cache de leitura e
+     * --bloom-fp= a taxa de falsos positivos do filtro de Bloom. No modo
+     * particionado, --particoes= define a quantidade de partições de um
+     * diretório novo. Com --feed, as alterações são publicadas no log de
+     * alterações ao lado do arquivo de dados (ex: data/pessoas.txt.cdc).
+     * 
+     * Com --replicacao[=PORTA], o feed é ativado e as alterações são enviadas
+     * às réplicas que se conectarem na porta (--replicacao-limite= define o
+     * atraso, em eventos, a partir do qual a réplica recebe um snapshot).
+     * Com --replica-de=HOST:PORTA, a aplicação usa uma réplica somente
+     * leitura desse primário no lugar do repositório.
+     * 
+     * @param args Argumentos da linha de comando
+     * @param modoPadrao Modo usado se --repositorio= não for informado
+     * @return Repositório configurado
+     */
+    private static PessoaRepository criarRepositorio(String[] args, String modoPadrao) {
+        String primario = lerArgumento(args, "replica-de", null);
+        if (primario != null) {
+            return criarReplica(primario);
+        }
+
+        PessoaRepository repositorio = instanciarRepositorio(args, lerArgumento(args, "repositorio", modoPadrao));
+        String portaReplicacao = temArgumento(args, "replicacao")
+                ? String.valueOf(ServidorReplicacao.PORTA_PADRAO) : lerArgumento(args, "replicacao", null);
+        if (temArgumento(args, "feed") || portaReplicacao != null) {
+            ativarFeed(repositorio);
+        }
+        if (portaReplicacao != null) {
+            iniciarReplicacao(repositorio, Integer.parseInt(portaReplicacao),
+                    Long.parseLong(lerArgumento(args, "replicacao-limite",
+                            String.valueOf(ServidorReplicacao.LIMITE_ATRASO_PADRAO))));
+        }
+        return repositorio;
+    }
+
+    /**
+     * Instancia o repositório do modo informado (ver {@link #criarRepositorio}).
+     * 
+     * @param args Argumentos da linha de comando
+     * @param modo Modo do repositório
+     * @return Repositório configurado
+     */
+    private static PessoaRepository instanciarRepositorio(String[] args, String modo) {
+        switch (modo) {
+            case "indexado":
+                return new PessoaRepositoryIndexado();
+            case "journal":
+                return new PessoaRepositoryJournal("data/pessoas.txt",
+                        PessoaRepositoryJournal.LIMITE_BYTES_PADRAO, PessoaRepositoryJournal.LIMITE_LIXO_PADRAO,
+                        lerPoliticaSync(lerArgumento(args, "sync", "sistema")),
+                        Long.parseLong(lerArgumento(args, "sync-intervalo-ms", "100")));
+            case "binario":
+                return new PessoaRepositoryBinario();
+            case "concorrente":
+                return new PessoaRepositoryConcorrente();
+            case "cache":
+                return new PessoaRepositoryComCache("data/pessoas.txt",
+                        Integer.parseInt(lerArgumento(args, "cache-capacidade",
+                                String.valueOf(PessoaRepositoryComCache.CAPACIDADE_PADRAO))),
+                        Long.parseLong(lerArgumento(args, "cache-ttl-ms",
+                                String.valueOf(PessoaRepositoryComCache.TTL_PADRAO_MS))),
+                        Double.parseDouble(lerArgumento(args, "bloom-fp",
+                                String.valueOf(PessoaRepositoryComCache.TAXA_FALSO_POSITIVO_PADRAO))));
+            case "seguro":
+                return new PessoaRepositorySeguro();
+            case "compacto":
+                return new PessoaRepositoryCompacto();
+            case "versionado":
+                return new PessoaRepositoryVersionado();
+            case "particionado":
+                return new PessoaRepositoryParticionado(PessoaRepositoryParticionado.DIRETORIO_PADRAO,
+                        Integer.parseInt(lerArgumento(args, "particoes",
+                                String.valueOf(PessoaRepositoryParticionado.PARTICOES_PADRAO))),
+                        PessoaRepositoryParticionado.ARQUIVO_LEGADO_PADRAO);
+            case "arvore":
+                return new PessoaRepositoryArvore("data/pessoas.txt",
+                        Integer.parseInt(lerArgumento(args, "arvore-paginas",
+                                String.valueOf(ArvoreBMais.PAGINAS_EM_MEMORIA_PADRAO))));
+            case "arquivo":
+                return new PessoaRepository();
+            default:
+                System.out.println("Modo de repositório desconhecido: " + modo + ". Usando 'arquivo'.");
+                return new PessoaRepository();
+        }
+    }
+
+    /**
+     * Liga o feed de alterações do repositório ao log ao lado do arquivo
+     * de dados. Sem o log, a aplicação segue sem o feed.
+     * 
+     * @param repositorio Repositório cujas alterações serão publicadas
+     */
+    private static void ativarFeed(PessoaRepository repositorio) {
+        File log = new File(repositorio.getArquivo().getPath() + ".cdc");
+        try {
+            FeedAlteracoes feed = new FeedAlteracoes(log);
+            repositorio.setFeedAlteracoes(feed);
+            System.out.println("Feed de alterações: " + log + " (última sequência "
+                    + feed.getUltimaSequencia() + ")");
+        } catch (IOException e) {
+            System.out.println("Não foi possível abrir o log de alterações " + log + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Abre a porta de replicação do repositório primário. Sem o feed de
+     * alterações ou sem a porta, a aplicação segue sem réplicas.
+     * 
+     * @param repositorio Repositório primário
+     * @param porta Porta TCP das réplicas
+     * @param limiteAtraso Atraso máximo, em eventos, antes de enviar um snapshot
+     */
+    private static void iniciarReplicacao(PessoaRepository repositorio, int porta, long limiteAtraso) {
+        if (repositorio.getFeedAlteracoes() == null) {
+            System.out.println("Replicação desativada: o feed de alterações não está disponível.");
+            return;
+        }
+        try {
+            ServidorReplicacao servidor = new ServidorReplicacao(repositorio, porta, limiteAtraso);
+            System.out.println("Replicação escutando na porta " + servidor.getPorta() + ".");
+        } catch (IOException e) {
+            System.out.println("Não foi possível abrir a porta de replicação " + porta + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Cria uma réplica somente leitura do primário informado e aguarda
+     * alguns segundos pela primeira sincronização.
+     * 
+     * @param endereco Endereço do primário no formato host:porta
+     * @return Réplica do primário
+     */
+    private static PessoaRepository criarReplica(String endereco) {
+        int separador = endereco.lastIndexOf(':');
+        String host = separador > 0 ? endereco.substring(0, separador) : "localhost";
+        int porta = Integer.parseInt(endereco.substring(separador + 1));
+        PessoaRepositoryReplica replica = new PessoaRepositoryReplica(host, porta);
+        try {
+            if (!replica.aguardarSincronizacao(5000)) {
+                System.out.println("Primário ainda não alcançado; a réplica continua tentando em segundo plano.");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        System.out.println(replica);
+        return replica;
+    }
+
+    /**
+     * Inicia a linha periódica de métricas na saída padrão.
+     * 
+     * @param intervaloSegundos Intervalo entre as linhas (0 para desativar)
+     */
+    private static void iniciarRelatorioMetricas(long intervaloSegundos) {
+        if (intervaloSegundos > 0) {
+            new RelatorioPeriodico(Metricas.global(), intervaloSegundos, System.out);
+        }
+    }
+
+    /**
+     * Nos modos que mantêm os dados em memória, carrega o arquivo já na
+     * inicialização e exibe o tempo da carga e a vazão em registros por segundo.
+     * No modo seguro, verifica os checksums e informa as linhas em quarentena.
+     * No modo arvore, confere os índices (reconstruindo-os se preciso) e
+     * exibe o seu estado.
+     * 
+     * @param repositorio Repositório escolhido
+     */
+    private static void carregarNaInicializacao(PessoaRepository repositorio) {
+        try {
+            CarregadorParalelo.Estatisticas estatisticas = null;
+            if (repositorio instanceof PessoaRepositoryIndexado) {
+                estatisticas = ((PessoaRepositoryIndexado) repositorio).carregar();
+            } else if (repositorio instanceof PessoaRepositoryConcorrente) {
+                estatisticas = ((PessoaRepositoryConcorrente) repositorio).carregar();
+            } else if (repositorio instanceof PessoaRepositorySeguro) {
+                PessoaRepositorySeguro seguro = (PessoaRepositorySeguro) repositorio;
+                PessoaRepositorySeguro.Recuperacao recuperacao = seguro.recuperar();
+                System.out.println(recuperacao);
+                if (recuperacao.getQuarentena() > 0) {
+                    System.out.println("Linhas inválidas movidas para " + seguro.getArquivoQuarentena() + ".");
+                }
+            } else if (repositorio instanceof PessoaRepositoryArvore) {
+                PessoaRepositoryArvore arvore = (PessoaRepositoryArvore) repositorio;
+                arvore.abrir();
+                System.out.println(arvore);
+            }
+            if (estatisticas != null) {
+                System.out.println(estatisticas);
+            }
+        } catch (IOException e) {
+            System.out.println("Erro ao carregar os dados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fecha o repositório, se ele mantiver arquivos abertos (ex: o journal
+     * e os índices do modo arvore).
+     * 
+     * @param repositorio Repositório em uso
+     */
+    private static void fecharRepositorio(PessoaRepository repositorio) {
+        if (repositorio instanceof Closeable) {
+            try {
+                ((Closeable) repositorio).close();
+            } catch (IOException e) {
+                System.out.println("Erro ao fechar o repositório: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Inicia a API HTTP e a mantém ativa até o encerramento do processo.
+     * 
+     * @param repositorio Repositório usado pelo serviço
+     * @param porta Porta TCP do servidor
+     * @param limiteConcorrencia Quantidade máxima de requisições simultâneas
+     */
+    private static void iniciarServidor(PessoaRepository repositorio, int porta, int limiteConcorrencia) {
+        carregarNaInicializacao(repositorio);
+        try {
+            ServidorHttp servidor = new ServidorHttp(new PessoaService(repositorio), porta, limiteConcorrencia);
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                servidor.parar(1);
+                fecharRepositorio(repositorio);
+            }));
+            servidor.iniciar();
+            System.out.println("Servidor HTTP escutando na porta " + servidor.getPorta()
+                    + (servidor.usaThreadsVirtuais() ? " (threads virtuais)" : " (pool de threads)")
+                    + ", até " + limiteConcorrencia + " requisições simultâneas.");
+        } catch (IOException e) {
+            System.out.println("Erro ao iniciar o servidor: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converte o nome da política de sincronização informado na linha de comando.
+     * 
+     * @param nome Nome da política (operacao, intervalo ou sistema)
+     * @return Política de sincronização correspondente
+     */
+    private static EscritorEmLote.PoliticaSync lerPoliticaSync(String nome) {
+        switch (nome) {
+            case "operacao":
+                return EscritorEmLote.PoliticaSync.POR_OPERACAO;
+            case "intervalo":
+                return EscritorEmLote.PoliticaSync.INTERVALO;
+            case "sistema":
+                return EscritorEmLote.PoliticaSync.SISTEMA;
+            default:
+                System.out.println("Política de sincronização desconhecida: " + nome + ". Usando 'sistema'.");
+                return EscritorEmLote.PoliticaSync.SISTEMA;
+        }
+    }
+
+    /**
+     * Executa a importação ou exportação em massa e exibe o resultado.
+     * As linhas rejeitadas na importação são gravadas em <arquivo>.rejeitadas.txt.
+     * 
+     * @param servico Serviço de importação
+     * @param importar true para importar, false para exportar
+     * @param arquivo Arquivo de entrada ou saída
+     * @param formato Formato do arquivo
+     */
+    private static void transferirEmMassa(ImportacaoService servico, boolean importar, Path arquivo,
+                                          FormatoArquivo formato) {
+        try {
+            if (importar) {
+                Path rejeitadas = Paths.get(arquivo + ".rejeitadas.txt");
+                try (Writer writer = Files.newBufferedWriter(rejeitadas, StandardCharsets.UTF_8)) {
+                    RelatorioImportacao relatorio = servico.importar(arquivo, formato, writer);
+                    System.out.println(relatorio);
+                    if (relatorio.getRejeitadas() > 0) {
+                        System.out.println("Linhas rejeitadas registradas em " + rejeitadas);
+                    }
+                }
+            } else {
+                long total = servico.exportar(arquivo, formato);
+                System.out.println(total + " pessoa(s) exportada(s) para " + arquivo + ".");
+            }
+        } catch (IOException e) {
+            System.out.println("Erro na transferência de dados: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Converte um arquivo de dados entre os formatos texto e binário.
+     * 
+     * @param formatoDestino Formato de destino (binario ou texto)
+     * @param origem Caminho do arquivo de origem
+     * @param destino Caminho do arquivo de destino
+     */
+    private static void converterArquivo(String formatoDestino, String origem, String destino) {
+        if (origem == null || destino == null) {
+            System.out.println("Informe --origem=<arquivo> e --destino=<arquivo>.");
+            return;
+        }
+
+        try {
+            int quantidade;
+            if (formatoDestino.equals("binario")) {
+                quantidade = ConversorFormato.textoParaBinario(Paths.get(origem), Paths.get(destino));
+            } else if (formatoDestino.equals("texto")) {
+                quantidade = ConversorFormato.binarioParaTexto(Paths.get(origem), Paths.get(destino));
+            } else {
+                System.out.println("Formato de conversão desconhecido: " + formatoDestino + " (use binario ou texto).");
+                return;
+            }
+            System.out.println(quantidade + " registro(s) convertido(s) para " + destino + ".");
+        } catch (IOException e) {
+            System.out.println("Erro ao converter o arquivo: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Redistribui os registros do repositório particionado em uma nova
+     * quantidade de partições.
+     *
+     * @param repositorio Repositório escolhido (deve ser o particionado)
+     * @param quantidade Nova quantidade de partições
+     */
+    private static void reparticionar(PessoaRepository repositorio, int quantidade) {
+        if (!(repositorio instanceof PessoaRepositoryParticionado)) {
+            System.out.println("O reparticionamento exige --repositorio=particionado.");
+            return;
+        }
+
+        PessoaRepositoryParticionado particionado = (PessoaRepositoryParticionado) repositorio;
+        try {
+            int anterior = particionado.getQuantidadeParticoes();
+            long inicio = System.nanoTime();
+            int registros = particionado.reparticionar(quantidade);
+            System.out.printf("%d registro(s) redistribuído(s) de %d para %d partições em %d ms.%n",
+                    registros, anterior, quantidade, (System.nanoTime() - inicio) / 1_000_000);
+        } catch (IOException e) {
+            System.out.println("Erro ao reparticionar: " + e.getMessage());
+        }
+    }
+
     /**
      * Exibe o menu principal do sistema.
      */
@@ -74,6 +546,9 @@ public class Main {
         System.out.println("3. Buscar pessoa por email");
         System.out.println("4. Atualizar pessoa");
         System.out.println("5. Remover pessoa");
+        System.out.println("6. Buscar pessoa por nome");
+        System.out.println("7. Buscar pessoa por telefone");
+        System.out.println("8. Exibir métricas");
         System.out.println("0. Sair");
         System.out.print("\nEscolha uma opção: ");
     }
@@ -112,12 +587,18 @@ public class Main {
     }
 
     /**
-     * Lista todas as pessoas cadastradas.
+     * Lista as pessoas cadastradas, uma página por vez.
      */
     private static void listarPessoas() {
         System.out.println("\n=== LISTAR TODAS AS PESSOAS ===");
-        String resultado = pessoaService.listarTodas();
-        System.out.println(resultado);
+        PrintWriter saida = new PrintWriter(System.out);
+        int pagina = 1;
+        while (pessoaService.listarPagina(pagina, TAMANHO_PAGINA, saida)) {
+            if (!continuarPaginacao()) {
+                return;
+            }
+            pagina++;
+        }
     }
 
     /**
@@ -132,6 +613,61 @@ public class Main {
         System.out.println(resultado);
     }
 
+    /**
+     * Busca pessoas pelo nome ou trecho do nome, uma página por vez.
+     */
+    private static void buscarPessoaPorNome() {
+        System.out.println("\n=== BUSCAR PESSOA POR NOME ===");
+        System.out.print("Digite o nome ou parte dele: ");
+        String termo = scanner.nextLine();
+
+        PrintWriter saida = new PrintWriter(System.out);
+        int pagina = 1;
+        while (pessoaService.buscarPorNome(termo, pagina, TAMANHO_PAGINA, saida)) {
+            if (!continuarPaginacao()) {
+                return;
+            }
+            pagina++;
+        }
+    }
+
+    /**
+     * Busca as pessoas com um telefone.
+     */
+    private static void buscarPessoaPorTelefone() {
+        System.out.println("\n=== BUSCAR PESSOA POR TELEFONE ===");
+        System.out.print("Digite o telefone: ");
+        String telefone = scanner.nextLine();
+
+        String resultado = pessoaService.buscarPorTelefone(telefone);
+        System.out.println(resultado);
+    }
+
+    /**
+     * Exibe as métricas das operações desde o início da aplicação e, em
+     * uma réplica, o atraso em relação ao primário.
+     * 
+     * @param repositorio Repositório em uso
+     */
+    private static void exibirMetricas(PessoaRepository repositorio) {
+        System.out.println("\n=== MÉTRICAS ===");
+        System.out.print(Metricas.global().getResumo());
+        if (repositorio instanceof PessoaRepositoryReplica || repositorio instanceof PessoaRepositoryArvore) {
+            System.out.println(repositorio);
+        }
+    }
+
+    /**
+     * Pergunta se o usuário quer ver a próxima página.
+     * 
+     * @return true se o usuário quer continuar
+     */
+    private static boolean continuarPaginacao() {
+        System.out.print("\nPressione Enter para a próxima página ou 'q' para voltar ao menu: ");
+        String resposta = scanner.nextLine().trim().toLowerCase();
+        return !resposta.equals("q");
+    }
+
     /**
      * Atualiza os dados de uma pessoa existente.
      */
@@ -0,0 +1,141 @@
+package com.crud.metricas;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com faixas logarítmicas, no estilo do
+ * HdrHistogram.
+ *
+ * Valores até 127 ns têm uma faixa cada. Acima disso, cada potência de dois
+ * é dividida em 64 faixas iguais, o que limita o erro relativo dos
+ * percentis a cerca de 1,6%, de 128 ns até o limite de 2^37 ns (cerca de 137
+ * segundos). Valores maiores são contados no limite.
+ *
+ * O registro não usa locks nem aloca memória: apenas incrementa um contador
+ * atômico da faixa, o que permite mantê-lo ativo sob carga. As leituras
+ * (percentis, média) podem ocorrer durante os registros e refletem um
+ * estado aproximado do momento.
+ */
+public class HistogramaLatencia {
+
+    private static final int BITS_LINEARES = 7;
+    private static final int FAIXAS_LINEARES = 1 << BITS_LINEARES;
+    private static final int SUBFAIXAS = FAIXAS_LINEARES / 2;
+    private static final int MAIOR_EXPOENTE = 36;
+
+    /** Maior valor registrado com precisão, em nanossegundos. */
+    public static final long VALOR_MAXIMO = (1L << (MAIOR_EXPOENTE + 1)) - 1;
+
+    private final AtomicLongArray contagens =
+            new AtomicLongArray(FAIXAS_LINEARES + (MAIOR_EXPOENTE - BITS_LINEARES + 1) * SUBFAIXAS);
+    private final LongAdder total = new LongAdder();
+    private final LongAdder soma = new LongAdder();
+    private final LongAccumulator maximo = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Registra uma latência.
+     *
+     * @param nanos Duração em nanossegundos (valores negativos contam como zero)
+     */
+    public void registrar(long nanos) {
+        long valor = Math.min(Math.max(nanos, 0), VALOR_MAXIMO);
+        contagens.incrementAndGet(indice(valor));
+        total.increment();
+        soma.add(valor);
+        maximo.accumulate(valor);
+    }
+
+    static int indice(long valor) {
+        if (valor < FAIXAS_LINEARES) {
+            return (int) valor;
+        }
+        // Desloca o valor até restarem 7 bits (64 a 127)
+        int deslocamento = (63 - Long.numberOfLeadingZeros(valor)) - (BITS_LINEARES - 1);
+        return FAIXAS_LINEARES + (deslocamento - 1) * SUBFAIXAS + (int) ((valor >>> deslocamento) - SUBFAIXAS);
+    }
+
+    /**
+     * Retorna o maior valor que cai na faixa informada.
+     */
+    static long limiteSuperior(int indice) {
+        if (indice < FAIXAS_LINEARES) {
+            return indice;
+        }
+        int deslocamento = (indice - FAIXAS_LINEARES) / SUBFAIXAS + 1;
+        long subfaixa = (indice - FAIXAS_LINEARES) % SUBFAIXAS + SUBFAIXAS;
+        return ((subfaixa + 1) << deslocamento) - 1;
+    }
+
+    /**
+     * Calcula vários percentis em uma única passada pelas faixas.
+     *
+     * @param percentis Percentis desejados, em ordem crescente (ex: 50, 99, 99.9)
+     * @return Limite superior da faixa de cada percentil, em nanossegundos
+     *         (zeros se não houver registros)
+     */
+    public long[] percentis(double... percentis) {
+        long[] copia = new long[contagens.length()];
+        long quantidade = 0;
+        for (int i = 0; i < copia.length; i++) {
+            copia[i] = contagens.get(i);
+            quantidade += copia[i];
+        }
+
+        long[] valores = new long[percentis.length];
+        if (quantidade == 0) {
+            return valores;
+        }
+        int atual = 0;
+        long acumulado = 0;
+        for (int i = 0; i < copia.length && atual < percentis.length; i++) {
+            acumulado += copia[i];
+            while (atual < percentis.length
+                    && acumulado >= Math.max(1, (long) Math.ceil(percentis[atual] / 100.0 * quantidade))) {
+                valores[atual++] = Math.min(limiteSuperior(i), getMaximo());
+            }
+        }
+        return valores;
+    }
+
+    /**
+     * Calcula um percentil.
+     *
+     * @param percentil Percentil desejado (0 a 100)
+     * @return Latência em nanossegundos
+     */
+    public long percentil(double percentil) {
+        return percentis(percentil)[0];
+    }
+
+    public long getQuantidade() {
+        return total.sum();
+    }
+
+    public long getMaximo() {
+        return maximo.get();
+    }
+
+    /**
+     * Retorna a latência média.
+     *
+     * @return Média em nanossegundos (0 se não houver registros)
+     */
+    public double getMedia() {
+        long quantidade = total.sum();
+        return quantidade == 0 ? 0 : (double) soma.sum() / quantidade;
+    }
+
+    /**
+     * Descarta todos os registros.
+     */
+    public void zerar() {
+        for (int i = 0; i < contagens.length(); i++) {
+            contagens.set(i, 0);
+        }
+        total.reset();
+        soma.reset();
+        maximo.reset();
+    }
+}
@@ -0,0 +1,137 @@
+package com.crud.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contagem de chamadas, contagem de erros e histograma de latências de uma
+ * operação (ex: "PessoaService.cadastrar").
+ *
+ * Uso típico, guardando a métrica em um campo estático para evitar a busca
+ * pelo nome a cada chamada:
+ *
+ * <pre>
+ * long inicio = System.nanoTime();
+ * boolean erro = true;
+ * try {
+ *     ...
+ *     erro = false;
+ * } finally {
+ *     METRICA.registrar(inicio, erro);
+ * }
+ * </pre>
+ */
+public class MetricaOperacao implements MetricaOperacaoMBean {
+
+    private final String nome;
+    private final LongAdder chamadas = new LongAdder();
+    private final LongAdder erros = new LongAdder();
+    private final HistogramaLatencia latencias = new HistogramaLatencia();
+
+    MetricaOperacao(String nome) {
+        this.nome = nome;
+    }
+
+    /**
+     * Registra uma chamada iniciada no instante informado e concluída agora.
+     *
+     * @param inicioNanos Valor de {@link System#nanoTime()} no início da chamada
+     * @param erro true se a chamada terminou com erro
+     */
+    public void registrar(long inicioNanos, boolean erro) {
+        latencias.registrar(System.nanoTime() - inicioNanos);
+        chamadas.increment();
+        if (erro) {
+            erros.increment();
+        }
+    }
+
+    @Override
+    public String getNome() {
+        return nome;
+    }
+
+    @Override
+    public long getChamadas() {
+        return chamadas.sum();
+    }
+
+    @Override
+    public long getErros() {
+        return erros.sum();
+    }
+
+    /**
+     * Retorna o histograma, para percentis além dos expostos pelo JMX.
+     *
+     * @return Histograma de latências em nanossegundos
+     */
+    public HistogramaLatencia getLatencias() {
+        return latencias;
+    }
+
+    @Override
+    public double getMediaMicros() {
+        return latencias.getMedia() / 1000.0;
+    }
+
+    @Override
+    public long getP50Micros() {
+        return latencias.percentil(50) / 1000;
+    }
+
+    @Override
+    public long getP90Micros() {
+        return latencias.percentil(90) / 1000;
+    }
+
+    @Override
+    public long getP99Micros() {
+        return latencias.percentil(99) / 1000;
+    }
+
+    @Override
+    public long getP999Micros() {
+        return latencias.percentil(99.9) / 1000;
+    }
+
+    @Override
+    public long getMaximoMicros() {
+        return latencias.getMaximo() / 1000;
+    }
+
+    @Override
+    public void zerar() {
+        chamadas.reset();
+        erros.reset();
+        latencias.zerar();
+    }
+
+    /**
+     * Resume a operação em uma linha.
+     *
+     * @return Chamadas, erros, média e percentis da latência
+     */
+    @Override
+    public String toString() {
+        long[] p = latencias.percentis(50, 90, 99, 99.9);
+        return String.format("%s: %d chamada(s), %d erro(s) | média %s | p50 %s | p90 %s | p99 %s | p99.9 %s | máx %s",
+                nome, getChamadas(), getErros(), formatar((long) latencias.getMedia()),
+                formatar(p[0]), formatar(p[1]), formatar(p[2]), formatar(p[3]), formatar(latencias.getMaximo()));
+    }
+
+    /**
+     * Formata uma duração em nanossegundos na unidade mais legível.
+     */
+    static String formatar(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + " ns";
+        }
+        if (nanos < 1_000_000) {
+            return String.format("%.1f µs", nanos / 1_000.0);
+        }
+        if (nanos < 1_000_000_000) {
+            return String.format("%.1f ms", nanos / 1_000_000.0);
+        }
+        return String.format("%.2f s", nanos / 1_000_000_000.0);
+    }
+}
@@ -0,0 +1,27 @@
+package com.crud.metricas;
+
+/**
+ * Interface JMX das métricas de uma operação. Os tempos são em microssegundos.
+ */
+public interface MetricaOperacaoMBean {
+
+    String getNome();
+
+    long getChamadas();
+
+    long getErros();
+
+    double getMediaMicros();
+
+    long getP50Micros();
+
+    long getP90Micros();
+
+    long getP99Micros();
+
+    long getP999Micros();
+
+    long getMaximoMicros();
+
+    void zerar();
+}
@@ -0,0 +1,176 @@
+package com.crud.metricas;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Registro das métricas da aplicação: uma {@link MetricaOperacao} por
+ * operação instrumentada e contadores gerais de bytes lidos, bytes escritos
+ * e registros lidos do armazenamento.
+ *
+ * O registro global ({@link #global()}) é publicado no JMX como
+ * {@code com.crud:type=Metricas}, e cada operação como
+ * {@code com.crud:type=Operacao,name=<nome>}, podendo ser acompanhado pelo
+ * JConsole ou pelo VisualVM.
+ */
+public class Metricas implements MetricasMBean {
+
+    private static final String DOMINIO_JMX = "com.crud";
+    private static final Metricas GLOBAL = new Metricas(true);
+
+    private final boolean publicarJmx;
+    private final ConcurrentHashMap<String, MetricaOperacao> operacoes = new ConcurrentHashMap<>();
+    private final LongAdder bytesLidos = new LongAdder();
+    private final LongAdder bytesEscritos = new LongAdder();
+    private final LongAdder registrosLidos = new LongAdder();
+
+    /**
+     * Cria um registro independente do global, sem publicação no JMX.
+     */
+    public Metricas() {
+        this(false);
+    }
+
+    private Metricas(boolean publicarJmx) {
+        this.publicarJmx = publicarJmx;
+        if (publicarJmx) {
+            publicar(this, DOMINIO_JMX + ":type=Metricas");
+        }
+    }
+
+    /**
+     * Retorna o registro usado pelas classes instrumentadas.
+     *
+     * @return Registro global
+     */
+    public static Metricas global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Retorna a métrica da operação, criando-a na primeira chamada.
+     *
+     * @param nome Nome da operação (ex: "PessoaRepository.lerTodas")
+     * @return Métrica da operação
+     */
+    public MetricaOperacao operacao(String nome) {
+        return operacoes.computeIfAbsent(nome, n -> {
+            MetricaOperacao metrica = new MetricaOperacao(n);
+            if (publicarJmx) {
+                publicar(metrica, DOMINIO_JMX + ":type=Operacao,name=" + ObjectName.quote(n));
+            }
+            return metrica;
+        });
+    }
+
+    /**
+     * Publica o objeto no servidor JMX da plataforma. Falhas são ignoradas:
+     * as métricas continuam disponíveis pelos demais meios.
+     */
+    private static void publicar(Object mbean, String nome) {
+        try {
+            MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+            ObjectName objectName = new ObjectName(nome);
+            if (!servidor.isRegistered(objectName)) {
+                servidor.registerMBean(mbean, objectName);
+            }
+        } catch (JMException | SecurityException e) {
+            // JMX indisponível ou nome já registrado por outro carregador de classes
+        }
+    }
+
+    /**
+     * Retorna as operações registradas, em ordem de nome.
+     *
+     * @return Métricas das operações
+     */
+    public List<MetricaOperacao> getOperacoes() {
+        List<MetricaOperacao> lista = new ArrayList<>(operacoes.values());
+        lista.sort(Comparator.comparing(MetricaOperacao::getNome));
+        return lista;
+    }
+
+    public void adicionarBytesLidos(long bytes) {
+        bytesLidos.add(bytes);
+    }
+
+    public void adicionarBytesEscritos(long bytes) {
+        bytesEscritos.add(bytes);
+    }
+
+    public void adicionarRegistrosLidos(long registros) {
+        registrosLidos.add(registros);
+    }
+
+    @Override
+    public long getBytesLidos() {
+        return bytesLidos.sum();
+    }
+
+    @Override
+    public long getBytesEscritos() {
+        return bytesEscritos.sum();
+    }
+
+    @Override
+    public long getRegistrosLidos() {
+        return registrosLidos.sum();
+    }
+
+    /**
+     * Resume as métricas em várias linhas: contadores de E/S seguidos de
+     * uma linha por operação com chamadas.
+     *
+     * @return Resumo das métricas
+     */
+    @Override
+    public String getResumo() {
+        StringBuilder resumo = new StringBuilder();
+        resumo.append(String.format("E/S: %d byte(s) lido(s), %d byte(s) escrito(s), %d registro(s) lido(s)%n",
+                getBytesLidos(), getBytesEscritos(), getRegistrosLidos()));
+        for (MetricaOperacao operacao : getOperacoes()) {
+            if (operacao.getChamadas() > 0) {
+                resumo.append(operacao).append(System.lineSeparator());
+            }
+        }
+        return resumo.toString();
+    }
+
+    /**
+     * Resume as métricas em uma única linha, para o log periódico.
+     *
+     * @return Contadores de E/S e, por operação, chamadas, erros e p99
+     */
+    public String getLinhaLog() {
+        StringBuilder linha = new StringBuilder();
+        linha.append("métricas | lidos=").append(getBytesLidos())
+                .append("B escritos=").append(getBytesEscritos())
+                .append("B registros=").append(getRegistrosLidos());
+        for (MetricaOperacao operacao : getOperacoes()) {
+            if (operacao.getChamadas() > 0) {
+                linha.append(" | ").append(operacao.getNome())
+                        .append(" n=").append(operacao.getChamadas())
+                        .append(" erros=").append(operacao.getErros())
+                        .append(" p99=").append(MetricaOperacao.formatar(operacao.getLatencias().percentil(99)));
+            }
+        }
+        return linha.toString();
+    }
+
+    @Override
+    public void zerar() {
+        bytesLidos.reset();
+        bytesEscritos.reset();
+        registrosLidos.reset();
+        for (MetricaOperacao operacao : operacoes.values()) {
+            operacao.zerar();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.crud.metricas;
+
+/**
+ * Interface JMX dos contadores gerais de E/S e do resumo das operações.
+ */
+public interface MetricasMBean {
+
+    long getBytesLidos();
+
+    long getBytesEscritos();
+
+    long getRegistrosLidos();
+
+    String getResumo();
+
+    void zerar();
+}
@@ -0,0 +1,48 @@
+package com.crud.metricas;
+
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escreve periodicamente uma linha com o resumo das métricas.
+ */
+public class RelatorioPeriodico implements Closeable {
+
+    private static final DateTimeFormatter FORMATO_HORA = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final ScheduledExecutorService agendador;
+
+    /**
+     * Inicia o relatório.
+     *
+     * @param metricas Métricas a serem resumidas
+     * @param intervaloSegundos Intervalo entre as linhas
+     * @param saida Destino das linhas
+     */
+    public RelatorioPeriodico(Metricas metricas, long intervaloSegundos, PrintStream saida) {
+        if (intervaloSegundos < 1) {
+            throw new IllegalArgumentException("Intervalo do relatório deve ser maior que zero");
+        }
+        this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+            Thread thread = new Thread(tarefa, "relatorio-metricas");
+            thread.setDaemon(true);
+            return thread;
+        });
+        agendador.scheduleAtFixedRate(
+                () -> saida.println(LocalDateTime.now().format(FORMATO_HORA) + " " + metricas.getLinhaLog()),
+                intervaloSegundos, intervaloSegundos, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Interrompe o relatório.
+     */
+    @Override
+    public void close() {
+        agendador.shutdownNow();
+    }
+}
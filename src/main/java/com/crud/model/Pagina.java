@@ -0,0 +1,46 @@
+package com.crud.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Classe que representa uma página de resultados de uma listagem.
+ * Contém os itens da página e indica se existem mais itens depois dela.
+ * 
+ * @param <T> Tipo dos itens da página
+ */
+public class Pagina<T> {
+    private final List<T> itens;
+    private final boolean temProxima;
+    private final String proximoCursor;
+
+    /**
+     * Construtor com parâmetros.
+     * 
+     * @param itens Itens da página
+     * @param temProxima Indica se existem mais itens depois desta página
+     * @param proximoCursor Cursor para buscar a próxima página (ou null)
+     */
+    public Pagina(List<T> itens, boolean temProxima, String proximoCursor) {
+        this.itens = Collections.unmodifiableList(itens);
+        this.temProxima = temProxima;
+        this.proximoCursor = proximoCursor;
+    }
+
+    public List<T> getItens() {
+        return itens;
+    }
+
+    public boolean temProxima() {
+        return temProxima;
+    }
+
+    /**
+     * Retorna o cursor da próxima página na paginação por chave (keyset).
+     * 
+     * @return Cursor da próxima página ou null se não houver
+     */
+    public String getProximoCursor() {
+        return proximoCursor;
+    }
+}
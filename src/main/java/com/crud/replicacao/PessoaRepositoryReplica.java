@@ -0,0 +1,380 @@
+package com.crud.replicacao;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.Alteracao;
+import com.crud.repository.PessoaRepository;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Réplica somente leitura de um repositório primário.
+ *
+ * Mantém uma cópia dos dados em memória, atualizada pelos eventos que o
+ * {@link ServidorReplicacao} do primário envia por socket. Responde às
+ * buscas e listagens sem acessar o arquivo do primário; as escritas são
+ * recusadas com {@link IOException} e devem ser feitas no primário.
+ *
+ * Se a conexão cair, a réplica reconecta informando a última sequência
+ * aplicada e recebe apenas os eventos seguintes. Se estiver atrasada demais
+ * (ou se detectar uma lacuna na sequência), recebe um snapshot completo.
+ *
+ * O estado da replicação (sequências, atraso, conexão) é publicado no JMX
+ * como {@code com.crud:type=Replica,name=<host:porta>}.
+ */
+public class PessoaRepositoryReplica extends PessoaRepository implements PessoaRepositoryReplicaMBean, Closeable {
+
+    /** Espera entre tentativas de conexão com o primário. */
+    static final long ESPERA_RECONEXAO_MS = 1000;
+
+    private static final String MENSAGEM_SOMENTE_LEITURA =
+            "Réplica somente leitura: as escritas devem ser feitas no primário";
+
+    private final String host;
+    private final int porta;
+    private final Map<String, Pessoa> dados = new LinkedHashMap<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicLong snapshotsRecebidos = new AtomicLong();
+    private final Thread thread;
+    private volatile long sequenciaAplicada;
+    private volatile long sequenciaPrimario;
+    private volatile long instanteUltimoEvento;
+    private volatile boolean conectada;
+    private volatile boolean exigirSnapshot;
+    private volatile boolean fechado;
+    private volatile Socket socket;
+
+    /**
+     * Cria a réplica e começa a seguir o primário em segundo plano.
+     *
+     * @param host Endereço do primário
+     * @param porta Porta de replicação do primário
+     */
+    public PessoaRepositoryReplica(String host, int porta) {
+        this.host = host;
+        this.porta = porta;
+        publicarJmx();
+        this.thread = new Thread(this::seguir, "replica-" + host + ":" + porta);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void publicarJmx() {
+        try {
+            ObjectName nome = new ObjectName("com.crud:type=Replica,name=" + ObjectName.quote(host + ":" + porta));
+            if (!ManagementFactory.getPlatformMBeanServer().isRegistered(nome)) {
+                ManagementFactory.getPlatformMBeanServer().registerMBean(this, nome);
+            }
+        } catch (JMException | SecurityException e) {
+            // JMX indisponível: o estado continua acessível pelos getters
+        }
+    }
+
+    /**
+     * Aguarda a réplica alcançar o primário (conectada e sem atraso).
+     *
+     * @param timeoutMs Tempo máximo de espera
+     * @return true se alcançou o primário dentro do prazo
+     * @throws InterruptedException Se a espera for interrompida
+     */
+    public boolean aguardarSincronizacao(long timeoutMs) throws InterruptedException {
+        long limite = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < limite) {
+            if (conectada && snapshotsRecebidos.get() + sequenciaAplicada > 0 && getAtrasoEventos() == 0) {
+                return true;
+            }
+            Thread.sleep(10);
+        }
+        return false;
+    }
+
+    /**
+     * Aguarda a réplica aplicar o evento informado, por exemplo a sequência
+     * de uma escrita feita no primário, para ler o próprio dado gravado.
+     *
+     * @param sequencia Sequência do feed de alterações do primário
+     * @param timeoutMs Tempo máximo de espera
+     * @return true se a sequência foi aplicada dentro do prazo
+     * @throws InterruptedException Se a espera for interrompida
+     */
+    public boolean aguardarSequencia(long sequencia, long timeoutMs) throws InterruptedException {
+        long limite = System.currentTimeMillis() + timeoutMs;
+        while (sequenciaAplicada < sequencia) {
+            if (System.currentTimeMillis() >= limite) {
+                return false;
+            }
+            Thread.sleep(10);
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------------
+    // Recebimento dos eventos
+    // ------------------------------------------------------------------
+
+    private void seguir() {
+        while (!fechado) {
+            try (Socket conexao = new Socket()) {
+                socket = conexao;
+                conexao.connect(new InetSocketAddress(host, porta));
+                conexao.setTcpNoDelay(true);
+                conectada = true;
+                receber(conexao);
+            } catch (IOException e) {
+                // Primário indisponível ou conexão perdida: tenta novamente
+            } finally {
+                conectada = false;
+            }
+            if (!fechado) {
+                try {
+                    Thread.sleep(ESPERA_RECONEXAO_MS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private void receber(Socket conexao) throws IOException {
+        BufferedReader entrada = new BufferedReader(
+                new InputStreamReader(conexao.getInputStream(), StandardCharsets.UTF_8));
+        Writer saida = new OutputStreamWriter(conexao.getOutputStream(), StandardCharsets.UTF_8);
+        saida.write(ServidorReplicacao.SEGUIR + " " + (exigirSnapshot ? 0 : sequenciaAplicada) + "\n");
+        saida.flush();
+
+        String linha;
+        while ((linha = entrada.readLine()) != null) {
+            int espaco = linha.indexOf(' ');
+            String tipo = espaco >= 0 ? linha.substring(0, espaco) : linha;
+            String conteudo = espaco >= 0 ? linha.substring(espaco + 1) : "";
+            switch (tipo) {
+                case ServidorReplicacao.EVENTO:
+                    aplicar(Alteracao.fromLinha(conteudo));
+                    break;
+                case ServidorReplicacao.PULSO:
+                    sequenciaPrimario = Long.parseLong(conteudo.split(" ")[0]);
+                    break;
+                case ServidorReplicacao.SNAPSHOT:
+                    String[] partes = conteudo.split(" ");
+                    receberSnapshot(entrada, Long.parseLong(partes[0]), Integer.parseInt(partes[1]));
+                    break;
+                default:
+                    throw new IOException("Mensagem de replicação desconhecida: " + tipo);
+            }
+        }
+    }
+
+    private void receberSnapshot(BufferedReader entrada, long sequencia, int quantidade) throws IOException {
+        Map<String, Pessoa> novos = new LinkedHashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            String linha = entrada.readLine();
+            if (linha == null) {
+                throw new IOException("Snapshot incompleto");
+            }
+            Pessoa pessoa = Pessoa.fromFileFormat(linha);
+            if (pessoa != null) {
+                novos.putIfAbsent(normalizarEmail(pessoa.getEmail()), pessoa);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            dados.clear();
+            dados.putAll(novos);
+            sequenciaAplicada = sequencia;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        sequenciaPrimario = Math.max(sequenciaPrimario, sequencia);
+        exigirSnapshot = false;
+        snapshotsRecebidos.incrementAndGet();
+    }
+
+    /**
+     * Aplica um evento. Eventos já aplicados (enviados de novo após um
+     * snapshot) são ignorados; cada evento define o valor final do email,
+     * então reaplicá-lo não altera o resultado.
+     */
+    private void aplicar(Alteracao alteracao) throws IOException {
+        if (alteracao == null) {
+            throw new IOException("Evento de replicação inválido");
+        }
+        if (alteracao.getSequencia() <= sequenciaAplicada) {
+            return;
+        }
+        if (alteracao.getSequencia() != sequenciaAplicada + 1) {
+            exigirSnapshot = true; // Lacuna na sequência: recomeça do estado completo
+            throw new IOException("Lacuna na replicação após a sequência " + sequenciaAplicada);
+        }
+        String chave = normalizarEmail(alteracao.getEmail());
+        lock.writeLock().lock();
+        try {
+            if (alteracao.getTipo() == Alteracao.Tipo.REMOCAO) {
+                dados.remove(chave);
+            } else {
+                dados.put(chave, alteracao.getDepois());
+            }
+            sequenciaAplicada = alteracao.getSequencia();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        instanteUltimoEvento = alteracao.getInstante();
+        sequenciaPrimario = Math.max(sequenciaPrimario, alteracao.getSequencia());
+    }
+
+    // ------------------------------------------------------------------
+    // Leituras
+    // ------------------------------------------------------------------
+
+    /**
+     * Lê todas as pessoas da cópia em memória.
+     *
+     * @return Cópia das pessoas
+     */
+    @Override
+    public List<Pessoa> lerTodas() {
+        lock.readLock().lock();
+        try {
+            List<Pessoa> pessoas = new ArrayList<>(dados.size());
+            for (Pessoa pessoa : dados.values()) {
+                pessoas.add(copiar(pessoa));
+            }
+            return pessoas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Stream<Pessoa> stream() {
+        return lerTodas().stream();
+    }
+
+    @Override
+    public Pessoa buscarPorEmail(String email) {
+        lock.readLock().lock();
+        try {
+            Pessoa pessoa = dados.get(normalizarEmail(email));
+            return pessoa != null ? copiar(pessoa) : null;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Escritas (recusadas)
+    // ------------------------------------------------------------------
+
+    @Override
+    public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        throw new IOException(MENSAGEM_SOMENTE_LEITURA);
+    }
+
+    @Override
+    public boolean adicionar(Pessoa pessoa) throws IOException {
+        throw new IOException(MENSAGEM_SOMENTE_LEITURA);
+    }
+
+    @Override
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        throw new IOException(MENSAGEM_SOMENTE_LEITURA);
+    }
+
+    @Override
+    public boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        throw new IOException(MENSAGEM_SOMENTE_LEITURA);
+    }
+
+    @Override
+    public boolean atualizarSe(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        throw new IOException(MENSAGEM_SOMENTE_LEITURA);
+    }
+
+    @Override
+    public boolean remover(String email) throws IOException {
+        throw new IOException(MENSAGEM_SOMENTE_LEITURA);
+    }
+
+    // ------------------------------------------------------------------
+    // Estado da replicação
+    // ------------------------------------------------------------------
+
+    @Override
+    public boolean isConectada() {
+        return conectada;
+    }
+
+    @Override
+    public long getSequenciaAplicada() {
+        return sequenciaAplicada;
+    }
+
+    @Override
+    public long getSequenciaPrimario() {
+        return sequenciaPrimario;
+    }
+
+    @Override
+    public long getAtrasoEventos() {
+        return Math.max(0, sequenciaPrimario - sequenciaAplicada);
+    }
+
+    /**
+     * Estima o atraso em tempo: enquanto houver eventos pendentes, o tempo
+     * desde a gravação do último evento aplicado no primário.
+     *
+     * @return Atraso em milissegundos (0 se a réplica está em dia)
+     */
+    @Override
+    public long getAtrasoMillis() {
+        if (getAtrasoEventos() == 0 || instanteUltimoEvento == 0) {
+            return 0;
+        }
+        return Math.max(0, System.currentTimeMillis() - instanteUltimoEvento);
+    }
+
+    @Override
+    public long getSnapshotsRecebidos() {
+        return snapshotsRecebidos.get();
+    }
+
+    /**
+     * Para de seguir o primário. Os dados já recebidos continuam disponíveis.
+     */
+    @Override
+    public void close() throws IOException {
+        fechado = true;
+        thread.interrupt();
+        Socket atual = socket;
+        if (atual != null) {
+            atual.close();
+        }
+    }
+
+    private static Pessoa copiar(Pessoa pessoa) {
+        return new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Réplica de %s:%d: %s, sequência %d de %d (atraso %d evento(s), %d ms), %d snapshot(s)",
+                host, porta, conectada ? "conectada" : "desconectada", sequenciaAplicada, sequenciaPrimario,
+                getAtrasoEventos(), getAtrasoMillis(), snapshotsRecebidos.get());
+    }
+}
@@ -0,0 +1,19 @@
+package com.crud.replicacao;
+
+/**
+ * Interface JMX do estado de uma réplica.
+ */
+public interface PessoaRepositoryReplicaMBean {
+
+    boolean isConectada();
+
+    long getSequenciaAplicada();
+
+    long getSequenciaPrimario();
+
+    long getAtrasoEventos();
+
+    long getAtrasoMillis();
+
+    long getSnapshotsRecebidos();
+}
@@ -0,0 +1,290 @@
+package com.crud.replicacao;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.Alteracao;
+import com.crud.repository.FeedAlteracoes;
+import com.crud.repository.PessoaRepository;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.stream.Stream;
+
+/**
+ * Lado primário da replicação: envia o log de alterações do repositório
+ * às réplicas conectadas por socket.
+ *
+ * O protocolo é texto UTF-8, uma mensagem por linha:
+ *
+ * - réplica -> primário: {@code SEGUIR <sequencia>}, com a última
+ *   sequência já aplicada pela réplica (0 se nenhuma);
+ * - primário -> réplica: {@code SNAPSHOT <sequencia> <quantidade>} seguido
+ *   de uma linha por pessoa (nome|email|telefone), quando a réplica precisa
+ *   recomeçar do estado completo;
+ * - primário -> réplica: {@code EVENTO <alteracao>}, no formato do log de
+ *   alterações ({@link Alteracao#toLinha()});
+ * - primário -> réplica: {@code PULSO <sequencia> <instante>}, com a última
+ *   sequência do primário, para a réplica calcular o atraso.
+ *
+ * Cada réplica é atendida por uma thread que lê o log de alterações a
+ * partir da posição da réplica, de modo que uma réplica lenta não atrasa as
+ * escritas no primário. Se a réplica estiver mais de {@code limiteAtraso}
+ * eventos atrás, recebe um snapshot em vez dos eventos.
+ */
+public class ServidorReplicacao implements Closeable {
+
+    /** Porta padrão da replicação. */
+    public static final int PORTA_PADRAO = 9090;
+
+    /** Atraso máximo, em eventos, antes de a réplica receber um snapshot. */
+    public static final long LIMITE_ATRASO_PADRAO = 100_000;
+
+    static final String SEGUIR = "SEGUIR";
+    static final String SNAPSHOT = "SNAPSHOT";
+    static final String EVENTO = "EVENTO";
+    static final String PULSO = "PULSO";
+
+    /** Intervalo máximo entre mensagens enviadas a uma réplica ociosa. */
+    static final long INTERVALO_PULSO_MS = 1000;
+
+    /** Eventos enviados entre duas verificações do atraso da réplica. */
+    private static final int EVENTOS_POR_VERIFICACAO = 256;
+
+    private final PessoaRepository repositorio;
+    private final FeedAlteracoes feed;
+    private final long limiteAtraso;
+    private final ServerSocket servidor;
+    private final Set<Socket> conexoes = ConcurrentHashMap.newKeySet();
+    private final Object novosEventos = new Object();
+    private final Despertador despertador = new Despertador();
+    private volatile boolean fechado;
+
+    /**
+     * Abre a porta de replicação e começa a aceitar réplicas.
+     *
+     * @param repositorio Repositório primário, com feed de alterações
+     * @param porta Porta TCP (0 para escolher uma porta livre)
+     * @param limiteAtraso Atraso máximo, em eventos, antes de enviar um snapshot
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public ServidorReplicacao(PessoaRepository repositorio, int porta, long limiteAtraso) throws IOException {
+        this.feed = repositorio.getFeedAlteracoes();
+        if (feed == null) {
+            throw new IllegalStateException("A replicação exige um repositório com feed de alterações");
+        }
+        if (limiteAtraso < 1) {
+            throw new IllegalArgumentException("Limite de atraso deve ser maior que zero");
+        }
+        this.repositorio = repositorio;
+        this.limiteAtraso = limiteAtraso;
+        this.servidor = new ServerSocket();
+        servidor.setReuseAddress(true);
+        servidor.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), porta));
+        feed.subscribe(despertador);
+        iniciarThread(this::aceitar, "replicacao-aceite");
+    }
+
+    /**
+     * @return Porta em que as réplicas se conectam
+     */
+    public int getPorta() {
+        return servidor.getLocalPort();
+    }
+
+    /**
+     * @return Quantidade de réplicas conectadas
+     */
+    public int getReplicasConectadas() {
+        return conexoes.size();
+    }
+
+    private static void iniciarThread(Runnable tarefa, String nome) {
+        Thread thread = new Thread(tarefa, nome);
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void aceitar() {
+        while (!fechado) {
+            try {
+                Socket socket = servidor.accept();
+                conexoes.add(socket);
+                iniciarThread(() -> atender(socket), "replicacao-envio-" + socket.getPort());
+            } catch (IOException e) {
+                if (!fechado) {
+                    System.err.println("Replicação: falha ao aceitar conexão: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Atende uma réplica até a conexão cair ou o servidor ser fechado.
+     */
+    private void atender(Socket socket) {
+        try (socket;
+             BufferedReader entrada = new BufferedReader(
+                     new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+             Writer saida = new BufferedWriter(
+                     new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8))) {
+            socket.setTcpNoDelay(true);
+            String pedido = entrada.readLine();
+            if (pedido == null || !pedido.startsWith(SEGUIR + " ")) {
+                return;
+            }
+            long enviada = Long.parseLong(pedido.substring(SEGUIR.length() + 1).trim());
+            long ultima = feed.getUltimaSequencia();
+            // Sem posição, à frente do log (primário recriado) ou atrasada demais: recomeça do estado completo
+            if (enviada <= 0 || enviada > ultima || ultima - enviada > limiteAtraso) {
+                enviada = enviarSnapshot(saida);
+            }
+            while (!fechado) {
+                ultima = feed.getUltimaSequencia();
+                if (ultima - enviada > limiteAtraso) {
+                    enviada = enviarSnapshot(saida);
+                } else if (ultima > enviada) {
+                    enviada = enviarEventos(saida, enviada);
+                }
+                saida.write(PULSO + " " + feed.getUltimaSequencia() + " " + System.currentTimeMillis() + "\n");
+                saida.flush();
+                aguardarEventos(enviada);
+            }
+        } catch (IOException | UncheckedIOException | NumberFormatException e) {
+            // Réplica desconectada ou pedido inválido: a réplica reconecta informando sua posição
+        } finally {
+            conexoes.remove(socket);
+        }
+    }
+
+    /**
+     * Envia o estado completo do repositório. A sequência informada é lida
+     * antes do estado; eventos posteriores a ela que já estejam no estado
+     * são reaplicados pela réplica sem efeito, pois cada evento define o
+     * valor final do email.
+     *
+     * @return Sequência a partir da qual os eventos devem ser enviados
+     */
+    private long enviarSnapshot(Writer saida) throws IOException {
+        long sequencia = feed.getUltimaSequencia();
+        List<Pessoa> pessoas = repositorio.lerTodas();
+        saida.write(SNAPSHOT + " " + sequencia + " " + pessoas.size() + "\n");
+        for (Pessoa pessoa : pessoas) {
+            saida.write(pessoa.toFileFormat());
+            saida.write('\n');
+        }
+        return sequencia;
+    }
+
+    /**
+     * Envia do log os eventos posteriores à sequência informada. Para antes
+     * do fim do log se a réplica ficar mais de {@code limiteAtraso} eventos
+     * atrás (o envio aguarda a réplica ler o socket), para que ela receba um
+     * snapshot em vez de percorrer o restante do log.
+     *
+     * @return Sequência do último evento enviado
+     */
+    private long enviarEventos(Writer saida, long aPartirDe) throws IOException {
+        long enviada = aPartirDe;
+        try (Stream<Alteracao> eventos = feed.ler(aPartirDe)) {
+            Iterator<Alteracao> iterador = eventos.iterator();
+            int enviados = 0;
+            while (iterador.hasNext() && !fechado) {
+                Alteracao alteracao = iterador.next();
+                saida.write(EVENTO + " " + alteracao.toLinha() + "\n");
+                enviada = alteracao.getSequencia();
+                if (++enviados % EVENTOS_POR_VERIFICACAO == 0
+                        && feed.getUltimaSequencia() - enviada > limiteAtraso) {
+                    break;
+                }
+            }
+        }
+        return enviada;
+    }
+
+    private void aguardarEventos(long enviada) {
+        synchronized (novosEventos) {
+            if (feed.getUltimaSequencia() <= enviada && !fechado) {
+                try {
+                    novosEventos.wait(INTERVALO_PULSO_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    fechado = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Assinante do feed que apenas acorda as threads de envio. Pede todos
+     * os eventos de uma vez e não os guarda, para nunca segurar as escritas.
+     */
+    private final class Despertador implements Flow.Subscriber<Alteracao> {
+
+        private volatile Flow.Subscription assinatura;
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            this.assinatura = assinatura;
+            if (fechado) {
+                assinatura.cancel();
+            } else {
+                assinatura.request(Long.MAX_VALUE);
+            }
+        }
+
+        void cancelar() {
+            Flow.Subscription atual = assinatura;
+            if (atual != null) {
+                atual.cancel();
+            }
+        }
+
+        @Override
+        public void onNext(Alteracao alteracao) {
+            synchronized (novosEventos) {
+                novosEventos.notifyAll();
+            }
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+            onNext(null);
+        }
+
+        @Override
+        public void onComplete() {
+            onNext(null);
+        }
+    }
+
+    /**
+     * Fecha a porta de replicação e as conexões com as réplicas, e deixa de
+     * assinar o feed.
+     */
+    @Override
+    public void close() throws IOException {
+        fechado = true;
+        despertador.cancelar();
+        servidor.close();
+        for (Socket socket : conexoes) {
+            socket.close();
+        }
+        synchronized (novosEventos) {
+            novosEventos.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+
+/**
+ * Evento do feed de alterações: uma inclusão, alteração ou remoção de
+ * pessoa, com o número de sequência atribuído pelo {@link FeedAlteracoes}
+ * e os dados antes e depois da operação.
+ *
+ * Na inclusão não há dados anteriores, e na remoção não há dados
+ * posteriores. Os getters retornam cópias, pois o mesmo evento é entregue
+ * a vários assinantes.
+ */
+public final class Alteracao {
+
+    /**
+     * Tipo da operação que gerou o evento.
+     */
+    public enum Tipo {
+        INCLUSAO,
+        ALTERACAO,
+        REMOCAO
+    }
+
+    private static final String SEPARADOR = "|";
+
+    private final long sequencia;
+    private final long instante;
+    private final Tipo tipo;
+    private final Pessoa antes;
+    private final Pessoa depois;
+
+    /**
+     * @param sequencia Número de sequência (crescente, a partir de 1)
+     * @param instante Momento da operação em milissegundos desde a época
+     * @param tipo Tipo da operação
+     * @param antes Dados anteriores (null na inclusão)
+     * @param depois Dados posteriores (null na remoção)
+     */
+    public Alteracao(long sequencia, long instante, Tipo tipo, Pessoa antes, Pessoa depois) {
+        this.sequencia = sequencia;
+        this.instante = instante;
+        this.tipo = tipo;
+        this.antes = copiar(antes);
+        this.depois = copiar(depois);
+    }
+
+    public long getSequencia() {
+        return sequencia;
+    }
+
+    public long getInstante() {
+        return instante;
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public Pessoa getAntes() {
+        return copiar(antes);
+    }
+
+    public Pessoa getDepois() {
+        return copiar(depois);
+    }
+
+    /**
+     * Retorna o email afetado pela operação.
+     *
+     * @return Email da pessoa incluída, alterada ou removida
+     */
+    public String getEmail() {
+        return depois != null ? depois.getEmail() : antes.getEmail();
+    }
+
+    /**
+     * Converte o evento para uma linha do log de alterações.
+     * Formato: sequencia|instante|tipo|nome|email|telefone|nome|email|telefone,
+     * com os campos de antes e depois vazios quando não se aplicam.
+     *
+     * @return Linha do log
+     */
+    public String toLinha() {
+        return sequencia + SEPARADOR + instante + SEPARADOR + tipo + SEPARADOR
+                + campos(antes) + SEPARADOR + campos(depois);
+    }
+
+    /**
+     * Interpreta uma linha do log de alterações.
+     *
+     * @param linha Linha no formato de {@link #toLinha()}
+     * @return Evento ou null se a linha for inválida (ex: cortada por uma queda)
+     */
+    public static Alteracao fromLinha(String linha) {
+        String[] partes = linha.split("\\|", -1);
+        if (partes.length != 9) {
+            return null;
+        }
+        try {
+            return new Alteracao(Long.parseLong(partes[0]), Long.parseLong(partes[1]), Tipo.valueOf(partes[2]),
+                    pessoa(partes, 3), pessoa(partes, 6));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String campos(Pessoa pessoa) {
+        return pessoa != null ? pessoa.toFileFormat() : SEPARADOR + SEPARADOR;
+    }
+
+    private static Pessoa pessoa(String[] partes, int inicio) {
+        if (partes[inicio + 1].isEmpty()) {
+            return null;
+        }
+        return new Pessoa(partes[inicio], partes[inicio + 1], partes[inicio + 2]);
+    }
+
+    private static Pessoa copiar(Pessoa pessoa) {
+        return pessoa != null ? new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone()) : null;
+    }
+
+    @Override
+    public String toString() {
+        return "#" + sequencia + " " + tipo + " " + getEmail();
+    }
+}
@@ -0,0 +1,556 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.WeakHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Armazenamento em memória de pessoas em forma colunar, sem um objeto
+ * {@link Pessoa} por registro.
+ *
+ * Cada campo é guardado em vetores de tipos primitivos, uma posição por
+ * linha:
+ *
+ * - nome: primeiro nome e restante do nome como códigos de dicionário
+ *   (nomes e sobrenomes comuns são guardados uma única vez);
+ * - email: parte local em bytes UTF-8 concatenados em uma única área, e
+ *   domínio como código de dicionário;
+ * - telefone: dígitos empacotados em um {@code long} e a máscara de
+ *   formatação (ex: "(##) #####-####") como código de dicionário.
+ *
+ * Objetos {@link Pessoa} são montados apenas quando uma linha é acessada.
+ * Um índice de endereçamento aberto, em um vetor de inteiros, localiza a
+ * linha pelo email normalizado.
+ *
+ * Linhas removidas ficam marcadas até a próxima compactação, que ocorre
+ * quando passam de metade das linhas e não há iteradores em andamento
+ * (compactar muda a posição das linhas). As entradas dos dicionários não
+ * são liberadas: textos que deixaram de ser usados só saem em
+ * {@link #limpar()}.
+ *
+ * Esta classe não é thread-safe.
+ */
+public class ArmazemColunar implements Iterable<Pessoa> {
+
+    private static final int CAPACIDADE_INICIAL = 16;
+    private static final int SEM_CODIGO = -1;
+    /** Telefone guardado literalmente no dicionário de máscaras. */
+    private static final long TELEFONE_LITERAL = -1L;
+    /** Máximo de dígitos que cabem em um long sem estouro. */
+    private static final int MAXIMO_DIGITOS = 18;
+    private static final char DIGITO = '#';
+
+    private final Dicionario nomes = new Dicionario();
+    private final Dicionario dominios = new Dicionario();
+    private final Dicionario mascaras = new Dicionario();
+
+    private int[] primeiroNome = new int[CAPACIDADE_INICIAL];
+    private int[] restanteNome = new int[CAPACIDADE_INICIAL];
+    private int[] inicioLocal = new int[CAPACIDADE_INICIAL + 1];
+    private int[] dominio = new int[CAPACIDADE_INICIAL];
+    private long[] digitosTelefone = new long[CAPACIDADE_INICIAL];
+    private int[] mascaraTelefone = new int[CAPACIDADE_INICIAL];
+    private byte[] locais = new byte[CAPACIDADE_INICIAL * 8];
+    private BitSet removidas = new BitSet();
+
+    /** Linha + 1 de cada entrada do índice de emails (0 = posição livre). */
+    private int[] tabela = new int[CAPACIDADE_INICIAL * 2];
+
+    /**
+     * Iteradores que ainda não chegaram ao fim. Referências fracas: um
+     * iterador abandonado sem ser fechado deixa de adiar a compactação
+     * quando é coletado.
+     */
+    private final Set<Iterador> iteradores = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private int linhas;
+    private int quantidadeRemovidas;
+    private int compactacoes;
+
+    /**
+     * Adiciona uma pessoa, se o email ainda não estiver presente.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada, false se o email já existia
+     */
+    public boolean adicionar(Pessoa pessoa) {
+        String chave = PessoaRepository.normalizarEmail(pessoa.getEmail());
+        if (localizar(chave) >= 0) {
+            return false;
+        }
+        garantirCapacidade(linhas + 1);
+        int linha = linhas;
+        String email = pessoa.getEmail() != null ? pessoa.getEmail() : "";
+        int arroba = email.lastIndexOf('@');
+        byte[] local = (arroba >= 0 ? email.substring(0, arroba) : email).getBytes(StandardCharsets.UTF_8);
+        garantirCapacidadeLocais(inicioLocal[linha] + local.length);
+        System.arraycopy(local, 0, locais, inicioLocal[linha], local.length);
+        inicioLocal[linha + 1] = inicioLocal[linha] + local.length;
+        dominio[linha] = arroba >= 0 ? dominios.codificar(email.substring(arroba + 1)) : SEM_CODIGO;
+        gravarNome(linha, pessoa.getNome());
+        gravarTelefone(linha, pessoa.getTelefone());
+        indexar(chave, linha);
+        linhas++;
+        return true;
+    }
+
+    /**
+     * Substitui nome e telefone da pessoa com o mesmo email. O email
+     * guardado continua o da inclusão.
+     *
+     * @param pessoa Pessoa com os dados atualizados
+     * @return true se a pessoa existia
+     */
+    public boolean atualizar(Pessoa pessoa) {
+        int linha = localizar(PessoaRepository.normalizarEmail(pessoa.getEmail()));
+        if (linha < 0) {
+            return false;
+        }
+        gravarNome(linha, pessoa.getNome());
+        gravarTelefone(linha, pessoa.getTelefone());
+        return true;
+    }
+
+    /**
+     * Remove a pessoa com o email informado.
+     *
+     * @param email Email da pessoa (sem diferenciar maiúsculas)
+     * @return true se a pessoa existia
+     */
+    public boolean remover(String email) {
+        String chave = PessoaRepository.normalizarEmail(email);
+        int linha = localizar(chave);
+        if (linha < 0) {
+            return false;
+        }
+        desindexar(chave);
+        removidas.set(linha);
+        quantidadeRemovidas++;
+        if (quantidadeRemovidas > linhas / 2 && iteradores.isEmpty()) {
+            compactar();
+        }
+        return true;
+    }
+
+    /**
+     * Busca uma pessoa pelo email.
+     *
+     * @param email Email da pessoa (sem diferenciar maiúsculas)
+     * @return Pessoa montada a partir das colunas ou null se não existir
+     */
+    public Pessoa buscarPorEmail(String email) {
+        int linha = localizar(PessoaRepository.normalizarEmail(email));
+        return linha >= 0 ? montar(linha) : null;
+    }
+
+    /**
+     * Verifica se há uma pessoa com o email informado.
+     *
+     * @param email Email da pessoa (sem diferenciar maiúsculas)
+     * @return true se existir
+     */
+    public boolean contem(String email) {
+        return localizar(PessoaRepository.normalizarEmail(email)) >= 0;
+    }
+
+    /**
+     * @return Quantidade de pessoas armazenadas
+     */
+    public int tamanho() {
+        return linhas - quantidadeRemovidas;
+    }
+
+    /**
+     * Remove todas as pessoas e os dicionários.
+     */
+    public void limpar() {
+        nomes.limpar();
+        dominios.limpar();
+        mascaras.limpar();
+        Arrays.fill(tabela, 0);
+        removidas.clear();
+        linhas = 0;
+        quantidadeRemovidas = 0;
+        compactacoes++;
+    }
+
+    /**
+     * Percorre as pessoas na ordem de inclusão, montando cada uma ao ser
+     * acessada. Inclusões, alterações e remoções durante a iteração são
+     * refletidas. Enquanto o iterador não chega ao fim (ou não é fechado),
+     * as remoções não compactam o armazém; {@link #compactar()} chamado
+     * explicitamente e {@link #limpar()} invalidam o iterador.
+     *
+     * @return Iterador de pessoas
+     */
+    @Override
+    public Iterador iterator() {
+        Iterador iterador = new Iterador();
+        iteradores.add(iterador);
+        return iterador;
+    }
+
+    /**
+     * Iterador das pessoas do armazém.
+     */
+    public final class Iterador implements Iterator<Pessoa> {
+        private final int compactacaoEsperada = compactacoes;
+        private int proxima = removidas.nextClearBit(0);
+
+        private Iterador() {
+        }
+
+        @Override
+        public boolean hasNext() {
+            verificar();
+            if (proxima < linhas) {
+                return true;
+            }
+            fechar();
+            return false;
+        }
+
+        @Override
+        public Pessoa next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Pessoa pessoa = montar(proxima);
+            proxima = removidas.nextClearBit(proxima + 1);
+            return pessoa;
+        }
+
+        /**
+         * Encerra a iteração antes do fim, liberando a compactação.
+         */
+        public void fechar() {
+            iteradores.remove(this);
+        }
+
+        private void verificar() {
+            if (compactacoes != compactacaoEsperada) {
+                throw new ConcurrentModificationException("Armazém compactado durante a iteração");
+            }
+            if (proxima < linhas && removidas.get(proxima)) {
+                proxima = removidas.nextClearBit(proxima);
+            }
+        }
+    }
+
+    /**
+     * @return Stream sequencial das pessoas, montadas sob demanda
+     */
+    public Stream<Pessoa> stream() {
+        Iterador iterador = iterator();
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterador, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(iterador::fechar);
+    }
+
+    /**
+     * Retorna uma visão somente leitura das pessoas como lista, montando
+     * cada pessoa em {@code get}. Guarda apenas as posições das linhas
+     * presentes (sem compactar, para não invalidar iteradores em
+     * andamento); a visão deixa de valer na próxima escrita.
+     *
+     * @return Lista das pessoas na ordem de inclusão
+     */
+    public List<Pessoa> comoLista() {
+        int[] presentes = new int[tamanho()];
+        for (int linha = removidas.nextClearBit(0), i = 0; linha < linhas; linha = removidas.nextClearBit(linha + 1)) {
+            presentes[i++] = linha;
+        }
+        return new AbstractList<>() {
+            @Override
+            public Pessoa get(int indice) {
+                return montar(presentes[indice]);
+            }
+
+            @Override
+            public int size() {
+                return presentes.length;
+            }
+        };
+    }
+
+    /**
+     * Descarta as linhas removidas, reaproveitando o espaço das colunas e
+     * da área de emails, e reconstrói o índice.
+     */
+    public void compactar() {
+        int destino = 0;
+        int inicioDestino = 0;
+        for (int linha = 0; linha < linhas; linha++) {
+            if (removidas.get(linha)) {
+                continue;
+            }
+            int inicio = inicioLocal[linha];
+            int tamanhoLocal = inicioLocal[linha + 1] - inicio;
+            System.arraycopy(locais, inicio, locais, inicioDestino, tamanhoLocal);
+            inicioLocal[destino] = inicioDestino;
+            inicioDestino += tamanhoLocal;
+            primeiroNome[destino] = primeiroNome[linha];
+            restanteNome[destino] = restanteNome[linha];
+            dominio[destino] = dominio[linha];
+            digitosTelefone[destino] = digitosTelefone[linha];
+            mascaraTelefone[destino] = mascaraTelefone[linha];
+            destino++;
+        }
+        inicioLocal[destino] = inicioDestino;
+        linhas = destino;
+        quantidadeRemovidas = 0;
+        removidas = new BitSet();
+        compactacoes++;
+        reindexar(tabela.length);
+    }
+
+    /**
+     * Estima os bytes ocupados pelas colunas, pela área de emails e pelo
+     * índice (sem contar os dicionários).
+     *
+     * @return Bytes estimados
+     */
+    public long getBytesColunas() {
+        return 4L * (primeiroNome.length + restanteNome.length + inicioLocal.length
+                + dominio.length + mascaraTelefone.length + tabela.length)
+                + 8L * digitosTelefone.length + locais.length;
+    }
+
+    /**
+     * @return Quantidade de entradas distintas nos dicionários de nomes,
+     *         domínios e máscaras de telefone
+     */
+    public int getEntradasDicionarios() {
+        return nomes.tamanho() + dominios.tamanho() + mascaras.tamanho();
+    }
+
+    // ------------------------------------------------------------------
+    // Codificação das colunas
+    // ------------------------------------------------------------------
+
+    private void gravarNome(int linha, String nome) {
+        String texto = nome != null ? nome : "";
+        int espaco = texto.indexOf(' ');
+        if (espaco < 0) {
+            primeiroNome[linha] = nomes.codificar(texto);
+            restanteNome[linha] = SEM_CODIGO;
+        } else {
+            primeiroNome[linha] = nomes.codificar(texto.substring(0, espaco));
+            restanteNome[linha] = nomes.codificar(texto.substring(espaco + 1));
+        }
+    }
+
+    /**
+     * Separa os dígitos do telefone da sua formatação. Telefones sem
+     * dígitos, com dígitos demais para um long ou que já contenham o
+     * marcador de dígito são guardados literalmente.
+     */
+    private void gravarTelefone(int linha, String telefone) {
+        String texto = telefone != null ? telefone : "";
+        long digitos = 0;
+        int quantidade = 0;
+        StringBuilder mascara = new StringBuilder(texto.length());
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos = digitos * 10 + (c - '0');
+                quantidade++;
+                mascara.append(DIGITO);
+            } else {
+                mascara.append(c);
+            }
+        }
+        if (quantidade == 0 || quantidade > MAXIMO_DIGITOS || texto.indexOf(DIGITO) >= 0) {
+            digitosTelefone[linha] = TELEFONE_LITERAL;
+            mascaraTelefone[linha] = mascaras.codificar(texto);
+        } else {
+            digitosTelefone[linha] = digitos;
+            mascaraTelefone[linha] = mascaras.codificar(mascara.toString());
+        }
+    }
+
+    private Pessoa montar(int linha) {
+        return new Pessoa(nome(linha), email(linha), telefone(linha));
+    }
+
+    private String nome(int linha) {
+        String primeiro = nomes.texto(primeiroNome[linha]);
+        int restante = restanteNome[linha];
+        return restante == SEM_CODIGO ? primeiro : primeiro + " " + nomes.texto(restante);
+    }
+
+    private String email(int linha) {
+        int inicio = inicioLocal[linha];
+        String local = new String(locais, inicio, inicioLocal[linha + 1] - inicio, StandardCharsets.UTF_8);
+        int codigoDominio = dominio[linha];
+        return codigoDominio == SEM_CODIGO ? local : local + "@" + dominios.texto(codigoDominio);
+    }
+
+    private String telefone(int linha) {
+        String mascara = mascaras.texto(mascaraTelefone[linha]);
+        long digitos = digitosTelefone[linha];
+        if (digitos == TELEFONE_LITERAL) {
+            return mascara;
+        }
+        char[] texto = mascara.toCharArray();
+        for (int i = texto.length - 1; i >= 0; i--) {
+            if (texto[i] == DIGITO) {
+                texto[i] = (char) ('0' + digitos % 10);
+                digitos /= 10;
+            }
+        }
+        return new String(texto);
+    }
+
+    // ------------------------------------------------------------------
+    // Índice de emails (endereçamento aberto com sondagem linear)
+    // ------------------------------------------------------------------
+
+    private static int espalhar(String chave) {
+        int h = chave.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private int localizar(String chave) {
+        int mascara = tabela.length - 1;
+        for (int posicao = espalhar(chave) & mascara; ; posicao = (posicao + 1) & mascara) {
+            int entrada = tabela[posicao];
+            if (entrada == 0) {
+                return -1;
+            }
+            if (PessoaRepository.normalizarEmail(email(entrada - 1)).equals(chave)) {
+                return entrada - 1;
+            }
+        }
+    }
+
+    /**
+     * Inclui a linha no índice. Deve ser chamado antes de contar a nova
+     * linha em {@code linhas}, para que um redimensionamento não a inclua
+     * duas vezes.
+     */
+    private void indexar(String chave, int linha) {
+        if ((long) (tamanho() + 1) * 2 > tabela.length) {
+            reindexar(tabela.length * 2);
+        }
+        int mascara = tabela.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (tabela[posicao] != 0) {
+            posicao = (posicao + 1) & mascara;
+        }
+        tabela[posicao] = linha + 1;
+    }
+
+    /**
+     * Retira a chave do índice e desloca as entradas seguintes da mesma
+     * sequência de sondagem, sem deixar marcadores de remoção.
+     */
+    private void desindexar(String chave) {
+        int mascara = tabela.length - 1;
+        int posicao = espalhar(chave) & mascara;
+        while (!PessoaRepository.normalizarEmail(email(tabela[posicao] - 1)).equals(chave)) {
+            posicao = (posicao + 1) & mascara;
+        }
+        tabela[posicao] = 0;
+        for (int seguinte = (posicao + 1) & mascara; tabela[seguinte] != 0; seguinte = (seguinte + 1) & mascara) {
+            int ideal = espalhar(PessoaRepository.normalizarEmail(email(tabela[seguinte] - 1))) & mascara;
+            // Move a entrada para a posição livre se esta estiver entre a ideal e a atual (circularmente)
+            if (((seguinte - ideal) & mascara) >= ((seguinte - posicao) & mascara)) {
+                tabela[posicao] = tabela[seguinte];
+                tabela[seguinte] = 0;
+                posicao = seguinte;
+            }
+        }
+    }
+
+    private void reindexar(int capacidade) {
+        int novaCapacidade = CAPACIDADE_INICIAL * 2;
+        while (novaCapacidade < capacidade || novaCapacidade < (long) tamanho() * 2) {
+            novaCapacidade <<= 1;
+        }
+        tabela = new int[novaCapacidade];
+        int mascara = novaCapacidade - 1;
+        for (int linha = 0; linha < linhas; linha++) {
+            if (removidas.get(linha)) {
+                continue;
+            }
+            int posicao = espalhar(PessoaRepository.normalizarEmail(email(linha))) & mascara;
+            while (tabela[posicao] != 0) {
+                posicao = (posicao + 1) & mascara;
+            }
+            tabela[posicao] = linha + 1;
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Crescimento dos vetores
+    // ------------------------------------------------------------------
+
+    private void garantirCapacidade(int minimo) {
+        if (minimo <= primeiroNome.length) {
+            return;
+        }
+        int capacidade = Math.max(minimo, primeiroNome.length + (primeiroNome.length >> 1));
+        primeiroNome = Arrays.copyOf(primeiroNome, capacidade);
+        restanteNome = Arrays.copyOf(restanteNome, capacidade);
+        inicioLocal = Arrays.copyOf(inicioLocal, capacidade + 1);
+        dominio = Arrays.copyOf(dominio, capacidade);
+        digitosTelefone = Arrays.copyOf(digitosTelefone, capacidade);
+        mascaraTelefone = Arrays.copyOf(mascaraTelefone, capacidade);
+    }
+
+    private void garantirCapacidadeLocais(int minimo) {
+        if (minimo > locais.length) {
+            locais = Arrays.copyOf(locais, Math.max(minimo, locais.length + (locais.length >> 1)));
+        }
+    }
+
+    /**
+     * Dicionário de textos: cada texto distinto é guardado uma vez e
+     * referenciado pelo seu código.
+     */
+    private static final class Dicionario {
+
+        private final Map<String, Integer> codigos = new HashMap<>();
+        private final List<String> textos = new ArrayList<>();
+
+        int codificar(String texto) {
+            Integer codigo = codigos.get(texto);
+            if (codigo == null) {
+                codigo = textos.size();
+                codigos.put(texto, codigo);
+                textos.add(texto);
+            }
+            return codigo;
+        }
+
+        String texto(int codigo) {
+            return textos.get(codigo);
+        }
+
+        int tamanho() {
+            return textos.size();
+        }
+
+        void limpar() {
+            codigos.clear();
+            textos.clear();
+        }
+    }
+}
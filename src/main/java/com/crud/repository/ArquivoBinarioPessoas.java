@@ -0,0 +1,208 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Leitura e escrita de pessoas em formato binário compacto.
+ *
+ * Layout do arquivo:
+ * - Cabeçalho (24 bytes): assinatura (int), versão (short), reservado (short),
+ *   quantidade de registros (int), reservado (int), posição do rodapé (long)
+ * - Registros: nome, email e telefone, cada um como tamanho (unsigned short)
+ *   seguido dos bytes em UTF-8
+ * - Rodapé: tabela com a posição (long) de cada registro no arquivo
+ *
+ * A leitura usa {@link FileChannel#map}, e os registros só são decodificados
+ * quando acessados, sem precisar percorrer o arquivo inteiro na abertura.
+ */
+public class ArquivoBinarioPessoas implements Closeable {
+
+    /** Assinatura do formato ("PESS"). */
+    public static final int ASSINATURA = 0x50455353;
+
+    /** Versão atual do formato. */
+    public static final short VERSAO = 1;
+
+    private static final int TAMANHO_CABECALHO = 24;
+    private static final int TAMANHO_MAXIMO_CAMPO = 0xFFFF;
+
+    private final FileChannel canal;
+    private final MappedByteBuffer mapa;
+    private final int quantidade;
+    private final int posicaoRodape;
+
+    /**
+     * Abre um arquivo binário para leitura.
+     *
+     * @param caminho Caminho do arquivo
+     * @throws IOException Se o arquivo não puder ser lido ou estiver em formato inválido
+     */
+    public ArquivoBinarioPessoas(Path caminho) throws IOException {
+        this.canal = FileChannel.open(caminho, StandardOpenOption.READ);
+        try {
+            long tamanho = canal.size();
+            if (tamanho > Integer.MAX_VALUE) {
+                throw new IOException("Arquivo binário maior que 2 GB não é suportado: " + caminho);
+            }
+            if (tamanho < TAMANHO_CABECALHO) {
+                throw new IOException("Arquivo binário sem cabeçalho: " + caminho);
+            }
+            this.mapa = canal.map(FileChannel.MapMode.READ_ONLY, 0, tamanho);
+
+            if (mapa.getInt(0) != ASSINATURA) {
+                throw new IOException("Assinatura inválida no arquivo binário: " + caminho);
+            }
+            short versao = mapa.getShort(4);
+            if (versao != VERSAO) {
+                throw new IOException("Versão não suportada do arquivo binário: " + versao);
+            }
+            this.quantidade = mapa.getInt(8);
+            long rodape = mapa.getLong(16);
+            if (quantidade < 0 || rodape < TAMANHO_CABECALHO || rodape + (long) quantidade * 8 > tamanho) {
+                throw new IOException("Cabeçalho corrompido no arquivo binário: " + caminho);
+            }
+            this.posicaoRodape = (int) rodape;
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de registros do arquivo.
+     *
+     * @return Quantidade de registros
+     */
+    public int tamanho() {
+        return quantidade;
+    }
+
+    /**
+     * Decodifica o registro na posição informada.
+     *
+     * @param indice Índice do registro (0 a tamanho() - 1)
+     * @return Pessoa do registro
+     */
+    public Pessoa ler(int indice) {
+        int posicao = posicaoRegistro(indice);
+        String nome = lerCampo(posicao);
+        posicao += 2 + tamanhoCampo(posicao);
+        String email = lerCampo(posicao);
+        posicao += 2 + tamanhoCampo(posicao);
+        String telefone = lerCampo(posicao);
+        return new Pessoa(nome, email, telefone);
+    }
+
+    /**
+     * Decodifica apenas o email do registro na posição informada.
+     *
+     * @param indice Índice do registro (0 a tamanho() - 1)
+     * @return Email do registro
+     */
+    public String lerEmail(int indice) {
+        int posicao = posicaoRegistro(indice);
+        posicao += 2 + tamanhoCampo(posicao);
+        return lerCampo(posicao);
+    }
+
+    /**
+     * Procura o registro pelo email, decodificando somente o campo de email.
+     *
+     * @param email Email procurado (sem diferenciar maiúsculas e minúsculas)
+     * @return Índice do registro ou -1 se não existir
+     */
+    public int indiceDe(String email) {
+        for (int i = 0; i < quantidade; i++) {
+            if (lerEmail(i).equalsIgnoreCase(email)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int posicaoRegistro(int indice) {
+        if (indice < 0 || indice >= quantidade) {
+            throw new IndexOutOfBoundsException("Registro inexistente: " + indice);
+        }
+        return (int) mapa.getLong(posicaoRodape + indice * 8);
+    }
+
+    private int tamanhoCampo(int posicao) {
+        return mapa.getShort(posicao) & 0xFFFF;
+    }
+
+    private String lerCampo(int posicao) {
+        int tamanho = tamanhoCampo(posicao);
+        byte[] bytes = new byte[tamanho];
+        ByteBuffer leitura = mapa.duplicate();
+        leitura.position(posicao + 2);
+        leitura.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Fecha o canal do arquivo. O mapeamento é liberado pelo coletor de lixo.
+     *
+     * @throws IOException Se ocorrer erro ao fechar o canal
+     */
+    @Override
+    public void close() throws IOException {
+        canal.close();
+    }
+
+    /**
+     * Grava as pessoas em formato binário, substituindo o arquivo existente.
+     *
+     * @param caminho Caminho do arquivo de destino
+     * @param pessoas Pessoas a serem gravadas
+     * @throws IOException Se ocorrer erro na escrita ou algum campo exceder 65535 bytes
+     */
+    public static void gravar(Path caminho, Iterable<Pessoa> pessoas) throws IOException {
+        ByteArrayOutputStream posicoes = new ByteArrayOutputStream();
+        DataOutputStream tabela = new DataOutputStream(posicoes);
+        int quantidade = 0;
+        long posicao = TAMANHO_CABECALHO;
+
+        try (RandomAccessFile arquivo = new RandomAccessFile(caminho.toFile(), "rw")) {
+            arquivo.setLength(0);
+            DataOutputStream saida = new DataOutputStream(new BufferedOutputStream(
+                    new FileOutputStream(arquivo.getFD())));
+            saida.write(new byte[TAMANHO_CABECALHO]); // Preenchido ao final
+
+            for (Pessoa pessoa : pessoas) {
+                tabela.writeLong(posicao);
+                posicao += escreverCampo(saida, pessoa.getNome());
+                posicao += escreverCampo(saida, pessoa.getEmail());
+                posicao += escreverCampo(saida, pessoa.getTelefone());
+                quantidade++;
+            }
+            posicoes.writeTo(saida);
+            saida.flush();
+
+            arquivo.seek(0);
+            arquivo.writeInt(ASSINATURA);
+            arquivo.writeShort(VERSAO);
+            arquivo.writeShort(0);
+            arquivo.writeInt(quantidade);
+            arquivo.writeInt(0);
+            arquivo.writeLong(posicao);
+        }
+    }
+
+    private static int escreverCampo(DataOutputStream saida, String valor) throws IOException {
+        byte[] bytes = (valor != null ? valor : "").getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > TAMANHO_MAXIMO_CAMPO) {
+            throw new IOException("Campo excede o tamanho máximo do formato binário");
+        }
+        saida.writeShort(bytes.length);
+        saida.write(bytes);
+        return 2 + bytes.length;
+    }
+}
@@ -0,0 +1,823 @@
+package com.crud.repository;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Árvore B+ gravada em disco, com chaves texto e valores {@code long}.
+ *
+ * O arquivo é dividido em páginas de {@value #TAMANHO_PAGINA} bytes: a
+ * página 0 guarda o cabeçalho (raiz, altura, quantidade de chaves) e cada
+ * página seguinte guarda um nó. As folhas guardam as chaves com os valores
+ * e são encadeadas em ordem, o que permite percorrer intervalos e prefixos
+ * sem voltar aos nós internos. Os nós internos guardam apenas o menor
+ * prefixo que separa dois filhos, o que aumenta a quantidade de filhos por
+ * página: com emails, cada nó interno aponta para mais de cem filhos, e
+ * uma busca em 50 milhões de chaves lê 4 páginas, das quais as de cima
+ * quase sempre já estão em memória.
+ *
+ * As páginas são lidas por um buffer de tamanho fixo (LRU), que guarda as
+ * alterações até serem descartadas do buffer ou até {@link #sincronizar()}.
+ * Ao alterar uma árvore sincronizada, o cabeçalho é marcado como "em uso"
+ * antes de qualquer outra gravação; se o processo cair antes da próxima
+ * sincronização, {@link #isIntegra()} retorna false ao reabrir e a árvore
+ * deve ser reconstruída a partir dos dados.
+ *
+ * A remoção não funde folhas: as páginas esvaziadas continuam no
+ * encadeamento até a árvore ser reconstruída. Não é thread-safe.
+ */
+public class ArvoreBMais implements Closeable {
+
+    /** Tamanho de cada página do arquivo, em bytes. */
+    public static final int TAMANHO_PAGINA = 4096;
+
+    /** Páginas mantidas em memória por padrão (1 MB). */
+    public static final int PAGINAS_EM_MEMORIA_PADRAO = 256;
+
+    /** Tamanho máximo de uma chave em bytes (UTF-8). */
+    public static final int TAMANHO_MAXIMO_CHAVE = 512;
+
+    /** Quantidade de valores livres no cabeçalho, para uso de quem cria a árvore. */
+    public static final int METADADOS = 4;
+
+    // O buffer precisa comportar o caminho da raiz até a folha e os nós criados na divisão
+    private static final int MINIMO_PAGINAS_EM_MEMORIA = 16;
+
+    private static final int MAGICO = 0x42505431; // "BPT1"
+    private static final int VERSAO = 1;
+    private static final byte FOLHA = 1;
+    private static final byte INTERNO = 2;
+
+    // Tipo (1 byte), quantidade de chaves (2) e próxima folha ou primeiro filho (4)
+    private static final int CABECALHO_NO = 7;
+    private static final int MAXIMO_CHAVES = (TAMANHO_PAGINA - CABECALHO_NO) / 7 + 2;
+
+    /** Ocupação das páginas montadas pela carga ordenada, deixando espaço para inclusões. */
+    private static final double OCUPACAO_CARGA = 0.9;
+
+    /**
+     * Par chave/valor retornado pelas listagens e recebido pela carga ordenada.
+     */
+    public static final class Entrada {
+        private final String chave;
+        private final long valor;
+
+        public Entrada(String chave, long valor) {
+            this.chave = chave;
+            this.valor = valor;
+        }
+
+        public String getChave() {
+            return chave;
+        }
+
+        public long getValor() {
+            return valor;
+        }
+
+        @Override
+        public String toString() {
+            return chave + "=" + valor;
+        }
+    }
+
+    /**
+     * Nó carregado em memória. Nas folhas, {@code valores[i]} é o valor de
+     * {@code chaves[i]}; nos nós internos, {@code filhos[i]} contém as chaves
+     * menores que {@code chaves[i]} e {@code filhos[i + 1]} as maiores ou iguais.
+     */
+    private static final class No {
+        final int pagina;
+        final boolean folha;
+        final byte[][] chaves = new byte[MAXIMO_CHAVES][];
+        final long[] valores;
+        final int[] filhos;
+        int quantidade;
+        int proxima;
+        int bytes = CABECALHO_NO;
+        boolean sujo;
+
+        No(int pagina, boolean folha) {
+            this.pagina = pagina;
+            this.folha = folha;
+            this.valores = folha ? new long[MAXIMO_CHAVES] : null;
+            this.filhos = folha ? null : new int[MAXIMO_CHAVES + 1];
+        }
+
+        int tamanhoEntrada(byte[] chave) {
+            return 2 + chave.length + (folha ? 8 : 4);
+        }
+
+        /**
+         * Posição da chave, ou (-(posição de inserção) - 1) se não existir.
+         */
+        int procurar(byte[] chave) {
+            int baixo = 0;
+            int alto = quantidade - 1;
+            while (baixo <= alto) {
+                int meio = (baixo + alto) >>> 1;
+                int comparacao = Arrays.compareUnsigned(chaves[meio], chave);
+                if (comparacao < 0) {
+                    baixo = meio + 1;
+                } else if (comparacao > 0) {
+                    alto = meio - 1;
+                } else {
+                    return meio;
+                }
+            }
+            return -(baixo + 1);
+        }
+
+        /**
+         * Índice do filho que pode conter a chave.
+         */
+        int filho(byte[] chave) {
+            int posicao = procurar(chave);
+            return posicao >= 0 ? posicao + 1 : -posicao - 1;
+        }
+    }
+
+    private final File arquivo;
+    private final FileChannel canal;
+    private final int paginasEmMemoria;
+    private final Map<Integer, No> buffer;
+    private final ByteBuffer bufferPagina = ByteBuffer.allocate(TAMANHO_PAGINA);
+    private final long[] metadados = new long[METADADOS];
+    private final boolean integra;
+    private int raiz;
+    private int paginas;
+    private int altura;
+    private long quantidade;
+    private boolean emUso;
+    private long leiturasPagina;
+    private long escritasPagina;
+    private long acertos;
+
+    /**
+     * Abre a árvore com o buffer padrão.
+     *
+     * @param arquivo Arquivo da árvore (criado vazio se não existir)
+     * @throws IOException Se o arquivo não puder ser aberto ou não for uma árvore válida
+     */
+    public ArvoreBMais(File arquivo) throws IOException {
+        this(arquivo, PAGINAS_EM_MEMORIA_PADRAO);
+    }
+
+    /**
+     * Abre a árvore.
+     *
+     * @param arquivo Arquivo da árvore (criado vazio se não existir)
+     * @param paginasEmMemoria Páginas mantidas no buffer
+     * @throws IOException Se o arquivo não puder ser aberto ou não for uma árvore válida
+     */
+    public ArvoreBMais(File arquivo, int paginasEmMemoria) throws IOException {
+        this.arquivo = arquivo;
+        this.paginasEmMemoria = Math.max(paginasEmMemoria, MINIMO_PAGINAS_EM_MEMORIA);
+        this.buffer = new LinkedHashMap<>(this.paginasEmMemoria * 2, 0.75f, true);
+        File diretorio = arquivo.getAbsoluteFile().getParentFile();
+        if (diretorio != null && !diretorio.exists()) {
+            diretorio.mkdirs();
+        }
+        this.canal = FileChannel.open(arquivo.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        try {
+            if (canal.size() == 0) {
+                criar();
+                this.integra = true;
+            } else {
+                this.integra = lerCabecalho();
+            }
+        } catch (IOException | RuntimeException e) {
+            canal.close();
+            throw e;
+        }
+    }
+
+    private void criar() throws IOException {
+        paginas = 1;
+        No folha = novoNo(true);
+        raiz = folha.pagina;
+        altura = 1;
+        gravarNo(folha);
+        gravarCabecalho();
+    }
+
+    /**
+     * @return true se a árvore foi sincronizada após a última alteração
+     */
+    private boolean lerCabecalho() throws IOException {
+        ByteBuffer cabecalho = lerPagina(0);
+        if (cabecalho.getInt() != MAGICO || cabecalho.getInt() != VERSAO) {
+            throw new IOException("Arquivo não é um índice válido: " + arquivo);
+        }
+        raiz = cabecalho.getInt();
+        paginas = cabecalho.getInt();
+        altura = cabecalho.getInt();
+        quantidade = cabecalho.getLong();
+        boolean sincronizada = cabecalho.get() == 0;
+        for (int i = 0; i < METADADOS; i++) {
+            metadados[i] = cabecalho.getLong();
+        }
+        if (canal.size() < (long) paginas * TAMANHO_PAGINA) {
+            return false; // Páginas alocadas que não chegaram ao disco
+        }
+        return sincronizada;
+    }
+
+    private void gravarCabecalho() throws IOException {
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_PAGINA);
+        cabecalho.putInt(MAGICO).putInt(VERSAO).putInt(raiz).putInt(paginas).putInt(altura)
+                .putLong(quantidade).put((byte) (emUso ? 1 : 0));
+        for (long metadado : metadados) {
+            cabecalho.putLong(metadado);
+        }
+        cabecalho.flip();
+        escrever(cabecalho, 0);
+    }
+
+    /**
+     * Indica se a árvore estava íntegra ao abrir: sincronizada depois da
+     * última alteração. Se false, o conteúdo não é confiável.
+     *
+     * @return true se a árvore pode ser usada como está
+     */
+    public boolean isIntegra() {
+        return integra;
+    }
+
+    // ------------------------------------------------------------------
+    // Operações
+    // ------------------------------------------------------------------
+
+    /**
+     * Busca o valor de uma chave.
+     *
+     * @param chave Chave buscada
+     * @return Valor ou -1 se a chave não existir
+     * @throws IOException Se ocorrer erro na leitura das páginas
+     */
+    public long buscar(String chave) throws IOException {
+        byte[] bytes = codificar(chave);
+        No no = folha(bytes);
+        int posicao = no.procurar(bytes);
+        return posicao >= 0 ? no.valores[posicao] : -1;
+    }
+
+    /**
+     * Inclui a chave ou substitui o seu valor.
+     *
+     * @param chave Chave
+     * @param valor Valor (não negativo)
+     * @return Valor anterior ou -1 se a chave não existia
+     * @throws IOException Se ocorrer erro na leitura ou gravação das páginas
+     */
+    public long inserir(String chave, long valor) throws IOException {
+        if (valor < 0) {
+            throw new IllegalArgumentException("Valor deve ser maior ou igual a zero");
+        }
+        byte[] bytes = codificar(chave);
+        marcarEmUso();
+        long[] anterior = {-1};
+        No raizAtual = ler(raiz);
+        Divisao divisao = inserir(raizAtual, bytes, valor, anterior);
+        if (divisao != null) {
+            No novaRaiz = novoNo(false);
+            novaRaiz.filhos[0] = raizAtual.pagina;
+            colocarInterno(novaRaiz, 0, divisao.separador, divisao.pagina);
+            sujar(novaRaiz);
+            raiz = novaRaiz.pagina;
+            altura++;
+        }
+        if (anterior[0] < 0) {
+            quantidade++;
+        }
+        return anterior[0];
+    }
+
+    /**
+     * Resultado da divisão de um nó: a chave que passa ao pai e a página
+     * do novo nó, à direita dela.
+     */
+    private static final class Divisao {
+        final byte[] separador;
+        final int pagina;
+
+        Divisao(byte[] separador, int pagina) {
+            this.separador = separador;
+            this.pagina = pagina;
+        }
+    }
+
+    private Divisao inserir(No no, byte[] chave, long valor, long[] anterior) throws IOException {
+        if (no.folha) {
+            int posicao = no.procurar(chave);
+            if (posicao >= 0) {
+                anterior[0] = no.valores[posicao];
+                no.valores[posicao] = valor;
+                sujar(no);
+                return null;
+            }
+            colocarFolha(no, -posicao - 1, chave, valor);
+            sujar(no);
+            return no.bytes > TAMANHO_PAGINA ? dividirFolha(no) : null;
+        }
+
+        int indice = no.filho(chave);
+        Divisao divisao = inserir(ler(no.filhos[indice]), chave, valor, anterior);
+        if (divisao == null) {
+            return null;
+        }
+        colocarInterno(no, indice, divisao.separador, divisao.pagina);
+        sujar(no);
+        return no.bytes > TAMANHO_PAGINA ? dividirInterno(no) : null;
+    }
+
+    private void colocarFolha(No no, int posicao, byte[] chave, long valor) {
+        int depois = no.quantidade - posicao;
+        System.arraycopy(no.chaves, posicao, no.chaves, posicao + 1, depois);
+        System.arraycopy(no.valores, posicao, no.valores, posicao + 1, depois);
+        no.chaves[posicao] = chave;
+        no.valores[posicao] = valor;
+        no.quantidade++;
+        no.bytes += no.tamanhoEntrada(chave);
+    }
+
+    /**
+     * Insere a chave na posição informada, com o filho à sua direita.
+     */
+    private void colocarInterno(No no, int posicao, byte[] chave, int filhoDireito) {
+        int depois = no.quantidade - posicao;
+        System.arraycopy(no.chaves, posicao, no.chaves, posicao + 1, depois);
+        System.arraycopy(no.filhos, posicao + 1, no.filhos, posicao + 2, depois);
+        no.chaves[posicao] = chave;
+        no.filhos[posicao + 1] = filhoDireito;
+        no.quantidade++;
+        no.bytes += no.tamanhoEntrada(chave);
+    }
+
+    /**
+     * Posição a partir da qual as entradas vão para o novo nó: a primeira
+     * que passa da metade dos bytes, mantendo ao menos uma entrada em cada lado.
+     */
+    private static int pontoDivisao(No no) {
+        int acumulado = CABECALHO_NO;
+        int metade = no.bytes / 2;
+        for (int i = 0; i < no.quantidade - 1; i++) {
+            acumulado += no.tamanhoEntrada(no.chaves[i]);
+            if (acumulado >= metade) {
+                return i + 1;
+            }
+        }
+        return no.quantidade - 1;
+    }
+
+    private Divisao dividirFolha(No no) throws IOException {
+        int meio = pontoDivisao(no);
+        No nova = novoNo(true);
+        for (int i = meio; i < no.quantidade; i++) {
+            colocarFolha(nova, nova.quantidade, no.chaves[i], no.valores[i]);
+            no.bytes -= no.tamanhoEntrada(no.chaves[i]);
+            no.chaves[i] = null;
+        }
+        no.quantidade = meio;
+        nova.proxima = no.proxima;
+        no.proxima = nova.pagina;
+        sujar(nova);
+        sujar(no);
+        return new Divisao(separador(no.chaves[meio - 1], nova.chaves[0]), nova.pagina);
+    }
+
+    private Divisao dividirInterno(No no) throws IOException {
+        int meio = pontoDivisao(no);
+        byte[] sobe = no.chaves[meio];
+        No nova = novoNo(false);
+        nova.filhos[0] = no.filhos[meio + 1];
+        for (int i = meio + 1; i < no.quantidade; i++) {
+            colocarInterno(nova, nova.quantidade, no.chaves[i], no.filhos[i + 1]);
+        }
+        for (int i = meio; i < no.quantidade; i++) {
+            no.bytes -= no.tamanhoEntrada(no.chaves[i]);
+            no.chaves[i] = null;
+        }
+        no.quantidade = meio;
+        sujar(nova);
+        sujar(no);
+        return new Divisao(sobe, nova.pagina);
+    }
+
+    /**
+     * Menor prefixo da chave da direita que ainda é maior que a chave da
+     * esquerda: separa as duas folhas ocupando o mínimo do nó pai.
+     */
+    private static byte[] separador(byte[] esquerda, byte[] direita) {
+        int comum = Arrays.mismatch(esquerda, direita);
+        return Arrays.copyOf(direita, Math.min(comum + 1, direita.length));
+    }
+
+    /**
+     * Remove uma chave.
+     *
+     * @param chave Chave a ser removida
+     * @return true se a chave existia
+     * @throws IOException Se ocorrer erro na leitura ou gravação das páginas
+     */
+    public boolean remover(String chave) throws IOException {
+        byte[] bytes = codificar(chave);
+        No no = folha(bytes);
+        int posicao = no.procurar(bytes);
+        if (posicao < 0) {
+            return false;
+        }
+        marcarEmUso();
+        no.bytes -= no.tamanhoEntrada(no.chaves[posicao]);
+        int depois = no.quantidade - posicao - 1;
+        System.arraycopy(no.chaves, posicao + 1, no.chaves, posicao, depois);
+        System.arraycopy(no.valores, posicao + 1, no.valores, posicao, depois);
+        no.quantidade--;
+        no.chaves[no.quantidade] = null;
+        sujar(no);
+        quantidade--;
+        return true;
+    }
+
+    /**
+     * Lista, em ordem, as chaves maiores que {@code apos} que começam com
+     * {@code prefixo}. Lê apenas as folhas do intervalo.
+     *
+     * @param apos Chave a partir da qual listar, exclusiva (null para o início)
+     * @param prefixo Prefixo das chaves (null para todas)
+     * @param limite Quantidade máxima de entradas
+     * @return Entradas em ordem de chave
+     * @throws IOException Se ocorrer erro na leitura das páginas
+     */
+    public List<Entrada> listar(String apos, String prefixo, int limite) throws IOException {
+        byte[] inicio = apos != null ? codificar(apos) : new byte[0];
+        byte[] bytesPrefixo = prefixo != null ? codificar(prefixo) : new byte[0];
+        boolean incluirInicio = false;
+        if (Arrays.compareUnsigned(bytesPrefixo, inicio) > 0) {
+            inicio = bytesPrefixo;
+            incluirInicio = true;
+        }
+
+        List<Entrada> entradas = new ArrayList<>(Math.min(limite, 1024));
+        No no = folha(inicio);
+        int posicao = no.procurar(inicio);
+        posicao = posicao >= 0 ? (incluirInicio ? posicao : posicao + 1) : -posicao - 1;
+        while (entradas.size() < limite) {
+            if (posicao >= no.quantidade) {
+                if (no.proxima == 0) {
+                    break;
+                }
+                no = ler(no.proxima);
+                posicao = 0;
+                continue;
+            }
+            byte[] chave = no.chaves[posicao];
+            if (!comecaCom(chave, bytesPrefixo)) {
+                break;
+            }
+            entradas.add(new Entrada(new String(chave, StandardCharsets.UTF_8), no.valores[posicao]));
+            posicao++;
+        }
+        return entradas;
+    }
+
+    private static boolean comecaCom(byte[] chave, byte[] prefixo) {
+        return chave.length >= prefixo.length
+                && Arrays.equals(chave, 0, prefixo.length, prefixo, 0, prefixo.length);
+    }
+
+    /**
+     * Monta a árvore de baixo para cima a partir de entradas já ordenadas
+     * por chave e sem repetições, gravando cada página uma única vez. Muito
+     * mais rápido que inserir as chaves uma a uma.
+     *
+     * @param entradas Entradas em ordem crescente de chave
+     * @throws IOException Se ocorrer erro na gravação das páginas
+     * @throws IllegalStateException Se a árvore não estiver vazia
+     */
+    public void carregarOrdenado(Iterator<Entrada> entradas) throws IOException {
+        if (quantidade > 0 || paginas > 2) {
+            throw new IllegalStateException("A carga ordenada exige uma árvore vazia");
+        }
+        marcarEmUso();
+        buffer.clear();
+        paginas = 1; // A folha vazia inicial é reaproveitada
+        int limiteBytes = (int) (TAMANHO_PAGINA * OCUPACAO_CARGA);
+
+        // Páginas do nível em montagem e o separador à esquerda de cada uma (null na primeira)
+        List<Integer> nivel = new ArrayList<>();
+        List<byte[]> separadores = new ArrayList<>();
+        No folha = new No(paginas++, true);
+        byte[] separador = null;
+        byte[] ultima = null;
+        while (entradas.hasNext()) {
+            Entrada entrada = entradas.next();
+            byte[] chave = codificar(entrada.getChave());
+            if (ultima != null && Arrays.compareUnsigned(ultima, chave) >= 0) {
+                throw new IllegalArgumentException("Entradas fora de ordem ou repetidas: " + entrada.getChave());
+            }
+            if (folha.quantidade > 0 && folha.bytes + folha.tamanhoEntrada(chave) > limiteBytes) {
+                No proxima = new No(paginas++, true);
+                folha.proxima = proxima.pagina;
+                gravarNo(folha);
+                nivel.add(folha.pagina);
+                separadores.add(separador);
+                separador = separador(ultima, chave);
+                folha = proxima;
+            }
+            colocarFolha(folha, folha.quantidade, chave, entrada.getValor());
+            ultima = chave;
+            quantidade++;
+        }
+        gravarNo(folha);
+        nivel.add(folha.pagina);
+        separadores.add(separador);
+        altura = 1;
+
+        // Níveis internos, até restar um único nó
+        while (nivel.size() > 1) {
+            List<Integer> acima = new ArrayList<>();
+            List<byte[]> separadoresAcima = new ArrayList<>();
+            No no = new No(paginas++, false);
+            no.filhos[0] = nivel.get(0);
+            byte[] separadorNo = null;
+            for (int i = 1; i < nivel.size(); i++) {
+                byte[] chave = separadores.get(i);
+                if (no.quantidade > 0 && no.bytes + no.tamanhoEntrada(chave) > limiteBytes) {
+                    gravarNo(no);
+                    acima.add(no.pagina);
+                    separadoresAcima.add(separadorNo);
+                    separadorNo = chave; // Sobe para o nível de cima em vez de ficar no nó
+                    no = new No(paginas++, false);
+                    no.filhos[0] = nivel.get(i);
+                    continue;
+                }
+                colocarInterno(no, no.quantidade, chave, nivel.get(i));
+            }
+            gravarNo(no);
+            acima.add(no.pagina);
+            separadoresAcima.add(separadorNo);
+            nivel = acima;
+            separadores = separadoresAcima;
+            altura++;
+        }
+        raiz = nivel.get(0);
+    }
+
+    /**
+     * Grava as páginas alteradas e marca a árvore como sincronizada.
+     *
+     * @throws IOException Se ocorrer erro na gravação
+     */
+    public void sincronizar() throws IOException {
+        for (No no : buffer.values()) {
+            if (no.sujo) {
+                gravarNo(no);
+            }
+        }
+        if (emUso) {
+            canal.force(false);
+            emUso = false;
+        }
+        gravarCabecalho();
+        canal.force(false);
+    }
+
+    /**
+     * Antes da primeira alteração após uma sincronização, grava no
+     * cabeçalho que a árvore está em uso.
+     */
+    private void marcarEmUso() throws IOException {
+        if (!emUso) {
+            emUso = true;
+            gravarCabecalho();
+            canal.force(false);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Páginas
+    // ------------------------------------------------------------------
+
+    private No folha(byte[] chave) throws IOException {
+        No no = ler(raiz);
+        while (!no.folha) {
+            no = ler(no.filhos[no.filho(chave)]);
+        }
+        return no;
+    }
+
+    private No novoNo(boolean folha) {
+        No no = new No(paginas++, folha);
+        sujar(no);
+        return no;
+    }
+
+    /**
+     * Marca o nó como alterado e o recoloca no buffer (ele pode ter sido
+     * descartado e gravado enquanto era usado pela operação).
+     */
+    private void sujar(No no) {
+        no.sujo = true;
+        guardar(no);
+    }
+
+    private No ler(int pagina) throws IOException {
+        No no = buffer.get(pagina);
+        if (no != null) {
+            acertos++;
+            return no;
+        }
+        no = decodificar(pagina, lerPagina(pagina));
+        guardar(no);
+        return no;
+    }
+
+    private void guardar(No no) {
+        buffer.put(no.pagina, no);
+        if (buffer.size() > paginasEmMemoria) {
+            Iterator<No> iterador = buffer.values().iterator();
+            No descartado = iterador.next();
+            iterador.remove();
+            if (descartado.sujo) {
+                try {
+                    gravarNo(descartado);
+                } catch (IOException e) {
+                    descartado.sujo = true;
+                    buffer.put(descartado.pagina, descartado); // Volta ao buffer para nova tentativa
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
+    private ByteBuffer lerPagina(int pagina) throws IOException {
+        bufferPagina.clear();
+        long posicao = (long) pagina * TAMANHO_PAGINA;
+        while (bufferPagina.hasRemaining()) {
+            int lidos = canal.read(bufferPagina, posicao + bufferPagina.position());
+            if (lidos < 0) {
+                throw new IOException("Página " + pagina + " fora do índice " + arquivo);
+            }
+        }
+        leiturasPagina++;
+        bufferPagina.flip();
+        return bufferPagina;
+    }
+
+    private No decodificar(int pagina, ByteBuffer dados) throws IOException {
+        byte tipo = dados.get();
+        if (tipo != FOLHA && tipo != INTERNO) {
+            throw new IOException("Página " + pagina + " inválida no índice " + arquivo);
+        }
+        No no = new No(pagina, tipo == FOLHA);
+        no.quantidade = dados.getShort() & 0xFFFF;
+        int ligacao = dados.getInt();
+        if (no.folha) {
+            no.proxima = ligacao;
+        } else {
+            no.filhos[0] = ligacao;
+        }
+        for (int i = 0; i < no.quantidade; i++) {
+            byte[] chave = new byte[dados.getShort() & 0xFFFF];
+            dados.get(chave);
+            no.chaves[i] = chave;
+            if (no.folha) {
+                no.valores[i] = dados.getLong();
+            } else {
+                no.filhos[i + 1] = dados.getInt();
+            }
+            no.bytes += no.tamanhoEntrada(chave);
+        }
+        return no;
+    }
+
+    private void gravarNo(No no) throws IOException {
+        ByteBuffer dados = ByteBuffer.allocate(TAMANHO_PAGINA);
+        dados.put(no.folha ? FOLHA : INTERNO);
+        dados.putShort((short) no.quantidade);
+        dados.putInt(no.folha ? no.proxima : no.filhos[0]);
+        for (int i = 0; i < no.quantidade; i++) {
+            dados.putShort((short) no.chaves[i].length);
+            dados.put(no.chaves[i]);
+            if (no.folha) {
+                dados.putLong(no.valores[i]);
+            } else {
+                dados.putInt(no.filhos[i + 1]);
+            }
+        }
+        dados.clear();
+        escrever(dados, (long) no.pagina * TAMANHO_PAGINA);
+        no.sujo = false;
+    }
+
+    private void escrever(ByteBuffer dados, long posicao) throws IOException {
+        while (dados.hasRemaining()) {
+            canal.write(dados, posicao + dados.position());
+        }
+        escritasPagina++;
+    }
+
+    private static byte[] codificar(String chave) {
+        byte[] bytes = chave.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > TAMANHO_MAXIMO_CHAVE) {
+            throw new IllegalArgumentException("Chave maior que " + TAMANHO_MAXIMO_CHAVE + " bytes");
+        }
+        return bytes;
+    }
+
+    // ------------------------------------------------------------------
+    // Estado
+    // ------------------------------------------------------------------
+
+    public long getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * @return Níveis da árvore (1 quando a raiz é uma folha)
+     */
+    public int getAltura() {
+        return altura;
+    }
+
+    /**
+     * @return Páginas do arquivo, incluindo o cabeçalho
+     */
+    public int getPaginas() {
+        return paginas;
+    }
+
+    /**
+     * @return Páginas lidas do disco (faltas no buffer)
+     */
+    public long getLeiturasPagina() {
+        return leiturasPagina;
+    }
+
+    public long getEscritasPagina() {
+        return escritasPagina;
+    }
+
+    /**
+     * @return Páginas encontradas no buffer
+     */
+    public long getAcertos() {
+        return acertos;
+    }
+
+    /**
+     * Retorna um valor livre do cabeçalho, gravado na sincronização.
+     *
+     * @param indice Índice do valor (0 a {@value #METADADOS} - 1)
+     * @return Valor gravado
+     */
+    public long getMetadado(int indice) {
+        return metadados[indice];
+    }
+
+    /**
+     * Define um valor livre do cabeçalho, gravado na próxima sincronização.
+     *
+     * @param indice Índice do valor (0 a {@value #METADADOS} - 1)
+     * @param valor Valor a gravar
+     */
+    public void setMetadado(int indice, long valor) {
+        metadados[indice] = valor;
+    }
+
+    public File getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Sincroniza e fecha o arquivo.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            sincronizar();
+        } finally {
+            canal.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d chave(s), altura %d, %d página(s), %d leitura(s) e %d acerto(s) no buffer",
+                quantidade, altura, paginas, leiturasPagina, acertos);
+    }
+}
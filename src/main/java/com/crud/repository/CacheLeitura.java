@@ -0,0 +1,225 @@
+package com.crud.repository;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cache de leitura com limite de tamanho e tempo de expiração.
+ *
+ * Quando o limite é atingido, descarta a entrada usada há mais tempo (LRU),
+ * usando um {@link LinkedHashMap} em ordem de acesso. Cada entrada expira
+ * após o tempo configurado, mesmo que continue sendo usada.
+ *
+ * O valor null também é guardado (cache negativo), para que buscas por
+ * chaves inexistentes não precisem consultar o armazenamento de novo.
+ *
+ * Para evitar que uma leitura demorada grave no cache um valor já
+ * desatualizado, cada invalidação incrementa uma geração; o valor lido só é
+ * guardado se nenhuma invalidação ocorreu desde o início da leitura.
+ *
+ * @param <K> Tipo da chave
+ * @param <V> Tipo do valor
+ */
+public class CacheLeitura<K, V> {
+
+    /**
+     * Entrada do cache com o instante de expiração.
+     */
+    private static final class Entrada<V> {
+        final V valor;
+        final long expiraEm;
+
+        Entrada(V valor, long expiraEm) {
+            this.valor = valor;
+            this.expiraEm = expiraEm;
+        }
+    }
+
+    /**
+     * Resultado de uma consulta ao cache.
+     */
+    public static final class Consulta<V> {
+        private final boolean encontrado;
+        private final V valor;
+        private final long geracao;
+
+        Consulta(boolean encontrado, V valor, long geracao) {
+            this.encontrado = encontrado;
+            this.valor = valor;
+            this.geracao = geracao;
+        }
+
+        /**
+         * Indica se a chave estava no cache (inclusive com valor null).
+         *
+         * @return true se houve acerto
+         */
+        public boolean encontrado() {
+            return encontrado;
+        }
+
+        /**
+         * Retorna o valor guardado (null em cache negativo ou em falta).
+         *
+         * @return Valor guardado
+         */
+        public V getValor() {
+            return valor;
+        }
+    }
+
+    private final int capacidade;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+    private long geracao;
+    private long acertos;
+    private long faltas;
+    private long descartes;
+    private long expiracoes;
+
+    /**
+     * Cria o cache.
+     *
+     * @param capacidade Quantidade máxima de entradas
+     * @param ttlMs Tempo de vida de cada entrada, em milissegundos
+     */
+    public CacheLeitura(int capacidade, long ttlMs) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do cache deve ser maior que zero");
+        }
+        this.capacidade = capacidade;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMs);
+        this.entradas = new LinkedHashMap<K, Entrada<V>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> maisAntiga) {
+                if (size() > CacheLeitura.this.capacidade) {
+                    descartes++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Consulta uma chave, contabilizando acerto ou falta.
+     *
+     * @param chave Chave consultada
+     * @return Consulta com o valor (se encontrado) e a geração atual,
+     *         usada depois em {@link #guardar}
+     */
+    public synchronized Consulta<V> consultar(K chave) {
+        Entrada<V> entrada = entradas.get(chave);
+        if (entrada != null && System.nanoTime() - entrada.expiraEm >= 0) {
+            entradas.remove(chave);
+            expiracoes++;
+            entrada = null;
+        }
+        if (entrada == null) {
+            faltas++;
+            return new Consulta<>(false, null, geracao);
+        }
+        acertos++;
+        return new Consulta<>(true, entrada.valor, geracao);
+    }
+
+    /**
+     * Guarda o valor lido do armazenamento após uma falta, desde que
+     * nenhuma invalidação tenha ocorrido desde a consulta.
+     *
+     * @param chave Chave consultada
+     * @param valor Valor lido (null para cache negativo)
+     * @param consulta Consulta que resultou em falta
+     */
+    public synchronized void guardar(K chave, V valor, Consulta<V> consulta) {
+        if (consulta.geracao == geracao) {
+            entradas.put(chave, new Entrada<>(valor, System.nanoTime() + ttlNanos));
+        }
+    }
+
+    /**
+     * Remove uma chave do cache, após uma alteração no armazenamento.
+     *
+     * @param chave Chave alterada
+     */
+    public synchronized void invalidar(K chave) {
+        geracao++;
+        entradas.remove(chave);
+    }
+
+    /**
+     * Remove todas as entradas do cache.
+     */
+    public synchronized void limpar() {
+        geracao++;
+        entradas.clear();
+    }
+
+    /**
+     * Remove as entradas expiradas. Útil para liberar memória em caches
+     * grandes com pouco acesso; as consultas já ignoram entradas expiradas.
+     */
+    public synchronized void removerExpiradas() {
+        long agora = System.nanoTime();
+        Iterator<Entrada<V>> iterador = entradas.values().iterator();
+        while (iterador.hasNext()) {
+            if (agora - iterador.next().expiraEm >= 0) {
+                iterador.remove();
+                expiracoes++;
+            }
+        }
+    }
+
+    public synchronized int tamanho() {
+        return entradas.size();
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public synchronized long getAcertos() {
+        return acertos;
+    }
+
+    public synchronized long getFaltas() {
+        return faltas;
+    }
+
+    /**
+     * Retorna a quantidade de entradas descartadas por falta de espaço.
+     *
+     * @return Quantidade de descartes
+     */
+    public synchronized long getDescartes() {
+        return descartes;
+    }
+
+    /**
+     * Retorna a quantidade de entradas removidas por expiração.
+     *
+     * @return Quantidade de expirações
+     */
+    public synchronized long getExpiracoes() {
+        return expiracoes;
+    }
+
+    /**
+     * Retorna a proporção de consultas atendidas pelo cache.
+     *
+     * @return Taxa de acerto entre 0 e 1 (0 se não houve consultas)
+     */
+    public synchronized double getTaxaAcerto() {
+        long total = acertos + faltas;
+        return total == 0 ? 0 : (double) acertos / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Cache: %d/%d entradas | acertos: %d | faltas: %d | taxa de acerto: %.1f%% "
+                + "| descartes: %d | expirações: %d",
+                entradas.size(), capacidade, acertos, faltas, getTaxaAcerto() * 100, descartes, expiracoes);
+    }
+}
@@ -0,0 +1,296 @@
+package com.crud.repository;
+
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pessoa;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Carrega o arquivo de dados em paralelo.
+ *
+ * O arquivo é dividido em blocos de bytes que terminam sempre em uma quebra
+ * de linha, e cada bloco é convertido em pessoas por uma tarefa do
+ * {@link ForkJoinPool}. Os blocos são reunidos na ordem do arquivo, então o
+ * resultado é o mesmo da leitura linha a linha: quem monta os índices
+ * continua mantendo a primeira ocorrência de cada email.
+ *
+ * A divisão por bytes exige uma codificação em que a quebra de linha ocupa
+ * um único byte (ex: UTF-8, ISO-8859-1, US-ASCII). Nas demais, em arquivos
+ * pequenos e em pools de uma única thread, o arquivo é lido sem divisão
+ * (exceto arquivos com mais de 64 MB, sempre divididos).
+ */
+public final class CarregadorParalelo {
+
+    // Tamanho mínimo de um bloco: abaixo disso, dividir custa mais do que ler
+    private static final long BLOCO_MINIMO = 1L << 20;
+    // Tamanho máximo de um bloco, para caber em um array de bytes
+    private static final long BLOCO_MAXIMO = 64L << 20;
+    // Blocos por thread, para equilibrar a carga entre as threads
+    private static final int BLOCOS_POR_THREAD = 4;
+    private static final int TAMANHO_BUSCA_QUEBRA = 4096;
+
+    private static final MetricaOperacao METRICA_CARREGAR = Metricas.global().operacao("CarregadorParalelo.carregar");
+
+    private CarregadorParalelo() {
+    }
+
+    /**
+     * Estatísticas de uma carga.
+     */
+    public static final class Estatisticas {
+        private final int registros;
+        private final long bytes;
+        private final int blocos;
+        private final long nanos;
+
+        Estatisticas(int registros, long bytes, int blocos, long nanos) {
+            this.registros = registros;
+            this.bytes = bytes;
+            this.blocos = blocos;
+            this.nanos = nanos;
+        }
+
+        public int getRegistros() {
+            return registros;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public int getBlocos() {
+            return blocos;
+        }
+
+        public long getMillis() {
+            return nanos / 1_000_000;
+        }
+
+        /**
+         * Retorna a vazão da carga.
+         *
+         * @return Registros carregados por segundo
+         */
+        public long getRegistrosPorSegundo() {
+            return nanos == 0 ? 0 : (long) (registros * 1_000_000_000.0 / nanos);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Carga: %d registro(s) em %d ms (%d registros/s, %.1f MB, %d bloco(s))",
+                    registros, getMillis(), getRegistrosPorSegundo(), bytes / (1024.0 * 1024.0), blocos);
+        }
+    }
+
+    /**
+     * Resultado de uma carga: as pessoas, na ordem do arquivo, e as estatísticas.
+     */
+    public static final class Carga {
+        private final List<Pessoa> pessoas;
+        private final Estatisticas estatisticas;
+
+        Carga(List<Pessoa> pessoas, Estatisticas estatisticas) {
+            this.pessoas = pessoas;
+            this.estatisticas = estatisticas;
+        }
+
+        public List<Pessoa> getPessoas() {
+            return pessoas;
+        }
+
+        public Estatisticas getEstatisticas() {
+            return estatisticas;
+        }
+    }
+
+    /**
+     * Carrega o arquivo com a codificação padrão (a mesma do
+     * {@link PessoaRepository#lerTodas()}) no pool comum.
+     *
+     * @param arquivo Arquivo de dados
+     * @return Pessoas na ordem do arquivo e estatísticas da carga
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public static Carga carregar(File arquivo) throws IOException {
+        return carregar(arquivo, Charset.defaultCharset(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Carrega o arquivo dividindo-o em blocos processados no pool informado.
+     *
+     * @param arquivo Arquivo de dados
+     * @param charset Codificação do arquivo
+     * @param pool Pool que processa os blocos
+     * @return Pessoas na ordem do arquivo e estatísticas da carga
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public static Carga carregar(File arquivo, Charset charset, ForkJoinPool pool) throws IOException {
+        long inicio = System.nanoTime();
+        if (!arquivo.exists()) {
+            return new Carga(new ArrayList<>(), new Estatisticas(0, 0, 0, System.nanoTime() - inicio));
+        }
+
+        try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ)) {
+            long tamanho = canal.size();
+            long[] limites = dividir(canal, tamanho, quantidadeBlocos(tamanho, charset, pool));
+            List<List<Pessoa>> blocos = new ArrayList<>(limites.length - 1);
+            for (int i = 0; i < limites.length - 1; i++) {
+                blocos.add(null);
+            }
+            try {
+                pool.invoke(new LeituraBlocos(canal, charset, limites, blocos, 0, limites.length - 1));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            // Reúne os blocos na ordem do arquivo
+            int total = 0;
+            for (List<Pessoa> bloco : blocos) {
+                total += bloco.size();
+            }
+            List<Pessoa> pessoas = new ArrayList<>(total);
+            for (List<Pessoa> bloco : blocos) {
+                pessoas.addAll(bloco);
+            }
+            METRICA_CARREGAR.registrar(inicio, false);
+            Metricas.global().adicionarBytesLidos(tamanho);
+            Metricas.global().adicionarRegistrosLidos(total);
+            return new Carga(pessoas,
+                    new Estatisticas(total, tamanho, blocos.size(), System.nanoTime() - inicio));
+        }
+    }
+
+    private static int quantidadeBlocos(long tamanho, Charset charset, ForkJoinPool pool) {
+        if ("\n".getBytes(charset).length != 1 || pool.getParallelism() < 2 || tamanho < 2 * BLOCO_MINIMO) {
+            return (int) Math.max(1, (tamanho + BLOCO_MAXIMO - 1) / BLOCO_MAXIMO);
+        }
+        long blocos = Math.min(tamanho / BLOCO_MINIMO, (long) pool.getParallelism() * BLOCOS_POR_THREAD);
+        return (int) Math.max(blocos, (tamanho + BLOCO_MAXIMO - 1) / BLOCO_MAXIMO);
+    }
+
+    /**
+     * Calcula os limites dos blocos, avançando cada divisão até logo após
+     * a próxima quebra de linha.
+     *
+     * @return Posições de início de cada bloco, seguidas do tamanho do arquivo
+     */
+    private static long[] dividir(FileChannel canal, long tamanho, int blocos) throws IOException {
+        List<Long> limites = new ArrayList<>(blocos + 1);
+        limites.add(0L);
+        ByteBuffer busca = ByteBuffer.allocate(TAMANHO_BUSCA_QUEBRA);
+        for (int i = 1; i < blocos; i++) {
+            long posicao = Math.max(tamanho / blocos * i, limites.get(limites.size() - 1));
+            long limite = proximaLinha(canal, busca, posicao, tamanho);
+            if (limite > limites.get(limites.size() - 1) && limite < tamanho) {
+                limites.add(limite);
+            }
+        }
+        limites.add(tamanho);
+
+        long[] resultado = new long[limites.size()];
+        for (int i = 0; i < resultado.length; i++) {
+            resultado[i] = limites.get(i);
+        }
+        return resultado;
+    }
+
+    private static long proximaLinha(FileChannel canal, ByteBuffer busca, long posicao, long tamanho)
+            throws IOException {
+        while (posicao < tamanho) {
+            busca.clear();
+            int lidos = canal.read(busca, posicao);
+            if (lidos <= 0) {
+                break;
+            }
+            for (int i = 0; i < lidos; i++) {
+                if (busca.get(i) == '\n') {
+                    return posicao + i + 1;
+                }
+            }
+            posicao += lidos;
+        }
+        return tamanho;
+    }
+
+    /**
+     * Tarefa que lê um intervalo de blocos, dividindo-o ao meio até chegar
+     * a um único bloco. Cada bloco guarda suas pessoas na posição
+     * correspondente da lista de resultados.
+     */
+    private static final class LeituraBlocos extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel canal;
+        private final Charset charset;
+        private final long[] limites;
+        private final List<List<Pessoa>> resultados;
+        private final int primeiro;
+        private final int ultimo;
+
+        LeituraBlocos(FileChannel canal, Charset charset, long[] limites, List<List<Pessoa>> resultados,
+                      int primeiro, int ultimo) {
+            this.canal = canal;
+            this.charset = charset;
+            this.limites = limites;
+            this.resultados = resultados;
+            this.primeiro = primeiro;
+            this.ultimo = ultimo;
+        }
+
+        @Override
+        protected void compute() {
+            if (ultimo - primeiro <= 1) {
+                try {
+                    resultados.set(primeiro, lerBloco(limites[primeiro], limites[ultimo]));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return;
+            }
+            int meio = (primeiro + ultimo) >>> 1;
+            invokeAll(new LeituraBlocos(canal, charset, limites, resultados, primeiro, meio),
+                    new LeituraBlocos(canal, charset, limites, resultados, meio, ultimo));
+        }
+
+        private List<Pessoa> lerBloco(long inicio, long fim) throws IOException {
+            ByteBuffer buffer = ByteBuffer.allocate((int) (fim - inicio));
+            long posicao = inicio;
+            while (buffer.hasRemaining()) {
+                int lidos = canal.read(buffer, posicao);
+                if (lidos < 0) {
+                    break;
+                }
+                posicao += lidos;
+            }
+            byte[] bytes = buffer.array();
+            int tamanho = buffer.position();
+
+            // Mesmas quebras de linha aceitas pelo BufferedReader: \n, \r e \r\n.
+            // Só cada linha é decodificada, sem criar uma String com o bloco inteiro.
+            List<Pessoa> pessoas = new ArrayList<>();
+            int inicioLinha = 0;
+            for (int i = 0; i <= tamanho; i++) {
+                if (i == tamanho || bytes[i] == '\n' || bytes[i] == '\r') {
+                    if (i > inicioLinha) {
+                        Pessoa pessoa = Pessoa.fromFileFormat(new String(bytes, inicioLinha, i - inicioLinha, charset));
+                        if (pessoa != null) {
+                            pessoas.add(pessoa);
+                        }
+                    }
+                    inicioLinha = i + 1;
+                }
+            }
+            return pessoas;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.*;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converte arquivos de dados entre o formato texto (nome|email|telefone)
+ * e o formato binário de {@link ArquivoBinarioPessoas}.
+ */
+public class ConversorFormato {
+
+    private ConversorFormato() {
+    }
+
+    /**
+     * Converte um arquivo texto para o formato binário.
+     * 
+     * @param origem Arquivo texto de origem
+     * @param destino Arquivo binário de destino
+     * @return Quantidade de registros convertidos
+     * @throws IOException Se ocorrer erro na leitura ou escrita
+     */
+    public static int textoParaBinario(Path origem, Path destino) throws IOException {
+        List<Pessoa> pessoas = new PessoaRepository(origem.toString()).lerTodas();
+        ArquivoBinarioPessoas.gravar(destino, pessoas);
+        return pessoas.size();
+    }
+
+    /**
+     * Converte um arquivo binário para o formato texto.
+     * 
+     * @param origem Arquivo binário de origem
+     * @param destino Arquivo texto de destino
+     * @return Quantidade de registros convertidos
+     * @throws IOException Se ocorrer erro na leitura ou escrita
+     */
+    public static int binarioParaTexto(Path origem, Path destino) throws IOException {
+        List<Pessoa> pessoas = new ArrayList<>();
+        try (ArquivoBinarioPessoas arquivo = new ArquivoBinarioPessoas(origem)) {
+            for (int i = 0; i < arquivo.tamanho(); i++) {
+                pessoas.add(arquivo.ler(i));
+            }
+        }
+        new PessoaRepository(destino.toString()).salvarTodas(pessoas);
+        return pessoas.size();
+    }
+}
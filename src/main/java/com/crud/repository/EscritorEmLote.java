@@ -0,0 +1,323 @@
+package com.crud.repository;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritor de arquivo com gravação em grupo (group commit).
+ *
+ * Os registros enviados por várias threads são reunidos em lotes por uma
+ * thread dedicada. Cada lote é gravado com uma única escrita e, conforme a
+ * política de sincronização, um único {@link FileChannel#force}. Quem envia
+ * um registro recebe um {@link CompletableFuture} que é concluído quando o
+ * registro está durável segundo a política escolhida. Se a gravação ou a
+ * sincronização falhar, o arquivo é cortado de volta ao ponto anterior às
+ * escritas que falharam, para que elas não reapareçam na próxima leitura.
+ */
+public class EscritorEmLote implements Closeable {
+
+    /**
+     * Política de sincronização com o disco.
+     */
+    public enum PoliticaSync {
+        /** Cada lote é sincronizado antes de confirmar as escritas. */
+        POR_OPERACAO,
+        /** A sincronização ocorre a cada intervalo configurado. */
+        INTERVALO,
+        /** A sincronização fica a cargo do sistema operacional. */
+        SISTEMA
+    }
+
+    private static final int TIPO_ESCRITA = 0;
+    private static final int TIPO_TRUNCAR = 1;
+    private static final int TIPO_FECHAR = 2;
+
+    /**
+     * Operação enfileirada para a thread do escritor.
+     */
+    private static final class Operacao {
+        final int tipo;
+        final byte[] dados;
+        final CompletableFuture<Void> conclusao = new CompletableFuture<>();
+
+        Operacao(int tipo, byte[] dados) {
+            this.tipo = tipo;
+            this.dados = dados;
+        }
+    }
+
+    private final FileChannel canal;
+    private final PoliticaSync politica;
+    private final long intervaloMs;
+    private final LinkedBlockingQueue<Operacao> fila = new LinkedBlockingQueue<>();
+    private final List<Operacao> aguardandoSync = new ArrayList<>();
+    private final Thread thread;
+    private boolean fechado = false;
+    private long proximoSync;
+    private long posicaoAguardandoSync;
+
+    /**
+     * Abre o arquivo para escrita ao final e inicia a thread do escritor.
+     *
+     * @param arquivo Arquivo de destino (criado se não existir)
+     * @param politica Política de sincronização
+     * @param intervaloMs Intervalo entre sincronizações (usado apenas em INTERVALO)
+     * @throws IOException Se o arquivo não puder ser aberto
+     */
+    public EscritorEmLote(Path arquivo, PoliticaSync politica, long intervaloMs) throws IOException {
+        this.canal = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        this.canal.position(canal.size());
+        this.politica = politica;
+        this.intervaloMs = intervaloMs;
+        this.thread = new Thread(this::executar, "escritor-lote-" + arquivo.getFileName());
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Envia um registro para gravação.
+     *
+     * @param dados Bytes do registro (incluindo o separador de linha, se houver)
+     * @return Future concluído quando o registro estiver durável
+     */
+    public CompletableFuture<Void> escrever(byte[] dados) {
+        return enfileirar(new Operacao(TIPO_ESCRITA, dados));
+    }
+
+    /**
+     * Esvazia o arquivo depois de gravar todos os registros enviados antes.
+     *
+     * @return Future concluído quando o arquivo tiver sido truncado
+     */
+    public CompletableFuture<Void> truncar() {
+        return enfileirar(new Operacao(TIPO_TRUNCAR, null));
+    }
+
+    private synchronized CompletableFuture<Void> enfileirar(Operacao operacao) {
+        if (fechado) {
+            operacao.conclusao.completeExceptionally(new IOException("Escritor fechado"));
+        } else {
+            fila.add(operacao);
+        }
+        return operacao.conclusao;
+    }
+
+    /**
+     * Aguarda a conclusão de uma escrita, convertendo a falha em IOException.
+     *
+     * @param conclusao Future retornado por escrever ou truncar
+     * @throws IOException Se a escrita falhou ou a espera foi interrompida
+     */
+    public static void aguardar(CompletableFuture<Void> conclusao) throws IOException {
+        try {
+            conclusao.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Espera pela gravação interrompida", e);
+        } catch (ExecutionException | CompletionException e) {
+            Throwable causa = e.getCause();
+            if (causa instanceof IOException) {
+                throw (IOException) causa;
+            }
+            throw new IOException("Falha na gravação", causa);
+        }
+    }
+
+    /**
+     * Laço da thread do escritor: reúne as operações pendentes em lotes.
+     */
+    private void executar() {
+        List<Operacao> lote = new ArrayList<>();
+        boolean ativo = true;
+        while (ativo) {
+            try {
+                Operacao primeira;
+                if (politica == PoliticaSync.INTERVALO && !aguardandoSync.isEmpty()) {
+                    long espera = Math.max(0, proximoSync - System.currentTimeMillis());
+                    primeira = fila.poll(espera, TimeUnit.MILLISECONDS);
+                } else {
+                    primeira = fila.take();
+                }
+
+                lote.clear();
+                if (primeira != null) {
+                    lote.add(primeira);
+                    fila.drainTo(lote);
+                }
+                ativo = processar(lote);
+
+                if (politica == PoliticaSync.INTERVALO && !aguardandoSync.isEmpty()
+                        && System.currentTimeMillis() >= proximoSync) {
+                    sincronizarPendentes();
+                }
+            } catch (InterruptedException e) {
+                ativo = false;
+            }
+        }
+
+        // Operações enviadas depois do fechamento não serão gravadas
+        synchronized (this) {
+            fechado = true;
+            for (Operacao operacao : fila) {
+                operacao.conclusao.completeExceptionally(new IOException("Escritor fechado"));
+            }
+            fila.clear();
+        }
+    }
+
+    /**
+     * Processa um lote, gravando as escritas consecutivas de uma só vez.
+     *
+     * @param lote Operações retiradas da fila, na ordem de envio
+     * @return false se o escritor foi fechado
+     */
+    private boolean processar(List<Operacao> lote) {
+        List<Operacao> escritas = new ArrayList<>();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        for (Operacao operacao : lote) {
+            if (operacao.tipo == TIPO_ESCRITA) {
+                escritas.add(operacao);
+                buffer.write(operacao.dados, 0, operacao.dados.length);
+                continue;
+            }
+
+            gravar(escritas, buffer);
+            escritas.clear();
+            buffer.reset();
+            try {
+                sincronizarPendentes();
+                if (operacao.tipo == TIPO_TRUNCAR) {
+                    canal.truncate(0);
+                    canal.position(0);
+                    canal.force(true);
+                    operacao.conclusao.complete(null);
+                } else {
+                    canal.close();
+                    operacao.conclusao.complete(null);
+                    return false;
+                }
+            } catch (IOException e) {
+                operacao.conclusao.completeExceptionally(e);
+            }
+        }
+
+        gravar(escritas, buffer);
+        return true;
+    }
+
+    /**
+     * Grava as escritas acumuladas com uma única chamada e aplica a política de sincronização.
+     *
+     * @param escritas Operações cujos dados estão no buffer
+     * @param buffer Bytes concatenados das escritas
+     */
+    private void gravar(List<Operacao> escritas, ByteArrayOutputStream buffer) {
+        if (escritas.isEmpty()) {
+            return;
+        }
+        long posicao = -1;
+        try {
+            posicao = canal.position();
+            ByteBuffer dados = ByteBuffer.wrap(buffer.toByteArray());
+            while (dados.hasRemaining()) {
+                canal.write(dados);
+            }
+
+            switch (politica) {
+                case POR_OPERACAO:
+                    canal.force(false);
+                    concluir(escritas);
+                    break;
+                case INTERVALO:
+                    if (aguardandoSync.isEmpty()) {
+                        proximoSync = System.currentTimeMillis() + intervaloMs;
+                        posicaoAguardandoSync = posicao;
+                    }
+                    aguardandoSync.addAll(escritas);
+                    break;
+                default:
+                    concluir(escritas);
+            }
+        } catch (IOException e) {
+            descartar(posicao, e);
+            for (Operacao operacao : escritas) {
+                operacao.conclusao.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Sincroniza o arquivo e conclui as escritas que aguardavam o intervalo.
+     */
+    private void sincronizarPendentes() {
+        if (aguardandoSync.isEmpty()) {
+            return;
+        }
+        List<Operacao> pendentes = new ArrayList<>(aguardandoSync);
+        aguardandoSync.clear();
+        try {
+            canal.force(false);
+            concluir(pendentes);
+        } catch (IOException e) {
+            descartar(posicaoAguardandoSync, e);
+            for (Operacao operacao : pendentes) {
+                operacao.conclusao.completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Corta o arquivo na posição anterior às escritas que falharam.
+     *
+     * @param posicao Posição de início das escritas (negativa se desconhecida)
+     * @param falha Erro das escritas, que recebe o erro do corte, se houver
+     */
+    private void descartar(long posicao, IOException falha) {
+        if (posicao < 0) {
+            return;
+        }
+        try {
+            canal.truncate(posicao);
+            canal.position(posicao);
+        } catch (IOException e) {
+            falha.addSuppressed(e);
+        }
+    }
+
+    private static void concluir(List<Operacao> operacoes) {
+        for (Operacao operacao : operacoes) {
+            operacao.conclusao.complete(null);
+        }
+    }
+
+    /**
+     * Grava e sincroniza as escritas pendentes e fecha o arquivo.
+     *
+     * @throws IOException Se ocorrer erro ao gravar as pendências ou fechar o arquivo
+     */
+    @Override
+    public void close() throws IOException {
+        Operacao fechamento = new Operacao(TIPO_FECHAR, null);
+        synchronized (this) {
+            if (fechado) {
+                return;
+            }
+            fila.add(fechamento);
+            fechado = true;
+        }
+        aguardar(fechamento.conclusao);
+    }
+}
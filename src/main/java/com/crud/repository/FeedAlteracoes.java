@@ -0,0 +1,428 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Feed ordenado das alterações feitas em um repositório.
+ *
+ * Cada inclusão, alteração ou remoção recebe um número de sequência e é:
+ *
+ * - acrescentada ao log de alterações (um arquivo texto, uma linha por
+ *   evento), de onde consumidores podem retomar a partir de qualquer
+ *   sequência com {@link #ler(long)};
+ * - entregue aos assinantes em processo ({@link Flow.Publisher}). Cada
+ *   assinante tem seu próprio cursor no log e recebe os eventos em ordem,
+ *   sem lacunas, na medida dos pedidos feitos com {@code request(n)}.
+ *   Quem grava nunca espera por assinantes: os eventos recentes ficam em
+ *   memória e um assinante que ficou para trás continua a partir do log.
+ *
+ * Com {@link #assinar(Flow.Subscriber, long)}, o assinante começa a partir
+ * de uma sequência já registrada e recebe o histórico seguido dos eventos
+ * futuros.
+ *
+ * O log guarda, a cada {@value #INTERVALO_MARCOS} eventos, a posição do
+ * evento no arquivo, para que a leitura a partir de uma sequência percorra
+ * apenas os eventos posteriores a ela. Uma linha cortada ao final do log
+ * (queda durante a gravação) é descartada ao abri-lo.
+ */
+public class FeedAlteracoes implements Flow.Publisher<Alteracao>, Closeable {
+
+    /** Eventos entre duas posições guardadas do log. */
+    static final int INTERVALO_MARCOS = 1024;
+
+    /** Eventos entregues por vez a um assinante. */
+    private static final int LOTE_ENTREGA = 256;
+
+    private final File arquivo;
+    private final ExecutorService executor;
+    private final Set<Assinatura> assinaturas = new CopyOnWriteArraySet<>();
+    /** Últimos eventos registrados, entregues sem ler o log. */
+    private final ArrayDeque<Alteracao> recentes = new ArrayDeque<>();
+    private final int capacidadeRecentes;
+    /** Sequência do primeiro evento de cada intervalo -> posição no log. */
+    private final NavigableMap<Long, Long> marcos = new TreeMap<>();
+    private final Writer log;
+    private long ultimaSequencia;
+    private long tamanhoLog;
+    private boolean fechado;
+
+    /**
+     * Abre o feed mantendo em memória a quantidade padrão de eventos recentes.
+     *
+     * @param arquivo Arquivo do log de alterações (criado se não existir)
+     * @throws IOException Se ocorrer erro na leitura ou abertura do log
+     */
+    public FeedAlteracoes(File arquivo) throws IOException {
+        this(arquivo, Flow.defaultBufferSize());
+    }
+
+    /**
+     * Abre o feed, continuando a numeração do log existente.
+     *
+     * @param arquivo Arquivo do log de alterações (criado se não existir)
+     * @param eventosRecentes Eventos recentes mantidos em memória; assinantes
+     *                        mais atrasados que isso leem do log
+     * @throws IOException Se ocorrer erro na leitura ou abertura do log
+     */
+    public FeedAlteracoes(File arquivo, int eventosRecentes) throws IOException {
+        if (eventosRecentes < 1) {
+            throw new IllegalArgumentException("Quantidade de eventos recentes deve ser maior que zero");
+        }
+        this.arquivo = arquivo;
+        this.capacidadeRecentes = eventosRecentes;
+        File diretorio = arquivo.getAbsoluteFile().getParentFile();
+        if (diretorio != null && !diretorio.exists()) {
+            diretorio.mkdirs();
+        }
+        recuperar();
+        this.log = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(arquivo, true), StandardCharsets.UTF_8));
+        this.executor = Executors.newCachedThreadPool(tarefa -> {
+            Thread thread = new Thread(tarefa, "feed-alteracoes");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Percorre o log existente para obter a última sequência e as posições
+     * dos marcos, descartando uma eventual linha final cortada.
+     */
+    private void recuperar() throws IOException {
+        if (!arquivo.exists()) {
+            return;
+        }
+        long posicao = 0;
+        long fimValido = 0;
+        try (InputStream entrada = new BufferedInputStream(new FileInputStream(arquivo))) {
+            ByteArrayOutputStream linha = new ByteArrayOutputStream(256);
+            int b;
+            while ((b = entrada.read()) != -1) {
+                posicao++;
+                if (b != '\n') {
+                    linha.write(b);
+                    continue;
+                }
+                Alteracao alteracao = Alteracao.fromLinha(linha.toString(StandardCharsets.UTF_8));
+                if (alteracao != null && alteracao.getSequencia() > ultimaSequencia) {
+                    registrarMarco(alteracao.getSequencia(), fimValido);
+                    ultimaSequencia = alteracao.getSequencia();
+                }
+                fimValido = posicao;
+                linha.reset();
+            }
+        }
+        if (fimValido < posicao) {
+            try (FileChannel canal = FileChannel.open(arquivo.toPath(), StandardOpenOption.WRITE)) {
+                canal.truncate(fimValido);
+            }
+        }
+        tamanhoLog = fimValido;
+    }
+
+    private void registrarMarco(long sequencia, long posicao) {
+        if ((sequencia - 1) % INTERVALO_MARCOS == 0) {
+            marcos.put(sequencia, posicao);
+        }
+    }
+
+    /**
+     * Registra uma alteração: atribui a próxima sequência, grava no log e
+     * avisa os assinantes com pedidos pendentes. Não espera por assinantes:
+     * a entrega acontece nas threads do feed.
+     *
+     * @param tipo Tipo da operação
+     * @param antes Dados anteriores (null na inclusão)
+     * @param depois Dados posteriores (null na remoção)
+     * @return Evento registrado
+     * @throws IOException Se ocorrer erro na gravação do log
+     */
+    public synchronized Alteracao publicar(Alteracao.Tipo tipo, Pessoa antes, Pessoa depois) throws IOException {
+        Alteracao alteracao = new Alteracao(ultimaSequencia + 1, System.currentTimeMillis(), tipo, antes, depois);
+        String linha = alteracao.toLinha() + "\n";
+        log.write(linha);
+        log.flush();
+        registrarMarco(alteracao.getSequencia(), tamanhoLog);
+        tamanhoLog += linha.getBytes(StandardCharsets.UTF_8).length;
+        ultimaSequencia = alteracao.getSequencia();
+        recentes.addLast(alteracao);
+        if (recentes.size() > capacidadeRecentes) {
+            recentes.removeFirst();
+        }
+        for (Assinatura assinatura : assinaturas) {
+            if (assinatura.demanda.get() > 0) {
+                assinatura.sinalizar();
+            }
+        }
+        return alteracao;
+    }
+
+    /**
+     * Lê do log os eventos posteriores à sequência informada, em ordem.
+     * O stream deve ser fechado após o uso.
+     *
+     * @param aPartirDe Última sequência já processada pelo consumidor (0 para todo o log)
+     * @return Stream dos eventos com sequência maior que a informada
+     * @throws IOException Se ocorrer erro ao abrir o log
+     */
+    public Stream<Alteracao> ler(long aPartirDe) throws IOException {
+        long inicio;
+        synchronized (this) {
+            if (aPartirDe >= ultimaSequencia) {
+                return Stream.empty();
+            }
+            Map.Entry<Long, Long> marco = marcos.floorEntry(aPartirDe + 1);
+            inicio = marco != null ? marco.getValue() : 0;
+        }
+        FileInputStream entrada = new FileInputStream(arquivo);
+        try {
+            entrada.getChannel().position(inicio);
+        } catch (IOException e) {
+            entrada.close();
+            throw e;
+        }
+        BufferedReader leitor = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        return leitor.lines()
+                .map(Alteracao::fromLinha)
+                .filter(Objects::nonNull)
+                .filter(alteracao -> alteracao.getSequencia() > aPartirDe)
+                .onClose(() -> {
+                    try {
+                        leitor.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @return Sequência do último evento registrado (0 se nenhum)
+     */
+    public synchronized long getUltimaSequencia() {
+        return ultimaSequencia;
+    }
+
+
+    /**
+     * @return Arquivo do log de alterações
+     */
+    public File getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * @return Quantidade de assinantes em processo
+     */
+    public int getAssinantes() {
+        return assinaturas.size();
+    }
+
+    /**
+     * Inscreve um assinante para receber os eventos registrados a partir
+     * de agora. A quantidade entregue segue os pedidos feitos pelo
+     * assinante na sua {@link Flow.Subscription}.
+     *
+     * @param assinante Assinante dos eventos
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super Alteracao> assinante) {
+        assinar(assinante, getUltimaSequencia());
+    }
+
+    /**
+     * Inscreve um assinante para receber, em ordem, os eventos posteriores
+     * à sequência informada: primeiro os já registrados, lidos do log, e
+     * depois os futuros.
+     *
+     * @param assinante Assinante dos eventos
+     * @param aPartirDe Última sequência já processada pelo assinante (0 para todo o log)
+     */
+    public void assinar(Flow.Subscriber<? super Alteracao> assinante, long aPartirDe) {
+        Objects.requireNonNull(assinante);
+        Assinatura assinatura = new Assinatura(assinante, Math.max(0, aPartirDe));
+        assinaturas.add(assinatura);
+        assinatura.sinalizar();
+    }
+
+    /**
+     * Retorna até {@code maximo} eventos posteriores à sequência, da memória
+     * se ainda estiverem entre os recentes ou, senão, do log.
+     */
+    private List<Alteracao> proximos(long cursor, int maximo) throws IOException {
+        synchronized (this) {
+            if (cursor >= ultimaSequencia) {
+                return Collections.emptyList();
+            }
+            Alteracao primeira = recentes.peekFirst();
+            if (primeira != null && primeira.getSequencia() <= cursor + 1) {
+                List<Alteracao> eventos = new ArrayList<>(Math.min(maximo, recentes.size()));
+                for (Alteracao alteracao : recentes) {
+                    if (alteracao.getSequencia() > cursor) {
+                        eventos.add(alteracao);
+                        if (eventos.size() == maximo) {
+                            break;
+                        }
+                    }
+                }
+                return eventos;
+            }
+        }
+        // Assinante mais atrasado que os eventos em memória
+        try (Stream<Alteracao> eventos = ler(cursor)) {
+            return eventos.limit(maximo).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private synchronized boolean concluido(long cursor) {
+        return fechado && cursor >= ultimaSequencia;
+    }
+
+    /**
+     * Assinatura com o cursor de um assinante no log. As entregas de uma
+     * assinatura acontecem uma de cada vez, nas threads do feed.
+     */
+    private final class Assinatura implements Flow.Subscription {
+        final Flow.Subscriber<? super Alteracao> assinante;
+        final AtomicLong demanda = new AtomicLong();
+        // Sinais recebidos e ainda não tratados; a entrega roda enquanto for maior que zero
+        private final AtomicInteger sinais = new AtomicInteger();
+        private volatile boolean cancelada;
+        private volatile long pedidoInvalido;
+        private boolean iniciada;
+        private long cursor;
+
+        Assinatura(Flow.Subscriber<? super Alteracao> assinante, long cursor) {
+            this.assinante = assinante;
+            this.cursor = cursor;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                pedidoInvalido = n;
+            } else {
+                demanda.accumulateAndGet(n, (atual, pedido) -> atual + pedido < 0 ? Long.MAX_VALUE : atual + pedido);
+            }
+            sinalizar();
+        }
+
+        @Override
+        public void cancel() {
+            cancelada = true;
+            assinaturas.remove(this);
+        }
+
+        void sinalizar() {
+            if (sinais.getAndIncrement() == 0) {
+                executor.execute(this::executar);
+            }
+        }
+
+        private void executar() {
+            int tratados = sinais.get();
+            do {
+                entregar();
+                tratados = sinais.addAndGet(-tratados);
+            } while (tratados != 0);
+        }
+
+        private void entregar() {
+            if (cancelada) {
+                return;
+            }
+            try {
+                if (!iniciada) {
+                    iniciada = true;
+                    assinante.onSubscribe(this);
+                }
+                if (pedidoInvalido != 0) {
+                    encerrar(new IllegalArgumentException("Pedido inválido: " + pedidoInvalido));
+                    return;
+                }
+                while (!cancelada && demanda.get() > 0) {
+                    List<Alteracao> eventos = proximos(cursor, (int) Math.min(demanda.get(), LOTE_ENTREGA));
+                    if (eventos.isEmpty()) {
+                        break;
+                    }
+                    for (Alteracao alteracao : eventos) {
+                        if (cancelada) {
+                            return;
+                        }
+                        assinante.onNext(alteracao);
+                        cursor = alteracao.getSequencia();
+                        if (demanda.get() != Long.MAX_VALUE) {
+                            demanda.decrementAndGet();
+                        }
+                    }
+                }
+                if (!cancelada && concluido(cursor)) {
+                    cancel();
+                    assinante.onComplete();
+                }
+            } catch (IOException | RuntimeException e) {
+                encerrar(e);
+            }
+        }
+
+        private void encerrar(Throwable erro) {
+            if (!cancelada) {
+                cancel();
+                assinante.onError(erro);
+            }
+        }
+    }
+
+    /**
+     * Fecha o log. Os assinantes continuam recebendo, conforme seus
+     * pedidos, os eventos já registrados e depois recebem {@code onComplete}.
+     *
+     * @throws IOException Se ocorrer erro ao fechar o log
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (fechado) {
+            return;
+        }
+        fechado = true;
+        log.close();
+        for (Assinatura assinatura : assinaturas) {
+            assinatura.sinalizar();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.crud.repository;
+
+/**
+ * Filtro de Bloom: estrutura probabilística que responde se uma chave
+ * "talvez existe" ou "certamente não existe", usando poucos bits por chave.
+ *
+ * Não há falsos negativos: se a chave foi adicionada, o filtro sempre
+ * responde que ela talvez exista. Falsos positivos ocorrem na taxa
+ * configurada enquanto a quantidade de chaves não passar da capacidade.
+ * Chaves não podem ser retiradas; após muitas remoções o filtro deve ser
+ * reconstruído para recuperar a precisão.
+ */
+public class FiltroBloom {
+
+    private final long[] bits;
+    private final long quantidadeBits;
+    private final int quantidadeHashes;
+    private final int capacidade;
+    private int quantidade;
+
+    /**
+     * Cria um filtro dimensionado para a capacidade e a taxa de falsos positivos.
+     *
+     * @param capacidade Quantidade de chaves esperada
+     * @param taxaFalsoPositivo Taxa de falsos positivos desejada (ex: 0.01 para 1%)
+     */
+    public FiltroBloom(int capacidade, double taxaFalsoPositivo) {
+        if (capacidade < 1) {
+            throw new IllegalArgumentException("Capacidade do filtro deve ser maior que zero");
+        }
+        if (taxaFalsoPositivo <= 0 || taxaFalsoPositivo >= 1) {
+            throw new IllegalArgumentException("Taxa de falsos positivos deve estar entre 0 e 1");
+        }
+        // m = -n ln(p) / (ln 2)^2 bits e k = (m / n) ln 2 funções de hash
+        long m = (long) Math.ceil(-capacidade * Math.log(taxaFalsoPositivo) / (Math.log(2) * Math.log(2)));
+        m = Math.max(64, (m + 63) / 64 * 64);
+        this.bits = new long[(int) (m / 64)];
+        this.quantidadeBits = m;
+        this.quantidadeHashes = Math.max(1, (int) Math.round((double) m / capacidade * Math.log(2)));
+        this.capacidade = capacidade;
+    }
+
+    /**
+     * Adiciona uma chave ao filtro.
+     *
+     * @param chave Chave a ser adicionada
+     */
+    public synchronized void adicionar(String chave) {
+        long hash = hash(chave);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            bits[(int) (posicao >>> 6)] |= 1L << posicao;
+        }
+        quantidade++;
+    }
+
+    /**
+     * Verifica se a chave pode ter sido adicionada.
+     *
+     * @param chave Chave consultada
+     * @return false se a chave certamente não foi adicionada
+     */
+    public synchronized boolean talvezContenha(String chave) {
+        long hash = hash(chave);
+        long h1 = hash;
+        long h2 = (hash >>> 32) | 1;
+        for (int i = 0; i < quantidadeHashes; i++) {
+            long posicao = Math.floorMod(h1 + i * h2, quantidadeBits);
+            if ((bits[(int) (posicao >>> 6)] & (1L << posicao)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Hash de 64 bits da chave (FNV-1a seguido da mistura final do MurmurHash3).
+     */
+    private static long hash(String chave) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < chave.length(); i++) {
+            h ^= chave.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    public int getCapacidade() {
+        return capacidade;
+    }
+
+    public synchronized int getQuantidade() {
+        return quantidade;
+    }
+
+    /**
+     * Indica se o filtro recebeu mais chaves do que a capacidade planejada,
+     * situação em que a taxa de falsos positivos passa da configurada.
+     *
+     * @return true se a capacidade foi ultrapassada
+     */
+    public synchronized boolean cheio() {
+        return quantidade > capacidade;
+    }
+
+    /**
+     * Estima a taxa de falsos positivos com a quantidade atual de chaves:
+     * (1 - e^(-k n / m))^k.
+     *
+     * @return Taxa estimada entre 0 e 1
+     */
+    public synchronized double getTaxaEstimada() {
+        return Math.pow(1 - Math.exp(-(double) quantidadeHashes * quantidade / quantidadeBits), quantidadeHashes);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("Filtro de Bloom: %d/%d chaves | %d bits | %d hashes | falsos positivos estimados: %.2f%%",
+                quantidade, capacidade, quantidadeBits, quantidadeHashes, getTaxaEstimada() * 100);
+    }
+}
@@ -0,0 +1,235 @@
+package com.crud.repository;
+
+import com.crud.model.Pagina;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+/**
+ * Índice de busca por nome, sem diferenciar acentos nem maiúsculas.
+ *
+ * Mantém duas estruturas atualizadas a cada inclusão, alteração e remoção:
+ * - um mapa ordenado (nome normalizado -> emails), usado nas buscas por
+ *   prefixo com termos curtos (menos de 3 letras)
+ * - um índice de trigramas (trecho de 3 letras -> emails), usado nas buscas
+ *   por prefixo ou trecho do nome com termos maiores
+ *
+ * Os resultados são ordenados por relevância: nome igual ao termo, nome que
+ * começa com o termo, alguma palavra que começa com o termo e, por fim,
+ * nome que apenas contém o termo.
+ */
+public class IndiceNomes {
+
+    private static final int TAMANHO_GRAMA = 3;
+    private static final Pattern MARCAS_ACENTO = Pattern.compile("\\p{M}+");
+    private static final Pattern ESPACOS = Pattern.compile("\\s+");
+
+    private final TreeMap<String, Set<String>> porNome = new TreeMap<>();
+    private final Map<String, Set<String>> porGrama = new HashMap<>();
+    private final Map<String, String> nomePorEmail = new HashMap<>();
+
+    /**
+     * Normaliza um nome para busca: remove acentos, converte para
+     * minúsculas e reduz espaços repetidos a um só.
+     *
+     * @param nome Nome a ser normalizado
+     * @return Nome normalizado (vazio se o nome for null)
+     */
+    public static String normalizar(String nome) {
+        if (nome == null) {
+            return "";
+        }
+        String semAcento = MARCAS_ACENTO.matcher(Normalizer.normalize(nome, Normalizer.Form.NFD)).replaceAll("");
+        return ESPACOS.matcher(semAcento.toLowerCase(Locale.ROOT).trim()).replaceAll(" ");
+    }
+
+    /**
+     * Classifica o quanto um nome corresponde ao termo buscado.
+     * Ambos devem estar normalizados.
+     *
+     * @param nome Nome normalizado
+     * @param termo Termo normalizado
+     * @return 0 (igual), 1 (prefixo do nome), 2 (prefixo de palavra), 3 (trecho) ou -1 se não corresponder
+     */
+    public static int classificar(String nome, String termo) {
+        if (nome.equals(termo)) {
+            return 0;
+        }
+        if (nome.startsWith(termo)) {
+            return 1;
+        }
+        int posicao = nome.indexOf(termo);
+        if (posicao < 0) {
+            return -1;
+        }
+        // Verifica se o termo aparece no início de alguma palavra
+        while (posicao >= 0) {
+            if (posicao == 0 || nome.charAt(posicao - 1) == ' ') {
+                return 2;
+            }
+            posicao = nome.indexOf(termo, posicao + 1);
+        }
+        return 3;
+    }
+
+    /**
+     * Indica se o termo é curto demais para busca por trecho e deve
+     * corresponder apenas ao início do nome.
+     *
+     * @param termo Termo normalizado
+     * @return true se o termo tiver menos de três letras
+     */
+    public static boolean apenasPrefixo(String termo) {
+        return termo.length() < TAMANHO_GRAMA;
+    }
+
+    /**
+     * Indexa (ou reindexa) o nome associado a um email.
+     *
+     * @param email Email normalizado
+     * @param nome Nome da pessoa
+     */
+    public void adicionar(String email, String nome) {
+        remover(email);
+        String normalizado = normalizar(nome);
+        nomePorEmail.put(email, normalizado);
+        porNome.computeIfAbsent(normalizado, n -> new HashSet<>()).add(email);
+        for (String grama : gramas(normalizado)) {
+            porGrama.computeIfAbsent(grama, g -> new HashSet<>()).add(email);
+        }
+    }
+
+    /**
+     * Remove o email do índice.
+     *
+     * @param email Email normalizado
+     */
+    public void remover(String email) {
+        String normalizado = nomePorEmail.remove(email);
+        if (normalizado == null) {
+            return;
+        }
+        removerDe(porNome, normalizado, email);
+        for (String grama : gramas(normalizado)) {
+            removerDe(porGrama, grama, email);
+        }
+    }
+
+    /**
+     * Remove todas as entradas do índice.
+     */
+    public void limpar() {
+        porNome.clear();
+        porGrama.clear();
+        nomePorEmail.clear();
+    }
+
+    /**
+     * Busca emails pelo nome, em páginas ordenadas por relevância.
+     *
+     * @param termo Trecho do nome buscado
+     * @param inicio Quantidade de resultados a pular
+     * @param limite Quantidade máxima de resultados na página
+     * @return Página com os emails normalizados encontrados
+     */
+    public Pagina<String> buscar(String termo, int inicio, int limite) {
+        String normalizado = normalizar(termo);
+        if (normalizado.isEmpty()) {
+            return new Pagina<>(new ArrayList<>(), false, null);
+        }
+
+        List<Resultado> resultados = new ArrayList<>();
+        for (String email : candidatos(normalizado)) {
+            String nome = nomePorEmail.get(email);
+            int classe = classificar(nome, normalizado);
+            if (classe >= 0) {
+                resultados.add(new Resultado(email, nome, classe));
+            }
+        }
+        resultados.sort(Resultado.ORDEM);
+
+        List<String> emails = new ArrayList<>();
+        int fim = (int) Math.min(resultados.size(), (long) inicio + limite);
+        for (int i = inicio; i < fim; i++) {
+            emails.add(resultados.get(i).email);
+        }
+        return new Pagina<>(emails, fim < resultados.size(), null);
+    }
+
+    /**
+     * Seleciona os emails que podem corresponder ao termo. Termos com menos
+     * de três letras são buscados apenas como prefixo do nome, no mapa
+     * ordenado; os demais, pela interseção dos trigramas do termo.
+     */
+    private Set<String> candidatos(String termo) {
+        Set<String> candidatos = new HashSet<>();
+        if (apenasPrefixo(termo)) {
+            for (Set<String> emails : porNome.subMap(termo, termo + Character.MAX_VALUE).values()) {
+                candidatos.addAll(emails);
+            }
+            return candidatos;
+        }
+
+        List<Set<String>> listas = new ArrayList<>();
+        for (String grama : gramas(termo)) {
+            Set<String> emails = porGrama.get(grama);
+            if (emails == null) {
+                return Collections.emptySet();
+            }
+            listas.add(emails);
+        }
+        listas.sort(Comparator.comparingInt(Set::size));
+
+        candidatos.addAll(listas.get(0));
+        for (int i = 1; i < listas.size() && !candidatos.isEmpty(); i++) {
+            candidatos.retainAll(listas.get(i));
+        }
+        return candidatos;
+    }
+
+    private static Set<String> gramas(String texto) {
+        Set<String> gramas = new HashSet<>();
+        for (int i = 0; i + TAMANHO_GRAMA <= texto.length(); i++) {
+            gramas.add(texto.substring(i, i + TAMANHO_GRAMA));
+        }
+        return gramas;
+    }
+
+    private static void removerDe(Map<String, Set<String>> mapa, String chave, String email) {
+        Set<String> emails = mapa.get(chave);
+        if (emails != null) {
+            emails.remove(email);
+            if (emails.isEmpty()) {
+                mapa.remove(chave);
+            }
+        }
+    }
+
+    /**
+     * Resultado de busca com a classe de relevância.
+     */
+    static final class Resultado {
+        static final Comparator<Resultado> ORDEM = Comparator.<Resultado>comparingInt(r -> r.classe)
+                .thenComparing(r -> r.nome)
+                .thenComparing(r -> r.email);
+
+        final String email;
+        final String nome;
+        final int classe;
+
+        Resultado(String email, String nome, int classe) {
+            this.email = email;
+            this.nome = nome;
+            this.classe = classe;
+        }
+    }
+}
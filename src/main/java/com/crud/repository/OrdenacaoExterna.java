@@ -0,0 +1,184 @@
+package com.crud.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Ordena pares chave/valor que podem não caber na memória, para a carga
+ * ordenada de uma {@link ArvoreBMais}.
+ *
+ * Os pares são acumulados em lotes de tamanho fixo; cada lote cheio é
+ * ordenado e gravado em um arquivo temporário, e {@link #ordenar()} intercala
+ * os arquivos. A ordem é a mesma da árvore (bytes UTF-8 da chave) e, entre
+ * chaves iguais, a do valor.
+ */
+final class OrdenacaoExterna implements Closeable {
+
+    /** Pares mantidos em memória antes de gravar um lote. */
+    static final int PARES_POR_LOTE = 500_000;
+
+    private static final Comparator<Par> ORDEM = (a, b) -> {
+        int comparacao = Arrays.compareUnsigned(a.chave, b.chave);
+        return comparacao != 0 ? comparacao : Long.compare(a.valor, b.valor);
+    };
+
+    private static final class Par {
+        final byte[] chave;
+        final long valor;
+
+        Par(byte[] chave, long valor) {
+            this.chave = chave;
+            this.valor = valor;
+        }
+    }
+
+    private final File diretorio;
+    private final String prefixo;
+    private final List<File> lotes = new ArrayList<>();
+    private final List<DataInputStream> abertos = new ArrayList<>();
+    private List<Par> pares = new ArrayList<>();
+
+    /**
+     * @param diretorio Diretório dos arquivos temporários
+     * @param prefixo Prefixo do nome dos arquivos temporários
+     */
+    OrdenacaoExterna(File diretorio, String prefixo) {
+        this.diretorio = diretorio;
+        this.prefixo = prefixo;
+    }
+
+    void adicionar(String chave, long valor) throws IOException {
+        pares.add(new Par(chave.getBytes(StandardCharsets.UTF_8), valor));
+        if (pares.size() >= PARES_POR_LOTE) {
+            gravarLote();
+        }
+    }
+
+    private void gravarLote() throws IOException {
+        pares.sort(ORDEM);
+        File lote = File.createTempFile(prefixo, ".lote", diretorio);
+        lotes.add(lote);
+        try (DataOutputStream saida = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(lote), 1 << 16))) {
+            for (Par par : pares) {
+                saida.writeShort(par.chave.length);
+                saida.write(par.chave);
+                saida.writeLong(par.valor);
+            }
+        }
+        pares = new ArrayList<>();
+    }
+
+    /**
+     * Retorna os pares em ordem. Só pode ser chamado uma vez; os arquivos
+     * temporários são apagados por {@link #close()}.
+     *
+     * @return Iterador dos pares ordenados (pode lançar {@link UncheckedIOException})
+     * @throws IOException Se ocorrer erro na gravação do último lote
+     */
+    Iterator<ArvoreBMais.Entrada> ordenar() throws IOException {
+        if (lotes.isEmpty()) {
+            pares.sort(ORDEM);
+            Iterator<Par> iterador = pares.iterator();
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterador.hasNext();
+                }
+
+                @Override
+                public ArvoreBMais.Entrada next() {
+                    return entrada(iterador.next());
+                }
+            };
+        }
+        if (!pares.isEmpty()) {
+            gravarLote();
+        }
+        pares = Collections.emptyList();
+
+        // Intercalação: a fila guarda o próximo par de cada lote
+        PriorityQueue<Object[]> fila = new PriorityQueue<>((a, b) -> ORDEM.compare((Par) a[0], (Par) b[0]));
+        for (File lote : lotes) {
+            DataInputStream entrada = new DataInputStream(
+                    new BufferedInputStream(new FileInputStream(lote), 1 << 16));
+            abertos.add(entrada);
+            Par primeiro = ler(entrada);
+            if (primeiro != null) {
+                fila.add(new Object[] {primeiro, entrada});
+            }
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return !fila.isEmpty();
+            }
+
+            @Override
+            public ArvoreBMais.Entrada next() {
+                Object[] menor = fila.poll();
+                if (menor == null) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    Par proximo = ler((DataInputStream) menor[1]);
+                    if (proximo != null) {
+                        fila.add(new Object[] {proximo, menor[1]});
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return entrada((Par) menor[0]);
+            }
+        };
+    }
+
+    private static Par ler(DataInputStream entrada) throws IOException {
+        int tamanho;
+        try {
+            tamanho = entrada.readUnsignedShort();
+        } catch (EOFException e) {
+            return null;
+        }
+        byte[] chave = new byte[tamanho];
+        entrada.readFully(chave);
+        return new Par(chave, entrada.readLong());
+    }
+
+    private static ArvoreBMais.Entrada entrada(Par par) {
+        return new ArvoreBMais.Entrada(new String(par.chave, StandardCharsets.UTF_8), par.valor);
+    }
+
+    /**
+     * Fecha e apaga os arquivos temporários.
+     */
+    @Override
+    public void close() throws IOException {
+        for (DataInputStream entrada : abertos) {
+            entrada.close();
+        }
+        for (File lote : lotes) {
+            lote.delete();
+        }
+        lotes.clear();
+        pares = Collections.emptyList();
+    }
+}
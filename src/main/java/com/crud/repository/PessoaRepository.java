@@ -1,9 +1,27 @@
 package com.crud.repository;
 
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pagina;
 import com.crud.model.Pessoa;
+import com.crud.util.Validador;
 import java.io.*;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Classe responsável pela persistência de dados em arquivo de texto.
@@ -12,17 +30,152 @@ import java.util.List;
 public class PessoaRepository {
     
     private static final String ARQUIVO_DADOS = "data/pessoas.txt";
+
+    // Métricas das operações que acessam o arquivo de texto
+    private static final Metricas METRICAS = Metricas.global();
+    private static final MetricaOperacao METRICA_LER_TODAS = METRICAS.operacao("PessoaRepository.lerTodas");
+    private static final MetricaOperacao METRICA_STREAM = METRICAS.operacao("PessoaRepository.stream");
+    private static final MetricaOperacao METRICA_SALVAR_TODAS = METRICAS.operacao("PessoaRepository.salvarTodas");
+    private static final MetricaOperacao METRICA_ADICIONAR_TODAS = METRICAS.operacao("PessoaRepository.adicionarTodas");
+    private static final MetricaOperacao METRICA_TRANSACAO = METRICAS.operacao("PessoaRepository.executarTransacao");
+
     private File arquivo;
+    private volatile FeedAlteracoes feed;
 
     /**
      * Construtor que inicializa o arquivo de dados.
      * Cria o diretório e arquivo se não existirem.
      */
     public PessoaRepository() {
-        this.arquivo = new File(ARQUIVO_DADOS);
+        this(ARQUIVO_DADOS);
+    }
+
+    /**
+     * Construtor que utiliza um arquivo de dados específico.
+     * Cria o diretório e arquivo se não existirem.
+     * 
+     * @param caminhoArquivo Caminho do arquivo de dados
+     */
+    public PessoaRepository(String caminhoArquivo) {
+        this.arquivo = new File(caminhoArquivo);
         criarDiretorioSeNecessario();
     }
 
+    /**
+     * Retorna o arquivo de dados utilizado pelo repositório.
+     * 
+     * @return Arquivo de dados
+     */
+    public File getArquivo() {
+        return arquivo;
+    }
+
+    /**
+     * Define o feed que recebe as inclusões, alterações e remoções feitas
+     * por este repositório.
+     * 
+     * @param feed Feed de alterações (null para desativar)
+     */
+    public void setFeedAlteracoes(FeedAlteracoes feed) {
+        this.feed = feed;
+    }
+
+    /**
+     * Retorna o feed de alterações do repositório.
+     * 
+     * @return Feed de alterações ou null se não houver
+     */
+    public FeedAlteracoes getFeedAlteracoes() {
+        return feed;
+    }
+
+    /**
+     * Indica se há um feed de alterações. Subclasses podem usá-lo para
+     * evitar buscar os dados anteriores de uma operação sem necessidade.
+     * 
+     * @return true se as alterações são publicadas
+     */
+    protected boolean temFeed() {
+        return feed != null;
+    }
+
+    /**
+     * Publica uma operação concluída no feed de alterações, se houver.
+     * Deve ser chamado depois de a operação ser persistida e na mesma
+     * ordem em que as operações foram aplicadas.
+     * 
+     * @param tipo Tipo da operação
+     * @param antes Dados anteriores (null na inclusão)
+     * @param depois Dados posteriores (null na remoção)
+     * @throws IOException Se ocorrer erro na gravação do log de alterações
+     */
+    protected void notificar(Alteracao.Tipo tipo, Pessoa antes, Pessoa depois) throws IOException {
+        FeedAlteracoes atual = feed;
+        if (atual != null) {
+            atual.publicar(tipo, antes, depois);
+        }
+    }
+
+    /**
+     * Publica a inclusão de cada pessoa no feed de alterações, se houver.
+     * 
+     * @param pessoas Pessoas incluídas
+     * @throws IOException Se ocorrer erro na gravação do log de alterações
+     */
+    protected void notificarInclusoes(Collection<Pessoa> pessoas) throws IOException {
+        if (temFeed()) {
+            for (Pessoa pessoa : pessoas) {
+                notificar(Alteracao.Tipo.INCLUSAO, null, pessoa);
+            }
+        }
+    }
+
+    /**
+     * Normaliza um email para uso como chave de busca.
+     * Remove espaços e converte para minúsculas, mantendo a mesma
+     * semântica do equalsIgnoreCase usado nas buscas.
+     * 
+     * @param email Email a ser normalizado
+     * @return Email normalizado ou null se o email for null
+     */
+    public static String normalizarEmail(String email) {
+        if (email == null) {
+            return null;
+        }
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Codificação do arquivo de dados. Por padrão, a codificação da plataforma.
+     * 
+     * @return Codificação usada na leitura e na escrita
+     */
+    protected Charset getCharset() {
+        return Charset.defaultCharset();
+    }
+
+    /**
+     * Converte uma pessoa na linha gravada no arquivo. Subclasses podem
+     * acrescentar informações à linha (ex: um checksum).
+     * 
+     * @param pessoa Pessoa a ser gravada
+     * @return Linha sem a quebra de linha
+     */
+    protected String formatarLinha(Pessoa pessoa) {
+        return pessoa.toFileFormat();
+    }
+
+    /**
+     * Converte uma linha do arquivo em pessoa. Deve aceitar as linhas
+     * geradas por {@link #formatarLinha(Pessoa)}.
+     * 
+     * @param linha Linha lida do arquivo
+     * @return Pessoa ou null se a linha for inválida
+     */
+    protected Pessoa interpretarLinha(String linha) {
+        return Pessoa.fromFileFormat(linha);
+    }
+
     /**
      * Cria o diretório 'data' se ele não existir.
      */
@@ -46,19 +199,186 @@ public class PessoaRepository {
             return pessoas;
         }
 
-        try (BufferedReader reader = new BufferedReader(new FileReader(arquivo))) {
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try (BufferedReader reader = new BufferedReader(new FileReader(arquivo, getCharset()))) {
             String linha;
             while ((linha = reader.readLine()) != null) {
-                Pessoa pessoa = Pessoa.fromFileFormat(linha);
+                Pessoa pessoa = interpretarLinha(linha);
                 if (pessoa != null) {
                     pessoas.add(pessoa);
                 }
             }
+            erro = false;
+        } finally {
+            METRICA_LER_TODAS.registrar(inicio, erro);
         }
+        METRICAS.adicionarBytesLidos(arquivo.length());
+        METRICAS.adicionarRegistrosLidos(pessoas.size());
         
         return pessoas;
     }
 
+    /**
+     * Retorna um stream que lê as pessoas do arquivo sob demanda, linha a linha.
+     * O stream deve ser fechado após o uso (ex: com try-with-resources).
+     * 
+     * @return Stream de pessoas na ordem do arquivo
+     * @throws IOException Se ocorrer erro ao abrir o arquivo
+     */
+    public Stream<Pessoa> stream() throws IOException {
+        if (!arquivo.exists()) {
+            return Stream.empty();
+        }
+        long inicio = System.nanoTime();
+        // O stream pode ser fechado antes do fim do arquivo: conta apenas as
+        // linhas consumidas (bytes aproximados pela quantidade de caracteres)
+        LongAdder caracteres = new LongAdder();
+        LongAdder registros = new LongAdder();
+        return Files.lines(arquivo.toPath(), getCharset())
+                .peek(linha -> caracteres.add(linha.length() + 1))
+                .map(this::interpretarLinha)
+                .filter(Objects::nonNull)
+                .peek(pessoa -> registros.increment())
+                .onClose(() -> {
+                    // Mede do início da leitura até o fechamento do stream
+                    METRICA_STREAM.registrar(inicio, false);
+                    METRICAS.adicionarBytesLidos(caracteres.sum());
+                    METRICAS.adicionarRegistrosLidos(registros.sum());
+                });
+    }
+
+    /**
+     * Executa uma ação para cada pessoa, sem carregar todas em memória.
+     * 
+     * @param acao Ação executada para cada pessoa
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public void forEach(Consumer<Pessoa> acao) throws IOException {
+        try (Stream<Pessoa> pessoas = stream()) {
+            pessoas.forEach(acao);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Lista uma página de pessoas pela posição (offset e limite).
+     * Lê o arquivo apenas até o fim da página solicitada.
+     * 
+     * @param inicio Quantidade de pessoas a pular
+     * @param limite Quantidade máxima de pessoas na página
+     * @return Página com as pessoas encontradas
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public Pagina<Pessoa> listarPagina(int inicio, int limite) throws IOException {
+        List<Pessoa> itens;
+        try (Stream<Pessoa> pessoas = stream()) {
+            // Lê um item a mais para saber se existe próxima página
+            itens = pessoas.skip(inicio).limit(limite + 1L).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        boolean temProxima = itens.size() > limite;
+        if (temProxima) {
+            itens = itens.subList(0, limite);
+        }
+        return new Pagina<>(new ArrayList<>(itens), temProxima, null);
+    }
+
+    /**
+     * Lista uma página de pessoas ordenadas por email (paginação por chave).
+     * Percorre o arquivo em streaming, mantendo em memória apenas os
+     * itens da página.
+     * 
+     * @param cursor Email a partir do qual listar (exclusivo), ou null para a primeira página
+     * @param limite Quantidade máxima de pessoas na página
+     * @return Página com as pessoas e o cursor da próxima página
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public Pagina<Pessoa> listarAposEmail(String cursor, int limite) throws IOException {
+        String inicio = normalizarEmail(cursor);
+        Comparator<Pessoa> porEmail = Comparator.comparing(p -> normalizarEmail(p.getEmail()));
+        // Heap com os maiores no topo: guarda os (limite + 1) menores emails após o cursor
+        PriorityQueue<Pessoa> menores = new PriorityQueue<>(porEmail.reversed());
+
+        forEach(pessoa -> {
+            String email = normalizarEmail(pessoa.getEmail());
+            if (inicio != null && email.compareTo(inicio) <= 0) {
+                return;
+            }
+            menores.add(pessoa);
+            if (menores.size() > limite + 1) {
+                menores.poll();
+            }
+        });
+
+        List<Pessoa> itens = new ArrayList<>(menores);
+        itens.sort(porEmail);
+        boolean temProxima = itens.size() > limite;
+        if (temProxima) {
+            itens = new ArrayList<>(itens.subList(0, limite));
+        }
+        String proximoCursor = temProxima && !itens.isEmpty()
+                ? normalizarEmail(itens.get(itens.size() - 1).getEmail()) : null;
+        return new Pagina<>(itens, temProxima, proximoCursor);
+    }
+
+    /**
+     * Lista uma página das pessoas com email no domínio informado, em ordem
+     * do usuário (a parte antes do @). Percorre o arquivo em streaming,
+     * como {@link #listarAposEmail}.
+     * 
+     * @param dominio Domínio dos emails (ex: exemplo.com), sem diferenciar maiúsculas
+     * @param cursor Email a partir do qual listar (exclusivo), ou null para a primeira página
+     * @param limite Quantidade máxima de pessoas na página
+     * @return Página com as pessoas e o cursor da próxima página
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public Pagina<Pessoa> listarPorDominio(String dominio, String cursor, int limite) throws IOException {
+        String sufixo = "@" + normalizarEmail(dominio);
+        String inicio = cursor != null ? chaveDominio(normalizarEmail(cursor)) : null;
+        Comparator<Pessoa> porUsuario = Comparator.comparing(p -> chaveDominio(normalizarEmail(p.getEmail())));
+        PriorityQueue<Pessoa> menores = new PriorityQueue<>(porUsuario.reversed());
+
+        forEach(pessoa -> {
+            String email = normalizarEmail(pessoa.getEmail());
+            if (!email.endsWith(sufixo) || inicio != null && chaveDominio(email).compareTo(inicio) <= 0) {
+                return;
+            }
+            menores.add(pessoa);
+            if (menores.size() > limite + 1) {
+                menores.poll();
+            }
+        });
+
+        List<Pessoa> itens = new ArrayList<>(menores);
+        itens.sort(porUsuario);
+        boolean temProxima = itens.size() > limite;
+        if (temProxima) {
+            itens = new ArrayList<>(itens.subList(0, limite));
+        }
+        String proximoCursor = temProxima && !itens.isEmpty()
+                ? normalizarEmail(itens.get(itens.size() - 1).getEmail()) : null;
+        return new Pagina<>(itens, temProxima, proximoCursor);
+    }
+
+    /**
+     * Chave de ordenação das consultas por domínio: o domínio antes do
+     * usuário, para que os emails de um domínio fiquem juntos.
+     * 
+     * @param email Email normalizado
+     * @return Chave {@code dominio@usuario}
+     */
+    static String chaveDominio(String email) {
+        int arroba = email.lastIndexOf('@');
+        if (arroba < 0) {
+            return email;
+        }
+        return email.substring(arroba + 1) + "@" + email.substring(0, arroba);
+    }
+
     /**
      * Salva uma lista de pessoas no arquivo.
      * 
@@ -66,12 +386,18 @@ public class PessoaRepository {
      * @throws IOException Se ocorrer erro na escrita do arquivo
      */
     public void salvarTodas(List<Pessoa> pessoas) throws IOException {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo))) {
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo, getCharset()))) {
             for (Pessoa pessoa : pessoas) {
-                writer.write(pessoa.toFileFormat());
+                writer.write(formatarLinha(pessoa));
                 writer.newLine();
             }
+            erro = false;
+        } finally {
+            METRICA_SALVAR_TODAS.registrar(inicio, erro);
         }
+        METRICAS.adicionarBytesEscritos(arquivo.length());
     }
 
     /**
@@ -93,9 +419,50 @@ public class PessoaRepository {
         
         pessoas.add(pessoa);
         salvarTodas(pessoas);
+        notificar(Alteracao.Tipo.INCLUSAO, null, pessoa);
         return true;
     }
 
+    /**
+     * Adiciona várias pessoas de uma vez, acrescentando-as ao final do
+     * arquivo em uma única passada, sem reler nem reescrever os registros
+     * existentes. O chamador é responsável por garantir que os emails sejam
+     * distintos entre si e ainda não cadastrados.
+     * 
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        acrescentar(pessoas);
+        notificarInclusoes(pessoas);
+        return pessoas.size();
+    }
+
+    /**
+     * Acrescenta as pessoas ao final do arquivo, sem publicá-las no feed
+     * de alterações. Usado pelas subclasses que publicam as inclusões por
+     * conta própria.
+     * 
+     * @param pessoas Pessoas a serem acrescentadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    protected void acrescentar(Collection<Pessoa> pessoas) throws IOException {
+        long inicio = System.nanoTime();
+        long tamanhoAnterior = arquivo.length();
+        boolean erro = true;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(arquivo, getCharset(), true))) {
+            for (Pessoa pessoa : pessoas) {
+                writer.write(formatarLinha(pessoa));
+                writer.newLine();
+            }
+            erro = false;
+        } finally {
+            METRICA_ADICIONAR_TODAS.registrar(inicio, erro);
+        }
+        METRICAS.adicionarBytesEscritos(arquivo.length() - tamanhoAnterior);
+    }
+
     /**
      * Busca uma pessoa pelo email.
      * 
@@ -115,6 +482,68 @@ public class PessoaRepository {
         return null;
     }
 
+    /**
+     * Busca as pessoas com o telefone informado, comparando apenas os dígitos.
+     * Nesta implementação o arquivo é percorrido por completo.
+     * 
+     * @param telefone Telefone em qualquer formato aceito pelo validador
+     * @return Pessoas com o telefone informado (vazia se nenhuma)
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public List<Pessoa> buscarPorTelefone(String telefone) throws IOException {
+        String digitos = Validador.normalizarTelefone(telefone);
+        List<Pessoa> encontradas = new ArrayList<>();
+        if (!digitos.isEmpty()) {
+            forEach(pessoa -> {
+                if (Validador.normalizarTelefone(pessoa.getTelefone()).equals(digitos)) {
+                    encontradas.add(pessoa);
+                }
+            });
+        }
+        return encontradas;
+    }
+
+    /**
+     * Busca pessoas pelo nome (sem diferenciar acentos nem maiúsculas),
+     * em páginas ordenadas por relevância. Nesta implementação o arquivo é
+     * percorrido por completo; repositórios indexados respondem pelo
+     * {@link IndiceNomes}.
+     * 
+     * @param termo Trecho do nome buscado
+     * @param inicio Quantidade de resultados a pular
+     * @param limite Quantidade máxima de resultados na página
+     * @return Página com as pessoas encontradas
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public Pagina<Pessoa> buscarPorNome(String termo, int inicio, int limite) throws IOException {
+        String normalizado = IndiceNomes.normalizar(termo);
+        List<IndiceNomes.Resultado> resultados = new ArrayList<>();
+        Map<String, Pessoa> encontradas = new HashMap<>();
+        if (!normalizado.isEmpty()) {
+            // Termos curtos só correspondem ao início do nome, como no índice
+            int classeMaxima = IndiceNomes.apenasPrefixo(normalizado) ? 1 : 3;
+            forEach(pessoa -> {
+                String nome = IndiceNomes.normalizar(pessoa.getNome());
+                int classe = IndiceNomes.classificar(nome, normalizado);
+                if (classe > classeMaxima) {
+                    return;
+                }
+                String email = normalizarEmail(pessoa.getEmail());
+                if (classe >= 0 && encontradas.putIfAbsent(email, pessoa) == null) {
+                    resultados.add(new IndiceNomes.Resultado(email, nome, classe));
+                }
+            });
+        }
+        resultados.sort(IndiceNomes.Resultado.ORDEM);
+
+        List<Pessoa> itens = new ArrayList<>();
+        int fim = (int) Math.min(resultados.size(), (long) inicio + limite);
+        for (int i = inicio; i < fim; i++) {
+            itens.add(encontradas.get(resultados.get(i).email));
+        }
+        return new Pagina<>(itens, fim < resultados.size(), null);
+    }
+
     /**
      * Atualiza os dados de uma pessoa existente.
      * 
@@ -127,8 +556,9 @@ public class PessoaRepository {
         
         for (int i = 0; i < pessoas.size(); i++) {
             if (pessoas.get(i).getEmail().equalsIgnoreCase(pessoaAtualizada.getEmail())) {
-                pessoas.set(i, pessoaAtualizada);
+                Pessoa anterior = pessoas.set(i, pessoaAtualizada);
                 salvarTodas(pessoas);
+                notificar(Alteracao.Tipo.ALTERACAO, anterior, pessoaAtualizada);
                 return true;
             }
         }
@@ -136,6 +566,44 @@ public class PessoaRepository {
         return false; // Pessoa não encontrada
     }
 
+    /**
+     * Atualiza uma pessoa somente se os dados atuais ainda forem iguais aos
+     * esperados (compare-and-set). Quem altera parte dos dados a partir de
+     * uma busca usa este método para não sobrescrever uma alteração feita
+     * por outra operação entre a busca e a atualização: se os dados
+     * mudaram, nada é gravado e o chamador busca de novo.
+     * 
+     * A implementação padrão compara e atualiza com o monitor do
+     * repositório. Subclasses que coordenam as escritas de outra forma
+     * sobrescrevem este método.
+     * 
+     * @param esperada Dados lidos pelo chamador
+     * @param pessoaAtualizada Pessoa com os dados atualizados (mesmo email)
+     * @return true se a pessoa foi atualizada; false se não existe mais ou
+     *         se os dados mudaram desde a leitura
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    public synchronized boolean atualizarSe(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        if (!mesmosDados(buscarPorEmail(pessoaAtualizada.getEmail()), esperada)) {
+            return false;
+        }
+        return atualizar(pessoaAtualizada);
+    }
+
+    /**
+     * Compara nome, email e telefone de duas pessoas.
+     * 
+     * @param atual Dados atuais (null se a pessoa não existe)
+     * @param esperada Dados esperados
+     * @return true se a pessoa existe e tem os dados esperados
+     */
+    protected static boolean mesmosDados(Pessoa atual, Pessoa esperada) {
+        return atual != null && esperada != null
+                && Objects.equals(atual.getNome(), esperada.getNome())
+                && Objects.equals(atual.getEmail(), esperada.getEmail())
+                && Objects.equals(atual.getTelefone(), esperada.getTelefone());
+    }
+
     /**
      * Remove uma pessoa do arquivo pelo email.
      * 
@@ -145,13 +613,49 @@ public class PessoaRepository {
      */
     public boolean remover(String email) throws IOException {
         List<Pessoa> pessoas = lerTodas();
+        List<Pessoa> removidas = new ArrayList<>(1);
         
-        boolean removido = pessoas.removeIf(p -> p.getEmail().equalsIgnoreCase(email));
+        boolean removido = pessoas.removeIf(p -> p.getEmail().equalsIgnoreCase(email) && removidas.add(p));
         
         if (removido) {
             salvarTodas(pessoas);
+            for (Pessoa removida : removidas) {
+                notificar(Alteracao.Tipo.REMOCAO, removida, null);
+            }
         }
         
         return removido;
     }
+
+    /**
+     * Executa várias operações como uma só: lê os dados uma vez, aplica as
+     * operações do corpo sobre uma cópia em memória e grava o resultado com
+     * uma única chamada a {@link #salvarTodas}. Se o corpo cancelar a
+     * transação (ou lançar uma exceção), nada é gravado. As operações são
+     * publicadas no feed de alterações depois da gravação.
+     * 
+     * Subclasses que coordenam escritas concorrentes sobrescrevem este
+     * método para bloquear as demais escritas durante a transação.
+     * 
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    public <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try {
+            Transacao transacao = new Transacao(lerTodas());
+            T resultado = corpo.apply(transacao);
+            if (transacao.temAlteracoes()) {
+                salvarTodas(transacao.getPessoas());
+                transacao.notificar(this);
+            }
+            erro = false;
+            return resultado;
+        } finally {
+            METRICA_TRANSACAO.registrar(inicio, erro);
+        }
+    }
 }
@@ -0,0 +1,801 @@
+package com.crud.repository;
+
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pagina;
+import com.crud.model.Pessoa;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Repositório que indexa o arquivo de texto com árvores B+ em disco
+ * ({@link ArvoreBMais}), sem manter os registros em memória.
+ *
+ * O índice de emails (arquivo com a extensão {@value #EXTENSAO_INDICE_EMAIL})
+ * mapeia o email normalizado para a posição, em bytes, da linha da pessoa
+ * no arquivo de dados. O índice de domínios ({@value #EXTENSAO_INDICE_DOMINIO})
+ * usa a chave {@code dominio@usuario}, que deixa os emails de um domínio em
+ * um intervalo contíguo das folhas. Uma busca lê poucas páginas do índice e
+ * uma linha do arquivo; a paginação por email e a consulta por domínio
+ * percorrem as folhas em ordem.
+ *
+ * Inclusões e alterações acrescentam a linha ao final do arquivo; a linha
+ * anterior (na alteração e na remoção) é sobrescrita com espaços, que a
+ * leitura sequencial ignora. Por isso uma pessoa alterada passa para o fim
+ * da ordem do arquivo. Quando os bytes apagados passam da metade do
+ * arquivo, ele é compactado.
+ *
+ * Os índices são sincronizados em {@link #close()}. Se o processo cair
+ * antes disso, ou se o arquivo de dados for alterado por outro modo, os
+ * índices são reconstruídos a partir do arquivo na próxima abertura, com
+ * uma ordenação externa; em emails repetidos vale a primeira linha (mesma
+ * regra da busca linear) e as demais são apagadas.
+ */
+public class PessoaRepositoryArvore extends PessoaRepository implements Closeable {
+
+    /** Extensão do índice de emails, acrescentada ao nome do arquivo de dados. */
+    public static final String EXTENSAO_INDICE_EMAIL = ".email.bpt";
+
+    /** Extensão do índice de domínios, acrescentada ao nome do arquivo de dados. */
+    public static final String EXTENSAO_INDICE_DOMINIO = ".dominio.bpt";
+
+    /** Bytes apagados a partir dos quais o arquivo pode ser compactado. */
+    public static final long LIXO_MINIMO_COMPACTACAO = 1 << 20;
+
+    // Valores gravados no cabeçalho dos índices para conferir o arquivo de dados
+    private static final int META_TAMANHO_DADOS = 0;
+    private static final int META_MODIFICACAO_DADOS = 1;
+    private static final int META_LIXO = 2;
+
+    private static final byte[] QUEBRA_LINHA = System.lineSeparator().getBytes(StandardCharsets.US_ASCII);
+    private static final int LEITURA_LINHA = 256;
+
+    private static final MetricaOperacao METRICA_RECONSTRUIR =
+            Metricas.global().operacao("PessoaRepositoryArvore.reconstruir");
+    private static final MetricaOperacao METRICA_COMPACTAR =
+            Metricas.global().operacao("PessoaRepositoryArvore.compactar");
+
+    private final int paginasEmMemoria;
+    private FileChannel dados;
+    private ArvoreBMais porEmail;
+    private ArvoreBMais porDominio;
+    private long tamanhoDados;
+    private long lixo;
+    private long reconstrucoes;
+    private long compactacoes;
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão.
+     */
+    public PessoaRepositoryArvore() {
+        super();
+        this.paginasEmMemoria = ArvoreBMais.PAGINAS_EM_MEMORIA_PADRAO;
+    }
+
+    /**
+     * Construtor que utiliza um arquivo de dados específico.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     * @param paginasEmMemoria Páginas mantidas em memória por cada índice
+     */
+    public PessoaRepositoryArvore(String caminhoArquivo, int paginasEmMemoria) {
+        super(caminhoArquivo);
+        this.paginasEmMemoria = paginasEmMemoria;
+    }
+
+    /**
+     * Abre o arquivo de dados e os índices, reconstruindo os índices se não
+     * estiverem de acordo com o arquivo. Permite fazer a verificação na
+     * inicialização em vez de na primeira operação.
+     *
+     * @throws IOException Se ocorrer erro na abertura ou na reconstrução
+     */
+    public synchronized void abrir() throws IOException {
+        abrirSeNecessario();
+    }
+
+    private void abrirSeNecessario() throws IOException {
+        if (dados != null) {
+            return;
+        }
+        File arquivo = getArquivo();
+        File diretorio = arquivo.getAbsoluteFile().getParentFile();
+        if (diretorio != null && !diretorio.exists()) {
+            diretorio.mkdirs();
+        }
+        dados = FileChannel.open(arquivo.toPath(),
+                StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+        tamanhoDados = dados.size();
+        if (tamanhoDados > 0 && !terminaComQuebraLinha()) {
+            // Última linha interrompida por uma queda: a próxima inclusão não pode ser emendada nela
+            escrever(ByteBuffer.wrap(QUEBRA_LINHA), tamanhoDados);
+            tamanhoDados += QUEBRA_LINHA.length;
+        }
+
+        porEmail = abrirIndice(getArquivoIndiceEmail());
+        porDominio = abrirIndice(getArquivoIndiceDominio());
+        if (porEmail == null || porDominio == null || !confere(porEmail) || !confere(porDominio)) {
+            reconstruir();
+        } else {
+            lixo = porEmail.getMetadado(META_LIXO);
+        }
+    }
+
+    /**
+     * @return null se o arquivo existente não for um índice válido (é apagado)
+     */
+    private ArvoreBMais abrirIndice(File arquivo) throws IOException {
+        try {
+            return new ArvoreBMais(arquivo, paginasEmMemoria);
+        } catch (IOException e) {
+            Files.deleteIfExists(arquivo.toPath());
+            return null;
+        }
+    }
+
+    /**
+     * @return true se o índice foi sincronizado com o arquivo de dados como está
+     */
+    private boolean confere(ArvoreBMais indice) {
+        if (tamanhoDados == 0) {
+            return indice.isIntegra() && indice.getQuantidade() == 0;
+        }
+        return indice.isIntegra()
+                && indice.getMetadado(META_TAMANHO_DADOS) == tamanhoDados
+                && indice.getMetadado(META_MODIFICACAO_DADOS) == getArquivo().lastModified();
+    }
+
+    private boolean terminaComQuebraLinha() throws IOException {
+        ByteBuffer ultimo = ByteBuffer.allocate(1);
+        dados.read(ultimo, tamanhoDados - 1);
+        return ultimo.get(0) == '\n';
+    }
+
+    public File getArquivoIndiceEmail() {
+        return new File(getArquivo().getPath() + EXTENSAO_INDICE_EMAIL);
+    }
+
+    public File getArquivoIndiceDominio() {
+        return new File(getArquivo().getPath() + EXTENSAO_INDICE_DOMINIO);
+    }
+
+    // ------------------------------------------------------------------
+    // Reconstrução e compactação
+    // ------------------------------------------------------------------
+
+    /**
+     * Recria os dois índices a partir do arquivo de dados. As posições são
+     * ordenadas fora da memória e carregadas de baixo para cima nas árvores.
+     */
+    private void reconstruir() throws IOException {
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try {
+            fecharIndices();
+            Files.deleteIfExists(getArquivoIndiceEmail().toPath());
+            Files.deleteIfExists(getArquivoIndiceDominio().toPath());
+            porEmail = new ArvoreBMais(getArquivoIndiceEmail(), paginasEmMemoria);
+            porDominio = new ArvoreBMais(getArquivoIndiceDominio(), paginasEmMemoria);
+            lixo = 0;
+
+            File temporarios = getArquivo().getAbsoluteFile().getParentFile();
+            try (OrdenacaoExterna emails = new OrdenacaoExterna(temporarios, "email");
+                    OrdenacaoExterna dominios = new OrdenacaoExterna(temporarios, "dominio")) {
+                percorrerDados(emails);
+
+                // A primeira linha de cada email vai para os índices; as repetidas são apagadas
+                List<Long> repetidas = new ArrayList<>();
+                Iterator<ArvoreBMais.Entrada> ordenadas = emails.ordenar();
+                Iterator<ArvoreBMais.Entrada> unicas = new Iterator<>() {
+                    private ArvoreBMais.Entrada proxima = ordenadas.hasNext() ? ordenadas.next() : null;
+
+                    @Override
+                    public boolean hasNext() {
+                        return proxima != null;
+                    }
+
+                    @Override
+                    public ArvoreBMais.Entrada next() {
+                        ArvoreBMais.Entrada atual = proxima;
+                        if (atual == null) {
+                            throw new NoSuchElementException();
+                        }
+                        proxima = null;
+                        while (ordenadas.hasNext()) {
+                            ArvoreBMais.Entrada seguinte = ordenadas.next();
+                            if (!seguinte.getChave().equals(atual.getChave())) {
+                                proxima = seguinte;
+                                break;
+                            }
+                            repetidas.add(seguinte.getValor());
+                        }
+                        try {
+                            dominios.adicionar(chaveDominio(atual.getChave()), atual.getValor());
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return atual;
+                    }
+                };
+                try {
+                    porEmail.carregarOrdenado(unicas);
+                    porDominio.carregarOrdenado(dominios.ordenar());
+                } catch (UncheckedIOException e) {
+                    throw e.getCause();
+                }
+                for (long posicao : repetidas) {
+                    apagarLinha(posicao);
+                }
+            }
+            sincronizarIndices();
+            reconstrucoes++;
+            erro = false;
+        } finally {
+            METRICA_RECONSTRUIR.registrar(inicio, erro);
+        }
+    }
+
+    /**
+     * Lê o arquivo de dados do início ao fim, passando o email e a posição
+     * de cada linha válida para a ordenação. Soma as linhas inválidas ou
+     * apagadas aos bytes a compactar.
+     */
+    private void percorrerDados(OrdenacaoExterna emails) throws IOException {
+        percorrerLinhas((linha, posicao) -> {
+            Pessoa pessoa = interpretarLinha(decodificar(linha));
+            if (pessoa != null) {
+                emails.adicionar(normalizarEmail(pessoa.getEmail()), posicao);
+            } else {
+                lixo += linha.length;
+            }
+        });
+    }
+
+    /**
+     * Recebe cada linha do arquivo de dados, com a quebra de linha.
+     */
+    private interface LeitorLinhas {
+        void ler(byte[] linha, long posicao) throws IOException;
+    }
+
+    private void percorrerLinhas(LeitorLinhas leitor) throws IOException {
+        try (InputStream entrada = new FileInputStream(getArquivo())) {
+            byte[] bloco = new byte[1 << 16];
+            ByteArrayOutputStream linha = new ByteArrayOutputStream(LEITURA_LINHA);
+            long posicao = 0;
+            long restante = tamanhoDados;
+            int lidos;
+            while (restante > 0 && (lidos = entrada.read(bloco, 0, (int) Math.min(bloco.length, restante))) > 0) {
+                restante -= lidos;
+                int inicio = 0;
+                for (int i = 0; i < lidos; i++) {
+                    if (bloco[i] == '\n') {
+                        linha.write(bloco, inicio, i + 1 - inicio);
+                        byte[] bytes = linha.toByteArray();
+                        leitor.ler(bytes, posicao);
+                        posicao += bytes.length;
+                        linha.reset();
+                        inicio = i + 1;
+                    }
+                }
+                linha.write(bloco, inicio, lidos - inicio);
+            }
+        }
+    }
+
+    private void compactarSeNecessario() throws IOException {
+        if (lixo < LIXO_MINIMO_COMPACTACAO || lixo * 2 < tamanhoDados) {
+            return;
+        }
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try {
+            File arquivo = getArquivo();
+            File temporario = new File(arquivo.getPath() + ".tmp");
+            try (OutputStream destino = new BufferedOutputStream(new FileOutputStream(temporario), 1 << 16)) {
+                // Copia as linhas não apagadas como estão, sem reinterpretar os registros
+                percorrerLinhas((linha, posicao) -> {
+                    if (!decodificar(linha).isBlank()) {
+                        destino.write(linha);
+                    }
+                });
+                destino.flush();
+            }
+            try (FileChannel copia = FileChannel.open(temporario.toPath(), StandardOpenOption.WRITE)) {
+                copia.force(true);
+            }
+            dados.close();
+            dados = null;
+            Files.move(temporario.toPath(), arquivo.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            dados = FileChannel.open(arquivo.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+            tamanhoDados = dados.size();
+            reconstruir();
+            compactacoes++;
+            erro = false;
+        } finally {
+            METRICA_COMPACTAR.registrar(inicio, erro);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Acesso às linhas do arquivo de dados
+    // ------------------------------------------------------------------
+
+    /**
+     * Lê a linha que começa na posição, sem a quebra de linha.
+     *
+     * @return Bytes da linha (o tamanho útil é o do array)
+     */
+    private byte[] lerLinha(long posicao) throws IOException {
+        int tamanho = LEITURA_LINHA;
+        while (true) {
+            ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(tamanho, tamanhoDados - posicao));
+            while (buffer.hasRemaining() && dados.read(buffer, posicao + buffer.position()) >= 0) {
+                // Lê até encher o buffer ou chegar ao fim do arquivo
+            }
+            byte[] bytes = buffer.array();
+            for (int i = 0; i < buffer.position(); i++) {
+                if (bytes[i] == '\n') {
+                    int fim = i > 0 && bytes[i - 1] == '\r' ? i - 1 : i;
+                    return Arrays.copyOf(bytes, fim);
+                }
+            }
+            if (posicao + buffer.position() >= tamanhoDados) {
+                return Arrays.copyOf(bytes, buffer.position());
+            }
+            tamanho *= 2;
+        }
+    }
+
+    private Pessoa lerPessoa(long posicao) throws IOException {
+        return interpretarLinha(decodificar(lerLinha(posicao)));
+    }
+
+    /**
+     * Converte os bytes de uma linha em texto, sem a quebra de linha.
+     */
+    private String decodificar(byte[] linha) {
+        int tamanho = linha.length;
+        while (tamanho > 0 && (linha[tamanho - 1] == '\n' || linha[tamanho - 1] == '\r')) {
+            tamanho--;
+        }
+        return new String(linha, 0, tamanho, getCharset());
+    }
+
+    /**
+     * Sobrescreve a linha com espaços, mantendo a quebra de linha.
+     */
+    private void apagarLinha(long posicao) throws IOException {
+        byte[] linha = lerLinha(posicao);
+        byte[] espacos = new byte[linha.length];
+        Arrays.fill(espacos, (byte) ' ');
+        escrever(ByteBuffer.wrap(espacos), posicao);
+        lixo += linha.length + QUEBRA_LINHA.length;
+    }
+
+    /**
+     * Acrescenta as linhas das pessoas ao final do arquivo. Se a escrita
+     * falhar, o arquivo volta ao tamanho anterior, sem restos de uma
+     * escrita parcial.
+     *
+     * @return Posição da primeira linha
+     */
+    private long acrescentarLinhas(List<byte[]> linhas) throws IOException {
+        int total = 0;
+        for (byte[] linha : linhas) {
+            total += linha.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(total);
+        for (byte[] linha : linhas) {
+            buffer.put(linha);
+        }
+        buffer.flip();
+        long posicao = tamanhoDados;
+        try {
+            escrever(buffer, posicao);
+        } catch (IOException e) {
+            try {
+                dados.truncate(posicao);
+            } catch (IOException erroTruncar) {
+                e.addSuppressed(erroTruncar);
+            }
+            throw e;
+        }
+        tamanhoDados += total;
+        return posicao;
+    }
+
+    /**
+     * Aponta os dois índices do email para a linha gravada na posição. Se a
+     * alteração dos índices falhar, volta os índices para a posição anterior
+     * (ou retira o email, se era uma inclusão) e apaga a linha gravada, para
+     * que nenhum índice aponte para ela.
+     *
+     * @param chave Email normalizado
+     * @param posicao Posição da nova linha
+     * @param anterior Posição anterior do email, ou -1 se era uma inclusão
+     */
+    private void indexar(String chave, long posicao, long anterior) throws IOException {
+        try {
+            porEmail.inserir(chave, posicao);
+            porDominio.inserir(chaveDominio(chave), posicao);
+        } catch (IOException | RuntimeException e) {
+            try {
+                if (anterior < 0) {
+                    porEmail.remover(chave);
+                    porDominio.remover(chaveDominio(chave));
+                } else {
+                    porEmail.inserir(chave, anterior);
+                    porDominio.inserir(chaveDominio(chave), anterior);
+                }
+                apagarLinha(posicao);
+            } catch (IOException | RuntimeException erroDesfazer) {
+                e.addSuppressed(erroDesfazer);
+            }
+            throw e;
+        }
+    }
+
+    private byte[] formatar(Pessoa pessoa) {
+        byte[] conteudo = formatarLinha(pessoa).getBytes(getCharset());
+        byte[] linha = Arrays.copyOf(conteudo, conteudo.length + QUEBRA_LINHA.length);
+        System.arraycopy(QUEBRA_LINHA, 0, linha, conteudo.length, QUEBRA_LINHA.length);
+        return linha;
+    }
+
+    private void escrever(ByteBuffer buffer, long posicao) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicao += dados.write(buffer, posicao);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Operações
+    // ------------------------------------------------------------------
+
+    /**
+     * Busca uma pessoa pelo email no índice, lendo apenas a sua linha.
+     *
+     * @param email Email da pessoa a ser buscada
+     * @return Pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na leitura do índice ou do arquivo
+     */
+    @Override
+    public synchronized Pessoa buscarPorEmail(String email) throws IOException {
+        abrirSeNecessario();
+        long posicao = porEmail.buscar(normalizarEmail(email));
+        return posicao >= 0 ? lerPessoa(posicao) : null;
+    }
+
+    /**
+     * Adiciona uma nova pessoa ao final do arquivo, verificando duplicidade
+     * pelo índice.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo ou dos índices
+     */
+    @Override
+    public synchronized boolean adicionar(Pessoa pessoa) throws IOException {
+        abrirSeNecessario();
+        String chave = normalizarEmail(pessoa.getEmail());
+        if (porEmail.buscar(chave) >= 0) {
+            return false; // Email já existe
+        }
+        // A linha é indexada só depois de gravada: se a gravação falhar, nenhum
+        // índice aponta para a posição, que é reaproveitada pela próxima inclusão.
+        // Se o processo cair entre as duas etapas, o tamanho do arquivo não
+        // confere com o dos índices e eles são reconstruídos na próxima abertura
+        long posicao = acrescentarLinhas(List.of(formatar(pessoa)));
+        indexar(chave, posicao, -1);
+        notificar(Alteracao.Tipo.INCLUSAO, null, pessoa);
+        return true;
+    }
+
+    /**
+     * Adiciona várias pessoas com uma única escrita no arquivo. Emails já
+     * presentes no índice (ou repetidos na coleção) são ignorados.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo ou dos índices
+     */
+    @Override
+    public synchronized int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        abrirSeNecessario();
+        Map<String, Pessoa> novas = new LinkedHashMap<>();
+        for (Pessoa pessoa : pessoas) {
+            String chave = normalizarEmail(pessoa.getEmail());
+            if (!novas.containsKey(chave) && porEmail.buscar(chave) < 0) {
+                novas.put(chave, pessoa);
+            }
+        }
+
+        List<byte[]> linhas = new ArrayList<>(novas.size());
+        for (Pessoa nova : novas.values()) {
+            linhas.add(formatar(nova));
+        }
+        long posicao = acrescentarLinhas(linhas);
+        List<String> indexadas = new ArrayList<>(novas.size());
+        try {
+            for (String chave : novas.keySet()) {
+                // Em caso de falha, indexar() apaga a linha desta inclusão
+                indexar(chave, posicao, -1);
+                indexadas.add(chave);
+                posicao += linhas.get(indexadas.size() - 1).length;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Retira dos índices as inclusões já indexadas e apaga as suas linhas e as
+            // seguintes (a linha da inclusão que falhou já foi apagada por indexar())
+            try {
+                for (int i = indexadas.size() - 1; i >= 0; i--) {
+                    porEmail.remover(indexadas.get(i));
+                    porDominio.remover(chaveDominio(indexadas.get(i)));
+                }
+                long linha = tamanhoDados;
+                for (int i = linhas.size() - 1; i >= 0; i--) {
+                    linha -= linhas.get(i).length;
+                    if (i != indexadas.size()) {
+                        apagarLinha(linha);
+                    }
+                }
+            } catch (IOException | RuntimeException erroDesfazer) {
+                e.addSuppressed(erroDesfazer);
+            }
+            throw e;
+        }
+        notificarInclusoes(novas.values());
+        return novas.size();
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa: a nova linha é acrescentada ao final
+     * do arquivo e a anterior é apagada.
+     *
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo ou dos índices
+     */
+    @Override
+    public synchronized boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        abrirSeNecessario();
+        String chave = normalizarEmail(pessoaAtualizada.getEmail());
+        long anterior = porEmail.buscar(chave);
+        if (anterior < 0) {
+            return false; // Pessoa não encontrada
+        }
+
+        Pessoa antes = temFeed() ? lerPessoa(anterior) : null;
+        long posicao = acrescentarLinhas(List.of(formatar(pessoaAtualizada)));
+        indexar(chave, posicao, anterior);
+        apagarLinha(anterior);
+        notificar(Alteracao.Tipo.ALTERACAO, antes, pessoaAtualizada);
+        compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Remove uma pessoa pelo email, apagando a sua linha do arquivo.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return true se a pessoa foi removida com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo ou dos índices
+     */
+    @Override
+    public synchronized boolean remover(String email) throws IOException {
+        abrirSeNecessario();
+        String chave = normalizarEmail(email);
+        long posicao = porEmail.buscar(chave);
+        if (posicao < 0) {
+            return false;
+        }
+
+        Pessoa removida = temFeed() ? lerPessoa(posicao) : null;
+        porEmail.remover(chave);
+        porDominio.remover(chaveDominio(chave));
+        apagarLinha(posicao);
+        notificar(Alteracao.Tipo.REMOCAO, removida, null);
+        compactarSeNecessario();
+        return true;
+    }
+
+    /**
+     * Salva a lista de pessoas no arquivo e reconstrói os índices.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo ou dos índices
+     */
+    @Override
+    public synchronized void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        abrirSeNecessario();
+        super.salvarTodas(pessoas);
+        tamanhoDados = dados.size();
+        reconstruir();
+    }
+
+    /**
+     * Executa a transação com o lock do repositório, sem escritas concorrentes.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public synchronized <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        return super.executarTransacao(corpo);
+    }
+
+    /**
+     * Lista uma página de pessoas ordenadas por email percorrendo as folhas
+     * do índice a partir do cursor, sem ler o restante do arquivo.
+     *
+     * @param cursor Email a partir do qual listar (exclusivo), ou null para a primeira página
+     * @param limite Quantidade máxima de pessoas na página
+     * @return Página com as pessoas e o cursor da próxima página
+     * @throws IOException Se ocorrer erro na leitura do índice ou do arquivo
+     */
+    @Override
+    public synchronized Pagina<Pessoa> listarAposEmail(String cursor, int limite) throws IOException {
+        abrirSeNecessario();
+        return pagina(porEmail.listar(normalizarEmail(cursor), null, limite + 1), limite);
+    }
+
+    /**
+     * Lista uma página das pessoas com email no domínio informado, pelo
+     * índice de domínios: em ordem do usuário (a parte antes do @), lendo
+     * apenas as folhas do domínio.
+     *
+     * @param dominio Domínio dos emails (ex: exemplo.com), sem diferenciar maiúsculas
+     * @param cursor Email a partir do qual listar (exclusivo), ou null para a primeira página
+     * @param limite Quantidade máxima de pessoas na página
+     * @return Página com as pessoas e o cursor da próxima página
+     * @throws IOException Se ocorrer erro na leitura do índice ou do arquivo
+     */
+    @Override
+    public synchronized Pagina<Pessoa> listarPorDominio(String dominio, String cursor, int limite)
+            throws IOException {
+        abrirSeNecessario();
+        String prefixo = normalizarEmail(dominio) + "@";
+        String apos = cursor != null ? chaveDominio(normalizarEmail(cursor)) : null;
+        return pagina(porDominio.listar(apos, prefixo, limite + 1), limite);
+    }
+
+    /**
+     * Monta a página a partir das entradas do índice (uma a mais que o
+     * limite, para saber se existe próxima página).
+     */
+    private Pagina<Pessoa> pagina(List<ArvoreBMais.Entrada> entradas, int limite) throws IOException {
+        boolean temProxima = entradas.size() > limite;
+        List<Pessoa> itens = new ArrayList<>(Math.min(entradas.size(), limite));
+        for (int i = 0; i < entradas.size() && i < limite; i++) {
+            Pessoa pessoa = lerPessoa(entradas.get(i).getValor());
+            if (pessoa != null) {
+                itens.add(pessoa);
+            }
+        }
+        String proximoCursor = temProxima && !itens.isEmpty()
+                ? normalizarEmail(itens.get(itens.size() - 1).getEmail()) : null;
+        return new Pagina<>(itens, temProxima, proximoCursor);
+    }
+
+    // ------------------------------------------------------------------
+    // Sincronização e estado
+    // ------------------------------------------------------------------
+
+    /**
+     * Grava as páginas alteradas dos índices junto com o tamanho atual do
+     * arquivo de dados. Após uma queda, os índices sincronizados não
+     * precisam ser reconstruídos se o arquivo não mudou desde então.
+     *
+     * @throws IOException Se ocorrer erro na gravação
+     */
+    public synchronized void sincronizar() throws IOException {
+        if (dados != null) {
+            sincronizarIndices();
+        }
+    }
+
+    private void sincronizarIndices() throws IOException {
+        dados.force(true);
+        long modificacao = getArquivo().lastModified();
+        for (ArvoreBMais indice : List.of(porEmail, porDominio)) {
+            indice.setMetadado(META_TAMANHO_DADOS, tamanhoDados);
+            indice.setMetadado(META_MODIFICACAO_DADOS, modificacao);
+            indice.setMetadado(META_LIXO, lixo);
+            indice.sincronizar();
+        }
+    }
+
+    private void fecharIndices() throws IOException {
+        try {
+            if (porEmail != null) {
+                porEmail.close();
+            }
+        } finally {
+            porEmail = null;
+            if (porDominio != null) {
+                porDominio.close();
+            }
+            porDominio = null;
+        }
+    }
+
+    /**
+     * Sincroniza os índices e fecha os arquivos. O repositório é reaberto
+     * na próxima operação.
+     *
+     * @throws IOException Se ocorrer erro na gravação
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (dados == null) {
+            return;
+        }
+        try {
+            sincronizarIndices();
+            fecharIndices();
+        } finally {
+            dados.close();
+            dados = null;
+        }
+    }
+
+    /**
+     * @return Quantidade de pessoas no índice de emails
+     * @throws IOException Se ocorrer erro na abertura dos índices
+     */
+    public synchronized long getQuantidade() throws IOException {
+        abrirSeNecessario();
+        return porEmail.getQuantidade();
+    }
+
+    /**
+     * @return Bytes de linhas apagadas que ainda ocupam o arquivo de dados
+     */
+    public synchronized long getLixo() {
+        return lixo;
+    }
+
+    public synchronized long getReconstrucoes() {
+        return reconstrucoes;
+    }
+
+    public synchronized long getCompactacoes() {
+        return compactacoes;
+    }
+
+    @Override
+    public synchronized String toString() {
+        if (dados == null) {
+            return "Índices em árvore B+ fechados";
+        }
+        return String.format("Índice de emails: %s%nÍndice de domínios: %s%n"
+                + "Arquivo de dados: %d byte(s), %d apagado(s); %d reconstrução(ões), %d compactação(ões)",
+                porEmail, porDominio, tamanhoDados, lixo, reconstrucoes, compactacoes);
+    }
+}
@@ -0,0 +1,130 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Repositório que persiste os dados no formato binário de
+ * {@link ArquivoBinarioPessoas}, evitando o parsing de texto com
+ * expressões regulares. As buscas por email decodificam apenas o
+ * campo de email de cada registro.
+ */
+public class PessoaRepositoryBinario extends PessoaRepository {
+
+    private static final String ARQUIVO_BINARIO = "data/pessoas.bin";
+
+    /**
+     * Construtor que utiliza o arquivo binário padrão.
+     */
+    public PessoaRepositoryBinario() {
+        this(ARQUIVO_BINARIO);
+    }
+
+    /**
+     * Construtor que utiliza um arquivo binário específico.
+     * 
+     * @param caminhoArquivo Caminho do arquivo binário
+     */
+    public PessoaRepositoryBinario(String caminhoArquivo) {
+        super(caminhoArquivo);
+    }
+
+    /**
+     * Lê todas as pessoas do arquivo binário.
+     * 
+     * @return Lista de pessoas lidas do arquivo
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    @Override
+    public List<Pessoa> lerTodas() throws IOException {
+        List<Pessoa> pessoas = new ArrayList<>();
+        if (!getArquivo().exists()) {
+            return pessoas;
+        }
+
+        try (ArquivoBinarioPessoas arquivo = new ArquivoBinarioPessoas(getArquivo().toPath())) {
+            for (int i = 0; i < arquivo.tamanho(); i++) {
+                pessoas.add(arquivo.ler(i));
+            }
+        }
+        return pessoas;
+    }
+
+    /**
+     * Retorna um stream que decodifica os registros sob demanda a partir
+     * do arquivo mapeado em memória. O stream deve ser fechado após o uso.
+     * 
+     * @return Stream de pessoas na ordem do arquivo
+     * @throws IOException Se ocorrer erro ao abrir o arquivo
+     */
+    @Override
+    public Stream<Pessoa> stream() throws IOException {
+        if (!getArquivo().exists()) {
+            return Stream.empty();
+        }
+
+        ArquivoBinarioPessoas arquivo = new ArquivoBinarioPessoas(getArquivo().toPath());
+        return IntStream.range(0, arquivo.tamanho())
+                .mapToObj(arquivo::ler)
+                .onClose(() -> {
+                    try {
+                        arquivo.close();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Salva a lista de pessoas no arquivo binário.
+     * 
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        ArquivoBinarioPessoas.gravar(getArquivo().toPath(), pessoas);
+    }
+
+    /**
+     * Adiciona várias pessoas, regravando o arquivo binário uma única vez.
+     * 
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        List<Pessoa> todas = lerTodas();
+        todas.addAll(pessoas);
+        salvarTodas(todas);
+        notificarInclusoes(pessoas);
+        return pessoas.size();
+    }
+
+    /**
+     * Busca uma pessoa pelo email, decodificando o registro completo
+     * apenas quando o email corresponde.
+     * 
+     * @param email Email da pessoa a ser buscada
+     * @return Pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    @Override
+    public Pessoa buscarPorEmail(String email) throws IOException {
+        if (!getArquivo().exists()) {
+            return null;
+        }
+
+        try (ArquivoBinarioPessoas arquivo = new ArquivoBinarioPessoas(getArquivo().toPath())) {
+            int indice = arquivo.indiceDe(email);
+            return indice >= 0 ? arquivo.ler(indice) : null;
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Repositório em arquivo com cache de leitura na busca por email.
+ *
+ * As buscas consultam primeiro o {@link CacheLeitura}; apenas as faltas
+ * percorrem o arquivo. Emails inexistentes também ficam no cache, o que
+ * acelera a verificação de duplicidade no cadastro. Inclusões, alterações e
+ * remoções invalidam a entrada do email afetado.
+ *
+ * Antes do cache, um {@link FiltroBloom} com os emails cadastrados descarta
+ * os emails que certamente não existem, sem consultar o cache nem o
+ * arquivo. No cadastro de um email que o filtro garante ser novo, a pessoa
+ * é acrescentada ao final do arquivo sem a releitura completa usada na
+ * verificação de duplicidade. O filtro é montado na primeira utilização e
+ * reconstruído quando as remoções passam de uma fração das chaves ou
+ * quando a capacidade planejada é ultrapassada.
+ *
+ * O cache e o filtro só enxergam as alterações feitas por este repositório.
+ * O arquivo não deve ser alterado por fora enquanto o repositório estiver em
+ * uso: um email incluído por fora seria considerado inexistente pelo filtro.
+ */
+public class PessoaRepositoryComCache extends PessoaRepository {
+
+    /** Quantidade padrão de emails no cache. */
+    public static final int CAPACIDADE_PADRAO = 10_000;
+
+    /** Tempo de vida padrão das entradas, em milissegundos. */
+    public static final long TTL_PADRAO_MS = 60_000;
+
+    /** Taxa padrão de falsos positivos do filtro de Bloom. */
+    public static final double TAXA_FALSO_POSITIVO_PADRAO = 0.01;
+
+    // Fração de chaves removidas que dispara a reconstrução do filtro
+    private static final double LIMIAR_REMOCOES = 0.2;
+    private static final int CAPACIDADE_MINIMA_FILTRO = 1024;
+
+    private final CacheLeitura<String, Pessoa> cache;
+    private final double taxaFalsoPositivo;
+    private FiltroBloom filtro;
+    private int removidasDesdeConstrucao;
+    private long descartadasPeloFiltro;
+    private long reconstrucoesFiltro;
+    private boolean gravacaoInterna = false;
+
+    /**
+     * Construtor que utiliza o arquivo de dados e a configuração de cache padrão.
+     */
+    public PessoaRepositoryComCache() {
+        this("data/pessoas.txt", CAPACIDADE_PADRAO, TTL_PADRAO_MS, TAXA_FALSO_POSITIVO_PADRAO);
+    }
+
+    /**
+     * Construtor com arquivo de dados e configuração de cache específicos.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     * @param capacidade Quantidade máxima de emails no cache
+     * @param ttlMs Tempo de vida das entradas, em milissegundos
+     * @param taxaFalsoPositivo Taxa de falsos positivos do filtro de Bloom (ex: 0.01)
+     */
+    public PessoaRepositoryComCache(String caminhoArquivo, int capacidade, long ttlMs, double taxaFalsoPositivo) {
+        super(caminhoArquivo);
+        this.cache = new CacheLeitura<>(capacidade, ttlMs);
+        this.taxaFalsoPositivo = taxaFalsoPositivo;
+        new FiltroBloom(1, taxaFalsoPositivo); // Valida a taxa já na construção
+    }
+
+    /**
+     * Retorna o cache, para consulta dos contadores de acertos, faltas e descartes.
+     *
+     * @return Cache de leitura
+     */
+    public CacheLeitura<String, Pessoa> getCache() {
+        return cache;
+    }
+
+    /**
+     * Retorna um resumo do filtro de Bloom e da quantidade de buscas que ele
+     * dispensou.
+     *
+     * @return Descrição do estado do filtro
+     */
+    public synchronized String getEstatisticasFiltro() {
+        if (filtro == null) {
+            return "Filtro de Bloom: ainda não montado";
+        }
+        return filtro + " | buscas dispensadas: " + descartadasPeloFiltro
+                + " | reconstruções: " + reconstrucoesFiltro;
+    }
+
+    /**
+     * Retorna o filtro de Bloom, montando-o (ou reconstruindo-o) a partir
+     * do arquivo quando necessário.
+     *
+     * @return Filtro com os emails cadastrados
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    private synchronized FiltroBloom filtro() throws IOException {
+        if (filtro == null || filtro.cheio()
+                || removidasDesdeConstrucao > LIMIAR_REMOCOES * filtro.getQuantidade()) {
+            List<String> emails = new ArrayList<>();
+            forEach(pessoa -> emails.add(normalizarEmail(pessoa.getEmail())));
+            construirFiltro(emails);
+        }
+        return filtro;
+    }
+
+    /**
+     * Monta um novo filtro com os emails informados, com folga para novas inclusões.
+     */
+    private synchronized void construirFiltro(Collection<String> emails) {
+        if (filtro != null) {
+            reconstrucoesFiltro++;
+        }
+        filtro = new FiltroBloom(Math.max(CAPACIDADE_MINIMA_FILTRO, emails.size() * 2), taxaFalsoPositivo);
+        for (String email : emails) {
+            filtro.adicionar(email);
+        }
+        removidasDesdeConstrucao = 0;
+    }
+
+    /**
+     * Verifica no filtro se o email certamente não está cadastrado.
+     */
+    private boolean certamenteAusente(String chave) throws IOException {
+        if (filtro().talvezContenha(chave)) {
+            return false;
+        }
+        synchronized (this) {
+            descartadasPeloFiltro++;
+        }
+        return true;
+    }
+
+    /**
+     * Busca uma pessoa pelo email, consultando o filtro e o cache antes do arquivo.
+     *
+     * @param email Email da pessoa a ser buscada
+     * @return Cópia da pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    @Override
+    public Pessoa buscarPorEmail(String email) throws IOException {
+        String chave = normalizarEmail(email);
+        if (chave == null) {
+            return null;
+        }
+
+        if (certamenteAusente(chave)) {
+            return null;
+        }
+
+        CacheLeitura.Consulta<Pessoa> consulta = cache.consultar(chave);
+        if (consulta.encontrado()) {
+            return copiar(consulta.getValor());
+        }
+
+        Pessoa pessoa = super.buscarPorEmail(chave);
+        cache.guardar(chave, copiar(pessoa), consulta);
+        return pessoa;
+    }
+
+    /**
+     * Substitui todos os dados, limpando o cache e reconstruindo o filtro.
+     * Quando chamado pelas operações da classe base (adicionar, atualizar,
+     * remover), apenas grava o arquivo: cada operação ajusta o cache e o
+     * filtro para o email afetado.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        if (gravacaoInterna) {
+            super.salvarTodas(pessoas);
+            return;
+        }
+        try {
+            super.salvarTodas(pessoas);
+            List<String> emails = new ArrayList<>(pessoas.size());
+            for (Pessoa pessoa : pessoas) {
+                emails.add(normalizarEmail(pessoa.getEmail()));
+            }
+            construirFiltro(emails);
+        } finally {
+            cache.limpar();
+        }
+    }
+
+    /**
+     * Adiciona uma nova pessoa. Se o filtro garante que o email é novo, a
+     * pessoa é acrescentada ao final do arquivo sem reler os registros.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean adicionar(Pessoa pessoa) throws IOException {
+        String chave = normalizarEmail(pessoa.getEmail());
+        gravacaoInterna = true;
+        try {
+            boolean adicionada;
+            if (!filtro().talvezContenha(chave)) {
+                super.adicionarTodas(Collections.singletonList(pessoa));
+                adicionada = true;
+            } else {
+                adicionada = super.adicionar(pessoa);
+            }
+            if (adicionada) {
+                filtro.adicionar(chave);
+            }
+            return adicionada;
+        } finally {
+            gravacaoInterna = false;
+            cache.invalidar(chave);
+        }
+    }
+
+    @Override
+    public synchronized int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        FiltroBloom atual = filtro();
+        try {
+            int adicionadas = super.adicionarTodas(pessoas);
+            for (Pessoa pessoa : pessoas) {
+                atual.adicionar(normalizarEmail(pessoa.getEmail()));
+            }
+            return adicionadas;
+        } finally {
+            for (Pessoa pessoa : pessoas) {
+                cache.invalidar(normalizarEmail(pessoa.getEmail()));
+            }
+        }
+    }
+
+    @Override
+    public synchronized boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        gravacaoInterna = true;
+        try {
+            return super.atualizar(pessoaAtualizada);
+        } finally {
+            gravacaoInterna = false;
+            cache.invalidar(normalizarEmail(pessoaAtualizada.getEmail()));
+        }
+    }
+
+    @Override
+    public synchronized boolean remover(String email) throws IOException {
+        gravacaoInterna = true;
+        try {
+            boolean removida = super.remover(email);
+            if (removida) {
+                removidasDesdeConstrucao++; // O email continua no filtro até a próxima reconstrução
+            }
+            return removida;
+        } finally {
+            gravacaoInterna = false;
+            cache.invalidar(normalizarEmail(email));
+        }
+    }
+
+    /**
+     * Executa a transação com o lock do repositório, sem escritas concorrentes.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public synchronized <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        return super.executarTransacao(corpo);
+    }
+
+    private static Pessoa copiar(Pessoa pessoa) {
+        return pessoa != null ? new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone()) : null;
+    }
+}
@@ -0,0 +1,269 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repositório que mantém os dados em memória no {@link ArmazemColunar},
+ * ocupando bem menos heap que uma lista de {@link Pessoa} para a mesma
+ * quantidade de registros.
+ *
+ * O arquivo é lido uma única vez, em streaming, direto para as colunas.
+ * Buscas por email usam o índice do armazém; listagens e demais buscas
+ * percorrem as colunas montando cada pessoa sob demanda. Inclusões
+ * acrescentam uma linha ao arquivo; alterações e remoções o reescrevem a
+ * partir das colunas, sem materializar a lista inteira.
+ */
+public class PessoaRepositoryCompacto extends PessoaRepository {
+
+    private final ArmazemColunar armazem = new ArmazemColunar();
+    private boolean carregado = false;
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão.
+     */
+    public PessoaRepositoryCompacto() {
+        super();
+    }
+
+    /**
+     * Construtor que utiliza um arquivo de dados específico.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     */
+    public PessoaRepositoryCompacto(String caminhoArquivo) {
+        super(caminhoArquivo);
+    }
+
+    /**
+     * Carrega o armazém a partir do arquivo, caso ainda não tenha sido carregado.
+     *
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    private void carregarSeNecessario() throws IOException {
+        if (carregado) {
+            return;
+        }
+        armazem.limpar();
+        // Em caso de emails repetidos no arquivo, vale o primeiro (mesma regra da busca linear)
+        try (Stream<Pessoa> pessoas = super.stream()) {
+            pessoas.forEach(armazem::adicionar);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        carregado = true;
+    }
+
+    /**
+     * Lê todas as pessoas a partir da memória.
+     *
+     * @return Lista com as pessoas montadas a partir das colunas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public synchronized List<Pessoa> lerTodas() throws IOException {
+        carregarSeNecessario();
+        List<Pessoa> pessoas = new ArrayList<>(armazem.tamanho());
+        for (Pessoa pessoa : armazem) {
+            pessoas.add(pessoa);
+        }
+        return pessoas;
+    }
+
+    /**
+     * Retorna um stream que monta as pessoas sob demanda, na ordem de
+     * inclusão. Cada avanço do stream sincroniza com as escritas, que
+     * aparecem no percurso; enquanto o stream não termina nem é fechado,
+     * as remoções não compactam o armazém. Só a substituição de todos os
+     * dados ({@link #salvarTodas}) faz o stream lançar
+     * {@link java.util.ConcurrentModificationException}.
+     *
+     * @return Stream de pessoas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public Stream<Pessoa> stream() throws IOException {
+        ArmazemColunar.Iterador pessoas;
+        synchronized (this) {
+            carregarSeNecessario();
+            pessoas = armazem.iterator();
+        }
+        Iterator<Pessoa> sincronizado = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                synchronized (PessoaRepositoryCompacto.this) {
+                    return pessoas.hasNext();
+                }
+            }
+
+            @Override
+            public Pessoa next() {
+                synchronized (PessoaRepositoryCompacto.this) {
+                    return pessoas.next();
+                }
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(sincronizado, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(() -> {
+                    synchronized (PessoaRepositoryCompacto.this) {
+                        pessoas.fechar();
+                    }
+                });
+    }
+
+    /**
+     * Salva a lista de pessoas no arquivo e reconstrói o armazém.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        super.salvarTodas(pessoas);
+        armazem.limpar();
+        for (Pessoa pessoa : pessoas) {
+            armazem.adicionar(pessoa);
+        }
+        carregado = true;
+    }
+
+    /**
+     * Adiciona uma nova pessoa, verificando duplicidade pelo índice do armazém.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean adicionar(Pessoa pessoa) throws IOException {
+        carregarSeNecessario();
+        if (!armazem.adicionar(pessoa)) {
+            return false; // Email já existe
+        }
+        try {
+            acrescentar(Collections.singletonList(pessoa));
+        } catch (IOException e) {
+            armazem.remover(pessoa.getEmail());
+            throw e;
+        }
+        notificar(Alteracao.Tipo.INCLUSAO, null, pessoa);
+        return true;
+    }
+
+    /**
+     * Adiciona várias pessoas de uma vez. Emails já presentes no armazém
+     * (ou repetidos na coleção) são ignorados.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        carregarSeNecessario();
+        List<Pessoa> novas = new ArrayList<>();
+        for (Pessoa pessoa : pessoas) {
+            if (armazem.adicionar(pessoa)) {
+                novas.add(pessoa);
+            }
+        }
+        try {
+            acrescentar(novas);
+        } catch (IOException e) {
+            for (Pessoa pessoa : novas) {
+                armazem.remover(pessoa.getEmail());
+            }
+            throw e;
+        }
+        notificarInclusoes(novas);
+        return novas.size();
+    }
+
+    /**
+     * Busca uma pessoa pelo email no índice do armazém.
+     *
+     * @param email Email da pessoa a ser buscada
+     * @return Pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public synchronized Pessoa buscarPorEmail(String email) throws IOException {
+        carregarSeNecessario();
+        return armazem.buscarPorEmail(email);
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa existente e reescreve o arquivo.
+     *
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        carregarSeNecessario();
+        Pessoa anterior = armazem.buscarPorEmail(pessoaAtualizada.getEmail());
+        if (anterior == null) {
+            return false; // Pessoa não encontrada
+        }
+        armazem.atualizar(pessoaAtualizada);
+        try {
+            super.salvarTodas(armazem.comoLista());
+        } catch (IOException e) {
+            armazem.atualizar(anterior);
+            throw e;
+        }
+        notificar(Alteracao.Tipo.ALTERACAO, anterior, pessoaAtualizada);
+        return true;
+    }
+
+    /**
+     * Remove uma pessoa pelo email e reescreve o arquivo.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return true se a pessoa foi removida com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean remover(String email) throws IOException {
+        carregarSeNecessario();
+        Pessoa removida = armazem.buscarPorEmail(email);
+        if (removida == null) {
+            return false;
+        }
+        armazem.remover(email);
+        try {
+            super.salvarTodas(armazem.comoLista());
+        } catch (IOException e) {
+            armazem.adicionar(removida); // Volta ao armazém (ao final da ordem de listagem)
+            throw e;
+        }
+        notificar(Alteracao.Tipo.REMOCAO, removida, null);
+        return true;
+    }
+
+    /**
+     * Executa a transação com o lock do repositório, sem escritas concorrentes.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public synchronized <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        return super.executarTransacao(corpo);
+    }
+}
@@ -0,0 +1,552 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Repositório seguro para uso por várias threads ao mesmo tempo.
+ *
+ * As escritas bloqueiam apenas a faixa (stripe) de locks correspondente ao
+ * email, então escritas em emails diferentes não se serializam entre si.
+ * As leituras consultam um {@link ConcurrentHashMap} sem bloqueio, de modo
+ * que listagens nunca esperam por escritores.
+ *
+ * A gravação no arquivo é agrupada: cada escrita recebe um número de versão
+ * e, ao persistir, grava o estado mais recente. Se outra thread já gravou
+ * uma versão igual ou posterior, a gravação é dispensada.
+ *
+ * Os eventos do feed de alterações ficam pendentes, por versão, até a
+ * gravação que os inclui terminar; só então são publicados, em ordem de
+ * versão. Uma escrita cuja gravação falha é desfeita sem nunca ter sido
+ * publicada.
+ */
+public class PessoaRepositoryConcorrente extends PessoaRepository {
+
+    /** Quantidade padrão de faixas de locks. */
+    public static final int FAIXAS_PADRAO = 64;
+
+    // Trocado por inteiro em salvarTodas, para que as leituras vejam o estado anterior ou o novo
+    private volatile ConcurrentHashMap<String, Registro> dados = new ConcurrentHashMap<>();
+    private final ReentrantLock[] faixas;
+    private final Object monitorCarga = new Object();
+    private final Object monitorPersistencia = new Object();
+    private final AtomicLong versao = new AtomicLong();
+    private final AtomicLong proximaOrdem = new AtomicLong();
+    /** Versão -> eventos ainda não publicados. Também protege a geração de versões. */
+    private final NavigableMap<Long, List<Evento>> pendentes = new TreeMap<>();
+    private volatile boolean carregado = false;
+    private long versaoPersistida = 0;
+    private volatile CarregadorParalelo.Estatisticas estatisticasCarga;
+
+    /**
+     * Registro imutável guardado no mapa, com a ordem de inclusão
+     * usada para manter a listagem na mesma ordem do arquivo.
+     */
+    private static final class Registro {
+        final long ordem;
+        final Pessoa pessoa;
+
+        Registro(long ordem, Pessoa pessoa) {
+            this.ordem = ordem;
+            this.pessoa = pessoa;
+        }
+    }
+
+    /**
+     * Evento do feed aguardando a gravação da versão que o gerou.
+     */
+    private static final class Evento {
+        final Alteracao.Tipo tipo;
+        final Pessoa antes;
+        final Pessoa depois;
+
+        Evento(Alteracao.Tipo tipo, Pessoa antes, Pessoa depois) {
+            this.tipo = tipo;
+            this.antes = antes;
+            this.depois = depois;
+        }
+    }
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão.
+     */
+    public PessoaRepositoryConcorrente() {
+        this("data/pessoas.txt", FAIXAS_PADRAO);
+    }
+
+    /**
+     * Construtor com arquivo de dados e quantidade de faixas específicos.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     * @param quantidadeFaixas Quantidade de faixas de locks
+     */
+    public PessoaRepositoryConcorrente(String caminhoArquivo, int quantidadeFaixas) {
+        super(caminhoArquivo);
+        this.faixas = new ReentrantLock[quantidadeFaixas];
+        for (int i = 0; i < quantidadeFaixas; i++) {
+            faixas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Carrega os dados do arquivo na primeira utilização.
+     *
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    private void carregarSeNecessario() throws IOException {
+        if (carregado) {
+            return;
+        }
+        synchronized (monitorCarga) {
+            if (carregado) {
+                return;
+            }
+            // Blocos lidos em paralelo e reunidos na ordem do arquivo: vale a primeira ocorrência
+            CarregadorParalelo.Carga carga = CarregadorParalelo.carregar(getArquivo());
+            for (Pessoa pessoa : carga.getPessoas()) {
+                Registro registro = new Registro(proximaOrdem.getAndIncrement(), pessoa);
+                dados.putIfAbsent(normalizarEmail(pessoa.getEmail()), registro);
+            }
+            estatisticasCarga = carga.getEstatisticas();
+            carregado = true;
+        }
+    }
+
+    /**
+     * Carrega os dados, se ainda não foram carregados, e retorna as
+     * estatísticas da leitura do arquivo. Permite fazer a carga na
+     * inicialização em vez de na primeira operação.
+     *
+     * @return Estatísticas da carga do arquivo
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public CarregadorParalelo.Estatisticas carregar() throws IOException {
+        carregarSeNecessario();
+        return estatisticasCarga;
+    }
+
+    private ReentrantLock faixa(String chave) {
+        int hash = chave.hashCode();
+        hash ^= (hash >>> 16);
+        return faixas[Math.floorMod(hash, faixas.length)];
+    }
+
+    /**
+     * Lê todas as pessoas sem bloquear escritores.
+     *
+     * @return Lista de pessoas na ordem de inclusão
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public List<Pessoa> lerTodas() throws IOException {
+        carregarSeNecessario();
+        List<Registro> registros = ordenar();
+        List<Pessoa> pessoas = new ArrayList<>(registros.size());
+        for (Registro registro : registros) {
+            pessoas.add(copiar(registro.pessoa));
+        }
+        return pessoas;
+    }
+
+    /**
+     * Retorna um stream sobre uma cópia dos dados em memória.
+     *
+     * @return Stream de pessoas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public Stream<Pessoa> stream() throws IOException {
+        return lerTodas().stream();
+    }
+
+    private List<Registro> ordenar() {
+        List<Registro> registros = new ArrayList<>(dados.values());
+        registros.sort(Comparator.comparingLong(r -> r.ordem));
+        return registros;
+    }
+
+    /**
+     * Substitui todos os dados. Bloqueia todas as faixas durante a troca; o
+     * novo mapa é montado à parte e publicado de uma vez, então as leituras
+     * sem lock nunca veem um estado vazio ou parcial.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        carregarSeNecessario();
+        IOException falha;
+        for (ReentrantLock lock : faixas) {
+            lock.lock();
+        }
+        try {
+            synchronized (monitorPersistencia) {
+                super.salvarTodas(pessoas);
+                ConcurrentHashMap<String, Registro> novos = new ConcurrentHashMap<>();
+                for (Pessoa pessoa : pessoas) {
+                    Registro registro = new Registro(proximaOrdem.getAndIncrement(), copiar(pessoa));
+                    novos.putIfAbsent(normalizarEmail(pessoa.getEmail()), registro);
+                }
+                dados = novos;
+                versaoPersistida = versao.incrementAndGet();
+                // Escritas confirmadas antes da substituição
+                falha = publicarPersistidas(versaoPersistida);
+            }
+        } finally {
+            for (ReentrantLock lock : faixas) {
+                lock.unlock();
+            }
+        }
+        if (falha != null) {
+            throw falha;
+        }
+    }
+
+    /**
+     * Adiciona uma nova pessoa. A verificação de duplicidade e a inclusão
+     * são atômicas dentro da faixa do email.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean adicionar(Pessoa pessoa) throws IOException {
+        carregarSeNecessario();
+        String chave = normalizarEmail(pessoa.getEmail());
+        Registro novo = new Registro(proximaOrdem.getAndIncrement(), copiar(pessoa));
+        long minhaVersao;
+
+        ReentrantLock lock = faixa(chave);
+        lock.lock();
+        try {
+            if (dados.putIfAbsent(chave, novo) != null) {
+                return false; // Email já existe
+            }
+            minhaVersao = registrar(new Evento(Alteracao.Tipo.INCLUSAO, null, novo.pessoa));
+        } finally {
+            lock.unlock();
+        }
+
+        persistir(minhaVersao, chave, novo, null);
+        return true;
+    }
+
+    /**
+     * Adiciona várias pessoas e grava o arquivo uma única vez.
+     * Bloqueia todas as faixas durante a inclusão; emails já cadastrados
+     * são ignorados.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        carregarSeNecessario();
+        List<String> adicionadas = new ArrayList<>(pessoas.size());
+        List<Registro> novos = new ArrayList<>(pessoas.size());
+        long minhaVersao;
+
+        for (ReentrantLock lock : faixas) {
+            lock.lock();
+        }
+        try {
+            for (Pessoa pessoa : pessoas) {
+                String chave = normalizarEmail(pessoa.getEmail());
+                Registro novo = new Registro(proximaOrdem.getAndIncrement(), copiar(pessoa));
+                if (dados.putIfAbsent(chave, novo) == null) {
+                    adicionadas.add(chave);
+                    novos.add(novo);
+                }
+            }
+            List<Evento> eventos = new ArrayList<>(novos.size());
+            for (Registro novo : novos) {
+                eventos.add(new Evento(Alteracao.Tipo.INCLUSAO, null, novo.pessoa));
+            }
+            minhaVersao = registrar(eventos);
+        } finally {
+            for (ReentrantLock lock : faixas) {
+                lock.unlock();
+            }
+        }
+
+        persistir(minhaVersao, adicionadas, novos, null);
+        return adicionadas.size();
+    }
+
+    /**
+     * Busca uma pessoa pelo email sem bloqueio.
+     *
+     * @param email Email da pessoa a ser buscada
+     * @return Cópia da pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public Pessoa buscarPorEmail(String email) throws IOException {
+        carregarSeNecessario();
+        Registro registro = dados.get(normalizarEmail(email));
+        return registro != null ? copiar(registro.pessoa) : null;
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa existente.
+     *
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        return substituir(null, pessoaAtualizada);
+    }
+
+    /**
+     * Atualiza a pessoa se os dados atuais forem os esperados, comparando
+     * dentro da faixa do email.
+     *
+     * @param esperada Dados lidos pelo chamador
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean atualizarSe(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        return substituir(esperada, pessoaAtualizada);
+    }
+
+    /**
+     * Substitui os dados da pessoa dentro da faixa do email.
+     *
+     * @param esperada Dados que a pessoa deve ter (null para não comparar)
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     */
+    private boolean substituir(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        carregarSeNecessario();
+        String chave = normalizarEmail(pessoaAtualizada.getEmail());
+        Registro anterior;
+        Registro novo;
+        long minhaVersao;
+
+        ReentrantLock lock = faixa(chave);
+        lock.lock();
+        try {
+            anterior = dados.get(chave);
+            if (anterior == null) {
+                return false; // Pessoa não encontrada
+            }
+            if (esperada != null && !mesmosDados(anterior.pessoa, esperada)) {
+                return false; // Alterada por outra operação desde a leitura
+            }
+            novo = new Registro(anterior.ordem, copiar(pessoaAtualizada));
+            dados.put(chave, novo);
+            minhaVersao = registrar(new Evento(Alteracao.Tipo.ALTERACAO, anterior.pessoa, novo.pessoa));
+        } finally {
+            lock.unlock();
+        }
+
+        persistir(minhaVersao, chave, novo, anterior);
+        return true;
+    }
+
+    /**
+     * Remove uma pessoa pelo email.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return true se a pessoa foi removida com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean remover(String email) throws IOException {
+        carregarSeNecessario();
+        String chave = normalizarEmail(email);
+        Registro anterior;
+        long minhaVersao;
+
+        ReentrantLock lock = faixa(chave);
+        lock.lock();
+        try {
+            anterior = dados.remove(chave);
+            if (anterior == null) {
+                return false;
+            }
+            minhaVersao = registrar(new Evento(Alteracao.Tipo.REMOCAO, anterior.pessoa, null));
+        } finally {
+            lock.unlock();
+        }
+
+        persistir(minhaVersao, chave, null, anterior);
+        return true;
+    }
+
+    /**
+     * Executa a transação bloqueando todas as faixas, como na substituição
+     * de todos os dados.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        carregarSeNecessario();
+        for (ReentrantLock lock : faixas) {
+            lock.lock();
+        }
+        try {
+            return super.executarTransacao(corpo);
+        } finally {
+            for (ReentrantLock lock : faixas) {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Gera a versão de uma escrita e guarda o evento até a gravação.
+     * Deve ser chamado dentro da faixa do email, depois de alterar os dados.
+     *
+     * @param evento Evento da escrita
+     * @return Versão gerada
+     */
+    private long registrar(Evento evento) {
+        return registrar(Collections.singletonList(evento));
+    }
+
+    private long registrar(List<Evento> eventos) {
+        synchronized (pendentes) {
+            long minhaVersao = versao.incrementAndGet();
+            if (temFeed() && !eventos.isEmpty()) {
+                pendentes.put(minhaVersao, eventos);
+            }
+            return minhaVersao;
+        }
+    }
+
+    /**
+     * Garante que a escrita de um email esteja gravada no arquivo.
+     *
+     * @see #persistir(long, List, List, Registro)
+     */
+    private void persistir(long minhaVersao, String chave, Registro atual, Registro anterior) throws IOException {
+        persistir(minhaVersao, Collections.singletonList(chave),
+                atual != null ? Collections.singletonList(atual) : null, anterior);
+    }
+
+    /**
+     * Garante que a versão informada esteja gravada no arquivo e publica os
+     * eventos das versões gravadas. Se a gravação falhar, descarta os
+     * eventos desta escrita e desfaz a alteração em memória (caso ela ainda
+     * seja a atual), antes que outra thread grave o estado.
+     *
+     * @param minhaVersao Versão gerada pela escrita
+     * @param chaves Emails normalizados alterados
+     * @param atuais Registros gravados pela escrita, na ordem das chaves (null em remoções)
+     * @param anterior Registro substituído (null em inclusões)
+     * @throws IOException Se ocorrer erro na escrita do arquivo ou na publicação dos eventos
+     */
+    private void persistir(long minhaVersao, List<String> chaves, List<Registro> atuais, Registro anterior)
+            throws IOException {
+        IOException falhaFeed;
+        synchronized (monitorPersistencia) {
+            if (versaoPersistida >= minhaVersao) {
+                return; // Outra thread já gravou um estado que inclui esta escrita
+            }
+            long alvo;
+            synchronized (pendentes) {
+                alvo = versao.get();
+            }
+            List<Registro> registros = ordenar();
+            List<Pessoa> pessoas = new ArrayList<>(registros.size());
+            for (Registro registro : registros) {
+                pessoas.add(registro.pessoa);
+            }
+            try {
+                super.salvarTodas(pessoas);
+            } catch (IOException e) {
+                synchronized (pendentes) {
+                    pendentes.remove(minhaVersao);
+                }
+                desfazer(chaves, atuais, anterior);
+                throw e;
+            }
+            versaoPersistida = alvo;
+            falhaFeed = publicarPersistidas(alvo);
+        }
+        if (falhaFeed != null) {
+            throw falhaFeed; // Os dados foram gravados; apenas o feed ficou incompleto
+        }
+    }
+
+    /**
+     * Volta os registros alterados por uma escrita não gravada, se ainda
+     * forem os atuais.
+     */
+    private void desfazer(List<String> chaves, List<Registro> atuais, Registro anterior) {
+        for (int i = 0; i < chaves.size(); i++) {
+            String chave = chaves.get(i);
+            Registro atual = atuais != null ? atuais.get(i) : null;
+            if (atual == null) {
+                dados.putIfAbsent(chave, anterior);
+            } else if (anterior == null) {
+                dados.remove(chave, atual);
+            } else {
+                dados.replace(chave, atual, anterior);
+            }
+        }
+    }
+
+    /**
+     * Publica, em ordem de versão, os eventos pendentes até a versão
+     * gravada. Deve ser chamado com o monitor de persistência.
+     *
+     * @param gravada Última versão gravada
+     * @return Primeiro erro de publicação (os demais são anexados), ou null
+     */
+    private IOException publicarPersistidas(long gravada) {
+        List<List<Evento>> prontos;
+        synchronized (pendentes) {
+            Map<Long, List<Evento>> ate = pendentes.headMap(gravada, true);
+            if (ate.isEmpty()) {
+                return null;
+            }
+            prontos = new ArrayList<>(ate.values());
+            ate.clear();
+        }
+        IOException falha = null;
+        for (List<Evento> eventos : prontos) {
+            for (Evento evento : eventos) {
+                try {
+                    notificar(evento.tipo, evento.antes, evento.depois);
+                } catch (IOException e) {
+                    if (falha == null) {
+                        falha = e;
+                    } else {
+                        falha.addSuppressed(e);
+                    }
+                }
+            }
+        }
+        return falha;
+    }
+
+    private static Pessoa copiar(Pessoa pessoa) {
+        return new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone());
+    }
+}
@@ -0,0 +1,463 @@
+package com.crud.repository;
+
+import com.crud.model.Pagina;
+import com.crud.model.Pessoa;
+import com.crud.util.Validador;
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Repositório que mantém os dados em memória, indexados por email.
+ * O arquivo é lido uma única vez e as buscas são respondidas a partir
+ * de um índice hash com o email normalizado (minúsculas) como chave.
+ * O arquivo só é acessado nas operações de escrita, e o índice é
+ * atualizado junto com cada uma delas.
+ *
+ * Também mantém um {@link IndiceNomes} para buscas por nome e um índice
+ * hash de telefones (apenas dígitos) para buscas reversas por telefone,
+ * ambos atualizados nas mesmas operações.
+ */
+public class PessoaRepositoryIndexado extends PessoaRepository {
+
+    private final Map<String, Pessoa> indice = new LinkedHashMap<>();
+    private final IndiceNomes indiceNomes = new IndiceNomes();
+    private final Map<String, Set<String>> indiceTelefones = new HashMap<>();
+    private boolean carregado = false;
+    private CarregadorParalelo.Estatisticas estatisticasCarga;
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão.
+     */
+    public PessoaRepositoryIndexado() {
+        super();
+    }
+
+    /**
+     * Construtor que utiliza um arquivo de dados específico.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     */
+    public PessoaRepositoryIndexado(String caminhoArquivo) {
+        super(caminhoArquivo);
+    }
+
+    /**
+     * Carrega o índice a partir do arquivo, caso ainda não tenha sido carregado.
+     *
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    protected synchronized void carregarSeNecessario() throws IOException {
+        if (carregado) {
+            return;
+        }
+        limpar();
+        for (Pessoa pessoa : carregarPessoas()) {
+            // Em caso de emails repetidos no arquivo, vale o primeiro (mesma regra da busca linear)
+            String chave = normalizarEmail(pessoa.getEmail());
+            if (!indice.containsKey(chave)) {
+                colocar(chave, pessoa);
+            }
+        }
+        carregado = true;
+    }
+
+    /**
+     * Carrega o índice, se ainda não foi carregado, e retorna as
+     * estatísticas da leitura do arquivo. Permite fazer a carga na
+     * inicialização em vez de na primeira operação.
+     *
+     * @return Estatísticas da carga do arquivo
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    public synchronized CarregadorParalelo.Estatisticas carregar() throws IOException {
+        carregarSeNecessario();
+        return estatisticasCarga;
+    }
+
+    /**
+     * Lê as pessoas persistidas para montar o índice inicial, dividindo o
+     * arquivo em blocos lidos em paralelo ({@link CarregadorParalelo}).
+     *
+     * @return Lista de pessoas persistidas, na ordem do arquivo
+     * @throws IOException Se ocorrer erro na leitura
+     */
+    protected List<Pessoa> carregarPessoas() throws IOException {
+        CarregadorParalelo.Carga carga =
+                CarregadorParalelo.carregar(getArquivo(), getCharset(), ForkJoinPool.commonPool());
+        estatisticasCarga = carga.getEstatisticas();
+        return carga.getPessoas();
+    }
+
+    /**
+     * Retorna o mapa interno do índice, somente para leitura. Deve ser
+     * acessado apenas por subclasses enquanto seguram o monitor deste
+     * repositório.
+     *
+     * @return Mapa email normalizado -> pessoa
+     */
+    protected Map<String, Pessoa> getIndice() {
+        return indice;
+    }
+
+    /**
+     * Lê todas as pessoas a partir da memória.
+     *
+     * @return Cópia da lista de pessoas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public synchronized List<Pessoa> lerTodas() throws IOException {
+        carregarSeNecessario();
+        List<Pessoa> pessoas = new ArrayList<>(indice.size());
+        for (Pessoa pessoa : indice.values()) {
+            pessoas.add(copiar(pessoa));
+        }
+        return pessoas;
+    }
+
+    /**
+     * Retorna um stream sobre uma cópia dos dados em memória.
+     *
+     * @return Stream de pessoas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public Stream<Pessoa> stream() throws IOException {
+        return lerTodas().stream();
+    }
+
+    /**
+     * Salva a lista de pessoas no arquivo e reconstrói o índice.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        super.salvarTodas(pessoas);
+        substituirIndice(pessoas);
+    }
+
+    /**
+     * Reconstrói o índice com a lista informada, sem gravar o arquivo.
+     * Vale a primeira ocorrência de cada email.
+     *
+     * @param pessoas Novo conteúdo do repositório
+     */
+    protected synchronized void substituirIndice(List<Pessoa> pessoas) {
+        limpar();
+        for (Pessoa pessoa : pessoas) {
+            String chave = normalizarEmail(pessoa.getEmail());
+            if (!indice.containsKey(chave)) {
+                colocar(chave, copiar(pessoa));
+            }
+        }
+        carregado = true;
+    }
+
+    /**
+     * Adiciona uma nova pessoa, verificando duplicidade pelo índice.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean adicionar(Pessoa pessoa) throws IOException {
+        carregarSeNecessario();
+        String chave = normalizarEmail(pessoa.getEmail());
+        if (indice.containsKey(chave)) {
+            return false; // Email já existe
+        }
+
+        Pessoa copia = copiar(pessoa);
+        colocar(chave, copia);
+        try {
+            gravarInclusao(copia);
+        } catch (IOException e) {
+            retirar(chave);
+            throw e;
+        }
+        notificar(Alteracao.Tipo.INCLUSAO, null, copia);
+        return true;
+    }
+
+    /**
+     * Adiciona várias pessoas de uma vez. Emails já presentes no índice
+     * (ou repetidos na coleção) são ignorados.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        carregarSeNecessario();
+        List<Pessoa> novas = new ArrayList<>(pessoas.size());
+        for (Pessoa pessoa : pessoas) {
+            String chave = normalizarEmail(pessoa.getEmail());
+            if (!indice.containsKey(chave)) {
+                Pessoa copia = copiar(pessoa);
+                colocar(chave, copia);
+                novas.add(copia);
+            }
+        }
+
+        try {
+            gravarInclusoes(novas);
+        } catch (IOException e) {
+            for (Pessoa pessoa : novas) {
+                retirar(normalizarEmail(pessoa.getEmail()));
+            }
+            throw e;
+        }
+        notificarInclusoes(novas);
+        return novas.size();
+    }
+
+    /**
+     * Busca uma pessoa pelo email diretamente no índice.
+     *
+     * @param email Email da pessoa a ser buscada
+     * @return Cópia da pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public synchronized Pessoa buscarPorEmail(String email) throws IOException {
+        carregarSeNecessario();
+        Pessoa pessoa = indice.get(normalizarEmail(email));
+        return pessoa != null ? copiar(pessoa) : null;
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa existente.
+     *
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        carregarSeNecessario();
+        String chave = normalizarEmail(pessoaAtualizada.getEmail());
+        Pessoa anterior = indice.get(chave);
+        if (anterior == null) {
+            return false; // Pessoa não encontrada
+        }
+
+        Pessoa copia = copiar(pessoaAtualizada);
+        colocar(chave, copia);
+        try {
+            gravarAtualizacao(copia);
+        } catch (IOException e) {
+            colocar(chave, anterior);
+            throw e;
+        }
+        notificar(Alteracao.Tipo.ALTERACAO, anterior, copia);
+        return true;
+    }
+
+    /**
+     * Remove uma pessoa pelo email.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return true se a pessoa foi removida com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized boolean remover(String email) throws IOException {
+        carregarSeNecessario();
+        String chave = normalizarEmail(email);
+        if (!indice.containsKey(chave)) {
+            return false;
+        }
+
+        Pessoa removida = retirar(chave);
+        try {
+            gravarRemocao(removida);
+        } catch (IOException e) {
+            colocar(chave, removida); // Volta ao índice (ao final da ordem de listagem)
+            throw e;
+        }
+        notificar(Alteracao.Tipo.REMOCAO, removida, null);
+        return true;
+    }
+
+    /**
+     * Executa a transação com o lock do repositório, sem escritas concorrentes.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public synchronized <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        return super.executarTransacao(corpo);
+    }
+
+    /**
+     * Busca pessoas pelo nome usando o índice de nomes.
+     *
+     * @param termo Trecho do nome buscado
+     * @param inicio Quantidade de resultados a pular
+     * @param limite Quantidade máxima de resultados na página
+     * @return Página com as pessoas encontradas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public synchronized Pagina<Pessoa> buscarPorNome(String termo, int inicio, int limite) throws IOException {
+        carregarSeNecessario();
+        Pagina<String> emails = indiceNomes.buscar(termo, inicio, limite);
+        List<Pessoa> pessoas = new ArrayList<>(emails.getItens().size());
+        for (String email : emails.getItens()) {
+            pessoas.add(copiar(indice.get(email)));
+        }
+        return new Pagina<>(pessoas, emails.temProxima(), null);
+    }
+
+    /**
+     * Busca as pessoas com o telefone informado pelo índice de telefones.
+     *
+     * @param telefone Telefone em qualquer formato aceito pelo validador
+     * @return Pessoas com o telefone informado (vazia se nenhuma)
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public synchronized List<Pessoa> buscarPorTelefone(String telefone) throws IOException {
+        carregarSeNecessario();
+        List<Pessoa> encontradas = new ArrayList<>();
+        Set<String> emails = indiceTelefones.get(Validador.normalizarTelefone(telefone));
+        if (emails != null) {
+            for (String email : emails) {
+                encontradas.add(copiar(indice.get(email)));
+            }
+        }
+        return encontradas;
+    }
+
+    /**
+     * Inclui ou substitui uma pessoa no índice principal e nos índices secundários.
+     * Deve ser chamado com o monitor deste repositório.
+     *
+     * @param chave Email normalizado
+     * @param pessoa Pessoa a ser indexada
+     */
+    protected void colocar(String chave, Pessoa pessoa) {
+        Pessoa anterior = indice.put(chave, pessoa);
+        if (anterior != null) {
+            desindexarTelefone(chave, anterior);
+        }
+        indiceNomes.adicionar(chave, pessoa.getNome());
+        indiceTelefones.computeIfAbsent(Validador.normalizarTelefone(pessoa.getTelefone()),
+                t -> new LinkedHashSet<>()).add(chave);
+    }
+
+    /**
+     * Retira uma pessoa do índice principal e dos índices secundários.
+     * Deve ser chamado com o monitor deste repositório.
+     *
+     * @param chave Email normalizado
+     * @return Pessoa retirada ou null se não existia
+     */
+    protected Pessoa retirar(String chave) {
+        Pessoa removida = indice.remove(chave);
+        if (removida != null) {
+            indiceNomes.remover(chave);
+            desindexarTelefone(chave, removida);
+        }
+        return removida;
+    }
+
+    /**
+     * Retira o email da entrada do telefone da pessoa no índice de telefones.
+     *
+     * @param chave Email normalizado
+     * @param pessoa Pessoa cujo telefone estava indexado
+     */
+    private void desindexarTelefone(String chave, Pessoa pessoa) {
+        String telefone = Validador.normalizarTelefone(pessoa.getTelefone());
+        Set<String> emails = indiceTelefones.get(telefone);
+        if (emails != null) {
+            emails.remove(chave);
+            if (emails.isEmpty()) {
+                indiceTelefones.remove(telefone);
+            }
+        }
+    }
+
+    /**
+     * Esvazia o índice principal e os índices secundários.
+     */
+    private void limpar() {
+        indice.clear();
+        indiceNomes.limpar();
+        indiceTelefones.clear();
+    }
+
+    /**
+     * Persiste a inclusão de uma pessoa. Por padrão acrescenta uma linha
+     * ao final do arquivo, sem reescrever os registros existentes, no
+     * formato e na codificação das demais gravações.
+     *
+     * @param pessoa Pessoa incluída
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    protected void gravarInclusao(Pessoa pessoa) throws IOException {
+        acrescentar(List.of(pessoa));
+    }
+
+    /**
+     * Persiste a inclusão de várias pessoas. Por padrão acrescenta as
+     * linhas ao final do arquivo em uma única passada.
+     *
+     * @param pessoas Pessoas incluídas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    protected void gravarInclusoes(List<Pessoa> pessoas) throws IOException {
+        acrescentar(pessoas);
+    }
+
+    /**
+     * Persiste a atualização de uma pessoa. Por padrão reescreve o arquivo
+     * a partir do índice, sem precisar lê-lo novamente.
+     *
+     * @param pessoa Pessoa atualizada
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    protected void gravarAtualizacao(Pessoa pessoa) throws IOException {
+        super.salvarTodas(new ArrayList<>(indice.values()));
+    }
+
+    /**
+     * Persiste a remoção de uma pessoa. Por padrão reescreve o arquivo
+     * a partir do índice, sem precisar lê-lo novamente.
+     *
+     * @param pessoa Pessoa removida
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    protected void gravarRemocao(Pessoa pessoa) throws IOException {
+        super.salvarTodas(new ArrayList<>(indice.values()));
+    }
+
+    /**
+     * Cria uma cópia da pessoa, para que alterações feitas pelo chamador
+     * não modifiquem o índice sem passar por uma escrita.
+     *
+     * @param pessoa Pessoa a ser copiada
+     * @return Nova instância com os mesmos dados
+     */
+    protected static Pessoa copiar(Pessoa pessoa) {
+        return new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone());
+    }
+}
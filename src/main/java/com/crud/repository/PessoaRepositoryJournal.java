@@ -0,0 +1,818 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Repositório com persistência em log de operações (journal).
+ * Cada inclusão, atualização ou remoção acrescenta uma única linha ao
+ * journal, em vez de reescrever todo o arquivo de dados. Na inicialização,
+ * o arquivo de dados (instantâneo) é lido e o journal é reaplicado sobre ele.
+ *
+ * Formato das linhas do journal:
+ * - P|nome|email|telefone  (inclusão ou atualização)
+ * - R|email                (remoção)
+ * - S|quantidade           (substituição de todos os dados, seguida de
+ *                           quantidade linhas P; um bloco incompleto no fim
+ *                           do journal, de uma escrita interrompida, é ignorado)
+ *
+ * Quando o journal ultrapassa o tamanho ou a proporção de lixo configurados,
+ * uma compactação em segundo plano grava o estado atual no formato
+ * nome|email|telefone e retira do journal as linhas já gravadas nele, sem
+ * bloquear as escritas durante a gravação.
+ *
+ * As linhas são gravadas por um {@link EscritorEmLote}: escritas de várias
+ * threads são agrupadas em lotes, e cada operação só retorna quando sua
+ * linha está durável segundo a política de sincronização configurada.
+ * Enquanto a linha não é gravada, o email fica reservado (outras escritas
+ * nele esperam) e o índice não muda; assim as leituras só veem o que já
+ * está no journal e uma escrita que falha não deixa nada a desfazer.
+ */
+public class PessoaRepositoryJournal extends PessoaRepositoryIndexado implements Closeable {
+
+    /** Tamanho padrão do journal (em bytes) que dispara a compactação. */
+    public static final long LIMITE_BYTES_PADRAO = 4L * 1024 * 1024;
+
+    /** Proporção padrão de registros obsoletos que dispara a compactação. */
+    public static final double LIMITE_LIXO_PADRAO = 0.5;
+
+    /** Quantidade mínima de registros no journal para considerar a proporção de lixo. */
+    private static final long MINIMO_REGISTROS_JOURNAL = 1000;
+
+    private static final String SUFIXO_JOURNAL = ".journal";
+    private static final String PREFIXO_GRAVACAO = "P|";
+    private static final String PREFIXO_REMOCAO = "R|";
+    private static final String PREFIXO_SUBSTITUICAO = "S|";
+
+    private final File journal;
+    private final long limiteBytes;
+    private final double limiteLixo;
+    private final ExecutorService compactador;
+
+    private final EscritorEmLote.PoliticaSync politicaSync;
+    private final long intervaloSyncMs;
+    private final Set<String> reservados = new HashSet<>();
+
+    private EscritorEmLote escritor;
+    private long tamanhoJournal;
+    private long registrosInstantaneo;
+    private long registrosJournal;
+    private boolean compactacaoAgendada = false;
+    private boolean compactando = false;
+    private boolean fechado = false;
+    private int exclusivos;
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão e os limites padrão.
+     */
+    public PessoaRepositoryJournal() {
+        this("data/pessoas.txt", LIMITE_BYTES_PADRAO, LIMITE_LIXO_PADRAO);
+    }
+
+    /**
+     * Construtor com arquivo de dados e limites de compactação específicos.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados (instantâneo)
+     * @param limiteBytes Tamanho do journal, em bytes, que dispara a compactação
+     * @param limiteLixo Proporção (0 a 1) de registros obsoletos que dispara a compactação
+     */
+    public PessoaRepositoryJournal(String caminhoArquivo, long limiteBytes, double limiteLixo) {
+        this(caminhoArquivo, limiteBytes, limiteLixo, EscritorEmLote.PoliticaSync.SISTEMA, 0);
+    }
+
+    /**
+     * Construtor com arquivo de dados, limites de compactação e política de sincronização.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados (instantâneo)
+     * @param limiteBytes Tamanho do journal, em bytes, que dispara a compactação
+     * @param limiteLixo Proporção (0 a 1) de registros obsoletos que dispara a compactação
+     * @param politicaSync Política de sincronização do journal com o disco
+     * @param intervaloSyncMs Intervalo entre sincronizações na política INTERVALO
+     */
+    public PessoaRepositoryJournal(String caminhoArquivo, long limiteBytes, double limiteLixo,
+                                   EscritorEmLote.PoliticaSync politicaSync, long intervaloSyncMs) {
+        super(caminhoArquivo);
+        this.politicaSync = politicaSync;
+        this.intervaloSyncMs = intervaloSyncMs;
+        this.journal = new File(caminhoArquivo + SUFIXO_JOURNAL);
+        this.limiteBytes = limiteBytes;
+        this.limiteLixo = limiteLixo;
+        this.compactador = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "compactador-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lê o instantâneo e reaplica o journal sobre ele.
+     *
+     * @return Estado atual das pessoas
+     * @throws IOException Se ocorrer erro na leitura dos arquivos
+     */
+    @Override
+    protected List<Pessoa> carregarPessoas() throws IOException {
+        Map<String, Pessoa> estado = new LinkedHashMap<>();
+        List<Pessoa> instantaneo = super.carregarPessoas();
+        for (Pessoa pessoa : instantaneo) {
+            estado.putIfAbsent(normalizarEmail(pessoa.getEmail()), pessoa);
+        }
+        registrosInstantaneo = instantaneo.size();
+        registrosJournal = 0;
+        tamanhoJournal = journal.exists() ? journal.length() : 0;
+
+        if (journal.exists()) {
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(new FileInputStream(journal), StandardCharsets.UTF_8))) {
+                String linha;
+                while ((linha = reader.readLine()) != null) {
+                    if (linha.startsWith(PREFIXO_SUBSTITUICAO)) {
+                        registrosJournal += reaplicarSubstituicao(linha, reader, estado);
+                    } else if (reaplicar(linha, estado)) {
+                        registrosJournal++;
+                    }
+                }
+            }
+        }
+        return new ArrayList<>(estado.values());
+    }
+
+    /**
+     * Reaplica uma linha do journal sobre o estado.
+     * Linhas corrompidas (ex: escrita interrompida) são ignoradas.
+     *
+     * @param linha Linha do journal
+     * @param estado Estado atual, indexado por email normalizado
+     * @return true se a linha era válida e foi aplicada
+     */
+    private static boolean reaplicar(String linha, Map<String, Pessoa> estado) {
+        if (linha.startsWith(PREFIXO_GRAVACAO)) {
+            Pessoa pessoa = Pessoa.fromFileFormat(linha.substring(PREFIXO_GRAVACAO.length()));
+            if (pessoa == null) {
+                return false;
+            }
+            estado.put(normalizarEmail(pessoa.getEmail()), pessoa);
+            return true;
+        }
+        if (linha.startsWith(PREFIXO_REMOCAO)) {
+            String email = linha.substring(PREFIXO_REMOCAO.length());
+            if (email.trim().isEmpty()) {
+                return false;
+            }
+            estado.remove(normalizarEmail(email));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Reaplica um bloco de substituição: lê as linhas seguintes e, se o
+     * bloco estiver completo, troca todo o estado por elas. Um bloco
+     * incompleto (escrita interrompida no fim do journal) é ignorado.
+     *
+     * @param cabecalho Linha S|quantidade
+     * @param reader Leitor posicionado após o cabeçalho
+     * @param estado Estado atual, indexado por email normalizado
+     * @return Quantidade de registros do bloco aplicado (0 se ignorado)
+     * @throws IOException Se ocorrer erro na leitura do journal
+     */
+    private static long reaplicarSubstituicao(String cabecalho, BufferedReader reader, Map<String, Pessoa> estado)
+            throws IOException {
+        int quantidade;
+        try {
+            quantidade = Integer.parseInt(cabecalho.substring(PREFIXO_SUBSTITUICAO.length()).trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+        Map<String, Pessoa> novo = new LinkedHashMap<>();
+        for (int i = 0; i < quantidade; i++) {
+            String linha = reader.readLine();
+            if (linha == null || !linha.startsWith(PREFIXO_GRAVACAO)) {
+                return 0;
+            }
+            Pessoa pessoa = Pessoa.fromFileFormat(linha.substring(PREFIXO_GRAVACAO.length()));
+            if (pessoa == null) {
+                return 0;
+            }
+            novo.putIfAbsent(normalizarEmail(pessoa.getEmail()), pessoa);
+        }
+        estado.clear();
+        estado.putAll(novo);
+        return quantidade;
+    }
+
+    /**
+     * Substitui todos os dados, depois de concluídas as escritas pendentes e
+     * a compactação em andamento.
+     *
+     * O novo conteúdo é acrescentado ao journal como um único bloco de
+     * substituição, de modo que a troca é atômica: se o processo parar antes
+     * de o bloco estar completo, a reaplicação o ignora e o estado anterior
+     * continua valendo. Em seguida é agendada uma compactação, que grava o
+     * novo instantâneo e retira o bloco do journal.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do journal
+     */
+    @Override
+    public synchronized void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        carregarSeNecessario();
+        aguardarCompactacao();
+        iniciarExclusivo();
+        try {
+            Map<String, Pessoa> novas = new LinkedHashMap<>();
+            for (Pessoa pessoa : pessoas) {
+                novas.putIfAbsent(normalizarEmail(pessoa.getEmail()), copiar(pessoa));
+            }
+            StringBuilder linhas = new StringBuilder(PREFIXO_SUBSTITUICAO).append(novas.size()).append('\n');
+            for (Pessoa pessoa : novas.values()) {
+                linhas.append(PREFIXO_GRAVACAO).append(pessoa.toFileFormat()).append('\n');
+            }
+            EscritorEmLote.aguardar(anexar(linhas.toString(), novas.size()));
+            substituirIndice(new ArrayList<>(novas.values()));
+            agendarCompactacao();
+        } finally {
+            terminarExclusivo();
+        }
+    }
+
+    /**
+     * Executa a transação sem escritas pendentes, para que ela parta do
+     * mesmo estado que está no journal.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita dos arquivos
+     */
+    @Override
+    public synchronized <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        aguardarCompactacao();
+        iniciarExclusivo();
+        try {
+            return super.executarTransacao(corpo);
+        } finally {
+            terminarExclusivo();
+        }
+    }
+
+    /**
+     * Adiciona uma pessoa. A linha é enviada ao journal com o monitor e a
+     * espera pela gravação acontece fora dele, permitindo que outras
+     * escritas entrem no mesmo lote; o índice só recebe a pessoa depois
+     * que a linha está gravada.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do journal
+     */
+    @Override
+    public boolean adicionar(Pessoa pessoa) throws IOException {
+        String chave = normalizarEmail(pessoa.getEmail());
+        Pessoa copia = copiar(pessoa);
+        List<String> chaves = Collections.singletonList(chave);
+        CompletableFuture<Void> escrita;
+        synchronized (this) {
+            carregarSeNecessario();
+            reservar(chaves);
+            if (getIndice().containsKey(chave)) {
+                liberar(chaves);
+                return false; // Email já existe
+            }
+            escrita = enviar(chaves, PREFIXO_GRAVACAO + copia.toFileFormat() + "\n", 1);
+        }
+        aguardarGravacao(escrita, chaves);
+        synchronized (this) {
+            try {
+                colocar(chave, copia);
+                notificar(Alteracao.Tipo.INCLUSAO, null, copia);
+            } finally {
+                liberar(chaves);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Adiciona várias pessoas com um único bloco de linhas no journal.
+     * Emails já presentes no índice (ou repetidos na coleção) são ignorados.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do journal
+     */
+    @Override
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        Map<String, Pessoa> novas = new LinkedHashMap<>();
+        for (Pessoa pessoa : pessoas) {
+            novas.putIfAbsent(normalizarEmail(pessoa.getEmail()), copiar(pessoa));
+        }
+        List<String> chaves;
+        CompletableFuture<Void> escrita;
+        synchronized (this) {
+            carregarSeNecessario();
+            reservar(novas.keySet());
+            List<String> existentes = new ArrayList<>();
+            for (String chave : novas.keySet()) {
+                if (getIndice().containsKey(chave)) {
+                    existentes.add(chave);
+                }
+            }
+            liberar(existentes);
+            novas.keySet().removeAll(existentes);
+            if (novas.isEmpty()) {
+                return 0;
+            }
+
+            chaves = new ArrayList<>(novas.keySet());
+            StringBuilder linhas = new StringBuilder();
+            for (Pessoa pessoa : novas.values()) {
+                linhas.append(PREFIXO_GRAVACAO).append(pessoa.toFileFormat()).append('\n');
+            }
+            escrita = enviar(chaves, linhas.toString(), novas.size());
+        }
+        aguardarGravacao(escrita, chaves);
+        synchronized (this) {
+            try {
+                for (Map.Entry<String, Pessoa> nova : novas.entrySet()) {
+                    colocar(nova.getKey(), nova.getValue());
+                }
+                notificarInclusoes(novas.values());
+            } finally {
+                liberar(chaves);
+            }
+        }
+        return novas.size();
+    }
+
+    /**
+     * Atualiza uma pessoa; o índice só muda depois que a linha está gravada.
+     *
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do journal
+     */
+    @Override
+    public boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        return substituir(null, pessoaAtualizada);
+    }
+
+    /**
+     * Atualiza a pessoa se os dados atuais forem os esperados, comparando
+     * com o email reservado.
+     *
+     * @param esperada Dados lidos pelo chamador
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do journal
+     */
+    @Override
+    public boolean atualizarSe(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        return substituir(esperada, pessoaAtualizada);
+    }
+
+    /**
+     * Substitui os dados da pessoa com o email reservado.
+     *
+     * @param esperada Dados que a pessoa deve ter (null para não comparar)
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     */
+    private boolean substituir(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        String chave = normalizarEmail(pessoaAtualizada.getEmail());
+        Pessoa copia = copiar(pessoaAtualizada);
+        List<String> chaves = Collections.singletonList(chave);
+        Pessoa anterior;
+        CompletableFuture<Void> escrita;
+        synchronized (this) {
+            carregarSeNecessario();
+            reservar(chaves);
+            anterior = getIndice().get(chave);
+            if (anterior == null || (esperada != null && !mesmosDados(anterior, esperada))) {
+                liberar(chaves);
+                return false; // Pessoa não encontrada ou alterada desde a leitura
+            }
+            escrita = enviar(chaves, PREFIXO_GRAVACAO + copia.toFileFormat() + "\n", 1);
+        }
+        aguardarGravacao(escrita, chaves);
+        synchronized (this) {
+            try {
+                colocar(chave, copia);
+                notificar(Alteracao.Tipo.ALTERACAO, anterior, copia);
+            } finally {
+                liberar(chaves);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Remove uma pessoa; o índice só muda depois que a linha está gravada.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return true se a pessoa foi removida com sucesso
+     * @throws IOException Se ocorrer erro na escrita do journal
+     */
+    @Override
+    public boolean remover(String email) throws IOException {
+        String chave = normalizarEmail(email);
+        List<String> chaves = Collections.singletonList(chave);
+        CompletableFuture<Void> escrita;
+        synchronized (this) {
+            carregarSeNecessario();
+            reservar(chaves);
+            Pessoa atual = getIndice().get(chave);
+            if (atual == null) {
+                liberar(chaves);
+                return false;
+            }
+            escrita = enviar(chaves, PREFIXO_REMOCAO + atual.getEmail() + "\n", 1);
+        }
+        aguardarGravacao(escrita, chaves);
+        synchronized (this) {
+            try {
+                Pessoa removida = retirar(chave);
+                notificar(Alteracao.Tipo.REMOCAO, removida, null);
+            } finally {
+                liberar(chaves);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reserva os emails para uma escrita, esperando enquanto algum deles
+     * tem escrita pendente ou uma operação exclusiva está em andamento.
+     * Deve ser chamado com o monitor do repositório.
+     *
+     * @param chaves Emails normalizados
+     * @throws IOException Se a espera for interrompida
+     */
+    private void reservar(Collection<String> chaves) throws IOException {
+        while (exclusivos > 0 || algumReservado(chaves)) {
+            esperar();
+        }
+        reservados.addAll(chaves);
+    }
+
+    private boolean algumReservado(Collection<String> chaves) {
+        for (String chave : chaves) {
+            if (reservados.contains(chave)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Libera os emails reservados e acorda quem espera por eles.
+     * Deve ser chamado com o monitor do repositório.
+     *
+     * @param chaves Emails normalizados
+     */
+    private void liberar(Collection<String> chaves) {
+        if (!chaves.isEmpty()) {
+            reservados.removeAll(chaves);
+            notifyAll();
+        }
+    }
+
+    /**
+     * Impede novas reservas e espera o fim das escritas pendentes, para
+     * que o índice e o journal tenham o mesmo estado. Deve ser chamado com
+     * o monitor do repositório e seguido de {@link #terminarExclusivo()}.
+     *
+     * @throws IOException Se a espera for interrompida
+     */
+    private void iniciarExclusivo() throws IOException {
+        exclusivos++;
+        try {
+            while (!reservados.isEmpty()) {
+                esperar();
+            }
+        } catch (IOException e) {
+            terminarExclusivo();
+            throw e;
+        }
+    }
+
+    private void terminarExclusivo() {
+        exclusivos--;
+        notifyAll();
+    }
+
+    private void esperar() throws IOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Espera pelas escritas pendentes interrompida", e);
+        }
+    }
+
+    /**
+     * Aguarda a gravação de uma linha enviada ao journal. Em caso de falha
+     * os emails são liberados sem mudar o índice, que continua igual ao
+     * que está gravado.
+     *
+     * @param escrita Future retornado pelo escritor do journal
+     * @param chaves Emails reservados para a escrita
+     * @throws IOException Se a gravação da linha falhou
+     */
+    private void aguardarGravacao(CompletableFuture<Void> escrita, Collection<String> chaves) throws IOException {
+        // Espera sem interrupção: a linha já foi enviada e o índice tem de acompanhar o journal
+        escrita.exceptionally(e -> null).join();
+        try {
+            EscritorEmLote.aguardar(escrita);
+        } catch (IOException e) {
+            synchronized (this) {
+                liberar(chaves);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Envia linhas ao journal, liberando os emails se o envio falhar.
+     * Deve ser chamado com o monitor do repositório.
+     */
+    private CompletableFuture<Void> enviar(Collection<String> chaves, String linhas, int quantidade)
+            throws IOException {
+        try {
+            return anexar(linhas, quantidade);
+        } catch (IOException | RuntimeException e) {
+            liberar(chaves);
+            throw e;
+        }
+    }
+
+    /**
+     * Envia um bloco de linhas ao journal em uma única escrita e agenda a
+     * compactação se necessário. Deve ser chamado com o monitor do
+     * repositório, para que a ordem das linhas seja a mesma das reservas.
+     *
+     * @param linhas Linhas a serem acrescentadas, cada uma terminada em quebra de linha
+     * @param quantidade Quantidade de linhas do bloco
+     * @return Future concluído quando as linhas estiverem gravadas
+     * @throws IOException Se o journal não puder ser aberto
+     */
+    private CompletableFuture<Void> anexar(String linhas, int quantidade) throws IOException {
+        byte[] dados = linhas.getBytes(StandardCharsets.UTF_8);
+        CompletableFuture<Void> escrita = obterEscritor().escrever(dados);
+
+        tamanhoJournal += dados.length;
+        registrosJournal += quantidade;
+
+        if (precisaCompactar()) {
+            agendarCompactacao();
+        }
+        return escrita;
+    }
+
+    /**
+     * Agenda uma compactação em segundo plano, se ainda não houver uma
+     * agendada. Deve ser chamado com o monitor do repositório.
+     */
+    private void agendarCompactacao() {
+        if (!compactacaoAgendada && !compactador.isShutdown()) {
+            compactacaoAgendada = true;
+            compactador.execute(this::compactarEmSegundoPlano);
+        }
+    }
+
+    /**
+     * Abre o escritor do journal na primeira escrita.
+     *
+     * @return Escritor do journal
+     * @throws IOException Se o journal não puder ser aberto
+     */
+    private EscritorEmLote obterEscritor() throws IOException {
+        if (escritor == null) {
+            escritor = new EscritorEmLote(journal.toPath(), politicaSync, intervaloSyncMs);
+        }
+        return escritor;
+    }
+
+    /**
+     * Verifica se o journal passou do tamanho ou da proporção de lixo configurados.
+     *
+     * @return true se a compactação deve ser executada
+     */
+    private boolean precisaCompactar() {
+        if (tamanhoJournal >= limiteBytes) {
+            return true;
+        }
+        // Evita compactar a cada operação quando o volume de dados ainda é pequeno
+        return registrosJournal >= MINIMO_REGISTROS_JOURNAL && getProporcaoLixo() >= limiteLixo;
+    }
+
+    /**
+     * Retorna a proporção de registros obsoletos (substituídos ou removidos)
+     * entre todos os registros do instantâneo e do journal.
+     *
+     * @return Valor entre 0 e 1
+     */
+    public synchronized double getProporcaoLixo() {
+        long total = registrosInstantaneo + registrosJournal;
+        if (total == 0) {
+            return 0;
+        }
+        long vivos = getIndice().size();
+        return (double) (total - vivos) / total;
+    }
+
+    /**
+     * Retorna o tamanho atual do journal em bytes.
+     *
+     * @return Tamanho do journal
+     */
+    public synchronized long getTamanhoJournal() {
+        return tamanhoJournal;
+    }
+
+    /**
+     * Executa a compactação na thread do compactador, ignorando erros
+     * (o journal continua válido e a compactação é tentada de novo depois).
+     */
+    private void compactarEmSegundoPlano() {
+        try {
+            compactar();
+        } catch (IOException e) {
+            System.err.println("Falha ao compactar o journal: " + e.getMessage());
+        } finally {
+            synchronized (this) {
+                compactacaoAgendada = false;
+            }
+        }
+    }
+
+    /**
+     * Grava o estado atual como novo instantâneo (nome|email|telefone) e
+     * retira do journal as linhas que ele já contém.
+     *
+     * O monitor só é mantido para copiar o estado e, no fim, para trocar os
+     * arquivos; o instantâneo é escrito fora dele, enquanto as escritas
+     * continuam sendo acrescentadas ao journal. Na troca, as linhas
+     * acrescentadas depois da cópia vão para um novo journal, e o
+     * instantâneo e o novo journal são renomeados sobre os antigos, nessa
+     * ordem. Se o processo parar entre as duas trocas, a reaplicação do
+     * journal antigo sobre o novo instantâneo produz o mesmo estado.
+     *
+     * Depois de {@link #close()}, não faz nada.
+     *
+     * @throws IOException Se ocorrer erro na escrita dos arquivos
+     */
+    public void compactar() throws IOException {
+        List<Pessoa> copia;
+        long posicaoCopia;
+        long registrosCopia;
+        synchronized (this) {
+            aguardarCompactacao();
+            if (fechado) {
+                return; // Compactação agendada antes do fechamento
+            }
+            carregarSeNecessario();
+            iniciarExclusivo();
+            try {
+                // Sem escritas pendentes, o journal termina exatamente no estado copiado
+                copia = new ArrayList<>(getIndice().values());
+                posicaoCopia = journal.length();
+                registrosCopia = registrosJournal;
+                compactando = true;
+            } finally {
+                terminarExclusivo();
+            }
+        }
+        try {
+            Path destino = getArquivo().toPath();
+            Path temporario = destino.resolveSibling(destino.getFileName() + ".tmp");
+            gravarInstantaneo(temporario, copia);
+
+            synchronized (this) {
+                iniciarExclusivo();
+                try {
+                    trocarArquivos(temporario, destino, posicaoCopia);
+                    registrosJournal = Math.max(0, registrosJournal - registrosCopia);
+                    registrosInstantaneo = copia.size();
+                } finally {
+                    terminarExclusivo();
+                }
+            }
+        } finally {
+            synchronized (this) {
+                compactando = false;
+                notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Escreve o instantâneo em um arquivo temporário e o sincroniza com o disco.
+     *
+     * @param temporario Arquivo temporário
+     * @param pessoas Estado copiado
+     * @throws IOException Se ocorrer erro na escrita
+     */
+    private static void gravarInstantaneo(Path temporario, List<Pessoa> pessoas) throws IOException {
+        // Usa a mesma codificação do FileReader/FileWriter do repositório base
+        try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+             BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                     Channels.newOutputStream(canal), Charset.defaultCharset()))) {
+            for (Pessoa pessoa : pessoas) {
+                writer.write(pessoa.toFileFormat());
+                writer.newLine();
+            }
+            writer.flush();
+            canal.force(true);
+        }
+    }
+
+    /**
+     * Troca o instantâneo e corta do journal as linhas anteriores à cópia.
+     * Deve ser chamado com o monitor e sem escritas pendentes.
+     *
+     * @param instantaneo Novo instantâneo, já gravado
+     * @param destino Arquivo de dados
+     * @param inicioJournal Posição do journal no momento da cópia
+     * @throws IOException Se ocorrer erro na troca dos arquivos
+     */
+    private void trocarArquivos(Path instantaneo, Path destino, long inicioJournal) throws IOException {
+        Path atual = journal.toPath();
+        Path novoJournal = atual.resolveSibling(atual.getFileName() + ".tmp");
+        boolean existeJournal = journal.exists();
+        if (existeJournal) {
+            try (FileChannel origem = FileChannel.open(atual, StandardOpenOption.READ);
+                 FileChannel copia = FileChannel.open(novoJournal, StandardOpenOption.CREATE,
+                         StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long posicao = inicioJournal;
+                while (posicao < origem.size()) {
+                    posicao += origem.transferTo(posicao, origem.size() - posicao, copia);
+                }
+                copia.force(true);
+            }
+        }
+
+        // O escritor é reaberto na próxima escrita, já sobre o novo journal
+        if (escritor != null) {
+            try {
+                escritor.close();
+            } finally {
+                escritor = null;
+            }
+        }
+        Files.move(instantaneo, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (existeJournal) {
+            Files.move(novoJournal, atual, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        tamanhoJournal = journal.length();
+    }
+
+    /**
+     * Espera o fim de uma compactação em andamento, que ainda vai trocar o
+     * instantâneo. Deve ser chamado com o monitor do repositório.
+     *
+     * @throws IOException Se a espera for interrompida
+     */
+    private void aguardarCompactacao() throws IOException {
+        while (compactando) {
+            esperar();
+        }
+    }
+
+    /**
+     * Fecha o journal e encerra a thread de compactação.
+     *
+     * @throws IOException Se ocorrer erro ao fechar o journal
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        compactador.shutdown();
+        fechado = true;
+        aguardarCompactacao();
+        if (escritor != null) {
+            escritor.close();
+            escritor = null;
+        }
+    }
+}
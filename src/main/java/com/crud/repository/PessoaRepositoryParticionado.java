@@ -0,0 +1,513 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Repositório que divide as pessoas em vários arquivos (partições), pelo
+ * hash do email normalizado.
+ *
+ * Cada partição tem seu próprio arquivo e seu próprio lock, então escritas
+ * em partições diferentes ocorrem em paralelo, e a reescrita causada por
+ * uma inclusão, alteração ou remoção custa apenas o tamanho da partição.
+ *
+ * Estrutura do diretório:
+ * - particoes.properties: quantidade de partições e geração atual
+ * - g&lt;geração&gt;/pessoas-&lt;n&gt;.txt: arquivo de cada partição
+ *
+ * A quantidade de partições pode ser alterada com o repositório em uso por
+ * {@link #reparticionar(int)}: os registros são copiados para uma nova
+ * geração de arquivos e os metadados são trocados de forma atômica. As
+ * operações aguardam o fim da redistribuição.
+ *
+ * A listagem percorre as partições em sequência, portanto não segue a
+ * ordem de inclusão.
+ */
+public class PessoaRepositoryParticionado extends PessoaRepository {
+
+    /** Quantidade padrão de partições. */
+    public static final int PARTICOES_PADRAO = 16;
+
+    /** Diretório padrão das partições. */
+    public static final String DIRETORIO_PADRAO = "data/particoes";
+
+    /** Arquivo único migrado para as partições pelo construtor padrão. */
+    public static final String ARQUIVO_LEGADO_PADRAO = "data/pessoas.txt";
+
+    private static final String ARQUIVO_METADADOS = "particoes.properties";
+    // Arquivo base quando não há arquivo legado; nunca é lido nem gravado
+    private static final String ARQUIVO_SEM_LEGADO = "pessoas.txt";
+
+    /**
+     * Arquivo de uma partição com o lock que protege seu acesso.
+     */
+    private static final class Particao {
+        final PessoaRepository arquivo;
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        Particao(PessoaRepository arquivo) {
+            this.arquivo = arquivo;
+        }
+    }
+
+    private final Path diretorio;
+    private final boolean migrar;
+    // Protege a troca do conjunto de partições durante a redistribuição
+    private final ReentrantReadWriteLock layout = new ReentrantReadWriteLock();
+    private Particao[] particoes;
+    private int geracao;
+
+    /**
+     * Construtor que utiliza o diretório e a quantidade de partições padrão.
+     * Um diretório novo recebe os registros do arquivo de dados padrão.
+     */
+    public PessoaRepositoryParticionado() {
+        this(DIRETORIO_PADRAO, PARTICOES_PADRAO, ARQUIVO_LEGADO_PADRAO);
+    }
+
+    /**
+     * Abre (ou cria) um repositório particionado, sem migrar registros de
+     * outro arquivo.
+     *
+     * @param diretorio Diretório das partições
+     * @param quantidadeParticoes Quantidade de partições de um repositório novo
+     * @throws UncheckedIOException Se os metadados não puderem ser lidos ou criados
+     */
+    public PessoaRepositoryParticionado(String diretorio, int quantidadeParticoes) {
+        this(diretorio, quantidadeParticoes, null);
+    }
+
+    /**
+     * Abre (ou cria) um repositório particionado.
+     *
+     * Se o diretório ainda não tiver partições, cria a quantidade informada
+     * e copia para elas os registros do arquivo legado, se houver.
+     * Se já tiver, a quantidade registrada nos metadados prevalece.
+     *
+     * @param diretorio Diretório das partições
+     * @param quantidadeParticoes Quantidade de partições de um repositório novo
+     * @param arquivoLegado Arquivo único cujos registros são migrados para um
+     *                      diretório novo (null para não migrar)
+     * @throws UncheckedIOException Se os metadados não puderem ser lidos ou criados
+     */
+    public PessoaRepositoryParticionado(String diretorio, int quantidadeParticoes, String arquivoLegado) {
+        super(arquivoLegado != null ? arquivoLegado : new File(diretorio, ARQUIVO_SEM_LEGADO).getPath());
+        if (quantidadeParticoes < 1) {
+            throw new IllegalArgumentException("Quantidade de partições deve ser maior que zero");
+        }
+        this.diretorio = new File(diretorio).toPath();
+        this.migrar = arquivoLegado != null;
+        try {
+            abrir(quantidadeParticoes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void abrir(int quantidadeParticoes) throws IOException {
+        Files.createDirectories(diretorio);
+        Path metadados = diretorio.resolve(ARQUIVO_METADADOS);
+        if (Files.exists(metadados)) {
+            Properties propriedades = new Properties();
+            try (InputStream entrada = Files.newInputStream(metadados)) {
+                propriedades.load(entrada);
+            }
+            this.geracao = Integer.parseInt(propriedades.getProperty("geracao"));
+            this.particoes = abrirParticoes(geracao, Integer.parseInt(propriedades.getProperty("quantidade")));
+        } else {
+            this.geracao = 1;
+            this.particoes = abrirParticoes(geracao, quantidadeParticoes);
+            // Migra os dados do arquivo único, mantendo-o como estava
+            List<Pessoa> existentes = migrar ? super.lerTodas() : List.of();
+            if (!existentes.isEmpty()) {
+                distribuir(particoes, existentes);
+            }
+            gravarMetadados(geracao, quantidadeParticoes);
+        }
+    }
+
+    private Particao[] abrirParticoes(int geracao, int quantidade) {
+        Particao[] novas = new Particao[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            String arquivo = diretorio.resolve("g" + geracao).resolve(String.format("pessoas-%03d.txt", i)).toString();
+            novas[i] = new Particao(new PessoaRepository(arquivo));
+            novas[i].arquivo.setFeedAlteracoes(getFeedAlteracoes());
+        }
+        return novas;
+    }
+
+    /**
+     * Define o feed de alterações também nas partições, que publicam cada
+     * operação enquanto seguram o lock da sua partição.
+     *
+     * @param feed Feed de alterações (null para desativar)
+     */
+    @Override
+    public void setFeedAlteracoes(FeedAlteracoes feed) {
+        layout.writeLock().lock();
+        try {
+            super.setFeedAlteracoes(feed);
+            for (Particao particao : particoes) {
+                particao.arquivo.setFeedAlteracoes(feed);
+            }
+        } finally {
+            layout.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava os metadados em um arquivo temporário e o move sobre o atual,
+     * para que uma falha no meio da gravação não deixe metadados incompletos.
+     */
+    private void gravarMetadados(int geracao, int quantidade) throws IOException {
+        Properties propriedades = new Properties();
+        propriedades.setProperty("geracao", String.valueOf(geracao));
+        propriedades.setProperty("quantidade", String.valueOf(quantidade));
+
+        Path temporario = diretorio.resolve(ARQUIVO_METADADOS + ".tmp");
+        try (OutputStream saida = Files.newOutputStream(temporario)) {
+            propriedades.store(saida, "Metadados do repositório particionado");
+        }
+        Files.move(temporario, diretorio.resolve(ARQUIVO_METADADOS),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Calcula a partição de um email. Usa o hashCode de String, que é
+     * estável entre execuções e versões da JVM.
+     *
+     * @param email Email (normalizado internamente)
+     * @param quantidade Quantidade de partições
+     * @return Índice da partição
+     */
+    static int indiceParticao(String email, int quantidade) {
+        int hash = normalizarEmail(email).hashCode();
+        hash ^= (hash >>> 16);
+        return Math.floorMod(hash, quantidade);
+    }
+
+    private Particao particao(String email) {
+        return particoes[indiceParticao(email, particoes.length)];
+    }
+
+    /**
+     * Retorna a quantidade atual de partições.
+     *
+     * @return Quantidade de partições
+     */
+    public int getQuantidadeParticoes() {
+        layout.readLock().lock();
+        try {
+            return particoes.length;
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    /**
+     * Lê todas as pessoas, uma partição por vez.
+     *
+     * @return Lista de pessoas, agrupadas por partição
+     * @throws IOException Se ocorrer erro na leitura dos arquivos
+     */
+    @Override
+    public List<Pessoa> lerTodas() throws IOException {
+        layout.readLock().lock();
+        try {
+            List<Pessoa> pessoas = new ArrayList<>();
+            for (Particao particao : particoes) {
+                pessoas.addAll(lerParticao(particao));
+            }
+            return pessoas;
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna um stream que carrega uma partição por vez, de modo que apenas
+     * uma partição fica em memória durante a leitura.
+     *
+     * O lock de leitura do layout fica com o stream até ele ser fechado, para
+     * que {@link #reparticionar(int)} não apague as partições ainda não lidas.
+     * Por isso o stream deve ser fechado (ex: com try-with-resources) pela
+     * mesma thread que o abriu, e uma redistribuição aguarda os streams abertos.
+     *
+     * @return Stream de pessoas, agrupadas por partição
+     */
+    @Override
+    public Stream<Pessoa> stream() {
+        layout.readLock().lock();
+        AtomicBoolean aberto = new AtomicBoolean(true);
+        return Arrays.stream(particoes).flatMap(particao -> {
+            try {
+                return lerParticao(particao).stream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).onClose(() -> {
+            if (aberto.compareAndSet(true, false)) {
+                layout.readLock().unlock();
+            }
+        });
+    }
+
+    private static List<Pessoa> lerParticao(Particao particao) throws IOException {
+        particao.lock.readLock().lock();
+        try {
+            return particao.arquivo.lerTodas();
+        } finally {
+            particao.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Substitui todos os dados, redistribuindo as pessoas entre as partições.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita dos arquivos
+     */
+    @Override
+    public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        layout.writeLock().lock();
+        try {
+            distribuir(particoes, pessoas);
+        } finally {
+            layout.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Grava as pessoas nas partições informadas, substituindo o conteúdo.
+     */
+    private static void distribuir(Particao[] destino, Collection<Pessoa> pessoas) throws IOException {
+        List<List<Pessoa>> grupos = agrupar(pessoas, destino.length);
+        for (int i = 0; i < destino.length; i++) {
+            destino[i].arquivo.salvarTodas(grupos.get(i));
+        }
+    }
+
+    private static List<List<Pessoa>> agrupar(Collection<Pessoa> pessoas, int quantidade) {
+        List<List<Pessoa>> grupos = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            grupos.add(new ArrayList<>());
+        }
+        for (Pessoa pessoa : pessoas) {
+            grupos.get(indiceParticao(pessoa.getEmail(), quantidade)).add(pessoa);
+        }
+        return grupos;
+    }
+
+    @Override
+    public boolean adicionar(Pessoa pessoa) throws IOException {
+        layout.readLock().lock();
+        try {
+            Particao particao = particao(pessoa.getEmail());
+            particao.lock.writeLock().lock();
+            try {
+                return particao.arquivo.adicionar(pessoa);
+            } finally {
+                particao.lock.writeLock().unlock();
+            }
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adiciona várias pessoas, acrescentando cada grupo ao final da sua
+     * partição. As partições são gravadas em paralelo.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita dos arquivos
+     */
+    @Override
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        layout.readLock().lock();
+        try {
+            List<List<Pessoa>> grupos = agrupar(pessoas, particoes.length);
+            int[] indices = new int[grupos.size()];
+            Arrays.setAll(indices, i -> i);
+            try {
+                return Arrays.stream(indices).parallel()
+                        .filter(i -> !grupos.get(i).isEmpty())
+                        .map(i -> {
+                            Particao particao = particoes[i];
+                            particao.lock.writeLock().lock();
+                            try {
+                                return particao.arquivo.adicionarTodas(grupos.get(i));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            } finally {
+                                particao.lock.writeLock().unlock();
+                            }
+                        })
+                        .sum();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Pessoa buscarPorEmail(String email) throws IOException {
+        if (email == null) {
+            return null;
+        }
+        layout.readLock().lock();
+        try {
+            Particao particao = particao(email);
+            particao.lock.readLock().lock();
+            try {
+                return particao.arquivo.buscarPorEmail(email);
+            } finally {
+                particao.lock.readLock().unlock();
+            }
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        layout.readLock().lock();
+        try {
+            Particao particao = particao(pessoaAtualizada.getEmail());
+            particao.lock.writeLock().lock();
+            try {
+                return particao.arquivo.atualizar(pessoaAtualizada);
+            } finally {
+                particao.lock.writeLock().unlock();
+            }
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean atualizarSe(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        layout.readLock().lock();
+        try {
+            Particao particao = particao(pessoaAtualizada.getEmail());
+            particao.lock.writeLock().lock();
+            try {
+                return particao.arquivo.atualizarSe(esperada, pessoaAtualizada);
+            } finally {
+                particao.lock.writeLock().unlock();
+            }
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean remover(String email) throws IOException {
+        if (email == null) {
+            return false;
+        }
+        layout.readLock().lock();
+        try {
+            Particao particao = particao(email);
+            particao.lock.writeLock().lock();
+            try {
+                return particao.arquivo.remover(email);
+            } finally {
+                particao.lock.writeLock().unlock();
+            }
+        } finally {
+            layout.readLock().unlock();
+        }
+    }
+
+    /**
+     * Executa a transação bloqueando o layout para escrita, o que impede
+     * operações em qualquer partição até a gravação terminar.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita dos arquivos
+     */
+    @Override
+    public <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        layout.writeLock().lock();
+        try {
+            return super.executarTransacao(corpo);
+        } finally {
+            layout.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Redistribui as pessoas em uma nova quantidade de partições, com o
+     * repositório em uso. Os registros são copiados para uma nova geração de
+     * arquivos; só depois da cópia completa os metadados passam a apontar
+     * para ela e os arquivos antigos são apagados. Se houver falha durante a
+     * cópia, a geração anterior continua valendo.
+     *
+     * @param novaQuantidade Nova quantidade de partições
+     * @return Quantidade de pessoas redistribuídas
+     * @throws IOException Se ocorrer erro na leitura ou escrita dos arquivos
+     */
+    public int reparticionar(int novaQuantidade) throws IOException {
+        if (novaQuantidade < 1) {
+            throw new IllegalArgumentException("Quantidade de partições deve ser maior que zero");
+        }
+        layout.writeLock().lock();
+        try {
+            int novaGeracao = geracao + 1;
+            Particao[] novas = abrirParticoes(novaGeracao, novaQuantidade);
+            List<List<Pessoa>> grupos = agrupar(List.of(), novaQuantidade);
+            int total = 0;
+            for (Particao particao : particoes) {
+                for (Pessoa pessoa : particao.arquivo.lerTodas()) {
+                    grupos.get(indiceParticao(pessoa.getEmail(), novaQuantidade)).add(pessoa);
+                    total++;
+                }
+            }
+            for (int i = 0; i < novaQuantidade; i++) {
+                novas[i].arquivo.salvarTodas(grupos.get(i));
+            }
+
+            gravarMetadados(novaGeracao, novaQuantidade);
+            Path anterior = diretorio.resolve("g" + geracao);
+            particoes = novas;
+            geracao = novaGeracao;
+            apagarDiretorio(anterior);
+            return total;
+        } finally {
+            layout.writeLock().unlock();
+        }
+    }
+
+    private static void apagarDiretorio(Path diretorio) throws IOException {
+        if (!Files.exists(diretorio)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            for (Path arquivo : (Iterable<Path>) arquivos::iterator) {
+                Files.delete(arquivo);
+            }
+        }
+        Files.delete(diretorio);
+    }
+}
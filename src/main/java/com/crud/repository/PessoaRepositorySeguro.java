@@ -0,0 +1,433 @@
+package com.crud.repository;
+
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pessoa;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Repositório em arquivo resistente a falhas durante a gravação.
+ *
+ * - A reescrita completa grava um arquivo temporário, força os dados para o
+ *   disco e o renomeia sobre o arquivo atual de forma atômica: uma queda no
+ *   meio da gravação deixa o arquivo anterior intacto.
+ * - Cada linha termina com o CRC32C do registro (nome|email|telefone|crc), o
+ *   que detecta linhas cortadas por uma queda durante um acréscimo ou
+ *   corrompidas no disco.
+ * - Na primeira leitura, o arquivo é verificado em uma única passada: as
+ *   linhas inválidas são movidas para o arquivo de quarentena
+ *   (&lt;arquivo&gt;.quarentena) e o arquivo é regravado só com as válidas.
+ *
+ * O arquivo começa com uma linha de cabeçalho que identifica o formato. Um
+ * arquivo sem cabeçalho é aceito na primeira leitura: o formato é decidido
+ * pela primeira linha reconhecível (com checksum ou de texto comum) e o
+ * arquivo é regravado com o cabeçalho, convertido se estava no formato de
+ * texto comum.
+ */
+public class PessoaRepositorySeguro extends PessoaRepository {
+
+    /** Primeira linha dos arquivos no formato com checksum. */
+    public static final String CABECALHO = "#pessoas crc32c v1";
+
+    private static final String SUFIXO_TEMPORARIO = ".tmp";
+    private static final String SUFIXO_QUARENTENA = ".quarentena";
+
+    private static final Metricas METRICAS = Metricas.global();
+    private static final MetricaOperacao METRICA_SALVAR_TODAS =
+            METRICAS.operacao("PessoaRepositorySeguro.salvarTodas");
+    private static final MetricaOperacao METRICA_ADICIONAR_TODAS =
+            METRICAS.operacao("PessoaRepositorySeguro.adicionarTodas");
+
+    /**
+     * Resultado da verificação do arquivo na primeira leitura.
+     */
+    public static final class Recuperacao {
+        private final int validos;
+        private final int quarentena;
+        private final boolean convertido;
+        private final long millis;
+
+        Recuperacao(int validos, int quarentena, boolean convertido, long millis) {
+            this.validos = validos;
+            this.quarentena = quarentena;
+            this.convertido = convertido;
+            this.millis = millis;
+        }
+
+        public int getValidos() {
+            return validos;
+        }
+
+        /**
+         * Retorna a quantidade de linhas inválidas movidas para a quarentena.
+         *
+         * @return Quantidade de linhas em quarentena
+         */
+        public int getQuarentena() {
+            return quarentena;
+        }
+
+        /**
+         * Indica se o arquivo estava no formato sem checksum e foi convertido.
+         *
+         * @return true se o arquivo foi convertido
+         */
+        public boolean isConvertido() {
+            return convertido;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Verificação: %d registro(s) válido(s), %d em quarentena%s (%d ms)",
+                    validos, quarentena, convertido ? ", arquivo convertido para o formato com checksum" : "",
+                    millis);
+        }
+    }
+
+    private final File temporario;
+    private final File quarentena;
+    private Recuperacao recuperacao;
+    private long linhasInvalidas;
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão.
+     */
+    public PessoaRepositorySeguro() {
+        this("data/pessoas.txt");
+    }
+
+    /**
+     * Construtor que utiliza um arquivo de dados específico.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     */
+    public PessoaRepositorySeguro(String caminhoArquivo) {
+        super(caminhoArquivo);
+        this.temporario = new File(caminhoArquivo + SUFIXO_TEMPORARIO);
+        this.quarentena = new File(caminhoArquivo + SUFIXO_QUARENTENA);
+    }
+
+    /**
+     * Retorna o arquivo que recebe as linhas inválidas.
+     *
+     * @return Arquivo de quarentena
+     */
+    public File getArquivoQuarentena() {
+        return quarentena;
+    }
+
+    /**
+     * Retorna a quantidade de linhas inválidas ignoradas nas leituras
+     * posteriores à verificação (corrupção ocorrida com o repositório em uso).
+     *
+     * @return Quantidade de linhas ignoradas
+     */
+    public synchronized long getLinhasInvalidas() {
+        return linhasInvalidas;
+    }
+
+    /**
+     * O formato com checksum é sempre gravado em UTF-8, para que o CRC não
+     * dependa da codificação da plataforma.
+     */
+    @Override
+    protected Charset getCharset() {
+        return StandardCharsets.UTF_8;
+    }
+
+    @Override
+    protected String formatarLinha(Pessoa pessoa) {
+        String registro = pessoa.toFileFormat();
+        return registro + "|" + crc(registro);
+    }
+
+    @Override
+    protected Pessoa interpretarLinha(String linha) {
+        if (linha.isEmpty() || linha.equals(CABECALHO)) {
+            return null;
+        }
+        Pessoa pessoa = verificarLinha(linha);
+        if (pessoa == null) {
+            synchronized (this) {
+                linhasInvalidas++;
+            }
+        }
+        return pessoa;
+    }
+
+    /**
+     * Confere o checksum da linha.
+     *
+     * @return Pessoa da linha, ou null se a linha estiver cortada ou corrompida
+     */
+    private static Pessoa verificarLinha(String linha) {
+        int separador = linha.lastIndexOf('|');
+        if (separador < 0 || linha.length() - separador - 1 != 8) {
+            return null;
+        }
+        String registro = linha.substring(0, separador);
+        if (!crc(registro).equals(linha.substring(separador + 1))) {
+            return null;
+        }
+        return Pessoa.fromFileFormat(registro);
+    }
+
+    private static String crc(String registro) {
+        CRC32C crc = new CRC32C();
+        crc.update(registro.getBytes(StandardCharsets.UTF_8));
+        String hexadecimal = Long.toHexString(crc.getValue());
+        return "00000000".substring(hexadecimal.length()) + hexadecimal;
+    }
+
+    /**
+     * Verifica o arquivo, se ainda não foi verificado, e retorna o resultado.
+     *
+     * @return Resultado da verificação
+     * @throws IOException Se ocorrer erro na leitura ou escrita dos arquivos
+     */
+    public synchronized Recuperacao recuperar() throws IOException {
+        if (recuperacao == null) {
+            verificar();
+        }
+        return recuperacao;
+    }
+
+    /**
+     * Lê o arquivo uma única vez, separando as linhas válidas das inválidas.
+     * As inválidas vão para a quarentena e, se houver alguma (ou se o arquivo
+     * estiver sem cabeçalho), o arquivo é regravado com as válidas.
+     *
+     * @return Pessoas válidas, na ordem do arquivo
+     */
+    private List<Pessoa> verificar() throws IOException {
+        long inicio = System.nanoTime();
+        // Sobra de uma gravação interrompida: o arquivo original continua valendo
+        Files.deleteIfExists(temporario.toPath());
+
+        List<Pessoa> validas = new ArrayList<>();
+        List<String> invalidas = new ArrayList<>();
+        File arquivo = getArquivo();
+        boolean semCabecalho = arquivo.length() > 0 && !comecaComCabecalho(arquivo);
+        boolean formatoAntigo = semCabecalho && emFormatoAntigo(arquivo);
+        if (arquivo.exists()) {
+            // O formato sem checksum usa a codificação da plataforma. O leitor
+            // substitui bytes inválidos, o que invalida o checksum da linha.
+            Charset charset = formatoAntigo ? Charset.defaultCharset() : getCharset();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Files.newInputStream(arquivo.toPath()), charset))) {
+                String linha;
+                while ((linha = reader.readLine()) != null) {
+                    if (linha.trim().isEmpty() || linha.equals(CABECALHO)) {
+                        continue;
+                    }
+                    Pessoa pessoa = formatoAntigo ? Pessoa.fromFileFormat(linha) : verificarLinha(linha);
+                    if (pessoa != null) {
+                        validas.add(pessoa);
+                    } else {
+                        invalidas.add(linha);
+                    }
+                }
+            }
+        }
+
+        if (!invalidas.isEmpty()) {
+            colocarEmQuarentena(invalidas);
+        }
+        if (!invalidas.isEmpty() || semCabecalho) {
+            gravarAtomicamente(validas);
+        }
+        recuperacao = new Recuperacao(validas.size(), invalidas.size(), formatoAntigo,
+                (System.nanoTime() - inicio) / 1_000_000);
+        METRICAS.adicionarBytesLidos(arquivo.length());
+        METRICAS.adicionarRegistrosLidos(validas.size());
+        return validas;
+    }
+
+    private boolean comecaComCabecalho(File arquivo) throws IOException {
+        byte[] esperado = (CABECALHO + "\n").getBytes(StandardCharsets.UTF_8);
+        byte[] inicio = new byte[esperado.length];
+        try (InputStream entrada = Files.newInputStream(arquivo.toPath())) {
+            return entrada.readNBytes(inicio, 0, inicio.length) == inicio.length
+                    && Arrays.equals(inicio, esperado);
+        }
+    }
+
+    /**
+     * Decide o formato de um arquivo sem cabeçalho pela primeira linha que
+     * seja um registro válido em um dos formatos. Linhas com checksum também
+     * podem estar sem o cabeçalho (ex: acrescentadas a um arquivo vazio).
+     *
+     * @return true se o arquivo está no formato de texto comum
+     */
+    private static boolean emFormatoAntigo(File arquivo) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(arquivo.toPath()), StandardCharsets.UTF_8))) {
+            String linha;
+            while ((linha = reader.readLine()) != null) {
+                if (verificarLinha(linha) != null) {
+                    return false;
+                }
+                if (Pessoa.fromFileFormat(linha) != null) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void colocarEmQuarentena(List<String> linhas) throws IOException {
+        try (FileOutputStream saida = new FileOutputStream(quarentena, true);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(saida, getCharset()))) {
+            writer.write("# " + LocalDateTime.now() + " - " + linhas.size() + " linha(s) de " + getArquivo());
+            writer.write(System.lineSeparator());
+            for (String linha : linhas) {
+                writer.write(linha);
+                writer.write(System.lineSeparator());
+            }
+            writer.flush();
+            saida.getChannel().force(true);
+        }
+    }
+
+    /**
+     * Lê todas as pessoas. Na primeira chamada, verifica o arquivo e
+     * aproveita a mesma leitura como resultado.
+     *
+     * @return Lista de pessoas válidas
+     * @throws IOException Se ocorrer erro na leitura do arquivo
+     */
+    @Override
+    public List<Pessoa> lerTodas() throws IOException {
+        synchronized (this) {
+            if (recuperacao == null) {
+                return verificar();
+            }
+        }
+        return super.lerTodas();
+    }
+
+    @Override
+    public Stream<Pessoa> stream() throws IOException {
+        recuperar();
+        return super.stream();
+    }
+
+    /**
+     * Substitui todos os dados: grava um arquivo temporário, força os dados
+     * para o disco e o renomeia sobre o arquivo atual.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        if (recuperacao == null) {
+            verificar(); // As linhas inválidas vão para a quarentena antes de serem descartadas
+        }
+        gravarAtomicamente(pessoas);
+    }
+
+    private void gravarAtomicamente(List<Pessoa> pessoas) throws IOException {
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try {
+            try (FileOutputStream saida = new FileOutputStream(temporario);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(saida, getCharset()))) {
+                writer.write(CABECALHO);
+                writer.write('\n');
+                for (Pessoa pessoa : pessoas) {
+                    writer.write(formatarLinha(pessoa));
+                    writer.write('\n');
+                }
+                writer.flush();
+                saida.getChannel().force(true);
+            }
+            Files.move(temporario.toPath(), getArquivo().toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            sincronizarDiretorio();
+            erro = false;
+        } finally {
+            METRICA_SALVAR_TODAS.registrar(inicio, erro);
+        }
+        METRICAS.adicionarBytesEscritos(getArquivo().length());
+    }
+
+    /**
+     * Força para o disco a entrada de diretório criada pela renomeação.
+     * Nem todo sistema permite abrir diretórios; nesse caso, a renomeação
+     * continua atômica, apenas pode ser desfeita por uma queda de energia.
+     */
+    private void sincronizarDiretorio() {
+        Path diretorio = getArquivo().getAbsoluteFile().toPath().getParent();
+        try (FileChannel canal = FileChannel.open(diretorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException e) {
+            // Sistema sem suporte (ex: Windows)
+        }
+    }
+
+    /**
+     * Acrescenta as pessoas ao final do arquivo e força os dados para o
+     * disco. Uma queda no meio do acréscimo deixa no máximo uma linha
+     * cortada, que o checksum detecta na próxima verificação.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public synchronized int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        recuperar();
+        if (getArquivo().length() == 0) {
+            // Arquivo inexistente ou vazio: grava o cabeçalho junto com as linhas
+            gravarAtomicamente(new ArrayList<>(pessoas));
+            notificarInclusoes(pessoas);
+            return pessoas.size();
+        }
+
+        long inicio = System.nanoTime();
+        long tamanhoAnterior = getArquivo().length();
+        boolean erro = true;
+        try (FileOutputStream saida = new FileOutputStream(getArquivo(), true);
+             Writer writer = new BufferedWriter(new OutputStreamWriter(saida, getCharset()))) {
+            for (Pessoa pessoa : pessoas) {
+                writer.write(formatarLinha(pessoa));
+                writer.write('\n');
+            }
+            writer.flush();
+            saida.getChannel().force(true);
+            erro = false;
+        } finally {
+            METRICA_ADICIONAR_TODAS.registrar(inicio, erro);
+        }
+        METRICAS.adicionarBytesEscritos(getArquivo().length() - tamanhoAnterior);
+        notificarInclusoes(pessoas);
+        return pessoas.size();
+    }
+}
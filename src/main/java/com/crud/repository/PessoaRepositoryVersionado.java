@@ -0,0 +1,616 @@
+package com.crud.repository;
+
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pessoa;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repositório com múltiplas versões (MVCC): cada escrita publica uma nova
+ * versão imutável dos dados, e as leituras trabalham sobre um snapshot
+ * fixado sem bloquear nem ser bloqueadas pelas escritas.
+ *
+ * Uma versão guarda as pessoas em segmentos de tamanho fixo, na ordem de
+ * inclusão, e o índice por email dividido em baldes pelo hash. A escrita
+ * copia apenas o segmento e o balde alterados (copy-on-write); os demais
+ * são compartilhados com a versão anterior. Assim uma listagem longa vê
+ * sempre o estado de um único instante, mesmo com escritas concorrentes.
+ *
+ * As escritas são serializadas entre si. O arquivo é gravado antes de a
+ * versão ser publicada: se a gravação falhar, a versão anterior continua
+ * valendo. A reescrita do arquivo usa um temporário renomeado sobre o
+ * original, para que leitores do arquivo nunca o vejam truncado.
+ *
+ * Versões antigas deixam de ser referenciadas quando nenhum snapshot as
+ * fixa mais, e então são liberadas pelo coletor de lixo.
+ */
+public class PessoaRepositoryVersionado extends PessoaRepository {
+
+    /** Pessoas por segmento. */
+    static final int TAMANHO_SEGMENTO = 1024;
+    /** Baldes do índice de emails (potência de 2). */
+    static final int BALDES = 256;
+
+    private static final Metricas METRICAS = Metricas.global();
+    private static final MetricaOperacao METRICA_PUBLICAR =
+            METRICAS.operacao("PessoaRepositoryVersionado.publicar");
+
+    private final ReentrantLock escrita = new ReentrantLock();
+    private final File temporario;
+    private final AtomicInteger snapshotsAbertos = new AtomicInteger();
+    private volatile Versao atual;
+
+    /**
+     * Versão imutável dos dados. Segmentos e baldes nunca são alterados
+     * depois da publicação; posições nulas nos segmentos são pessoas
+     * removidas.
+     */
+    private static final class Versao {
+        final long numero;
+        final Pessoa[][] segmentos;
+        final Map<String, Integer>[] indice;
+        final int linhas;
+        final int removidas;
+
+        Versao(long numero, Pessoa[][] segmentos, Map<String, Integer>[] indice, int linhas, int removidas) {
+            this.numero = numero;
+            this.segmentos = segmentos;
+            this.indice = indice;
+            this.linhas = linhas;
+            this.removidas = removidas;
+        }
+
+        int tamanho() {
+            return linhas - removidas;
+        }
+
+        Pessoa linha(int linha) {
+            return segmentos[linha / TAMANHO_SEGMENTO][linha % TAMANHO_SEGMENTO];
+        }
+
+        Pessoa buscar(String chave) {
+            Integer linha = indice[balde(chave)].get(chave);
+            return linha != null ? linha(linha) : null;
+        }
+    }
+
+    /**
+     * Snapshot fixado de uma versão. Enquanto aberto, todas as leituras
+     * feitas por ele veem a mesma versão, independentemente das escritas
+     * publicadas depois. Deve ser fechado após o uso.
+     */
+    public final class Snapshot implements Closeable {
+
+        private final Versao versao;
+        private boolean fechado;
+
+        private Snapshot(Versao versao) {
+            this.versao = versao;
+            snapshotsAbertos.incrementAndGet();
+        }
+
+        /**
+         * @return Número da versão fixada
+         */
+        public long getVersao() {
+            return versao.numero;
+        }
+
+        /**
+         * @return Quantidade de pessoas na versão fixada
+         */
+        public int tamanho() {
+            return versao.tamanho();
+        }
+
+        /**
+         * Busca uma pessoa pelo email na versão fixada.
+         *
+         * @param email Email da pessoa
+         * @return Cópia da pessoa ou null se não existir nesta versão
+         */
+        public Pessoa buscarPorEmail(String email) {
+            Pessoa pessoa = versao.buscar(normalizarEmail(email));
+            return pessoa != null ? copiar(pessoa) : null;
+        }
+
+        /**
+         * Retorna as pessoas da versão fixada, na ordem de inclusão.
+         *
+         * @return Stream de cópias das pessoas
+         */
+        public Stream<Pessoa> stream() {
+            return StreamSupport.stream(Spliterators.spliterator(new Percurso(versao), versao.tamanho(),
+                    Spliterator.ORDERED | Spliterator.NONNULL), false);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (!fechado) {
+                fechado = true;
+                snapshotsAbertos.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Percorre as linhas de uma versão, pulando as removidas.
+     */
+    private static final class Percurso implements Iterator<Pessoa> {
+        private final Versao versao;
+        private int proxima;
+
+        Percurso(Versao versao) {
+            this.versao = versao;
+            avancar();
+        }
+
+        private void avancar() {
+            while (proxima < versao.linhas && versao.linha(proxima) == null) {
+                proxima++;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return proxima < versao.linhas;
+        }
+
+        @Override
+        public Pessoa next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Pessoa pessoa = copiar(versao.linha(proxima++));
+            avancar();
+            return pessoa;
+        }
+    }
+
+    /**
+     * Construtor que utiliza o arquivo de dados padrão.
+     */
+    public PessoaRepositoryVersionado() {
+        this("data/pessoas.txt");
+    }
+
+    /**
+     * Construtor que utiliza um arquivo de dados específico.
+     *
+     * @param caminhoArquivo Caminho do arquivo de dados
+     */
+    public PessoaRepositoryVersionado(String caminhoArquivo) {
+        super(caminhoArquivo);
+        this.temporario = new File(caminhoArquivo + ".tmp");
+    }
+
+    /**
+     * Fixa a versão atual para leitura. Não bloqueia escritas: as que
+     * forem publicadas depois não aparecem no snapshot.
+     *
+     * @return Snapshot da versão atual
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    public Snapshot abrirSnapshot() throws IOException {
+        return new Snapshot(versaoAtual());
+    }
+
+    /**
+     * @return Número da versão publicada mais recente
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    public long getVersao() throws IOException {
+        return versaoAtual().numero;
+    }
+
+    /**
+     * @return Quantidade de snapshots abertos no momento
+     */
+    public int getSnapshotsAbertos() {
+        return snapshotsAbertos.get();
+    }
+
+    /**
+     * Retorna a versão atual, carregando o arquivo na primeira chamada.
+     */
+    private Versao versaoAtual() throws IOException {
+        Versao versao = atual;
+        if (versao != null) {
+            return versao;
+        }
+        escrita.lock();
+        try {
+            if (atual == null) {
+                CarregadorParalelo.Carga carga = CarregadorParalelo.carregar(getArquivo());
+                atual = construir(1, carga.getPessoas());
+            }
+            return atual;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Lê todas as pessoas de um snapshot da versão atual.
+     *
+     * @return Cópia das pessoas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public List<Pessoa> lerTodas() throws IOException {
+        try (Snapshot snapshot = abrirSnapshot()) {
+            List<Pessoa> pessoas = new ArrayList<>(snapshot.tamanho());
+            snapshot.stream().forEach(pessoas::add);
+            return pessoas;
+        }
+    }
+
+    /**
+     * Retorna um stream sobre um snapshot da versão atual. O snapshot é
+     * liberado ao fechar o stream.
+     *
+     * @return Stream de pessoas
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public Stream<Pessoa> stream() throws IOException {
+        Snapshot snapshot = abrirSnapshot();
+        return snapshot.stream().onClose(snapshot::close);
+    }
+
+    /**
+     * Busca uma pessoa pelo email na versão atual, sem bloqueio.
+     *
+     * @param email Email da pessoa a ser buscada
+     * @return Cópia da pessoa encontrada ou null se não existir
+     * @throws IOException Se ocorrer erro na carga inicial do arquivo
+     */
+    @Override
+    public Pessoa buscarPorEmail(String email) throws IOException {
+        Pessoa pessoa = versaoAtual().buscar(normalizarEmail(email));
+        return pessoa != null ? copiar(pessoa) : null;
+    }
+
+    /**
+     * Substitui todos os dados e publica a nova versão.
+     *
+     * @param pessoas Lista de pessoas a serem salvas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+        escrita.lock();
+        try {
+            Versao anterior = atual;
+            Versao nova = construir(anterior != null ? anterior.numero + 1 : 1, pessoas);
+            publicar(nova, true);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Adiciona uma nova pessoa, verificando duplicidade pela versão atual.
+     *
+     * @param pessoa Pessoa a ser adicionada
+     * @return true se a pessoa foi adicionada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean adicionar(Pessoa pessoa) throws IOException {
+        return adicionarTodas(Collections.singletonList(pessoa)) == 1;
+    }
+
+    /**
+     * Adiciona várias pessoas em uma única versão. Emails já presentes
+     * (ou repetidos na coleção) são ignorados.
+     *
+     * @param pessoas Pessoas a serem adicionadas
+     * @return Quantidade de pessoas adicionadas
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public int adicionarTodas(Collection<Pessoa> pessoas) throws IOException {
+        escrita.lock();
+        try {
+            Versao anterior = versaoAtual();
+            Edicao edicao = new Edicao(anterior);
+            List<Pessoa> novas = new ArrayList<>(pessoas.size());
+            for (Pessoa pessoa : pessoas) {
+                if (edicao.incluir(copiar(pessoa))) {
+                    novas.add(pessoa);
+                }
+            }
+            if (novas.isEmpty()) {
+                return 0;
+            }
+            acrescentar(novas);
+            publicar(edicao.concluir(), false);
+            notificarInclusoes(novas);
+            return novas.size();
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa existente e publica a nova versão.
+     *
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean atualizar(Pessoa pessoaAtualizada) throws IOException {
+        escrita.lock();
+        try {
+            Versao base = versaoAtual();
+            Edicao edicao = new Edicao(base);
+            if (!edicao.substituir(copiar(pessoaAtualizada))) {
+                return false; // Pessoa não encontrada
+            }
+            publicar(edicao.concluir(), true);
+            notificar(Alteracao.Tipo.ALTERACAO, base.buscar(normalizarEmail(pessoaAtualizada.getEmail())),
+                    pessoaAtualizada);
+            return true;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Atualiza a pessoa se os dados da versão atual forem os esperados,
+     * comparando com o lock de escrita.
+     *
+     * @param esperada Dados lidos pelo chamador
+     * @param pessoaAtualizada Pessoa com os dados atualizados
+     * @return true se a pessoa foi atualizada com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean atualizarSe(Pessoa esperada, Pessoa pessoaAtualizada) throws IOException {
+        escrita.lock();
+        try {
+            if (!mesmosDados(versaoAtual().buscar(normalizarEmail(pessoaAtualizada.getEmail())), esperada)) {
+                return false;
+            }
+            return atualizar(pessoaAtualizada);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Remove uma pessoa pelo email e publica a nova versão.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return true se a pessoa foi removida com sucesso
+     * @throws IOException Se ocorrer erro na escrita do arquivo
+     */
+    @Override
+    public boolean remover(String email) throws IOException {
+        escrita.lock();
+        try {
+            Versao base = versaoAtual();
+            String chave = normalizarEmail(email);
+            Edicao edicao = new Edicao(base);
+            if (!edicao.retirar(chave)) {
+                return false;
+            }
+            publicar(edicao.concluir(), true);
+            notificar(Alteracao.Tipo.REMOCAO, base.buscar(chave), null);
+            return true;
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Executa a transação com o lock de escrita: a versão lida pela
+     * transação é a base da versão publicada ao final.
+     *
+     * @param corpo Operações a aplicar sobre a transação
+     * @param <T> Tipo do valor retornado pelo corpo
+     * @return Valor retornado pelo corpo
+     * @throws IOException Se ocorrer erro na leitura ou escrita do arquivo
+     */
+    @Override
+    public <T> T executarTransacao(Function<Transacao, T> corpo) throws IOException {
+        escrita.lock();
+        try {
+            return super.executarTransacao(corpo);
+        } finally {
+            escrita.unlock();
+        }
+    }
+
+    /**
+     * Torna a versão visível aos leitores, reescrevendo antes o arquivo se
+     * necessário. Deve ser chamado com o lock de escrita.
+     *
+     * @param nova Versão a ser publicada
+     * @param reescrever Se o arquivo deve ser regravado a partir da versão
+     * @throws IOException Se ocorrer erro na escrita (a versão não é publicada)
+     */
+    private void publicar(Versao nova, boolean reescrever) throws IOException {
+        long inicio = System.nanoTime();
+        boolean erro = true;
+        try {
+            if (reescrever) {
+                gravarAtomicamente(nova);
+            }
+            atual = nova;
+            erro = false;
+        } finally {
+            METRICA_PUBLICAR.registrar(inicio, erro);
+        }
+    }
+
+    private void gravarAtomicamente(Versao versao) throws IOException {
+        garantirDiretorio();
+        try (Writer writer = new BufferedWriter(
+                new OutputStreamWriter(Files.newOutputStream(temporario.toPath()), getCharset()))) {
+            Percurso percurso = new Percurso(versao);
+            while (percurso.hasNext()) {
+                writer.write(formatarLinha(percurso.next()));
+                writer.write(System.lineSeparator());
+            }
+        }
+        Files.move(temporario.toPath(), getArquivo().toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        METRICAS.adicionarBytesEscritos(getArquivo().length());
+    }
+
+    private void garantirDiretorio() {
+        File diretorio = getArquivo().getAbsoluteFile().getParentFile();
+        if (diretorio != null && !diretorio.exists()) {
+            diretorio.mkdirs();
+        }
+    }
+
+    /**
+     * Monta uma versão a partir de uma lista, mantendo a primeira pessoa
+     * de cada email.
+     */
+    private static Versao construir(long numero, List<Pessoa> pessoas) {
+        Edicao edicao = new Edicao(vazia(numero - 1));
+        for (Pessoa pessoa : pessoas) {
+            edicao.incluir(copiar(pessoa));
+        }
+        return edicao.concluir();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Versao vazia(long numero) {
+        Map<String, Integer>[] indice = new Map[BALDES];
+        Arrays.fill(indice, Collections.emptyMap());
+        return new Versao(numero, new Pessoa[0][], indice, 0, 0);
+    }
+
+    private static int balde(String chave) {
+        int h = chave.hashCode();
+        return (h ^ (h >>> 16)) & (BALDES - 1);
+    }
+
+    private static Pessoa copiar(Pessoa pessoa) {
+        return new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone());
+    }
+
+    /**
+     * Prepara a próxima versão a partir de uma base, copiando cada
+     * segmento e balde apenas na primeira alteração que o atinge.
+     */
+    private static final class Edicao {
+        private final Versao base;
+        private Pessoa[][] segmentos;
+        private final Map<String, Integer>[] indice;
+        private boolean[] segmentoCopiado;
+        private final boolean[] baldeCopiado = new boolean[BALDES];
+        private int linhas;
+        private int removidas;
+
+        Edicao(Versao base) {
+            this.base = base;
+            this.segmentos = base.segmentos.clone();
+            this.indice = base.indice.clone();
+            this.segmentoCopiado = new boolean[segmentos.length];
+            this.linhas = base.linhas;
+            this.removidas = base.removidas;
+        }
+
+        boolean incluir(Pessoa pessoa) {
+            String chave = normalizarEmail(pessoa.getEmail());
+            if (indice[balde(chave)].containsKey(chave)) {
+                return false;
+            }
+            int segmento = linhas / TAMANHO_SEGMENTO;
+            if (segmento == segmentos.length) {
+                segmentos = Arrays.copyOf(segmentos, segmento + 1);
+                segmentos[segmento] = new Pessoa[TAMANHO_SEGMENTO];
+                segmentoCopiado = Arrays.copyOf(segmentoCopiado, segmento + 1);
+                segmentoCopiado[segmento] = true; // Segmento novo, ainda não compartilhado
+            }
+            gravavel(segmento)[linhas % TAMANHO_SEGMENTO] = pessoa;
+            baldeGravavel(chave).put(chave, linhas);
+            linhas++;
+            return true;
+        }
+
+        boolean substituir(Pessoa pessoa) {
+            String chave = normalizarEmail(pessoa.getEmail());
+            Integer linha = indice[balde(chave)].get(chave);
+            if (linha == null) {
+                return false;
+            }
+            gravavel(linha / TAMANHO_SEGMENTO)[linha % TAMANHO_SEGMENTO] = pessoa;
+            return true;
+        }
+
+        boolean retirar(String chave) {
+            if (!indice[balde(chave)].containsKey(chave)) {
+                return false;
+            }
+            Integer linha = baldeGravavel(chave).remove(chave);
+            gravavel(linha / TAMANHO_SEGMENTO)[linha % TAMANHO_SEGMENTO] = null;
+            removidas++;
+            return true;
+        }
+
+        /**
+         * Conclui a edição. Se as remoções passarem de metade das linhas,
+         * a versão é reconstruída sem os espaços vazios.
+         */
+        Versao concluir() {
+            Versao versao = new Versao(base.numero + 1, segmentos, indice, linhas, removidas);
+            if (removidas > TAMANHO_SEGMENTO && removidas > linhas / 2) {
+                Edicao compactacao = new Edicao(vazia(base.numero));
+                Percurso percurso = new Percurso(versao);
+                while (percurso.hasNext()) {
+                    compactacao.incluir(percurso.next());
+                }
+                return compactacao.concluir();
+            }
+            return versao;
+        }
+
+        private Pessoa[] gravavel(int segmento) {
+            if (!segmentoCopiado[segmento]) {
+                segmentos[segmento] = segmentos[segmento].clone();
+                segmentoCopiado[segmento] = true;
+            }
+            return segmentos[segmento];
+        }
+
+        private Map<String, Integer> baldeGravavel(String chave) {
+            int balde = balde(chave);
+            if (!baldeCopiado[balde]) {
+                indice[balde] = new HashMap<>(indice[balde]);
+                baldeCopiado[balde] = true;
+            }
+            return indice[balde];
+        }
+    }
+}
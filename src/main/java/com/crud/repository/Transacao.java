@@ -0,0 +1,159 @@
+package com.crud.repository;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cópia de trabalho dos dados usada por
+ * {@link PessoaRepository#executarTransacao}: as inclusões, alterações e
+ * remoções são aplicadas apenas em memória e gravadas juntas, em uma única
+ * reescrita do arquivo, quando a transação termina sem ser cancelada.
+ *
+ * As operações seguem a mesma semântica das operações do repositório (o
+ * email identifica a pessoa, sem diferenciar maiúsculas) e enxergam as
+ * operações anteriores da mesma transação. Não é thread-safe: pertence à
+ * thread que executa a transação.
+ */
+public final class Transacao {
+
+    /**
+     * Operação aplicada, publicada no feed de alterações após a gravação.
+     */
+    private static final class Mudanca {
+        final Alteracao.Tipo tipo;
+        final Pessoa antes;
+        final Pessoa depois;
+
+        Mudanca(Alteracao.Tipo tipo, Pessoa antes, Pessoa depois) {
+            this.tipo = tipo;
+            this.antes = antes;
+            this.depois = depois;
+        }
+    }
+
+    private final Map<String, Pessoa> pessoas = new LinkedHashMap<>();
+    private final List<Mudanca> mudancas = new ArrayList<>();
+    private boolean cancelada;
+
+    /**
+     * @param estado Pessoas no início da transação, na ordem do arquivo
+     */
+    Transacao(List<Pessoa> estado) {
+        for (Pessoa pessoa : estado) {
+            pessoas.putIfAbsent(PessoaRepository.normalizarEmail(pessoa.getEmail()), pessoa);
+        }
+    }
+
+    /**
+     * Busca uma pessoa no estado atual da transação.
+     *
+     * @param email Email da pessoa
+     * @return Cópia da pessoa ou null se não existir
+     */
+    public Pessoa buscar(String email) {
+        return copiar(pessoas.get(PessoaRepository.normalizarEmail(email)));
+    }
+
+    /**
+     * Inclui uma pessoa ao final dos dados.
+     *
+     * @param pessoa Pessoa a ser incluída
+     * @return false se já existe uma pessoa com o email
+     */
+    public boolean incluir(Pessoa pessoa) {
+        String chave = PessoaRepository.normalizarEmail(pessoa.getEmail());
+        if (pessoas.containsKey(chave)) {
+            return false;
+        }
+        Pessoa nova = copiar(pessoa);
+        pessoas.put(chave, nova);
+        mudancas.add(new Mudanca(Alteracao.Tipo.INCLUSAO, null, nova));
+        return true;
+    }
+
+    /**
+     * Substitui os dados de uma pessoa, mantendo sua posição.
+     *
+     * @param pessoa Pessoa com os dados atualizados
+     * @return false se não existe pessoa com o email
+     */
+    public boolean alterar(Pessoa pessoa) {
+        String chave = PessoaRepository.normalizarEmail(pessoa.getEmail());
+        Pessoa anterior = pessoas.get(chave);
+        if (anterior == null) {
+            return false;
+        }
+        Pessoa nova = copiar(pessoa);
+        pessoas.put(chave, nova);
+        mudancas.add(new Mudanca(Alteracao.Tipo.ALTERACAO, anterior, nova));
+        return true;
+    }
+
+    /**
+     * Remove uma pessoa pelo email.
+     *
+     * @param email Email da pessoa
+     * @return false se não existe pessoa com o email
+     */
+    public boolean remover(String email) {
+        Pessoa anterior = pessoas.remove(PessoaRepository.normalizarEmail(email));
+        if (anterior == null) {
+            return false;
+        }
+        mudancas.add(new Mudanca(Alteracao.Tipo.REMOCAO, anterior, null));
+        return true;
+    }
+
+    /**
+     * Descarta todas as operações: nada será gravado.
+     */
+    public void cancelar() {
+        cancelada = true;
+    }
+
+    public boolean isCancelada() {
+        return cancelada;
+    }
+
+    /**
+     * @return Quantidade de operações aplicadas na transação
+     */
+    public int getOperacoes() {
+        return mudancas.size();
+    }
+
+    /**
+     * @return Se a transação deve ser gravada ao terminar
+     */
+    boolean temAlteracoes() {
+        return !cancelada && !mudancas.isEmpty();
+    }
+
+    /**
+     * @return Estado final dos dados, na ordem em que devem ser gravados
+     */
+    List<Pessoa> getPessoas() {
+        return new ArrayList<>(pessoas.values());
+    }
+
+    /**
+     * Publica as operações no feed do repositório, na ordem em que foram
+     * aplicadas.
+     */
+    void notificar(PessoaRepository repositorio) throws IOException {
+        if (!repositorio.temFeed()) {
+            return;
+        }
+        for (Mudanca mudanca : mudancas) {
+            repositorio.notificar(mudanca.tipo, mudanca.antes, mudanca.depois);
+        }
+    }
+
+    private static Pessoa copiar(Pessoa pessoa) {
+        return pessoa != null ? new Pessoa(pessoa.getNome(), pessoa.getEmail(), pessoa.getTelefone()) : null;
+    }
+}
@@ -0,0 +1,48 @@
+package com.crud.service;
+
+import com.crud.util.Validador;
+
+/**
+ * Códigos de erro das operações do serviço, com a mensagem exibida ao usuário.
+ */
+public enum CodigoErro {
+
+    /** Nome com menos de 2 caracteres. */
+    NOME_INVALIDO(Validador.MENSAGEM_NOME_INVALIDO),
+
+    /** Email fora do formato exemplo@dominio.com. */
+    EMAIL_INVALIDO(Validador.MENSAGEM_EMAIL_INVALIDO),
+
+    /** Telefone com menos de 10 dígitos ou caracteres inválidos. */
+    TELEFONE_INVALIDO(Validador.MENSAGEM_TELEFONE_INVALIDO),
+
+    /** Email não informado. */
+    EMAIL_VAZIO(PessoaService.MENSAGEM_EMAIL_VAZIO),
+
+    /** Já existe uma pessoa com o email. */
+    EMAIL_EXISTENTE(PessoaService.MENSAGEM_EMAIL_EXISTENTE),
+
+    /** Não existe pessoa com o email. */
+    NAO_ENCONTRADA(PessoaService.MENSAGEM_NAO_ENCONTRADA),
+
+    /** Operação de um lote não aplicada porque outra operação do lote falhou. */
+    LOTE_CANCELADO(PessoaService.MENSAGEM_LOTE_CANCELADO),
+
+    /** Falha na leitura ou escrita do arquivo de dados. */
+    ERRO_ARQUIVO(PessoaService.PREFIXO_ERRO_ARQUIVO);
+
+    private final String mensagem;
+
+    CodigoErro(String mensagem) {
+        this.mensagem = mensagem;
+    }
+
+    /**
+     * Retorna a mensagem padrão do erro.
+     *
+     * @return Mensagem em português
+     */
+    public String getMensagem() {
+        return mensagem;
+    }
+}
@@ -0,0 +1,110 @@
+package com.crud.service;
+
+import com.crud.model.Pessoa;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formatos de arquivo aceitos na importação e exportação em massa.
+ */
+public enum FormatoArquivo {
+
+    /** Valores separados por vírgula (nome,email,telefone), com aspas opcionais. */
+    CSV,
+
+    /** Mesmo formato do arquivo de dados (nome|email|telefone). */
+    PIPE;
+
+    private static final String CABECALHO_CSV = "nome,email,telefone";
+
+    /**
+     * Identifica o formato pela extensão do arquivo (.csv ou outro).
+     * 
+     * @param nomeArquivo Nome ou caminho do arquivo
+     * @return CSV se a extensão for .csv, senão PIPE
+     */
+    public static FormatoArquivo pelaExtensao(String nomeArquivo) {
+        return nomeArquivo.toLowerCase().endsWith(".csv") ? CSV : PIPE;
+    }
+
+    /**
+     * Separa uma linha nos campos nome, email e telefone.
+     * 
+     * @param linha Linha do arquivo
+     * @return Campos da linha (sem remover espaços)
+     */
+    public String[] separar(String linha) {
+        if (this == PIPE) {
+            return linha.split("\\|", -1);
+        }
+        return separarCsv(linha);
+    }
+
+    /**
+     * Indica se a linha é o cabeçalho do arquivo e deve ser ignorada.
+     * 
+     * @param linha Primeira linha do arquivo
+     * @return true se for o cabeçalho
+     */
+    public boolean ehCabecalho(String linha) {
+        return this == CSV && linha.trim().replace(" ", "").equalsIgnoreCase(CABECALHO_CSV);
+    }
+
+    /**
+     * Retorna o cabeçalho escrito na exportação, ou null se o formato não tiver.
+     * 
+     * @return Cabeçalho do formato
+     */
+    public String cabecalho() {
+        return this == CSV ? CABECALHO_CSV : null;
+    }
+
+    /**
+     * Formata uma pessoa como linha do arquivo.
+     * 
+     * @param pessoa Pessoa a ser formatada
+     * @return Linha no formato correspondente
+     */
+    public String formatar(Pessoa pessoa) {
+        if (this == PIPE) {
+            return pessoa.toFileFormat();
+        }
+        return campoCsv(pessoa.getNome()) + "," + campoCsv(pessoa.getEmail()) + "," + campoCsv(pessoa.getTelefone());
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0) {
+            return valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String[] separarCsv(String linha) {
+        List<String> campos = new ArrayList<>(3);
+        StringBuilder atual = new StringBuilder();
+        boolean entreAspas = false;
+
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (entreAspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    atual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreAspas = false;
+                } else {
+                    atual.append(c);
+                }
+            } else if (c == '"') {
+                entreAspas = true;
+            } else if (c == ',') {
+                campos.add(atual.toString());
+                atual.setLength(0);
+            } else {
+                atual.append(c);
+            }
+        }
+        campos.add(atual.toString());
+        return campos.toArray(new String[0]);
+    }
+}
@@ -0,0 +1,174 @@
+package com.crud.service;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.PessoaRepository;
+import com.crud.util.ValidadorRapido;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Classe de serviço para importação e exportação de pessoas em massa.
+ * Lê o arquivo de entrada em streaming, valida os registros em paralelo,
+ * descarta emails repetidos com um único conjunto e grava todas as pessoas
+ * aceitas de uma só vez no repositório.
+ */
+public class ImportacaoService {
+
+    // Quantidade de linhas validadas em paralelo por vez
+    private static final int TAMANHO_BLOCO = 10_000;
+
+    private PessoaRepository repository;
+
+    /**
+     * Construtor que utiliza um repositório específico.
+     * 
+     * @param repository Repositório de destino da importação
+     */
+    public ImportacaoService(PessoaRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * Linha lida do arquivo de entrada e o resultado da sua validação.
+     */
+    private static class LinhaImportada {
+        final long numero;
+        final String texto;
+        Pessoa pessoa;
+        String erro;
+
+        LinhaImportada(long numero, String texto) {
+            this.numero = numero;
+            this.texto = texto;
+        }
+    }
+
+    /**
+     * Importa as pessoas de um arquivo.
+     * 
+     * @param origem Arquivo de entrada (UTF-8)
+     * @param formato Formato do arquivo de entrada
+     * @param rejeitadas Destino do relatório das linhas rejeitadas (linha, motivo e conteúdo)
+     * @return Resumo da importação
+     * @throws IOException Se ocorrer erro na leitura ou gravação
+     */
+    public RelatorioImportacao importar(Path origem, FormatoArquivo formato, Writer rejeitadas) throws IOException {
+        long inicio = System.currentTimeMillis();
+        RelatorioImportacao relatorio = new RelatorioImportacao();
+
+        Set<String> emails = new HashSet<>();
+        repository.forEach(p -> emails.add(PessoaRepository.normalizarEmail(p.getEmail())));
+
+        List<Pessoa> aceitas = new ArrayList<>();
+        List<LinhaImportada> bloco = new ArrayList<>(TAMANHO_BLOCO);
+
+        try (BufferedReader reader = Files.newBufferedReader(origem, StandardCharsets.UTF_8)) {
+            String linha;
+            long numero = 0;
+            while ((linha = reader.readLine()) != null) {
+                numero++;
+                if ((numero == 1 && formato.ehCabecalho(linha)) || linha.trim().isEmpty()) {
+                    continue;
+                }
+                bloco.add(new LinhaImportada(numero, linha));
+                if (bloco.size() == TAMANHO_BLOCO) {
+                    processarBloco(bloco, formato, emails, aceitas, rejeitadas, relatorio);
+                    bloco.clear();
+                }
+            }
+        }
+        processarBloco(bloco, formato, emails, aceitas, rejeitadas, relatorio);
+        rejeitadas.flush();
+
+        relatorio.setImportadas(repository.adicionarTodas(aceitas));
+        relatorio.setDuracaoMs(System.currentTimeMillis() - inicio);
+        return relatorio;
+    }
+
+    /**
+     * Valida um bloco de linhas em paralelo e, na ordem do arquivo,
+     * separa as aceitas das rejeitadas.
+     */
+    private void processarBloco(List<LinhaImportada> bloco, FormatoArquivo formato, Set<String> emails,
+                                List<Pessoa> aceitas, Writer rejeitadas, RelatorioImportacao relatorio)
+            throws IOException {
+        bloco.parallelStream().forEach(linha -> validar(linha, formato));
+
+        for (LinhaImportada linha : bloco) {
+            relatorio.registrarLida();
+            if (linha.erro == null && !emails.add(linha.pessoa.getEmail())) {
+                linha.erro = "Email repetido ou já cadastrado";
+            }
+
+            if (linha.erro == null) {
+                aceitas.add(linha.pessoa);
+            } else {
+                relatorio.registrarRejeitada();
+                rejeitadas.write("Linha " + linha.numero + ": " + linha.erro + " -> " + linha.texto);
+                rejeitadas.write(System.lineSeparator());
+            }
+        }
+    }
+
+    /**
+     * Separa e valida os campos de uma linha, com as mesmas regras do cadastro.
+     * 
+     * @param linha Linha a ser validada
+     * @param formato Formato do arquivo de entrada
+     */
+    private static void validar(LinhaImportada linha, FormatoArquivo formato) {
+        String[] campos = formato.separar(linha.texto);
+        if (campos.length != 3) {
+            linha.erro = "Quantidade de campos inválida (esperado nome, email e telefone)";
+            return;
+        }
+
+        String erro = ValidadorRapido.validarDados(campos[0], campos[1], campos[2]);
+        if (erro != null) {
+            linha.erro = erro;
+            return;
+        }
+        // Mesma normalização do conjunto de emails já cadastrados (independente da localidade)
+        linha.pessoa = new Pessoa(campos[0].trim(), PessoaRepository.normalizarEmail(campos[1]), campos[2].trim());
+    }
+
+    /**
+     * Exporta todas as pessoas para um arquivo, lendo-as em streaming.
+     * 
+     * @param destino Arquivo de saída (UTF-8)
+     * @param formato Formato do arquivo de saída
+     * @return Quantidade de pessoas exportadas
+     * @throws IOException Se ocorrer erro na leitura ou gravação
+     */
+    public long exportar(Path destino, FormatoArquivo formato) throws IOException {
+        long[] total = {0};
+        try (BufferedWriter writer = Files.newBufferedWriter(destino, StandardCharsets.UTF_8)) {
+            if (formato.cabecalho() != null) {
+                writer.write(formato.cabecalho());
+                writer.newLine();
+            }
+            repository.forEach(pessoa -> {
+                try {
+                    writer.write(formato.formatar(pessoa));
+                    writer.newLine();
+                    total[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return total[0];
+    }
+}
@@ -0,0 +1,85 @@
+package com.crud.service;
+
+/**
+ * Operação de um lote aplicado com {@link PessoaService#aplicarLote}: um
+ * cadastro, uma alteração ou uma exclusão, com os mesmos parâmetros das
+ * operações individuais do serviço.
+ */
+public final class OperacaoLote {
+
+    /**
+     * Tipo da operação.
+     */
+    public enum Tipo {
+        CADASTRAR,
+        ALTERAR,
+        EXCLUIR
+    }
+
+    private final Tipo tipo;
+    private final String nome;
+    private final String email;
+    private final String telefone;
+
+    private OperacaoLote(Tipo tipo, String nome, String email, String telefone) {
+        this.tipo = tipo;
+        this.nome = nome;
+        this.email = email;
+        this.telefone = telefone;
+    }
+
+    /**
+     * Cria a operação de cadastro de uma nova pessoa.
+     *
+     * @param nome Nome da pessoa
+     * @param email Email da pessoa
+     * @param telefone Telefone da pessoa
+     * @return Operação de cadastro
+     */
+    public static OperacaoLote cadastrar(String nome, String email, String telefone) {
+        return new OperacaoLote(Tipo.CADASTRAR, nome, email, telefone);
+    }
+
+    /**
+     * Cria a operação de alteração de uma pessoa existente.
+     *
+     * @param email Email da pessoa a ser atualizada
+     * @param novoNome Novo nome (pode ser null para manter o atual)
+     * @param novoTelefone Novo telefone (pode ser null para manter o atual)
+     * @return Operação de alteração
+     */
+    public static OperacaoLote alterar(String email, String novoNome, String novoTelefone) {
+        return new OperacaoLote(Tipo.ALTERAR, novoNome, email, novoTelefone);
+    }
+
+    /**
+     * Cria a operação de exclusão de uma pessoa.
+     *
+     * @param email Email da pessoa a ser removida
+     * @return Operação de exclusão
+     */
+    public static OperacaoLote excluir(String email) {
+        return new OperacaoLote(Tipo.EXCLUIR, null, email, null);
+    }
+
+    public Tipo getTipo() {
+        return tipo;
+    }
+
+    public String getNome() {
+        return nome;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getTelefone() {
+        return telefone;
+    }
+
+    @Override
+    public String toString() {
+        return tipo + " " + email;
+    }
+}
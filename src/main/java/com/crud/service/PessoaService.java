@@ -1,9 +1,18 @@
 package com.crud.service;
 
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pagina;
 import com.crud.model.Pessoa;
 import com.crud.repository.PessoaRepository;
+import com.crud.repository.Transacao;
 import com.crud.util.Validador;
 import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -11,6 +20,48 @@ import java.util.List;
  * Coordena as operações entre validação e persistência.
  */
 public class PessoaService {
+
+    /** Mensagem de pessoa cadastrada. */
+    public static final String MENSAGEM_CADASTRADA = "Pessoa cadastrada com sucesso!";
+
+    /** Mensagem de pessoa atualizada. */
+    public static final String MENSAGEM_ATUALIZADA = "Pessoa atualizada com sucesso!";
+
+    /** Mensagem de pessoa removida. */
+    public static final String MENSAGEM_REMOVIDA = "Pessoa removida com sucesso!";
+
+    /** Mensagem de falha ao cadastrar (email incluído por outra operação). */
+    public static final String MENSAGEM_ERRO_CADASTRO = "Erro ao cadastrar pessoa!";
+
+    /** Mensagem de falha ao atualizar (pessoa removida por outra operação). */
+    public static final String MENSAGEM_ERRO_ATUALIZACAO = "Erro ao atualizar pessoa!";
+
+    /** Mensagem de email já cadastrado. */
+    public static final String MENSAGEM_EMAIL_EXISTENTE = "Erro: Já existe uma pessoa cadastrada com este email!";
+
+    /** Mensagem de pessoa não encontrada. */
+    public static final String MENSAGEM_NAO_ENCONTRADA = "Pessoa não encontrada com o email informado.";
+
+    /** Mensagem de email vazio. */
+    public static final String MENSAGEM_EMAIL_VAZIO = "Email não pode estar vazio!";
+
+    /** Mensagem das operações de um lote descartadas por causa de outra operação. */
+    public static final String MENSAGEM_LOTE_CANCELADO = "Operação não aplicada: outra operação do lote falhou.";
+
+    /** Início das mensagens de falha no acesso ao arquivo de dados. */
+    public static final String PREFIXO_ERRO_ARQUIVO = "Erro ao acessar o arquivo de dados: ";
+
+    // Métricas das operações tipadas (as operações que retornam texto delegam a elas)
+    private static final MetricaOperacao METRICA_CADASTRAR = Metricas.global().operacao("PessoaService.cadastrar");
+    private static final MetricaOperacao METRICA_ALTERAR = Metricas.global().operacao("PessoaService.alterar");
+    private static final MetricaOperacao METRICA_EXCLUIR = Metricas.global().operacao("PessoaService.excluir");
+    private static final MetricaOperacao METRICA_CONSULTAR = Metricas.global().operacao("PessoaService.consultar");
+    private static final MetricaOperacao METRICA_PAGINAR = Metricas.global().operacao("PessoaService.paginar");
+    private static final MetricaOperacao METRICA_PAGINAR_APOS_EMAIL =
+            Metricas.global().operacao("PessoaService.paginarAposEmail");
+    private static final MetricaOperacao METRICA_PAGINAR_POR_DOMINIO =
+            Metricas.global().operacao("PessoaService.paginarPorDominio");
+    private static final MetricaOperacao METRICA_APLICAR_LOTE = Metricas.global().operacao("PessoaService.aplicarLote");
     
     private PessoaRepository repository;
 
@@ -18,7 +69,16 @@ public class PessoaService {
      * Construtor que inicializa o repositório.
      */
     public PessoaService() {
-        this.repository = new PessoaRepository();
+        this(new PessoaRepository());
+    }
+
+    /**
+     * Construtor que utiliza um repositório específico.
+     * 
+     * @param repository Repositório usado para persistência
+     */
+    public PessoaService(PessoaRepository repository) {
+        this.repository = repository;
     }
 
     /**
@@ -30,30 +90,54 @@ public class PessoaService {
      * @return Mensagem de sucesso ou erro
      */
     public String criar(String nome, String email, String telefone) {
+        Resultado<Pessoa> resultado = cadastrar(nome, email, telefone);
+        return resultado.isSucesso() ? MENSAGEM_CADASTRADA : resultado.getMensagem();
+    }
+
+    /**
+     * Cria uma nova pessoa no sistema, retornando o resultado tipado.
+     * 
+     * @param nome Nome da pessoa
+     * @param email Email da pessoa
+     * @param telefone Telefone da pessoa
+     * @return Pessoa cadastrada ou o código do erro
+     */
+    public Resultado<Pessoa> cadastrar(String nome, String email, String telefone) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_CADASTRAR, inicio, executarCadastro(nome, email, telefone));
+    }
+
+    private Resultado<Pessoa> executarCadastro(String nome, String email, String telefone) {
         try {
             // Valida os dados de entrada
-            String erro = Validador.validarDados(nome, email, telefone);
-            if (erro != null) {
-                return erro;
+            if (!Validador.validarNome(nome)) {
+                return Resultado.falha(CodigoErro.NOME_INVALIDO);
+            }
+            if (!Validador.validarEmail(email)) {
+                return Resultado.falha(CodigoErro.EMAIL_INVALIDO);
+            }
+            if (!Validador.validarTelefone(telefone)) {
+                return Resultado.falha(CodigoErro.TELEFONE_INVALIDO);
             }
 
             // Verifica se o email já existe
             Pessoa existente = repository.buscarPorEmail(email);
             if (existente != null) {
-                return "Erro: Já existe uma pessoa cadastrada com este email!";
+                return Resultado.falha(CodigoErro.EMAIL_EXISTENTE);
             }
 
             // Cria e salva a nova pessoa
-            Pessoa novaPessoa = new Pessoa(nome.trim(), email.trim().toLowerCase(), telefone.trim());
+            Pessoa novaPessoa = new Pessoa(nome.trim(), PessoaRepository.normalizarEmail(email), telefone.trim());
             boolean sucesso = repository.adicionar(novaPessoa);
             
             if (sucesso) {
-                return "Pessoa cadastrada com sucesso!";
+                return Resultado.sucesso(novaPessoa);
             } else {
-                return "Erro ao cadastrar pessoa!";
+                // Outra operação cadastrou o mesmo email depois da verificação
+                return Resultado.falha(CodigoErro.EMAIL_EXISTENTE, MENSAGEM_ERRO_CADASTRO);
             }
         } catch (IOException e) {
-            return "Erro ao acessar o arquivo de dados: " + e.getMessage();
+            return falhaArquivo(e);
         }
     }
 
@@ -63,32 +147,170 @@ public class PessoaService {
      * @return Lista de pessoas ou mensagem de erro
      */
     public String listarTodas() {
+        StringWriter saida = new StringWriter();
+        listarTodas(saida);
+        return saida.toString();
+    }
+
+    /**
+     * Lista todas as pessoas cadastradas, escrevendo cada linha no Writer
+     * à medida que os registros são lidos, sem montar a lista em memória.
+     * 
+     * @param saida Destino da listagem
+     */
+    public void listarTodas(Writer saida) {
         try {
-            List<Pessoa> pessoas = repository.lerTodas();
-            
-            if (pessoas.isEmpty()) {
-                return "Nenhuma pessoa cadastrada ainda.";
+            long[] total = {0};
+            repository.forEach(p -> {
+                try {
+                    if (total[0] == 0) {
+                        escreverCabecalho(saida);
+                    }
+                    escreverLinha(saida, p);
+                    total[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+
+            if (total[0] == 0) {
+                saida.write("Nenhuma pessoa cadastrada ainda.");
+            } else {
+                saida.write("\nTotal: " + total[0] + " pessoa(s) cadastrada(s).\n");
             }
+            saida.flush();
+        } catch (IOException | UncheckedIOException e) {
+            escreverErro(saida, "Erro ao ler o arquivo de dados: " + mensagem(e));
+        }
+    }
 
-            StringBuilder resultado = new StringBuilder();
-            resultado.append("\n=== LISTA DE PESSOAS ===\n");
-            resultado.append(String.format("%-30s | %-30s | %-15s\n", "NOME", "EMAIL", "TELEFONE"));
-            resultado.append("----------------------------------------------------------------------------\n");
-            
-            for (int i = 0; i < pessoas.size(); i++) {
-                Pessoa p = pessoas.get(i);
-                resultado.append(String.format("%-30s | %-30s | %-15s\n", 
-                    p.getNome(), p.getEmail(), p.getTelefone()));
+    /**
+     * Lista uma página de pessoas cadastradas.
+     * 
+     * @param numero Número da página (começando em 1)
+     * @param tamanho Quantidade de pessoas por página
+     * @param saida Destino da listagem
+     * @return true se existe uma próxima página
+     */
+    public boolean listarPagina(int numero, int tamanho, Writer saida) {
+        try {
+            int inicio = (numero - 1) * tamanho;
+            Pagina<Pessoa> pagina = repository.listarPagina(inicio, tamanho);
+
+            if (pagina.getItens().isEmpty()) {
+                saida.write(numero == 1 ? "Nenhuma pessoa cadastrada ainda.\n" : "Não há mais pessoas para exibir.\n");
+                saida.flush();
+                return false;
             }
-            
-            resultado.append("\nTotal: " + pessoas.size() + " pessoa(s) cadastrada(s).\n");
-            
-            return resultado.toString();
+
+            escreverCabecalho(saida);
+            for (Pessoa p : pagina.getItens()) {
+                escreverLinha(saida, p);
+            }
+            saida.write("\nPágina " + numero + " (registros " + (inicio + 1) + " a "
+                + (inicio + pagina.getItens().size()) + ")\n");
+            saida.flush();
+            return pagina.temProxima();
         } catch (IOException e) {
-            return "Erro ao ler o arquivo de dados: " + e.getMessage();
+            escreverErro(saida, "Erro ao ler o arquivo de dados: " + e.getMessage());
+            return false;
         }
     }
 
+    /**
+     * Busca pessoas pelo nome (ou trecho do nome), sem diferenciar acentos
+     * nem maiúsculas, e escreve uma página dos resultados mais relevantes.
+     * 
+     * @param termo Nome ou trecho do nome
+     * @param numero Número da página (começando em 1)
+     * @param tamanho Quantidade de pessoas por página
+     * @param saida Destino da listagem
+     * @return true se existe uma próxima página
+     */
+    public boolean buscarPorNome(String termo, int numero, int tamanho, Writer saida) {
+        try {
+            if (termo == null || termo.trim().isEmpty()) {
+                saida.write("Nome não pode estar vazio!\n");
+                saida.flush();
+                return false;
+            }
+
+            int inicio = (numero - 1) * tamanho;
+            Pagina<Pessoa> pagina = repository.buscarPorNome(termo.trim(), inicio, tamanho);
+
+            if (pagina.getItens().isEmpty()) {
+                saida.write(numero == 1 ? "Nenhuma pessoa encontrada com o nome informado.\n"
+                    : "Não há mais pessoas para exibir.\n");
+                saida.flush();
+                return false;
+            }
+
+            escreverCabecalho(saida);
+            for (Pessoa p : pagina.getItens()) {
+                escreverLinha(saida, p);
+            }
+            saida.write("\nPágina " + numero + " (resultados " + (inicio + 1) + " a "
+                + (inicio + pagina.getItens().size()) + ")\n");
+            saida.flush();
+            return pagina.temProxima();
+        } catch (IOException e) {
+            escreverErro(saida, "Erro ao ler o arquivo de dados: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Escreve o cabeçalho da tabela de pessoas.
+     * 
+     * @param saida Destino da listagem
+     * @throws IOException Se ocorrer erro na escrita
+     */
+    private void escreverCabecalho(Writer saida) throws IOException {
+        saida.write("\n=== LISTA DE PESSOAS ===\n");
+        saida.write(String.format("%-30s | %-30s | %-15s\n", "NOME", "EMAIL", "TELEFONE"));
+        saida.write("----------------------------------------------------------------------------\n");
+    }
+
+    /**
+     * Escreve uma linha da tabela de pessoas.
+     * 
+     * @param saida Destino da listagem
+     * @param p Pessoa a ser escrita
+     * @throws IOException Se ocorrer erro na escrita
+     */
+    private void escreverLinha(Writer saida, Pessoa p) throws IOException {
+        saida.write(String.format("%-30s | %-30s | %-15s\n",
+            p.getNome(), p.getEmail(), p.getTelefone()));
+    }
+
+    /**
+     * Escreve uma mensagem de erro na saída, ignorando falhas da própria saída.
+     * 
+     * @param saida Destino da mensagem
+     * @param mensagem Mensagem de erro
+     */
+    private void escreverErro(Writer saida, String mensagem) {
+        try {
+            saida.write(mensagem);
+            saida.flush();
+        } catch (IOException e) {
+            // A saída não está disponível; não há onde reportar o erro
+        }
+    }
+
+    /**
+     * Extrai a mensagem de uma exceção de E/S, inclusive quando encapsulada.
+     * 
+     * @param e Exceção
+     * @return Mensagem da exceção original
+     */
+    private String mensagem(Exception e) {
+        if (e instanceof UncheckedIOException && e.getCause() != null) {
+            return e.getCause().getMessage();
+        }
+        return e.getMessage();
+    }
+
     /**
      * Busca uma pessoa pelo email.
      * 
@@ -98,13 +320,13 @@ public class PessoaService {
     public String buscarPorEmail(String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
-                return "Email não pode estar vazio!";
+                return MENSAGEM_EMAIL_VAZIO;
             }
 
             Pessoa pessoa = repository.buscarPorEmail(email.trim());
             
             if (pessoa == null) {
-                return "Pessoa não encontrada com o email informado.";
+                return MENSAGEM_NAO_ENCONTRADA;
             }
 
             return "\n=== PESSOA ENCONTRADA ===\n" + pessoa.toString() + "\n";
@@ -113,6 +335,35 @@ public class PessoaService {
         }
     }
 
+    /**
+     * Busca as pessoas com o telefone informado, em qualquer formato
+     * (ex: "(11) 98765-4321" ou "11987654321").
+     * 
+     * @param telefone Telefone a ser buscado
+     * @return Dados das pessoas encontradas ou mensagem de erro
+     */
+    public String buscarPorTelefone(String telefone) {
+        try {
+            if (telefone == null || telefone.trim().isEmpty()) {
+                return "Telefone não pode estar vazio!";
+            }
+
+            List<Pessoa> pessoas = repository.buscarPorTelefone(telefone.trim());
+
+            if (pessoas.isEmpty()) {
+                return "Nenhuma pessoa encontrada com o telefone informado.";
+            }
+
+            StringBuilder resultado = new StringBuilder("\n=== PESSOA(S) ENCONTRADA(S) ===\n");
+            for (Pessoa pessoa : pessoas) {
+                resultado.append(pessoa.toString()).append("\n");
+            }
+            return resultado.toString();
+        } catch (IOException e) {
+            return "Erro ao ler o arquivo de dados: " + e.getMessage();
+        }
+    }
+
     /**
      * Atualiza os dados de uma pessoa existente.
      * 
@@ -122,41 +373,62 @@ public class PessoaService {
      * @return Mensagem de sucesso ou erro
      */
     public String atualizar(String email, String novoNome, String novoTelefone) {
+        Resultado<Pessoa> resultado = alterar(email, novoNome, novoTelefone);
+        return resultado.isSucesso() ? MENSAGEM_ATUALIZADA : resultado.getMensagem();
+    }
+
+    /**
+     * Atualiza os dados de uma pessoa existente, retornando o resultado tipado.
+     * 
+     * @param email Email da pessoa a ser atualizada
+     * @param novoNome Novo nome (pode ser null para manter o atual)
+     * @param novoTelefone Novo telefone (pode ser null para manter o atual)
+     * @return Pessoa com os dados atualizados ou o código do erro
+     */
+    public Resultado<Pessoa> alterar(String email, String novoNome, String novoTelefone) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_ALTERAR, inicio, executarAlteracao(email, novoNome, novoTelefone));
+    }
+
+    private Resultado<Pessoa> executarAlteracao(String email, String novoNome, String novoTelefone) {
         try {
             if (email == null || email.trim().isEmpty()) {
-                return "Email não pode estar vazio!";
+                return Resultado.falha(CodigoErro.EMAIL_VAZIO);
             }
 
-            Pessoa pessoa = repository.buscarPorEmail(email.trim());
-            
-            if (pessoa == null) {
-                return "Pessoa não encontrada com o email informado.";
-            }
+            // Compare-and-set: se outra operação alterou a pessoa entre a busca e
+            // a atualização, busca de novo e reaplica os campos fornecidos
+            for (boolean primeira = true; ; primeira = false) {
+                Pessoa atual = repository.buscarPorEmail(email.trim());
 
-            // Atualiza apenas os campos fornecidos
-            if (novoNome != null && !novoNome.trim().isEmpty()) {
-                if (!Validador.validarNome(novoNome)) {
-                    return "Nome inválido! Deve ter pelo menos 2 caracteres.";
+                if (atual == null) {
+                    return primeira ? Resultado.falha(CodigoErro.NAO_ENCONTRADA)
+                            : Resultado.falha(CodigoErro.NAO_ENCONTRADA, MENSAGEM_ERRO_ATUALIZACAO);
                 }
-                pessoa.setNome(novoNome.trim());
-            }
 
-            if (novoTelefone != null && !novoTelefone.trim().isEmpty()) {
-                if (!Validador.validarTelefone(novoTelefone)) {
-                    return "Telefone inválido! Deve conter pelo menos 10 dígitos.";
+                Pessoa pessoa = new Pessoa(atual.getNome(), atual.getEmail(), atual.getTelefone());
+
+                // Atualiza apenas os campos fornecidos
+                if (novoNome != null && !novoNome.trim().isEmpty()) {
+                    if (!Validador.validarNome(novoNome)) {
+                        return Resultado.falha(CodigoErro.NOME_INVALIDO);
+                    }
+                    pessoa.setNome(novoNome.trim());
                 }
-                pessoa.setTelefone(novoTelefone.trim());
-            }
 
-            boolean sucesso = repository.atualizar(pessoa);
-            
-            if (sucesso) {
-                return "Pessoa atualizada com sucesso!";
-            } else {
-                return "Erro ao atualizar pessoa!";
+                if (novoTelefone != null && !novoTelefone.trim().isEmpty()) {
+                    if (!Validador.validarTelefone(novoTelefone)) {
+                        return Resultado.falha(CodigoErro.TELEFONE_INVALIDO);
+                    }
+                    pessoa.setTelefone(novoTelefone.trim());
+                }
+
+                if (repository.atualizarSe(atual, pessoa)) {
+                    return Resultado.sucesso(pessoa);
+                }
             }
         } catch (IOException e) {
-            return "Erro ao acessar o arquivo de dados: " + e.getMessage();
+            return falhaArquivo(e);
         }
     }
 
@@ -167,20 +439,289 @@ public class PessoaService {
      * @return Mensagem de sucesso ou erro
      */
     public String remover(String email) {
+        Resultado<Void> resultado = excluir(email);
+        return resultado.isSucesso() ? MENSAGEM_REMOVIDA : resultado.getMensagem();
+    }
+
+    /**
+     * Remove uma pessoa do sistema pelo email, retornando o resultado tipado.
+     * 
+     * @param email Email da pessoa a ser removida
+     * @return Sucesso (sem valor) ou o código do erro
+     */
+    public Resultado<Void> excluir(String email) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_EXCLUIR, inicio, executarExclusao(email));
+    }
+
+    private Resultado<Void> executarExclusao(String email) {
         try {
             if (email == null || email.trim().isEmpty()) {
-                return "Email não pode estar vazio!";
+                return Resultado.falha(CodigoErro.EMAIL_VAZIO);
             }
 
             boolean sucesso = repository.remover(email.trim());
             
             if (sucesso) {
-                return "Pessoa removida com sucesso!";
+                return Resultado.sucesso(null);
             } else {
-                return "Pessoa não encontrada com o email informado.";
+                return Resultado.falha(CodigoErro.NAO_ENCONTRADA);
+            }
+        } catch (IOException e) {
+            return falhaArquivo(e);
+        }
+    }
+
+    /**
+     * Busca uma pessoa pelo email, retornando o resultado tipado.
+     * 
+     * @param email Email da pessoa
+     * @return Pessoa encontrada ou o código do erro
+     */
+    public Resultado<Pessoa> consultar(String email) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_CONSULTAR, inicio, executarConsulta(email));
+    }
+
+    private Resultado<Pessoa> executarConsulta(String email) {
+        try {
+            if (email == null || email.trim().isEmpty()) {
+                return Resultado.falha(CodigoErro.EMAIL_VAZIO);
             }
+            Pessoa pessoa = repository.buscarPorEmail(email.trim());
+            return pessoa != null ? Resultado.sucesso(pessoa) : Resultado.falha(CodigoErro.NAO_ENCONTRADA);
+        } catch (IOException e) {
+            return falhaArquivo(e);
+        }
+    }
+
+    /**
+     * Busca uma página de pessoas cadastradas, retornando o resultado tipado.
+     * 
+     * @param numero Número da página (começando em 1)
+     * @param tamanho Quantidade de pessoas por página
+     * @return Página de pessoas ou o código do erro
+     */
+    public Resultado<Pagina<Pessoa>> paginar(int numero, int tamanho) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_PAGINAR, inicio, executarPaginacao(numero, tamanho));
+    }
+
+    private Resultado<Pagina<Pessoa>> executarPaginacao(int numero, int tamanho) {
+        try {
+            return Resultado.sucesso(repository.listarPagina((numero - 1) * tamanho, tamanho));
+        } catch (IOException e) {
+            return falhaArquivo(e);
+        }
+    }
+
+    /**
+     * Busca a página de pessoas seguinte a um cursor, em ordem de email.
+     * 
+     * @param cursor Último email da página anterior (null para a primeira página)
+     * @param tamanho Quantidade de pessoas por página
+     * @return Página de pessoas com o cursor da próxima página, ou o código do erro
+     */
+    public Resultado<Pagina<Pessoa>> paginarAposEmail(String cursor, int tamanho) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_PAGINAR_APOS_EMAIL, inicio, executarPaginacaoAposEmail(cursor, tamanho));
+    }
+
+    private Resultado<Pagina<Pessoa>> executarPaginacaoAposEmail(String cursor, int tamanho) {
+        try {
+            return Resultado.sucesso(repository.listarAposEmail(cursor, tamanho));
+        } catch (IOException e) {
+            return falhaArquivo(e);
+        }
+    }
+
+    /**
+     * Busca uma página das pessoas com email no domínio informado, em ordem
+     * do usuário (a parte antes do @).
+     * 
+     * @param dominio Domínio dos emails (ex: exemplo.com)
+     * @param cursor Último email da página anterior (null para a primeira página)
+     * @param tamanho Quantidade de pessoas por página
+     * @return Página de pessoas com o cursor da próxima página, ou o código do erro
+     */
+    public Resultado<Pagina<Pessoa>> paginarPorDominio(String dominio, String cursor, int tamanho) {
+        long inicio = System.nanoTime();
+        return medir(METRICA_PAGINAR_POR_DOMINIO, inicio, executarPaginacaoPorDominio(dominio, cursor, tamanho));
+    }
+
+    private Resultado<Pagina<Pessoa>> executarPaginacaoPorDominio(String dominio, String cursor, int tamanho) {
+        try {
+            return Resultado.sucesso(repository.listarPorDominio(dominio.trim(), cursor, tamanho));
         } catch (IOException e) {
-            return "Erro ao acessar o arquivo de dados: " + e.getMessage();
+            return falhaArquivo(e);
+        }
+    }
+
+    /**
+     * Aplica um lote de cadastros, alterações e exclusões como uma única
+     * operação: ou todas são aplicadas, ou nenhuma.
+     *
+     * Os dados de todas as operações são validados antes de acessar o
+     * repositório. Em seguida, as operações são aplicadas em ordem sobre uma
+     * única leitura dos dados (cada uma enxerga as anteriores do lote) e
+     * gravadas com uma única escrita do arquivo. Se alguma falhar, nada é
+     * gravado: ela recebe o seu erro e as demais recebem
+     * {@link CodigoErro#LOTE_CANCELADO}.
+     *
+     * @param operacoes Operações do lote, na ordem em que devem ser aplicadas
+     * @return Resultado de cada operação, na mesma ordem: a pessoa cadastrada,
+     *         alterada ou excluída, ou o código do erro
+     */
+    public List<Resultado<Pessoa>> aplicarLote(List<OperacaoLote> operacoes) {
+        long inicio = System.nanoTime();
+        List<Resultado<Pessoa>> resultados = executarLote(operacoes);
+        boolean erroArquivo = false;
+        for (Resultado<Pessoa> resultado : resultados) {
+            erroArquivo |= resultado.getErro() == CodigoErro.ERRO_ARQUIVO;
+        }
+        METRICA_APLICAR_LOTE.registrar(inicio, erroArquivo);
+        return resultados;
+    }
+
+    private List<Resultado<Pessoa>> executarLote(List<OperacaoLote> operacoes) {
+        if (operacoes.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // Valida todas as operações antes de ler os dados
+        List<Resultado<Pessoa>> resultados = new ArrayList<>(operacoes.size());
+        boolean falhou = false;
+        for (OperacaoLote operacao : operacoes) {
+            CodigoErro erro = validar(operacao);
+            resultados.add(erro != null ? Resultado.falha(erro) : null);
+            falhou |= erro != null;
+        }
+        if (falhou) {
+            return cancelarRestantes(resultados);
+        }
+
+        try {
+            return repository.executarTransacao(transacao -> {
+                List<Resultado<Pessoa>> aplicados = new ArrayList<>(operacoes.size());
+                boolean algumaFalhou = false;
+                for (OperacaoLote operacao : operacoes) {
+                    Resultado<Pessoa> resultado = aplicar(transacao, operacao);
+                    aplicados.add(resultado);
+                    algumaFalhou |= !resultado.isSucesso();
+                }
+                if (algumaFalhou) {
+                    transacao.cancelar();
+                    for (int i = 0; i < aplicados.size(); i++) {
+                        if (aplicados.get(i).isSucesso()) {
+                            aplicados.set(i, null);
+                        }
+                    }
+                    return cancelarRestantes(aplicados);
+                }
+                return aplicados;
+            });
+        } catch (IOException e) {
+            List<Resultado<Pessoa>> falhas = new ArrayList<>(operacoes.size());
+            for (int i = 0; i < operacoes.size(); i++) {
+                falhas.add(falhaArquivo(e));
+            }
+            return falhas;
+        }
+    }
+
+    /**
+     * Valida os dados de uma operação do lote, com as mesmas regras das
+     * operações individuais.
+     *
+     * @return Código do erro ou null se os dados são válidos
+     */
+    private static CodigoErro validar(OperacaoLote operacao) {
+        switch (operacao.getTipo()) {
+            case CADASTRAR:
+                if (!Validador.validarNome(operacao.getNome())) {
+                    return CodigoErro.NOME_INVALIDO;
+                }
+                if (!Validador.validarEmail(operacao.getEmail())) {
+                    return CodigoErro.EMAIL_INVALIDO;
+                }
+                if (!Validador.validarTelefone(operacao.getTelefone())) {
+                    return CodigoErro.TELEFONE_INVALIDO;
+                }
+                return null;
+            case ALTERAR:
+                if (vazio(operacao.getEmail())) {
+                    return CodigoErro.EMAIL_VAZIO;
+                }
+                if (!vazio(operacao.getNome()) && !Validador.validarNome(operacao.getNome())) {
+                    return CodigoErro.NOME_INVALIDO;
+                }
+                if (!vazio(operacao.getTelefone()) && !Validador.validarTelefone(operacao.getTelefone())) {
+                    return CodigoErro.TELEFONE_INVALIDO;
+                }
+                return null;
+            default:
+                return vazio(operacao.getEmail()) ? CodigoErro.EMAIL_VAZIO : null;
+        }
+    }
+
+    /**
+     * Aplica uma operação já validada sobre a transação.
+     */
+    private static Resultado<Pessoa> aplicar(Transacao transacao, OperacaoLote operacao) {
+        String email = operacao.getEmail().trim();
+        switch (operacao.getTipo()) {
+            case CADASTRAR:
+                Pessoa novaPessoa = new Pessoa(operacao.getNome().trim(), PessoaRepository.normalizarEmail(email),
+                        operacao.getTelefone().trim());
+                return transacao.incluir(novaPessoa)
+                        ? Resultado.sucesso(novaPessoa) : Resultado.falha(CodigoErro.EMAIL_EXISTENTE);
+            case ALTERAR:
+                Pessoa pessoa = transacao.buscar(email);
+                if (pessoa == null) {
+                    return Resultado.falha(CodigoErro.NAO_ENCONTRADA);
+                }
+                if (!vazio(operacao.getNome())) {
+                    pessoa.setNome(operacao.getNome().trim());
+                }
+                if (!vazio(operacao.getTelefone())) {
+                    pessoa.setTelefone(operacao.getTelefone().trim());
+                }
+                transacao.alterar(pessoa);
+                return Resultado.sucesso(pessoa);
+            default:
+                Pessoa removida = transacao.buscar(email);
+                return removida != null && transacao.remover(email)
+                        ? Resultado.sucesso(removida) : Resultado.falha(CodigoErro.NAO_ENCONTRADA);
         }
     }
+
+    /**
+     * Preenche com {@link CodigoErro#LOTE_CANCELADO} as posições sem resultado.
+     */
+    private static List<Resultado<Pessoa>> cancelarRestantes(List<Resultado<Pessoa>> resultados) {
+        for (int i = 0; i < resultados.size(); i++) {
+            if (resultados.get(i) == null) {
+                resultados.set(i, Resultado.falha(CodigoErro.LOTE_CANCELADO));
+            }
+        }
+        return resultados;
+    }
+
+    private static boolean vazio(String texto) {
+        return texto == null || texto.trim().isEmpty();
+    }
+
+    /**
+     * Registra a duração da operação. Apenas falhas de acesso ao arquivo
+     * contam como erro; dados inválidos ou pessoa inexistente são respostas
+     * normais da operação.
+     */
+    private static <T> Resultado<T> medir(MetricaOperacao metrica, long inicio, Resultado<T> resultado) {
+        metrica.registrar(inicio, resultado.getErro() == CodigoErro.ERRO_ARQUIVO);
+        return resultado;
+    }
+
+    private static <T> Resultado<T> falhaArquivo(IOException e) {
+        return Resultado.falha(CodigoErro.ERRO_ARQUIVO, PREFIXO_ERRO_ARQUIVO + e.getMessage());
+    }
 }
@@ -0,0 +1,139 @@
+package com.crud.service;
+
+import com.crud.model.Pagina;
+import com.crud.model.Pessoa;
+import com.crud.repository.PessoaRepository;
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Versão não bloqueante do {@link PessoaService}.
+ *
+ * Cada operação é executada em um executor dedicado à E/S do repositório e
+ * retorna imediatamente um {@link CompletableFuture} com o {@link Resultado}.
+ * Assim, quem chama pode enviar várias operações em sequência e combinar os
+ * resultados, sem esperar cada ida ao arquivo.
+ *
+ * Falhas de acesso ao arquivo chegam como resultado com
+ * {@link CodigoErro#ERRO_ARQUIVO}; o future só é concluído com exceção em
+ * erros inesperados.
+ *
+ * Com mais de uma thread, o repositório precisa ser seguro para acesso
+ * concorrente (ex: modo concorrente, indexado ou journal). Os modos
+ * arquivo e binário devem usar uma única thread, que executa as operações
+ * na ordem de envio.
+ */
+public class PessoaServiceAsync implements Closeable {
+
+    private static final AtomicInteger CONTADOR_EXECUTORES = new AtomicInteger();
+
+    private final PessoaService service;
+    private final ExecutorService executor;
+
+    /**
+     * Cria o serviço com uma única thread de E/S, seguro para qualquer repositório.
+     *
+     * @param repository Repositório usado para persistência
+     */
+    public PessoaServiceAsync(PessoaRepository repository) {
+        this(repository, 1);
+    }
+
+    /**
+     * Cria o serviço com a quantidade de threads de E/S informada.
+     *
+     * @param repository Repositório usado para persistência
+     * @param threads Quantidade de threads do executor de E/S
+     */
+    public PessoaServiceAsync(PessoaRepository repository, int threads) {
+        this.service = new PessoaService(repository);
+        this.executor = Executors.newFixedThreadPool(threads, fabricaThreads());
+    }
+
+    private static ThreadFactory fabricaThreads() {
+        int executor = CONTADOR_EXECUTORES.incrementAndGet();
+        AtomicInteger contador = new AtomicInteger();
+        return tarefa -> {
+            Thread thread = new Thread(tarefa, "pessoa-io-" + executor + "-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Cria uma nova pessoa.
+     *
+     * @param nome Nome da pessoa
+     * @param email Email da pessoa
+     * @param telefone Telefone da pessoa
+     * @return Future com a pessoa cadastrada ou o código do erro
+     */
+    public CompletableFuture<Resultado<Pessoa>> criar(String nome, String email, String telefone) {
+        return executar(() -> service.cadastrar(nome, email, telefone));
+    }
+
+    /**
+     * Busca uma pessoa pelo email.
+     *
+     * @param email Email da pessoa
+     * @return Future com a pessoa encontrada ou o código do erro
+     */
+    public CompletableFuture<Resultado<Pessoa>> buscarPorEmail(String email) {
+        return executar(() -> service.consultar(email));
+    }
+
+    /**
+     * Atualiza o nome e/ou o telefone de uma pessoa.
+     *
+     * @param email Email da pessoa
+     * @param novoNome Novo nome (null ou vazio para manter o atual)
+     * @param novoTelefone Novo telefone (null ou vazio para manter o atual)
+     * @return Future com a pessoa atualizada ou o código do erro
+     */
+    public CompletableFuture<Resultado<Pessoa>> atualizar(String email, String novoNome, String novoTelefone) {
+        return executar(() -> service.alterar(email, novoNome, novoTelefone));
+    }
+
+    /**
+     * Remove uma pessoa pelo email.
+     *
+     * @param email Email da pessoa
+     * @return Future com o sucesso da remoção ou o código do erro
+     */
+    public CompletableFuture<Resultado<Void>> remover(String email) {
+        return executar(() -> service.excluir(email));
+    }
+
+    /**
+     * Busca uma página de pessoas cadastradas.
+     *
+     * @param numero Número da página (começando em 1)
+     * @param tamanho Quantidade de pessoas por página
+     * @return Future com a página ou o código do erro
+     */
+    public CompletableFuture<Resultado<Pagina<Pessoa>>> listarPagina(int numero, int tamanho) {
+        return executar(() -> service.paginar(numero, tamanho));
+    }
+
+    private <T> CompletableFuture<Resultado<T>> executar(Supplier<Resultado<T>> operacao) {
+        try {
+            return CompletableFuture.supplyAsync(operacao, executor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(e); // Serviço já fechado
+        }
+    }
+
+    /**
+     * Encerra o executor depois de concluir as operações já enviadas.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
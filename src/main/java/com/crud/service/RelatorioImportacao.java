@@ -0,0 +1,54 @@
+package com.crud.service;
+
+/**
+ * Resumo de uma importação em massa.
+ */
+public class RelatorioImportacao {
+    private long lidas;
+    private long importadas;
+    private long rejeitadas;
+    private long duracaoMs;
+
+    void registrarLida() {
+        lidas++;
+    }
+
+    void registrarRejeitada() {
+        rejeitadas++;
+    }
+
+    void setImportadas(long importadas) {
+        this.importadas = importadas;
+    }
+
+    void setDuracaoMs(long duracaoMs) {
+        this.duracaoMs = duracaoMs;
+    }
+
+    public long getLidas() {
+        return lidas;
+    }
+
+    public long getImportadas() {
+        return importadas;
+    }
+
+    public long getRejeitadas() {
+        return rejeitadas;
+    }
+
+    public long getDuracaoMs() {
+        return duracaoMs;
+    }
+
+    /**
+     * Retorna o resumo formatado para exibição.
+     * 
+     * @return Texto com as quantidades e o tempo da importação
+     */
+    @Override
+    public String toString() {
+        return "Linhas lidas: " + lidas + " | Importadas: " + importadas
+            + " | Rejeitadas: " + rejeitadas + " | Tempo: " + duracaoMs + " ms";
+    }
+}
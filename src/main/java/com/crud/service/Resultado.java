@@ -0,0 +1,90 @@
+package com.crud.service;
+
+/**
+ * Resultado de uma operação do serviço: o valor, em caso de sucesso, ou o
+ * código e a mensagem do erro, em caso de falha.
+ *
+ * @param <T> Tipo do valor retornado
+ */
+public final class Resultado<T> {
+
+    private final T valor;
+    private final CodigoErro erro;
+    private final String mensagem;
+
+    private Resultado(T valor, CodigoErro erro, String mensagem) {
+        this.valor = valor;
+        this.erro = erro;
+        this.mensagem = mensagem;
+    }
+
+    /**
+     * Cria um resultado de sucesso.
+     *
+     * @param valor Valor da operação (pode ser null, ex: em remoções)
+     * @param <T> Tipo do valor
+     * @return Resultado de sucesso
+     */
+    public static <T> Resultado<T> sucesso(T valor) {
+        return new Resultado<>(valor, null, null);
+    }
+
+    /**
+     * Cria um resultado de falha com a mensagem padrão do código.
+     *
+     * @param erro Código do erro
+     * @param <T> Tipo do valor
+     * @return Resultado de falha
+     */
+    public static <T> Resultado<T> falha(CodigoErro erro) {
+        return new Resultado<>(null, erro, erro.getMensagem());
+    }
+
+    /**
+     * Cria um resultado de falha com uma mensagem específica.
+     *
+     * @param erro Código do erro
+     * @param mensagem Mensagem do erro
+     * @param <T> Tipo do valor
+     * @return Resultado de falha
+     */
+    public static <T> Resultado<T> falha(CodigoErro erro, String mensagem) {
+        return new Resultado<>(null, erro, mensagem);
+    }
+
+    public boolean isSucesso() {
+        return erro == null;
+    }
+
+    /**
+     * Retorna o valor da operação.
+     *
+     * @return Valor (null em caso de falha)
+     */
+    public T getValor() {
+        return valor;
+    }
+
+    /**
+     * Retorna o código do erro.
+     *
+     * @return Código do erro (null em caso de sucesso)
+     */
+    public CodigoErro getErro() {
+        return erro;
+    }
+
+    /**
+     * Retorna a mensagem do erro.
+     *
+     * @return Mensagem do erro (null em caso de sucesso)
+     */
+    public String getMensagem() {
+        return mensagem;
+    }
+
+    @Override
+    public String toString() {
+        return isSucesso() ? "Sucesso: " + valor : erro + ": " + mensagem;
+    }
+}
@@ -0,0 +1,292 @@
+package com.crud.servidor;
+
+import com.crud.metricas.MetricaOperacao;
+import com.crud.metricas.Metricas;
+import com.crud.model.Pagina;
+import com.crud.model.Pessoa;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Conversão mínima de e para JSON, suficiente para a API de pessoas.
+ *
+ * A leitura aceita apenas um objeto com valores texto (ou null), que é o
+ * formato dos corpos de requisição da API. A escrita gera os objetos de
+ * pessoa, de página, de erro e de métricas.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Lê um objeto JSON cujos valores são textos.
+     *
+     * @param texto Corpo da requisição
+     * @return Mapa campo -> valor (null para valores null)
+     * @throws IllegalArgumentException Se o JSON for inválido ou tiver valores que não sejam texto
+     */
+    static Map<String, String> lerObjeto(String texto) {
+        Leitor leitor = new Leitor(texto);
+        Map<String, String> campos = new LinkedHashMap<>();
+
+        leitor.esperar('{');
+        if (!leitor.consumir('}')) {
+            do {
+                String campo = leitor.lerTexto();
+                leitor.esperar(':');
+                campos.put(campo, leitor.lerValor());
+            } while (leitor.consumir(','));
+            leitor.esperar('}');
+        }
+        leitor.esperarFim();
+        return campos;
+    }
+
+    /**
+     * Escreve uma pessoa como objeto JSON.
+     *
+     * @param pessoa Pessoa a ser escrita
+     * @return Objeto JSON
+     */
+    static String pessoa(Pessoa pessoa) {
+        StringBuilder json = new StringBuilder(96);
+        escreverPessoa(json, pessoa);
+        return json.toString();
+    }
+
+    /**
+     * Escreve uma página de pessoas como objeto JSON.
+     *
+     * @param pagina Página de pessoas
+     * @param numero Número da página (0 na paginação por cursor)
+     * @param tamanho Tamanho da página
+     * @return Objeto JSON com os itens e os dados de paginação
+     */
+    static String pagina(Pagina<Pessoa> pagina, int numero, int tamanho) {
+        StringBuilder json = new StringBuilder(64 + pagina.getItens().size() * 96);
+        json.append("{\"itens\":[");
+        boolean primeiro = true;
+        for (Pessoa pessoa : pagina.getItens()) {
+            if (!primeiro) {
+                json.append(',');
+            }
+            escreverPessoa(json, pessoa);
+            primeiro = false;
+        }
+        json.append("],");
+        if (numero > 0) {
+            json.append("\"pagina\":").append(numero).append(',');
+        }
+        json.append("\"tamanho\":").append(tamanho);
+        json.append(",\"temProxima\":").append(pagina.temProxima());
+        if (pagina.getProximoCursor() != null) {
+            json.append(",\"proximoCursor\":");
+            escreverTexto(json, pagina.getProximoCursor());
+        }
+        return json.append('}').toString();
+    }
+
+    /**
+     * Escreve uma mensagem como objeto JSON.
+     *
+     * @param campo Nome do campo (ex: "mensagem" ou "erro")
+     * @param mensagem Texto da mensagem
+     * @return Objeto JSON
+     */
+    static String mensagem(String campo, String mensagem) {
+        StringBuilder json = new StringBuilder();
+        json.append('{');
+        escreverTexto(json, campo);
+        json.append(':');
+        escreverTexto(json, mensagem);
+        return json.append('}').toString();
+    }
+
+    /**
+     * Escreve as métricas como objeto JSON, com os tempos em microssegundos.
+     *
+     * @param metricas Métricas da aplicação
+     * @return Objeto JSON com os contadores de E/S e as operações
+     */
+    static String metricas(Metricas metricas) {
+        StringBuilder json = new StringBuilder(256);
+        json.append("{\"bytesLidos\":").append(metricas.getBytesLidos())
+                .append(",\"bytesEscritos\":").append(metricas.getBytesEscritos())
+                .append(",\"registrosLidos\":").append(metricas.getRegistrosLidos())
+                .append(",\"operacoes\":[");
+        boolean primeiro = true;
+        for (MetricaOperacao operacao : metricas.getOperacoes()) {
+            if (!primeiro) {
+                json.append(',');
+            }
+            long[] p = operacao.getLatencias().percentis(50, 90, 99, 99.9);
+            json.append("{\"nome\":");
+            escreverTexto(json, operacao.getNome());
+            json.append(",\"chamadas\":").append(operacao.getChamadas())
+                    .append(",\"erros\":").append(operacao.getErros())
+                    .append(",\"mediaMicros\":").append(Math.round(operacao.getMediaMicros()))
+                    .append(",\"p50Micros\":").append(p[0] / 1000)
+                    .append(",\"p90Micros\":").append(p[1] / 1000)
+                    .append(",\"p99Micros\":").append(p[2] / 1000)
+                    .append(",\"p999Micros\":").append(p[3] / 1000)
+                    .append(",\"maximoMicros\":").append(operacao.getMaximoMicros())
+                    .append('}');
+            primeiro = false;
+        }
+        return json.append("]}").toString();
+    }
+
+    private static void escreverPessoa(StringBuilder json, Pessoa pessoa) {
+        json.append("{\"nome\":");
+        escreverTexto(json, pessoa.getNome());
+        json.append(",\"email\":");
+        escreverTexto(json, pessoa.getEmail());
+        json.append(",\"telefone\":");
+        escreverTexto(json, pessoa.getTelefone());
+        json.append('}');
+    }
+
+    private static void escreverTexto(StringBuilder json, String texto) {
+        if (texto == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * Leitor sequencial do texto JSON.
+     */
+    private static final class Leitor {
+        private final String texto;
+        private int posicao;
+
+        Leitor(String texto) {
+            this.texto = texto;
+        }
+
+        void esperar(char esperado) {
+            if (!consumir(esperado)) {
+                throw erro("'" + esperado + "' esperado");
+            }
+        }
+
+        boolean consumir(char esperado) {
+            pularEspacos();
+            if (posicao < texto.length() && texto.charAt(posicao) == esperado) {
+                posicao++;
+                return true;
+            }
+            return false;
+        }
+
+        void esperarFim() {
+            pularEspacos();
+            if (posicao < texto.length()) {
+                throw erro("conteúdo após o fim do objeto");
+            }
+        }
+
+        String lerValor() {
+            pularEspacos();
+            if (texto.startsWith("null", posicao)) {
+                posicao += 4;
+                return null;
+            }
+            return lerTexto();
+        }
+
+        String lerTexto() {
+            esperar('"');
+            StringBuilder valor = new StringBuilder();
+            while (posicao < texto.length()) {
+                char c = texto.charAt(posicao++);
+                if (c == '"') {
+                    return valor.toString();
+                }
+                if (c != '\\') {
+                    valor.append(c);
+                    continue;
+                }
+                if (posicao >= texto.length()) {
+                    break;
+                }
+                char escape = texto.charAt(posicao++);
+                switch (escape) {
+                    case '"':
+                    case '\\':
+                    case '/':
+                        valor.append(escape);
+                        break;
+                    case 'b':
+                        valor.append('\b');
+                        break;
+                    case 'f':
+                        valor.append('\f');
+                        break;
+                    case 'n':
+                        valor.append('\n');
+                        break;
+                    case 'r':
+                        valor.append('\r');
+                        break;
+                    case 't':
+                        valor.append('\t');
+                        break;
+                    case 'u':
+                        if (posicao + 4 > texto.length()) {
+                            throw erro("escape unicode incompleto");
+                        }
+                        try {
+                            valor.append((char) Integer.parseInt(texto.substring(posicao, posicao + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw erro("escape unicode inválido");
+                        }
+                        posicao += 4;
+                        break;
+                    default:
+                        throw erro("escape inválido");
+                }
+            }
+            throw erro("texto não terminado");
+        }
+
+        private void pularEspacos() {
+            while (posicao < texto.length() && Character.isWhitespace(texto.charAt(posicao))) {
+                posicao++;
+            }
+        }
+
+        private IllegalArgumentException erro(String motivo) {
+            return new IllegalArgumentException("JSON inválido na posição " + posicao + ": " + motivo);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.crud.servidor;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Filtro que limita a quantidade de requisições atendidas ao mesmo tempo.
+ *
+ * Acima do limite, a requisição é recusada imediatamente com 503, em vez de
+ * esperar em fila, para que o cliente possa tentar de novo mais tarde.
+ */
+class LimiteConcorrencia extends Filter {
+
+    private final Semaphore permissoes;
+
+    /**
+     * @param limite Quantidade máxima de requisições simultâneas
+     */
+    LimiteConcorrencia(int limite) {
+        this.permissoes = new Semaphore(limite);
+    }
+
+    @Override
+    public void doFilter(HttpExchange troca, Chain cadeia) throws IOException {
+        if (!permissoes.tryAcquire()) {
+            try {
+                troca.getResponseHeaders().set("Retry-After", "1");
+                PessoaHandler.responder(troca, 503, Json.mensagem("erro", "Servidor ocupado, tente novamente."));
+            } finally {
+                troca.close();
+            }
+            return;
+        }
+        try {
+            cadeia.doFilter(troca);
+        } finally {
+            permissoes.release();
+        }
+    }
+
+    @Override
+    public String description() {
+        return "Limite de requisições simultâneas";
+    }
+}
@@ -0,0 +1,49 @@
+package com.crud.servidor;
+
+import com.crud.metricas.Metricas;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+
+/**
+ * Expõe as métricas da aplicação:
+ *
+ * - GET    /metricas  contadores de E/S e latências por operação
+ * - DELETE /metricas  zera as métricas
+ */
+class MetricasHandler implements HttpHandler {
+
+    static final String CAMINHO = "/metricas";
+
+    private final Metricas metricas;
+
+    /**
+     * @param metricas Métricas expostas
+     */
+    MetricasHandler(Metricas metricas) {
+        this.metricas = metricas;
+    }
+
+    @Override
+    public void handle(HttpExchange troca) throws IOException {
+        String caminho = troca.getRequestURI().getPath();
+        if (!caminho.equals(CAMINHO) && !caminho.equals(CAMINHO + "/")) {
+            PessoaHandler.responder(troca, 404, Json.mensagem("erro", "Recurso não encontrado: " + caminho));
+            return;
+        }
+
+        switch (troca.getRequestMethod()) {
+            case "GET":
+                PessoaHandler.responder(troca, 200, Json.metricas(metricas));
+                break;
+            case "DELETE":
+                metricas.zerar();
+                PessoaHandler.responder(troca, 200, Json.mensagem("mensagem", "Métricas zeradas."));
+                break;
+            default:
+                troca.getResponseHeaders().set("Allow", "GET, DELETE");
+                PessoaHandler.responder(troca, 405,
+                        Json.mensagem("erro", "Método não permitido: " + troca.getRequestMethod()));
+        }
+    }
+}
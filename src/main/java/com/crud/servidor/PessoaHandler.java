@@ -0,0 +1,294 @@
+package com.crud.servidor;
+
+import com.crud.model.Pagina;
+import com.crud.model.Pessoa;
+import com.crud.service.CodigoErro;
+import com.crud.service.PessoaService;
+import com.crud.service.Resultado;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trata as requisições da API de pessoas:
+ *
+ * - POST   /pessoas          cadastra (corpo: nome, email, telefone)
+ * - GET    /pessoas          lista (?pagina=&amp;tamanho= ou ?apos=&lt;email&gt;&amp;tamanho=)
+ * - GET    /pessoas/{email}  busca pelo email
+ * - PUT    /pessoas/{email}  atualiza (corpo: nome e/ou telefone)
+ * - DELETE /pessoas/{email}  remove
+ *
+ * As operações são delegadas ao {@link PessoaService}, e os códigos de erro
+ * do serviço são convertidos no código HTTP correspondente.
+ */
+class PessoaHandler implements HttpHandler {
+
+    static final String CAMINHO = "/pessoas";
+
+    private static final int TAMANHO_PAGINA_PADRAO = 20;
+    private static final int TAMANHO_PAGINA_MAXIMO = 1000;
+    private static final int TAMANHO_MAXIMO_CORPO = 64 * 1024;
+
+    private final PessoaService service;
+
+    /**
+     * @param service Serviço usado nas operações
+     */
+    PessoaHandler(PessoaService service) {
+        this.service = service;
+    }
+
+    @Override
+    public void handle(HttpExchange troca) throws IOException {
+        try {
+            String caminho = troca.getRequestURI().getPath();
+            String metodo = troca.getRequestMethod();
+
+            if (caminho.equals(CAMINHO) || caminho.equals(CAMINHO + "/")) {
+                if (metodo.equals("GET")) {
+                    listar(troca);
+                } else if (metodo.equals("POST")) {
+                    criar(troca);
+                } else {
+                    metodoNaoPermitido(troca, "GET, POST");
+                }
+                return;
+            }
+
+            if (!caminho.startsWith(CAMINHO + "/")) {
+                responder(troca, 404, Json.mensagem("erro", "Recurso não encontrado: " + caminho));
+                return;
+            }
+            String email = caminho.substring(CAMINHO.length() + 1);
+            switch (metodo) {
+                case "GET":
+                    buscar(troca, email);
+                    break;
+                case "PUT":
+                    atualizar(troca, email);
+                    break;
+                case "DELETE":
+                    remover(troca, email);
+                    break;
+                default:
+                    metodoNaoPermitido(troca, "GET, PUT, DELETE");
+            }
+        } catch (IllegalArgumentException e) {
+            responderErro(troca, 400, e.getMessage());
+        } catch (CorpoGrandeException e) {
+            responderErro(troca, 413, e.getMessage());
+        } catch (IOException e) {
+            responderErro(troca, 500, PessoaService.PREFIXO_ERRO_ARQUIVO + e.getMessage());
+        } finally {
+            troca.close();
+        }
+    }
+
+    private void listar(HttpExchange troca) throws IOException {
+        Map<String, String> parametros = lerParametros(troca.getRequestURI().getRawQuery());
+        int tamanho = lerInteiro(parametros, "tamanho", TAMANHO_PAGINA_PADRAO);
+        if (tamanho < 1 || tamanho > TAMANHO_PAGINA_MAXIMO) {
+            throw new IllegalArgumentException("Tamanho da página deve estar entre 1 e " + TAMANHO_PAGINA_MAXIMO);
+        }
+
+        // Com "dominio", lista os emails do domínio, paginando pelo cursor "apos"
+        if (parametros.containsKey("dominio")) {
+            String dominio = parametros.get("dominio");
+            if (dominio.trim().isEmpty()) {
+                throw new IllegalArgumentException("Domínio não pode ser vazio");
+            }
+            String cursor = parametros.getOrDefault("apos", "");
+            Resultado<Pagina<Pessoa>> resultado =
+                    service.paginarPorDominio(dominio, cursor.isEmpty() ? null : cursor, tamanho);
+            if (resultado.isSucesso()) {
+                responder(troca, 200, Json.pagina(resultado.getValor(), 0, tamanho));
+            } else {
+                responderFalha(troca, resultado);
+            }
+            return;
+        }
+
+        // Com "apos", a paginação é por cursor (ordem de email); sem ele, por número da página
+        if (parametros.containsKey("apos")) {
+            String cursor = parametros.get("apos");
+            Resultado<Pagina<Pessoa>> resultado = service.paginarAposEmail(cursor.isEmpty() ? null : cursor, tamanho);
+            if (resultado.isSucesso()) {
+                responder(troca, 200, Json.pagina(resultado.getValor(), 0, tamanho));
+            } else {
+                responderFalha(troca, resultado);
+            }
+            return;
+        }
+
+        int numero = lerInteiro(parametros, "pagina", 1);
+        if (numero < 1) {
+            throw new IllegalArgumentException("Número da página deve ser maior que zero");
+        }
+        Resultado<Pagina<Pessoa>> resultado = service.paginar(numero, tamanho);
+        if (resultado.isSucesso()) {
+            responder(troca, 200, Json.pagina(resultado.getValor(), numero, tamanho));
+        } else {
+            responderFalha(troca, resultado);
+        }
+    }
+
+    private void criar(HttpExchange troca) throws IOException {
+        Map<String, String> corpo = Json.lerObjeto(lerCorpo(troca));
+        Resultado<Pessoa> resultado = service.cadastrar(corpo.get("nome"), corpo.get("email"), corpo.get("telefone"));
+        if (resultado.isSucesso()) {
+            troca.getResponseHeaders().set("Location", CAMINHO + "/" + resultado.getValor().getEmail());
+            responder(troca, 201, Json.pessoa(resultado.getValor()));
+        } else {
+            responderFalha(troca, resultado);
+        }
+    }
+
+    private void buscar(HttpExchange troca, String email) throws IOException {
+        responderPessoa(troca, service.consultar(email));
+    }
+
+    private void atualizar(HttpExchange troca, String email) throws IOException {
+        Map<String, String> corpo = Json.lerObjeto(lerCorpo(troca));
+        responderPessoa(troca, service.alterar(email, corpo.get("nome"), corpo.get("telefone")));
+    }
+
+    private void remover(HttpExchange troca, String email) throws IOException {
+        Resultado<Void> resultado = service.excluir(email);
+        if (resultado.isSucesso()) {
+            troca.sendResponseHeaders(204, -1);
+        } else {
+            responderFalha(troca, resultado);
+        }
+    }
+
+    private static void responderPessoa(HttpExchange troca, Resultado<Pessoa> resultado) throws IOException {
+        if (resultado.isSucesso()) {
+            responder(troca, 200, Json.pessoa(resultado.getValor()));
+        } else {
+            responderFalha(troca, resultado);
+        }
+    }
+
+    /**
+     * Responde com a mensagem de erro do serviço e o código HTTP correspondente.
+     *
+     * @param troca Requisição em andamento
+     * @param resultado Resultado de falha
+     */
+    private static void responderFalha(HttpExchange troca, Resultado<?> resultado) throws IOException {
+        responder(troca, codigoHttp(resultado.getErro()), Json.mensagem("erro", resultado.getMensagem()));
+    }
+
+    private static int codigoHttp(CodigoErro erro) {
+        switch (erro) {
+            case EMAIL_EXISTENTE:
+            case LOTE_CANCELADO:
+                return 409;
+            case NAO_ENCONTRADA:
+                return 404;
+            case NOME_INVALIDO:
+            case EMAIL_INVALIDO:
+            case TELEFONE_INVALIDO:
+            case EMAIL_VAZIO:
+                return 400;
+            default:
+                return 500;
+        }
+    }
+
+    private static void metodoNaoPermitido(HttpExchange troca, String permitidos) throws IOException {
+        troca.getResponseHeaders().set("Allow", permitidos);
+        responder(troca, 405, Json.mensagem("erro", "Método não permitido: " + troca.getRequestMethod()));
+    }
+
+    /**
+     * Envia uma resposta JSON com tamanho conhecido, o que permite ao
+     * cliente reutilizar a conexão (keep-alive).
+     *
+     * @param troca Requisição em andamento
+     * @param codigo Código HTTP
+     * @param json Corpo da resposta
+     * @throws IOException Se a conexão com o cliente falhar
+     */
+    static void responder(HttpExchange troca, int codigo, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        troca.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        troca.sendResponseHeaders(codigo, bytes.length);
+        try (OutputStream saida = troca.getResponseBody()) {
+            saida.write(bytes);
+        }
+    }
+
+    /**
+     * Responde com erro, a menos que a resposta já tenha sido iniciada
+     * (nesse caso a falha foi na própria conexão e não há o que enviar).
+     */
+    private static void responderErro(HttpExchange troca, int codigo, String mensagem) throws IOException {
+        if (troca.getResponseCode() == -1) {
+            responder(troca, codigo, Json.mensagem("erro", mensagem));
+        }
+    }
+
+    /**
+     * Lê o corpo da requisição em UTF-8, limitado a 64 KB.
+     */
+    private static String lerCorpo(HttpExchange troca) throws IOException {
+        ByteArrayOutputStream corpo = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream entrada = troca.getRequestBody()) {
+            int lidos;
+            while ((lidos = entrada.read(buffer)) != -1) {
+                corpo.write(buffer, 0, lidos);
+                if (corpo.size() > TAMANHO_MAXIMO_CORPO) {
+                    throw new CorpoGrandeException();
+                }
+            }
+        }
+        return corpo.toString(StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> lerParametros(String consulta) {
+        Map<String, String> parametros = new HashMap<>();
+        if (consulta == null || consulta.isEmpty()) {
+            return parametros;
+        }
+        for (String par : consulta.split("&")) {
+            int separador = par.indexOf('=');
+            String nome = separador >= 0 ? par.substring(0, separador) : par;
+            String valor = separador >= 0 ? par.substring(separador + 1) : "";
+            parametros.put(URLDecoder.decode(nome, StandardCharsets.UTF_8),
+                    URLDecoder.decode(valor, StandardCharsets.UTF_8));
+        }
+        return parametros;
+    }
+
+    private static int lerInteiro(Map<String, String> parametros, String nome, int padrao) {
+        String valor = parametros.get(nome);
+        if (valor == null || valor.isEmpty()) {
+            return padrao;
+        }
+        try {
+            return Integer.parseInt(valor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Parâmetro '" + nome + "' deve ser um número inteiro");
+        }
+    }
+
+    /**
+     * Corpo da requisição acima do tamanho máximo aceito.
+     */
+    private static final class CorpoGrandeException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CorpoGrandeException() {
+            super("Corpo da requisição excede " + TAMANHO_MAXIMO_CORPO + " bytes");
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.crud.servidor;
+
+import com.crud.metricas.Metricas;
+import com.crud.service.PessoaService;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Servidor HTTP da API de pessoas, baseado no {@code com.sun.net.httpserver}
+ * do JDK.
+ *
+ * Cada requisição é atendida em uma thread virtual quando a JVM oferece
+ * esse recurso (Java 21 ou superior). Em versões anteriores, usa um pool de
+ * threads que cresce sob demanda. Em ambos os casos, a quantidade de
+ * requisições simultâneas é limitada por {@link LimiteConcorrencia}.
+ *
+ * As conexões são mantidas abertas entre requisições (keep-alive), já que
+ * todas as respostas informam o tamanho do corpo.
+ *
+ * Além da API de pessoas, expõe as métricas da aplicação em /metricas.
+ */
+public class ServidorHttp {
+
+    /** Porta padrão do servidor. */
+    public static final int PORTA_PADRAO = 8080;
+
+    /** Quantidade padrão de requisições simultâneas. */
+    public static final int LIMITE_PADRAO = 1000;
+
+    // Conexões aguardando aceite pelo sistema operacional
+    private static final int FILA_CONEXOES = 1024;
+
+    private final HttpServer servidor;
+    private final ExecutorService executor;
+    private final boolean threadsVirtuais;
+
+    /**
+     * Cria o servidor, sem iniciá-lo.
+     *
+     * @param service Serviço usado nas operações
+     * @param porta Porta TCP (0 para escolher uma porta livre)
+     * @param limiteConcorrencia Quantidade máxima de requisições simultâneas
+     * @throws IOException Se a porta não puder ser aberta
+     */
+    public ServidorHttp(PessoaService service, int porta, int limiteConcorrencia) throws IOException {
+        if (limiteConcorrencia < 1) {
+            throw new IllegalArgumentException("Limite de concorrência deve ser maior que zero");
+        }
+        this.servidor = HttpServer.create(new InetSocketAddress(porta), FILA_CONEXOES);
+        HttpContext contexto = servidor.createContext(PessoaHandler.CAMINHO, new PessoaHandler(service));
+        contexto.getFilters().add(new LimiteConcorrencia(limiteConcorrencia));
+        // Fora do limite de concorrência, para continuar acessível com o servidor saturado
+        servidor.createContext(MetricasHandler.CAMINHO, new MetricasHandler(Metricas.global()));
+
+        ExecutorService virtual = criarExecutorVirtual();
+        this.threadsVirtuais = virtual != null;
+        this.executor = virtual != null ? virtual : Executors.newCachedThreadPool();
+        servidor.setExecutor(executor);
+    }
+
+    /**
+     * Obtém o executor de threads virtuais por reflexão, para que o código
+     * compile e rode também em versões do Java sem esse recurso.
+     *
+     * @return Executor com uma thread virtual por tarefa, ou null se não disponível
+     */
+    private static ExecutorService criarExecutorVirtual() {
+        try {
+            Method fabrica = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) fabrica.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Inicia o atendimento das requisições.
+     */
+    public void iniciar() {
+        servidor.start();
+    }
+
+    /**
+     * Para o servidor, aguardando até o tempo informado pelas requisições em andamento.
+     *
+     * @param esperaSegundos Tempo máximo de espera
+     */
+    public void parar(int esperaSegundos) {
+        servidor.stop(esperaSegundos);
+        executor.shutdown();
+    }
+
+    /**
+     * Retorna a porta em que o servidor está escutando.
+     *
+     * @return Porta TCP
+     */
+    public int getPorta() {
+        return servidor.getAddress().getPort();
+    }
+
+    /**
+     * Indica se as requisições são atendidas em threads virtuais.
+     *
+     * @return true se a JVM oferece threads virtuais
+     */
+    public boolean usaThreadsVirtuais() {
+        return threadsVirtuais;
+    }
+}
@@ -8,6 +8,16 @@ import java.util.regex.Pattern;
  */
 public class Validador {
 
+    /** Mensagem de nome inválido. */
+    public static final String MENSAGEM_NOME_INVALIDO =
+            "Nome inválido! Deve ter pelo menos 2 caracteres, sem '|' nem quebras de linha.";
+
+    /** Mensagem de email inválido. */
+    public static final String MENSAGEM_EMAIL_INVALIDO = "Email inválido! Use o formato: exemplo@dominio.com";
+
+    /** Mensagem de telefone inválido. */
+    public static final String MENSAGEM_TELEFONE_INVALIDO = "Telefone inválido! Deve conter pelo menos 10 dígitos.";
+
     // Padrão para validação de email
     private static final Pattern EMAIL_PATTERN = Pattern.compile(
         "^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$"
@@ -19,7 +29,9 @@ public class Validador {
     );
 
     /**
-     * Valida o nome da pessoa.
+     * Valida o nome da pessoa. O nome não pode conter o separador de campos
+     * do arquivo de dados ('|') nem quebras de linha, que fariam a linha
+     * gravada ser descartada na leitura.
      * 
      * @param nome Nome a ser validado
      * @return true se o nome for válido
@@ -28,6 +40,9 @@ public class Validador {
         if (nome == null || nome.trim().isEmpty()) {
             return false;
         }
+        if (nome.indexOf('|') >= 0 || nome.indexOf('\n') >= 0 || nome.indexOf('\r') >= 0) {
+            return false;
+        }
         // Nome deve ter pelo menos 2 caracteres e não conter apenas espaços
         return nome.trim().length() >= 2;
     }
@@ -60,6 +75,28 @@ public class Validador {
         return TELEFONE_PATTERN.matcher(telefoneLimpo).matches() && telefoneLimpo.length() >= 10;
     }
 
+    /**
+     * Normaliza o telefone mantendo apenas os dígitos, para que formatos
+     * diferentes do mesmo número (ex: "(11) 98765-4321" e "11987654321")
+     * tenham a mesma chave de busca.
+     * 
+     * @param telefone Telefone a ser normalizado
+     * @return Apenas os dígitos do telefone (vazio se o telefone for null)
+     */
+    public static String normalizarTelefone(String telefone) {
+        if (telefone == null) {
+            return "";
+        }
+        StringBuilder digitos = new StringBuilder(telefone.length());
+        for (int i = 0; i < telefone.length(); i++) {
+            char c = telefone.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digitos.append(c);
+            }
+        }
+        return digitos.toString();
+    }
+
     /**
      * Valida todos os campos de uma pessoa.
      * 
@@ -70,13 +107,13 @@ public class Validador {
      */
     public static String validarDados(String nome, String email, String telefone) {
         if (!validarNome(nome)) {
-            return "Nome inválido! Deve ter pelo menos 2 caracteres.";
+            return MENSAGEM_NOME_INVALIDO;
         }
         if (!validarEmail(email)) {
-            return "Email inválido! Use o formato: exemplo@dominio.com";
+            return MENSAGEM_EMAIL_INVALIDO;
         }
         if (!validarTelefone(telefone)) {
-            return "Telefone inválido! Deve conter pelo menos 10 dígitos.";
+            return MENSAGEM_TELEFONE_INVALIDO;
         }
         return null;
     }
@@ -0,0 +1,174 @@
+package com.crud.util;
+
+/**
+ * Validação de dados sem alocação de memória.
+ *
+ * Aplica as mesmas regras do {@link Validador}, mas percorre cada campo uma
+ * única vez, caractere a caractere, sem criar Strings intermediárias (trim,
+ * replaceAll) nem Matchers. Indicada para validação em grande volume, como
+ * na importação de arquivos.
+ */
+public final class ValidadorRapido {
+
+    private static final int TAMANHO_MINIMO_NOME = 2;
+    private static final int MINIMO_DIGITOS_TELEFONE = 10;
+    private static final int MAXIMO_DIGITOS_TELEFONE = 15;
+
+    private ValidadorRapido() {
+    }
+
+    /**
+     * Valida o nome da pessoa: ao menos 2 caracteres, desconsiderando
+     * espaços no início e no fim, sem '|' nem quebras de linha.
+     *
+     * @param nome Nome a ser validado
+     * @return true se o nome for válido
+     */
+    public static boolean validarNome(String nome) {
+        if (nome == null) {
+            return false;
+        }
+        for (int i = 0; i < nome.length(); i++) {
+            char c = nome.charAt(i);
+            if (c == '|' || c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        int inicio = inicio(nome);
+        int fim = fim(nome, inicio);
+        return fim - inicio >= TAMANHO_MINIMO_NOME;
+    }
+
+    /**
+     * Valida o email da pessoa. Equivale ao padrão
+     * {@code [A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}} aplicado ao
+     * email sem espaços no início e no fim.
+     *
+     * @param email Email a ser validado
+     * @return true se o email for válido
+     */
+    public static boolean validarEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        int inicio = inicio(email);
+        int fim = fim(email, inicio);
+
+        // Parte local: um ou mais caracteres permitidos até o '@'
+        int i = inicio;
+        while (i < fim && caractereLocal(email.charAt(i))) {
+            i++;
+        }
+        if (i == inicio || i == fim || email.charAt(i) != '@') {
+            return false;
+        }
+        int inicioDominio = ++i;
+
+        // Domínio: apenas letras, dígitos, '.' e '-', guardando o último '.'
+        int ultimoPonto = -1;
+        for (; i < fim; i++) {
+            char c = email.charAt(i);
+            if (c == '.') {
+                ultimoPonto = i;
+            } else if (c != '-' && !letra(c) && !digito(c)) {
+                return false;
+            }
+        }
+        if (ultimoPonto <= inicioDominio || fim - ultimoPonto - 1 < 2) {
+            return false;
+        }
+
+        // Sufixo após o último '.': somente letras
+        for (i = ultimoPonto + 1; i < fim; i++) {
+            if (!letra(email.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Valida o telefone da pessoa: ignorando espaços, parênteses e hífens,
+     * deve ter de 10 a 15 caracteres entre dígitos e '+'.
+     *
+     * @param telefone Telefone a ser validado
+     * @return true se o telefone for válido
+     */
+    public static boolean validarTelefone(String telefone) {
+        if (telefone == null) {
+            return false;
+        }
+        int quantidade = 0;
+        for (int i = 0; i < telefone.length(); i++) {
+            char c = telefone.charAt(i);
+            if (digito(c) || c == '+') {
+                quantidade++;
+            } else if (!espaco(c) && c != '(' && c != ')' && c != '-') {
+                return false;
+            }
+        }
+        return quantidade >= MINIMO_DIGITOS_TELEFONE && quantidade <= MAXIMO_DIGITOS_TELEFONE;
+    }
+
+    /**
+     * Valida todos os campos de uma pessoa.
+     *
+     * @param nome Nome a ser validado
+     * @param email Email a ser validado
+     * @param telefone Telefone a ser validado
+     * @return Mensagem de erro ou null se tudo estiver válido
+     */
+    public static String validarDados(String nome, String email, String telefone) {
+        if (!validarNome(nome)) {
+            return Validador.MENSAGEM_NOME_INVALIDO;
+        }
+        if (!validarEmail(email)) {
+            return Validador.MENSAGEM_EMAIL_INVALIDO;
+        }
+        if (!validarTelefone(telefone)) {
+            return Validador.MENSAGEM_TELEFONE_INVALIDO;
+        }
+        return null;
+    }
+
+    /**
+     * Posição do primeiro caractere após os espaços iniciais,
+     * com o mesmo critério de {@link String#trim()}.
+     */
+    private static int inicio(String texto) {
+        int i = 0;
+        while (i < texto.length() && texto.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Posição seguinte ao último caractere antes dos espaços finais,
+     * com o mesmo critério de {@link String#trim()}.
+     */
+    private static int fim(String texto, int inicio) {
+        int fim = texto.length();
+        while (fim > inicio && texto.charAt(fim - 1) <= ' ') {
+            fim--;
+        }
+        return fim;
+    }
+
+    private static boolean caractereLocal(char c) {
+        return letra(c) || digito(c) || c == '+' || c == '_' || c == '.' || c == '-';
+    }
+
+    private static boolean letra(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    private static boolean digito(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /** Espaço no sentido de {@code \s} das expressões regulares. */
+    private static boolean espaco(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -0,0 +1,134 @@
+package com.crud.replicacao;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.FeedAlteracoes;
+import com.crud.repository.PessoaRepository;
+import com.crud.repository.PessoaRepositoryConcorrente;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Processo usado pelo {@link ReplicacaoMultiprocessoTest}: roda um primário
+ * ou uma réplica em uma JVM separada, comandado por linhas na entrada
+ * padrão. Cada comando recebe uma linha de resposta na saída padrão.
+ *
+ * Primário ({@code primario <arquivo> <porta> <limiteAtraso>}):
+ * - {@code incluir|alterar|remover <de> <ate>}: escreve as pessoas pDE..pATE;
+ * - {@code pausar} / {@code retomar}: fecha e reabre a porta de replicação
+ *   e responde a quantidade de assinantes do feed;
+ * - {@code estado}: responde {@code <ultimaSequencia> <resumo>}.
+ *
+ * Réplica ({@code replica <porta>}):
+ * - {@code estado <sequencia>}: aguarda a sequência e responde
+ *   {@code <sequenciaAplicada> <snapshots> <resumo>}.
+ *
+ * Ao iniciar, o primário responde {@code porta <n>} e a réplica {@code pronta}.
+ */
+public final class ProcessoReplicacao {
+
+    private static final long ESPERA_MS = 30_000;
+
+    private ProcessoReplicacao() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        BufferedReader entrada = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        if (args[0].equals("primario")) {
+            primario(entrada, args[1], Integer.parseInt(args[2]), Long.parseLong(args[3]));
+        } else {
+            replica(entrada, Integer.parseInt(args[1]));
+        }
+    }
+
+    private static void primario(BufferedReader entrada, String arquivo, int porta, long limite) throws Exception {
+        PessoaRepository repositorio = new PessoaRepositoryConcorrente(arquivo, 4);
+        FeedAlteracoes feed = new FeedAlteracoes(new File(arquivo + ".cdc"));
+        repositorio.setFeedAlteracoes(feed);
+        ServidorReplicacao servidor = new ServidorReplicacao(repositorio, porta, limite);
+        porta = servidor.getPorta();
+        responder("porta " + porta);
+
+        String linha;
+        while ((linha = entrada.readLine()) != null) {
+            String[] comando = linha.split(" ");
+            switch (comando[0]) {
+                case "incluir":
+                case "alterar":
+                case "remover":
+                    for (int i = Integer.parseInt(comando[1]); i <= Integer.parseInt(comando[2]); i++) {
+                        escrever(repositorio, comando[0], i);
+                    }
+                    responder("ok " + feed.getUltimaSequencia());
+                    break;
+                case "pausar":
+                    servidor.close();
+                    responder("ok " + feed.getAssinantes());
+                    break;
+                case "retomar":
+                    servidor = new ServidorReplicacao(repositorio, porta, limite);
+                    responder("ok " + feed.getAssinantes());
+                    break;
+                case "estado":
+                    responder(feed.getUltimaSequencia() + " " + resumo(repositorio.lerTodas()));
+                    break;
+                default:
+                    responder("erro " + linha);
+            }
+        }
+    }
+
+    private static void escrever(PessoaRepository repositorio, String operacao, int i) throws IOException {
+        String email = "p" + i + "@exemplo.com";
+        switch (operacao) {
+            case "incluir":
+                repositorio.adicionar(new Pessoa("Pessoa " + i, email, "11987654321"));
+                break;
+            case "alterar":
+                repositorio.atualizar(new Pessoa("Alterada " + i, email, "21987654321"));
+                break;
+            default:
+                repositorio.remover(email);
+        }
+    }
+
+    private static void replica(BufferedReader entrada, int porta) throws Exception {
+        try (PessoaRepositoryReplica replica = new PessoaRepositoryReplica("localhost", porta)) {
+            responder("pronta");
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                String[] comando = linha.split(" ");
+                if (comando[0].equals("estado")) {
+                    replica.aguardarSequencia(Long.parseLong(comando[1]), ESPERA_MS);
+                    responder(replica.getSequenciaAplicada() + " " + replica.getSnapshotsRecebidos() + " "
+                            + resumo(replica.lerTodas()));
+                } else {
+                    responder("erro " + linha);
+                }
+            }
+        }
+    }
+
+    /**
+     * Resume o conteúdo em quantidade e hash, independente da ordem.
+     */
+    static String resumo(List<Pessoa> pessoas) {
+        List<Pessoa> ordenadas = new ArrayList<>(pessoas);
+        ordenadas.sort(Comparator.comparing(Pessoa::getEmail));
+        StringBuilder conteudo = new StringBuilder();
+        for (Pessoa pessoa : ordenadas) {
+            conteudo.append(pessoa.toFileFormat()).append('\n');
+        }
+        return ordenadas.size() + ":" + Integer.toHexString(conteudo.toString().hashCode());
+    }
+
+    private static void responder(String resposta) {
+        System.out.println(resposta);
+        System.out.flush();
+    }
+}
@@ -0,0 +1,162 @@
+package com.crud.replicacao;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Replicação entre JVMs separadas no localhost: um primário e duas réplicas,
+ * cada um em um {@link ProcessoReplicacao}.
+ *
+ * Cobre a sincronização inicial por snapshot, o acompanhamento por eventos,
+ * a reconexão a partir da última sequência depois de o primário cair e
+ * voltar, e o snapshot enviado à réplica que fica atrasada demais.
+ */
+class ReplicacaoMultiprocessoTest {
+
+    private static final long LIMITE_ATRASO = 50;
+    private static final long ESPERA_S = 60;
+
+    @TempDir
+    Path diretorio;
+
+    private final List<Processo> processos = new ArrayList<>();
+
+    @AfterEach
+    void encerrar() {
+        for (Processo processo : processos) {
+            processo.processo.destroyForcibly();
+        }
+    }
+
+    @Test
+    void replicasAcompanhamOPrimarioEmOutrasJvms() throws Exception {
+        String arquivo = diretorio.resolve("pessoas.txt").toString();
+        Processo primario = iniciar("primario", arquivo, "0", String.valueOf(LIMITE_ATRASO));
+        String porta = primario.resposta().substring("porta ".length());
+        primario.enviar("incluir 1 20");
+
+        List<Processo> replicas = List.of(iniciar("replica", porta), iniciar("replica", porta));
+        for (Processo replica : replicas) {
+            assertEquals("pronta", replica.resposta());
+        }
+
+        // Sincronização inicial: réplicas novas recebem o estado completo
+        verificar(primario, replicas, 20, 1);
+
+        // Acompanhamento: as escritas seguintes chegam como eventos
+        primario.enviar("incluir 21 50");
+        primario.enviar("alterar 1 10");
+        verificar(primario, replicas, 60, 1);
+
+        // O primário cai e volta na mesma porta: as réplicas reconectam
+        // informando a última sequência e recebem só os eventos seguintes
+        primario.processo.destroyForcibly().waitFor(ESPERA_S, TimeUnit.SECONDS);
+        primario = iniciar("primario", arquivo, porta, String.valueOf(LIMITE_ATRASO));
+        assertEquals("porta " + porta, primario.resposta());
+        primario.enviar("remover 1 5");
+        primario.enviar("alterar 11 20");
+        verificar(primario, replicas, 75, 1);
+
+        // Com a porta fechada, as réplicas ficam mais de LIMITE_ATRASO
+        // eventos atrás e, ao reconectar, recebem um snapshot. O servidor
+        // fechado deixa de assinar o feed
+        assertEquals("0", primario.enviar("pausar"));
+        primario.enviar("incluir 51 150");
+        primario.enviar("alterar 51 100");
+        assertEquals("1", primario.enviar("retomar"));
+        verificar(primario, replicas, 225, 2);
+
+        // Depois do snapshot, voltam a receber eventos
+        primario.enviar("remover 140 150");
+        verificar(primario, replicas, 236, 2);
+    }
+
+    /**
+     * Confere que o primário está na sequência esperada e que cada réplica
+     * a aplicou, com os mesmos dados e a quantidade de snapshots esperada.
+     */
+    private static void verificar(Processo primario, List<Processo> replicas, long sequencia, int snapshots)
+            throws Exception {
+        String[] estado = primario.enviar("estado").split(" ");
+        assertEquals(String.valueOf(sequencia), estado[0]);
+        for (Processo replica : replicas) {
+            String esperado = sequencia + " " + snapshots + " " + estado[1];
+            assertEquals(esperado, replica.enviar("estado " + sequencia));
+        }
+    }
+
+    private Processo iniciar(String... argumentos) throws IOException {
+        List<String> comando = new ArrayList<>();
+        comando.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        comando.add("-cp");
+        comando.add(System.getProperty("java.class.path"));
+        comando.add(ProcessoReplicacao.class.getName());
+        comando.addAll(List.of(argumentos));
+        Processo processo = new Processo(new ProcessBuilder(comando)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start());
+        processos.add(processo);
+        return processo;
+    }
+
+    /**
+     * JVM filha, com a saída lida por uma thread para que as respostas
+     * possam ser aguardadas com prazo.
+     */
+    private static final class Processo {
+        final Process processo;
+        private final Writer comandos;
+        private final BlockingQueue<String> respostas = new LinkedBlockingQueue<>();
+
+        Processo(Process processo) {
+            this.processo = processo;
+            this.comandos = new OutputStreamWriter(processo.getOutputStream(), StandardCharsets.UTF_8);
+            Thread leitura = new Thread(() -> {
+                try (BufferedReader saida = new BufferedReader(
+                        new InputStreamReader(processo.getInputStream(), StandardCharsets.UTF_8))) {
+                    String linha;
+                    while ((linha = saida.readLine()) != null) {
+                        respostas.add(linha);
+                    }
+                } catch (IOException e) {
+                    // Processo encerrado
+                }
+            });
+            leitura.setDaemon(true);
+            leitura.start();
+        }
+
+        String enviar(String comando) throws Exception {
+            comandos.write(comando + "\n");
+            comandos.flush();
+            String resposta = resposta();
+            if (resposta.startsWith("ok ")) {
+                return resposta.substring(3);
+            }
+            return resposta;
+        }
+
+        String resposta() throws InterruptedException {
+            String resposta = respostas.poll(ESPERA_S, TimeUnit.SECONDS);
+            assertNotNull(resposta, "sem resposta do processo " + processo.pid());
+            return resposta;
+        }
+    }
+}
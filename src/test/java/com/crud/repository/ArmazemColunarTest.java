@@ -0,0 +1,103 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Memória ocupada e compactação do {@link ArmazemColunar}.
+ */
+class ArmazemColunarTest {
+
+    private static final int QUANTIDADE = 200_000;
+    private static final double ECONOMIA_MINIMA = 3.0;
+
+    private static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela"};
+    private static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira"};
+    private static final String[] DOMINIOS = {"exemplo.com", "empresa.com.br", "email.org"};
+
+    private static final MemoryMXBean MEMORIA = ManagementFactory.getMemoryMXBean();
+
+    /** Mantém a estrutura medida alcançável até a medição. */
+    private static Object retida;
+
+    private static Pessoa pessoa(int i) {
+        String nome = NOMES[i % NOMES.length] + " " + SOBRENOMES[(i / NOMES.length) % SOBRENOMES.length];
+        String telefone = String.format("(%02d) 9%04d-%04d", 11 + i % 80, (i / 10000) % 10000, i % 10000);
+        return new Pessoa(nome, "pessoa" + i + "@" + DOMINIOS[i % DOMINIOS.length], telefone);
+    }
+
+    @Test
+    void ocupaMenosHeapQueUmaListaDePessoas() {
+        long lista = medir(() -> {
+            List<Pessoa> pessoas = new ArrayList<>();
+            for (int i = 0; i < QUANTIDADE; i++) {
+                pessoas.add(pessoa(i));
+            }
+            return pessoas;
+        });
+        long colunar = medir(() -> {
+            ArmazemColunar armazem = new ArmazemColunar();
+            for (int i = 0; i < QUANTIDADE; i++) {
+                armazem.adicionar(pessoa(i));
+            }
+            return armazem;
+        });
+
+        double economia = (double) lista / colunar;
+        assertTrue(economia >= ECONOMIA_MINIMA, String.format(
+                "economia de %.2fx (lista %,d bytes, colunar %,d bytes)", economia, lista, colunar));
+    }
+
+    @Test
+    void remocoesNaoCompactamDuranteAIteracao() {
+        ArmazemColunar armazem = new ArmazemColunar();
+        for (int i = 0; i < 100; i++) {
+            armazem.adicionar(pessoa(i));
+        }
+        Iterator<Pessoa> iterador = armazem.iterator();
+        assertEquals("pessoa0@exemplo.com", iterador.next().getEmail());
+        for (int i = 1; i < 100; i += 2) {
+            armazem.remover(pessoa(i).getEmail());
+        }
+        armazem.remover(pessoa(2).getEmail());
+
+        List<String> restantes = new ArrayList<>();
+        iterador.forEachRemaining(p -> restantes.add(p.getEmail()));
+        assertEquals(48, restantes.size());
+        assertEquals(pessoa(4).getEmail(), restantes.get(0));
+
+        // Com o iterador no fim, a próxima remoção compacta
+        armazem.remover(pessoa(4).getEmail());
+        assertEquals(48, armazem.tamanho());
+        assertEquals(48, armazem.comoLista().size());
+        assertEquals(pessoa(0).getEmail(), armazem.comoLista().get(0).getEmail());
+        assertEquals(pessoa(6).getEmail(), armazem.comoLista().get(1).getEmail());
+    }
+
+    /**
+     * Mede o aumento do heap usado, após coletas, ao montar a estrutura.
+     */
+    private static long medir(Supplier<Object> montagem) {
+        long antes = heapUsado();
+        retida = montagem.get();
+        long depois = heapUsado();
+        retida = null;
+        return depois - antes;
+    }
+
+    private static long heapUsado() {
+        for (int i = 0; i < 4; i++) {
+            System.gc();
+        }
+        return MEMORIA.getHeapMemoryUsage().getUsed();
+    }
+}
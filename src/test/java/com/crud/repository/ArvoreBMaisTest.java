@@ -0,0 +1,213 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link ArvoreBMais} comparada a um {@link TreeMap}, com um buffer pequeno
+ * para que as páginas sejam descartadas e relidas no meio das operações.
+ */
+class ArvoreBMaisTest {
+
+    // Mínimo aceito pela árvore: bem menos páginas que as folhas criadas
+    private static final int PAGINAS_EM_MEMORIA = 16;
+
+    @TempDir
+    Path diretorio;
+
+    private File arquivo() {
+        return diretorio.resolve("indice.bpt").toFile();
+    }
+
+    /**
+     * Chaves com tamanhos variados e prefixos repetidos, para que as divisões
+     * gerem separadores de tamanhos diferentes.
+     */
+    private static String chave(Random aleatorio) {
+        String[] prefixos = {"a", "ana.", "b", "bruno.", "c@", "carla.", "é", "z"};
+        StringBuilder chave = new StringBuilder(prefixos[aleatorio.nextInt(prefixos.length)]);
+        int tamanho = aleatorio.nextInt(10) == 0 ? 100 + aleatorio.nextInt(300) : 1 + aleatorio.nextInt(20);
+        for (int i = 0; i < tamanho; i++) {
+            chave.append((char) ('a' + aleatorio.nextInt(6)));
+        }
+        return chave.toString();
+    }
+
+    private static void assertMesmoConteudo(TreeMap<String, Long> esperado, ArvoreBMais arvore) throws Exception {
+        assertEquals(esperado.size(), arvore.getQuantidade());
+        List<ArvoreBMais.Entrada> entradas = arvore.listar(null, null, Integer.MAX_VALUE);
+        assertEquals(esperado.size(), entradas.size());
+        int i = 0;
+        for (Map.Entry<String, Long> entrada : esperado.entrySet()) {
+            assertEquals(entrada.getKey(), entradas.get(i).getChave());
+            assertEquals(entrada.getValue().longValue(), entradas.get(i).getValor());
+            i++;
+        }
+    }
+
+    /**
+     * Fecha o arquivo sem sincronizar, como em uma queda do processo.
+     */
+    private static void abandonar(ArvoreBMais arvore) throws Exception {
+        Field campo = ArvoreBMais.class.getDeclaredField("canal");
+        campo.setAccessible(true);
+        ((FileChannel) campo.get(arvore)).close();
+    }
+
+    @Test
+    void operacoesAleatoriasConferemComTreeMap() throws Exception {
+        Random aleatorio = new Random(20240611L);
+        TreeMap<String, Long> esperado = new TreeMap<>();
+        List<String> usadas = new ArrayList<>();
+
+        try (ArvoreBMais arvore = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA)) {
+            for (int operacao = 0; operacao < 30_000; operacao++) {
+                int sorteio = aleatorio.nextInt(10);
+                String chave = usadas.isEmpty() || sorteio < 5
+                        ? chave(aleatorio) : usadas.get(aleatorio.nextInt(usadas.size()));
+                if (sorteio < 7) {
+                    long valor = aleatorio.nextInt(1_000_000);
+                    Long anterior = esperado.put(chave, valor);
+                    assertEquals(anterior != null ? anterior : -1, arvore.inserir(chave, valor));
+                    usadas.add(chave);
+                } else if (sorteio < 9) {
+                    assertEquals(esperado.remove(chave) != null, arvore.remover(chave));
+                } else {
+                    Long valor = esperado.get(chave);
+                    assertEquals(valor != null ? valor : -1, arvore.buscar(chave));
+                }
+                if (operacao % 5_000 == 0) {
+                    assertMesmoConteudo(esperado, arvore);
+                }
+            }
+            assertMesmoConteudo(esperado, arvore);
+            assertTrue(arvore.getAltura() > 1);
+            assertTrue(arvore.getPaginas() > PAGINAS_EM_MEMORIA * 4);
+            assertTrue(arvore.getLeiturasPagina() > 0, "as páginas devem ter saído do buffer");
+        }
+
+        try (ArvoreBMais reaberta = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA)) {
+            assertTrue(reaberta.isIntegra());
+            assertMesmoConteudo(esperado, reaberta);
+        }
+    }
+
+    @Test
+    void cargaOrdenadaConfereComTreeMap() throws Exception {
+        Random aleatorio = new Random(7L);
+        TreeMap<String, Long> esperado = new TreeMap<>();
+        while (esperado.size() < 20_000) {
+            esperado.put(chave(aleatorio), (long) esperado.size());
+        }
+        List<ArvoreBMais.Entrada> entradas = new ArrayList<>();
+        esperado.forEach((chave, valor) -> entradas.add(new ArvoreBMais.Entrada(chave, valor)));
+
+        try (ArvoreBMais arvore = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA)) {
+            arvore.carregarOrdenado(entradas.iterator());
+            assertMesmoConteudo(esperado, arvore);
+            for (int i = 0; i < 2_000; i++) {
+                String chave = chave(aleatorio);
+                Long valor = esperado.get(chave);
+                assertEquals(valor != null ? valor : -1, arvore.buscar(chave));
+            }
+        }
+    }
+
+    @Test
+    void listaComCursorEPrefixo() throws Exception {
+        Random aleatorio = new Random(42L);
+        TreeMap<String, Long> esperado = new TreeMap<>();
+        try (ArvoreBMais arvore = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA)) {
+            for (int i = 0; i < 5_000; i++) {
+                String chave = chave(aleatorio);
+                esperado.put(chave, (long) i);
+                arvore.inserir(chave, i);
+            }
+            // Chaves iguais ao prefixo são listadas
+            for (String chave : new String[] {"b", "bruno."}) {
+                esperado.put(chave, 0L);
+                arvore.inserir(chave, 0);
+            }
+
+            for (String prefixo : new String[] {null, "ana.", "b", "c@", "é", "inexistente"}) {
+                // Páginas pequenas, passando a última chave de cada página como cursor
+                List<String> paginadas = new ArrayList<>();
+                String cursor = null;
+                while (true) {
+                    List<ArvoreBMais.Entrada> pagina = arvore.listar(cursor, prefixo, 7);
+                    for (ArvoreBMais.Entrada entrada : pagina) {
+                        paginadas.add(entrada.getChave());
+                    }
+                    if (pagina.size() < 7) {
+                        break;
+                    }
+                    cursor = pagina.get(pagina.size() - 1).getChave();
+                }
+                assertEquals(comPrefixo(esperado, null, prefixo), paginadas, "prefixo " + prefixo);
+            }
+
+            // Cursor antes, dentro e depois do intervalo do prefixo
+            for (String cursor : new String[] {"a", "bruno.", "bruno.ccc", "c", "zz"}) {
+                List<String> listadas = new ArrayList<>();
+                for (ArvoreBMais.Entrada entrada : arvore.listar(cursor, "bruno.", Integer.MAX_VALUE)) {
+                    listadas.add(entrada.getChave());
+                }
+                assertEquals(comPrefixo(esperado, cursor, "bruno."), listadas, "cursor " + cursor);
+            }
+        }
+    }
+
+    private static List<String> comPrefixo(TreeMap<String, Long> chaves, String apos, String prefixo) {
+        List<String> selecionadas = new ArrayList<>();
+        for (String chave : apos != null ? chaves.tailMap(apos, false).keySet() : chaves.keySet()) {
+            if (prefixo == null || chave.startsWith(prefixo)) {
+                selecionadas.add(chave);
+            }
+        }
+        return selecionadas;
+    }
+
+    @Test
+    void reaberturaSemSincronizarNaoEIntegra() throws Exception {
+        try (ArvoreBMais arvore = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA)) {
+            arvore.inserir("ana@exemplo.com", 1);
+        }
+
+        ArvoreBMais alterada = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA);
+        assertTrue(alterada.isIntegra());
+        for (int i = 0; i < 5_000; i++) {
+            alterada.inserir("pessoa" + i + "@exemplo.com", i);
+        }
+        abandonar(alterada);
+
+        try (ArvoreBMais reaberta = new ArvoreBMais(arquivo(), PAGINAS_EM_MEMORIA)) {
+            assertFalse(reaberta.isIntegra());
+        }
+
+        // Sincronizada, é íntegra mesmo sem fechar
+        File outro = diretorio.resolve("outro.bpt").toFile();
+        try (ArvoreBMais arvore = new ArvoreBMais(outro, PAGINAS_EM_MEMORIA)) {
+            for (int i = 0; i < 5_000; i++) {
+                arvore.inserir("pessoa" + i + "@exemplo.com", i);
+            }
+            arvore.sincronizar();
+            ArvoreBMais copia = new ArvoreBMais(outro, PAGINAS_EM_MEMORIA);
+            assertEquals(5_000, copia.getQuantidade());
+            assertTrue(copia.isIntegra());
+            abandonar(copia);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Entrega de eventos do {@link FeedAlteracoes} a assinantes lentos.
+ */
+class FeedAlteracoesTest {
+
+    private static final int EVENTOS = 1_000;
+
+    @TempDir
+    Path diretorio;
+
+    /**
+     * Assinante que só pede eventos quando o teste mandar e guarda as
+     * sequências recebidas.
+     */
+    private static final class Controlado implements Flow.Subscriber<Alteracao> {
+        final List<Long> recebidas = new ArrayList<>();
+        final CountDownLatch inscrito = new CountDownLatch(1);
+        final CountDownLatch concluido = new CountDownLatch(1);
+        volatile Flow.Subscription assinatura;
+        private final long atrasoPorEventoMs;
+
+        Controlado(long atrasoPorEventoMs) {
+            this.atrasoPorEventoMs = atrasoPorEventoMs;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription assinatura) {
+            this.assinatura = assinatura;
+            inscrito.countDown();
+        }
+
+        @Override
+        public void onNext(Alteracao alteracao) {
+            synchronized (recebidas) {
+                recebidas.add(alteracao.getSequencia());
+            }
+            if (atrasoPorEventoMs > 0) {
+                try {
+                    Thread.sleep(atrasoPorEventoMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        @Override
+        public void onError(Throwable erro) {
+            concluido.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            concluido.countDown();
+        }
+
+        List<Long> sequencias() {
+            synchronized (recebidas) {
+                return new ArrayList<>(recebidas);
+            }
+        }
+    }
+
+    private static void publicar(FeedAlteracoes feed, int quantidade) throws Exception {
+        long inicio = feed.getUltimaSequencia();
+        for (int i = 1; i <= quantidade; i++) {
+            long n = inicio + i;
+            feed.publicar(Alteracao.Tipo.INCLUSAO, null,
+                    new Pessoa("Pessoa " + n, "p" + n + "@exemplo.com", "11987654321"));
+        }
+    }
+
+    private static void assertSequenciasDe(long primeira, long ultima, List<Long> sequencias) {
+        assertEquals(ultima - primeira + 1, sequencias.size());
+        for (int i = 0; i < sequencias.size(); i++) {
+            assertEquals(primeira + i, sequencias.get(i).longValue());
+        }
+    }
+
+    @Test
+    void assinanteParadoNaoBloqueiaQuemGravaNemPerdeEventos() throws Exception {
+        try (FeedAlteracoes feed = new FeedAlteracoes(diretorio.resolve("alteracoes.log").toFile(), 4)) {
+            Controlado parado = new Controlado(0);
+            feed.subscribe(parado);
+            assertTrue(parado.inscrito.await(10, TimeUnit.SECONDS));
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> publicar(feed, EVENTOS));
+            assertEquals(EVENTOS, feed.getUltimaSequencia());
+            assertTrue(parado.sequencias().isEmpty());
+
+            // Atrasado além dos eventos em memória: continua pelo log, sem lacunas
+            parado.assinatura.request(Long.MAX_VALUE);
+            publicar(feed, 10);
+            long limite = System.currentTimeMillis() + 10_000;
+            while (parado.sequencias().size() < EVENTOS + 10 && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertSequenciasDe(1, EVENTOS + 10, parado.sequencias());
+
+            try (Stream<Alteracao> eventos = feed.ler(10)) {
+                List<Long> sequencias = eventos.map(Alteracao::getSequencia).collect(Collectors.toList());
+                assertSequenciasDe(11, EVENTOS + 10, sequencias);
+            }
+        }
+    }
+
+    @Test
+    void assinanteLentoRecebeTudoNoRitmoDosPedidos() throws Exception {
+        FeedAlteracoes feed = new FeedAlteracoes(diretorio.resolve("alteracoes.log").toFile(), 8);
+        Controlado lento = new Controlado(1);
+        feed.subscribe(lento);
+        assertTrue(lento.inscrito.await(10, TimeUnit.SECONDS));
+        lento.assinatura.request(5);
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> publicar(feed, 200));
+        Thread.sleep(200);
+        assertSequenciasDe(1, 5, lento.sequencias());
+
+        // Pedidos em partes: entrega em ordem, mesmo depois do fechamento do feed
+        feed.close();
+        for (int i = 0; i < 39; i++) {
+            lento.assinatura.request(5);
+        }
+        assertTrue(lento.concluido.await(10, TimeUnit.SECONDS));
+        assertSequenciasDe(1, 200, lento.sequencias());
+        assertEquals(0, feed.getAssinantes());
+    }
+
+    @Test
+    void assinaturaAPartirDeUmaSequenciaRecebeOHistorico() throws Exception {
+        try (FeedAlteracoes feed = new FeedAlteracoes(diretorio.resolve("alteracoes.log").toFile(), 16)) {
+            publicar(feed, 100);
+            Controlado assinante = new Controlado(0);
+            feed.assinar(assinante, 40);
+            assertTrue(assinante.inscrito.await(10, TimeUnit.SECONDS));
+            assinante.assinatura.request(Long.MAX_VALUE);
+            publicar(feed, 20);
+            long limite = System.currentTimeMillis() + 10_000;
+            while (assinante.sequencias().size() < 80 && System.currentTimeMillis() < limite) {
+                Thread.sleep(10);
+            }
+            assertSequenciasDe(41, 120, assinante.sequencias());
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pagina;
+import com.crud.model.Pessoa;
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * {@link PessoaRepositoryArvore} comparado a um {@link TreeMap}, com índices
+ * de poucas páginas em memória, reaberto depois de uma queda e compactado.
+ */
+class PessoaRepositoryArvoreTest {
+
+    private static final int PAGINAS_EM_MEMORIA = 16;
+
+    @TempDir
+    Path diretorio;
+
+    private PessoaRepositoryArvore abrir() {
+        return new PessoaRepositoryArvore(diretorio.resolve("pessoas.txt").toString(), PAGINAS_EM_MEMORIA);
+    }
+
+    private static String linha(Pessoa pessoa) {
+        return pessoa == null ? null : pessoa.getNome() + "|" + pessoa.getEmail() + "|" + pessoa.getTelefone();
+    }
+
+    private static List<String> linhas(List<Pessoa> pessoas) {
+        return pessoas.stream().map(PessoaRepositoryArvoreTest::linha).collect(Collectors.toList());
+    }
+
+    /**
+     * Fecha os arquivos sem sincronizar os índices, como em uma queda do processo.
+     */
+    private static void abandonar(PessoaRepositoryArvore repositorio) throws Exception {
+        for (String nome : new String[] {"porEmail", "porDominio", "dados"}) {
+            Field campo = PessoaRepositoryArvore.class.getDeclaredField(nome);
+            campo.setAccessible(true);
+            Object valor = campo.get(repositorio);
+            if (valor instanceof ArvoreBMais) {
+                Field canal = ArvoreBMais.class.getDeclaredField("canal");
+                canal.setAccessible(true);
+                valor = canal.get(valor);
+            }
+            ((FileChannel) valor).close();
+            campo.set(repositorio, null);
+        }
+    }
+
+    /**
+     * Confere busca, paginação por email, consulta por domínio e leitura
+     * completa contra o conteúdo esperado (chave: email normalizado).
+     */
+    private static void assertMesmoConteudo(TreeMap<String, Pessoa> esperado, PessoaRepositoryArvore repositorio)
+            throws Exception {
+        assertEquals(esperado.size(), repositorio.getQuantidade());
+
+        List<Pessoa> paginadas = new ArrayList<>();
+        String cursor = null;
+        Pagina<Pessoa> pagina;
+        do {
+            pagina = repositorio.listarAposEmail(cursor, 13);
+            paginadas.addAll(pagina.getItens());
+            cursor = pagina.getProximoCursor();
+        } while (pagina.temProxima());
+        assertEquals(linhas(new ArrayList<>(esperado.values())), linhas(paginadas));
+
+        for (int d = 0; d < 4; d++) {
+            String dominio = "d" + d + ".com";
+            TreeMap<String, Pessoa> doDominio = new TreeMap<>();
+            esperado.forEach((email, pessoa) -> {
+                if (email.endsWith("@" + dominio)) {
+                    doDominio.put(email.substring(0, email.indexOf('@')), pessoa);
+                }
+            });
+            List<Pessoa> listadas = new ArrayList<>();
+            cursor = null;
+            do {
+                pagina = repositorio.listarPorDominio(dominio.toUpperCase(), cursor, 7);
+                listadas.addAll(pagina.getItens());
+                cursor = pagina.getProximoCursor();
+            } while (pagina.temProxima());
+            assertEquals(linhas(new ArrayList<>(doDominio.values())), linhas(listadas), dominio);
+        }
+
+        List<String> todas = linhas(repositorio.lerTodas());
+        todas.sort(null);
+        List<String> esperadas = linhas(new ArrayList<>(esperado.values()));
+        esperadas.sort(null);
+        assertEquals(esperadas, todas);
+    }
+
+    @Test
+    void operacoesAleatoriasConferemComTreeMap() throws Exception {
+        Random aleatorio = new Random(20240612L);
+        TreeMap<String, Pessoa> esperado = new TreeMap<>();
+        PessoaRepositoryArvore repositorio = abrir();
+        try {
+            for (int operacao = 0; operacao < 8_000; operacao++) {
+                String usuario = "u" + aleatorio.nextInt(4_000);
+                String email = (aleatorio.nextBoolean() ? usuario.toUpperCase() : usuario)
+                        + "@d" + aleatorio.nextInt(4) + ".com";
+                String chave = PessoaRepository.normalizarEmail(email);
+                Pessoa pessoa = new Pessoa("Pessoa " + operacao, email, "11" + (987654321 - operacao));
+                int sorteio = aleatorio.nextInt(10);
+                if (sorteio < 5) {
+                    boolean nova = !esperado.containsKey(chave);
+                    assertEquals(nova, repositorio.adicionar(pessoa));
+                    if (nova) {
+                        esperado.put(chave, pessoa);
+                    }
+                } else if (sorteio < 7) {
+                    boolean existe = esperado.containsKey(chave);
+                    assertEquals(existe, repositorio.atualizar(pessoa));
+                    if (existe) {
+                        esperado.put(chave, pessoa);
+                    }
+                } else if (sorteio < 9) {
+                    assertEquals(esperado.remove(chave) != null, repositorio.remover(email));
+                } else {
+                    assertEquals(linha(esperado.get(chave)), linha(repositorio.buscarPorEmail(email)));
+                }
+                if (operacao % 2_000 == 0) {
+                    assertMesmoConteudo(esperado, repositorio);
+                }
+            }
+            assertMesmoConteudo(esperado, repositorio);
+        } finally {
+            repositorio.close();
+        }
+
+        PessoaRepositoryArvore reaberto = abrir();
+        try {
+            reaberto.abrir();
+            assertEquals(0, reaberto.getReconstrucoes());
+            assertMesmoConteudo(esperado, reaberto);
+        } finally {
+            reaberto.close();
+        }
+    }
+
+    @Test
+    void reaberturaDepoisDeUmaQuedaReconstroiOsIndices() throws Exception {
+        PessoaRepositoryArvore repositorio = abrir();
+        TreeMap<String, Pessoa> esperado = new TreeMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            Pessoa pessoa = new Pessoa("Pessoa " + i, "p" + i + "@d" + (i % 4) + ".com", "11987654321");
+            repositorio.adicionar(pessoa);
+            esperado.put(pessoa.getEmail(), pessoa);
+        }
+        repositorio.close();
+
+        // Alterações sem sincronizar os índices
+        repositorio.remover("p1@d1.com");
+        esperado.remove("p1@d1.com");
+        Pessoa alterada = new Pessoa("Alterada", "p2@d2.com", "21987654321");
+        repositorio.atualizar(alterada);
+        esperado.put(alterada.getEmail(), alterada);
+        Pessoa nova = new Pessoa("Nova", "nova@d0.com", "31987654321");
+        repositorio.adicionar(nova);
+        esperado.put(nova.getEmail(), nova);
+        abandonar(repositorio);
+
+        PessoaRepositoryArvore reaberto = abrir();
+        try {
+            reaberto.abrir();
+            assertEquals(1, reaberto.getReconstrucoes());
+            assertMesmoConteudo(esperado, reaberto);
+            assertNull(reaberto.buscarPorEmail("p1@d1.com"));
+        } finally {
+            reaberto.close();
+        }
+
+        // Fechado normalmente, não reconstrói de novo
+        PessoaRepositoryArvore sincronizado = abrir();
+        try {
+            sincronizado.abrir();
+            assertEquals(0, sincronizado.getReconstrucoes());
+        } finally {
+            sincronizado.close();
+        }
+    }
+
+    @Test
+    void compactaQuandoOLixoPassaDoMinimoEDaMetadeDoArquivo() throws Exception {
+        Path arquivo = diretorio.resolve("pessoas.txt");
+        String sufixo = "x".repeat(500);
+        PessoaRepositoryArvore repositorio = abrir();
+        try (Closeable fechar = repositorio) {
+            // Poucos bytes apagados, ainda que mais da metade do arquivo: não compacta
+            for (int i = 0; i < 100; i++) {
+                repositorio.adicionar(new Pessoa("Pessoa " + i + sufixo, "p" + i + "@d0.com", "11987654321"));
+            }
+            for (int i = 0; i < 90; i++) {
+                repositorio.remover("p" + i + "@d0.com");
+            }
+            assertTrue(repositorio.getLixo() * 2 > Files.size(arquivo));
+            assertEquals(0, repositorio.getCompactacoes());
+
+            // Arquivo grande: passa do mínimo antes de chegar à metade
+            List<Pessoa> pessoas = new ArrayList<>();
+            for (int i = 100; i < 5_100; i++) {
+                pessoas.add(new Pessoa("Pessoa " + i + sufixo, "p" + i + "@d0.com", "11987654321"));
+            }
+            repositorio.adicionarTodas(pessoas);
+            boolean passouDoMinimo = false;
+            int i = 100;
+            while (repositorio.getCompactacoes() == 0) {
+                long lixo = repositorio.getLixo();
+                long tamanho = Files.size(arquivo);
+                assertTrue(lixo < PessoaRepositoryArvore.LIXO_MINIMO_COMPACTACAO || lixo * 2 < tamanho,
+                        "deveria ter compactado com " + lixo + " de " + tamanho + " bytes");
+                passouDoMinimo |= lixo >= PessoaRepositoryArvore.LIXO_MINIMO_COMPACTACAO;
+                assertTrue(repositorio.remover("p" + i++ + "@d0.com"));
+            }
+            assertTrue(passouDoMinimo, "a metade do arquivo deveria ser o limite que falta");
+
+            assertEquals(1, repositorio.getCompactacoes());
+            assertEquals(0, repositorio.getLixo());
+            long restantes = 5_100 - i + 10;
+            assertEquals(restantes, repositorio.getQuantidade());
+            assertEquals(restantes, Files.readAllLines(arquivo).size());
+            assertNull(repositorio.buscarPorEmail("p" + (i - 1) + "@d0.com"));
+            assertEquals("p" + i + "@d0.com", repositorio.buscarPorEmail("p" + i + "@d0.com").getEmail());
+            assertEquals("p95@d0.com", repositorio.buscarPorEmail("P95@d0.com").getEmail());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.crud.model.Pessoa;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Listagem em streaming do {@link PessoaRepositoryCompacto} com escritas no meio.
+ */
+class PessoaRepositoryCompactoTest {
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void streamContinuaDepoisDeRemocoes() throws Exception {
+        PessoaRepositoryCompacto repositorio = new PessoaRepositoryCompacto(
+                diretorio.resolve("pessoas.txt").toString());
+        List<Pessoa> pessoas = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            pessoas.add(new Pessoa("Pessoa " + i, "p" + i + "@exemplo.com", "11987654321"));
+        }
+        repositorio.adicionarTodas(pessoas);
+
+        List<String> lidos = new ArrayList<>();
+        try (Stream<Pessoa> listagem = repositorio.stream()) {
+            Iterator<Pessoa> iterador = listagem.iterator();
+            for (int i = 0; i < 10; i++) {
+                lidos.add(iterador.next().getEmail());
+            }
+            // Mais da metade removida: sem o stream aberto, o armazém seria compactado
+            for (int i = 10; i < 200; i += 3) {
+                repositorio.remover("p" + i + "@exemplo.com");
+            }
+            for (int i = 11; i < 200; i += 3) {
+                repositorio.remover("p" + i + "@exemplo.com");
+            }
+            repositorio.atualizar(new Pessoa("Alterada", "p12@exemplo.com", "11987654321"));
+            iterador.forEachRemaining(p -> lidos.add(p.getEmail()));
+        }
+
+        List<String> esperados = new ArrayList<>();
+        for (Pessoa pessoa : repositorio.lerTodas()) {
+            esperados.add(pessoa.getEmail());
+        }
+        assertEquals(esperados, lidos);
+        assertFalse(lidos.contains("p13@exemplo.com"));
+        assertEquals("Alterada", repositorio.buscarPorEmail("p12@exemplo.com").getNome());
+        assertEquals(esperados.size(), new PessoaRepositoryCompacto(
+                diretorio.resolve("pessoas.txt").toString()).lerTodas().size());
+    }
+}
@@ -0,0 +1,231 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Teste de carga do {@link PessoaRepositoryConcorrente} com várias threads
+ * escrevendo e lendo ao mesmo tempo.
+ */
+class PessoaRepositoryConcorrenteTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERACOES = 500;
+    private static final int EMAILS = 100;
+
+    @TempDir
+    Path diretorio;
+
+    private String caminho() {
+        return diretorio.resolve("pessoas.txt").toString();
+    }
+
+    private static void executar(List<Callable<Void>> tarefas) throws Exception {
+        ExecutorService threads = Executors.newFixedThreadPool(tarefas.size());
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            List<Future<Void>> futuros = new ArrayList<>();
+            for (Callable<Void> tarefa : tarefas) {
+                futuros.add(threads.submit(() -> {
+                    largada.await();
+                    return tarefa.call();
+                }));
+            }
+            largada.countDown();
+            for (Future<Void> futuro : futuros) {
+                futuro.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+    }
+
+    @Test
+    void inclusoesConcorrentesNaoDuplicamEmails() throws Exception {
+        PessoaRepositoryConcorrente repositorio = new PessoaRepositoryConcorrente(caminho(), 4);
+        AtomicInteger incluidas = new AtomicInteger();
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tarefas.add(() -> {
+                // Todas as threads tentam os mesmos emails, com maiúsculas diferentes
+                for (int i = 0; i < EMAILS; i++) {
+                    String email = (thread % 2 == 0 ? "pessoa" : "PESSOA") + i + "@exemplo.com";
+                    if (repositorio.adicionar(new Pessoa("Pessoa " + thread, email, "11987654321"))) {
+                        incluidas.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        executar(tarefas);
+
+        assertEquals(EMAILS, incluidas.get());
+        assertEquals(EMAILS, repositorio.lerTodas().size());
+        assertEquals(EMAILS, new PessoaRepositoryConcorrente(caminho(), 4).lerTodas().size());
+    }
+
+    @Test
+    void escritasELeiturasConcorrentesTerminamIguaisAoArquivo() throws Exception {
+        PessoaRepositoryConcorrente repositorio = new PessoaRepositoryConcorrente(caminho(), 4);
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int thread = t;
+            tarefas.add(() -> {
+                for (int i = 0; i < OPERACOES; i++) {
+                    String email = "p" + ((i * 7 + thread) % EMAILS) + "@exemplo.com";
+                    switch ((i + thread) % 4) {
+                        case 0:
+                            repositorio.adicionar(new Pessoa("Inclusao " + thread, email, "11987654321"));
+                            break;
+                        case 1:
+                            repositorio.atualizar(new Pessoa("Alteracao " + thread, email, "21987654321"));
+                            break;
+                        case 2:
+                            repositorio.remover(email);
+                            break;
+                        default:
+                            // As listagens nunca veem o mesmo email duas vezes
+                            Set<String> vistos = new HashSet<>();
+                            for (Pessoa pessoa : repositorio.lerTodas()) {
+                                assertEquals(true, vistos.add(pessoa.getEmail().toLowerCase()));
+                            }
+                    }
+                }
+                return null;
+            });
+        }
+        executar(tarefas);
+
+        List<Pessoa> emMemoria = repositorio.lerTodas();
+        PessoaRepositoryConcorrente reaberto = new PessoaRepositoryConcorrente(caminho(), 4);
+        assertEquals(emMemoria.size(), reaberto.lerTodas().size());
+        for (Pessoa pessoa : emMemoria) {
+            Pessoa gravada = reaberto.buscarPorEmail(pessoa.getEmail());
+            assertNotNull(gravada, pessoa.getEmail());
+            assertEquals(pessoa.getNome(), gravada.getNome());
+            assertEquals(pessoa.getTelefone(), gravada.getTelefone());
+        }
+    }
+
+    @Test
+    void atualizarSeNaoPerdeAlteracoesConcorrentes() throws Exception {
+        PessoaRepositoryConcorrente repositorio = new PessoaRepositoryConcorrente(caminho(), 4);
+        repositorio.adicionar(new Pessoa("Contador", "contador@exemplo.com", "0"));
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            tarefas.add(() -> {
+                for (int i = 0; i < OPERACOES; i++) {
+                    // Incremento com compare-and-set no campo telefone
+                    while (true) {
+                        Pessoa atual = repositorio.buscarPorEmail("contador@exemplo.com");
+                        String proximo = Integer.toString(Integer.parseInt(atual.getTelefone()) + 1);
+                        if (repositorio.atualizarSe(atual,
+                                new Pessoa(atual.getNome(), atual.getEmail(), proximo))) {
+                            break;
+                        }
+                    }
+                }
+                return null;
+            });
+        }
+        executar(tarefas);
+
+        String esperado = Integer.toString(THREADS * OPERACOES);
+        assertEquals(esperado, repositorio.buscarPorEmail("contador@exemplo.com").getTelefone());
+        assertEquals(esperado,
+                new PessoaRepositoryConcorrente(caminho(), 4).buscarPorEmail("contador@exemplo.com").getTelefone());
+    }
+
+    @Test
+    void feedSoRecebeEscritasGravadas() throws Exception {
+        PessoaRepositoryConcorrente repositorio = new PessoaRepositoryConcorrente(caminho(), 4);
+        try (FeedAlteracoes feed = new FeedAlteracoes(diretorio.resolve("alteracoes.log").toFile())) {
+            repositorio.setFeedAlteracoes(feed);
+            repositorio.adicionar(new Pessoa("Ana Souza", "ana@exemplo.com", "11987654321"));
+            assertEquals(1, feed.getUltimaSequencia());
+
+            // Um diretório no lugar do arquivo faz a gravação falhar
+            Path arquivo = diretorio.resolve("pessoas.txt");
+            Files.delete(arquivo);
+            Files.createDirectory(arquivo);
+            assertThrows(IOException.class,
+                    () -> repositorio.adicionar(new Pessoa("Bruno Lima", "bruno@exemplo.com", "21987654321")));
+            assertThrows(IOException.class,
+                    () -> repositorio.atualizar(new Pessoa("Ana Maria", "ana@exemplo.com", "11987654321")));
+            assertThrows(IOException.class, () -> repositorio.remover("ana@exemplo.com"));
+
+            assertEquals(1, feed.getUltimaSequencia());
+            assertNull(repositorio.buscarPorEmail("bruno@exemplo.com"));
+            assertEquals("Ana Souza", repositorio.buscarPorEmail("ana@exemplo.com").getNome());
+
+            Files.delete(arquivo);
+            repositorio.atualizar(new Pessoa("Ana Maria", "ana@exemplo.com", "11987654321"));
+            assertEquals(2, feed.getUltimaSequencia());
+        }
+    }
+
+    @Test
+    void leiturasDuranteSalvarTodasVeemUmEstadoCompleto() throws Exception {
+        PessoaRepositoryConcorrente repositorio = new PessoaRepositoryConcorrente(caminho(), 4);
+        List<List<Pessoa>> estados = new ArrayList<>();
+        for (String nome : new String[] {"Primeira", "Segunda"}) {
+            List<Pessoa> pessoas = new ArrayList<>();
+            for (int i = 0; i < EMAILS; i++) {
+                pessoas.add(new Pessoa(nome + " " + i, "p" + i + "@exemplo.com", "11987654321"));
+            }
+            estados.add(pessoas);
+        }
+        repositorio.salvarTodas(estados.get(0));
+
+        AtomicBoolean trocando = new AtomicBoolean(true);
+        List<Callable<Void>> tarefas = new ArrayList<>();
+        tarefas.add(() -> {
+            try {
+                for (int i = 0; i < 200; i++) {
+                    repositorio.salvarTodas(estados.get(i % 2));
+                }
+            } finally {
+                trocando.set(false);
+            }
+            return null;
+        });
+        for (int t = 0; t < 3; t++) {
+            tarefas.add(() -> {
+                while (trocando.get()) {
+                    List<Pessoa> pessoas = repositorio.lerTodas();
+                    assertEquals(EMAILS, pessoas.size());
+                    // Todas da mesma versão: o mesmo prefixo de nome
+                    String versao = pessoas.get(0).getNome().split(" ")[0];
+                    for (Pessoa pessoa : pessoas) {
+                        assertTrue(pessoa.getNome().startsWith(versao + " "), pessoa.getNome());
+                    }
+                    assertNotNull(repositorio.buscarPorEmail("p" + (EMAILS - 1) + "@exemplo.com"));
+                }
+                return null;
+            });
+        }
+        executar(tarefas);
+    }
+}
@@ -0,0 +1,65 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Gravação das inclusões do {@link PessoaRepositoryIndexado}.
+ */
+class PessoaRepositoryIndexadoTest {
+
+    // Nomes acentuados com escapes, para não depender da codificação do código-fonte
+    private static final String JOSE = "Jos\u00e9 Ara\u00fajo";
+    private static final String CONCEICAO = "Concei\u00e7\u00e3o";
+
+    @TempDir
+    Path diretorio;
+
+    /**
+     * Repositório com uma codificação diferente da plataforma, para distinguir
+     * a gravação do repositório de uma escrita com a codificação padrão.
+     */
+    private static PessoaRepositoryIndexado latin1(Path arquivo) {
+        return new PessoaRepositoryIndexado(arquivo.toString()) {
+            @Override
+            protected Charset getCharset() {
+                return StandardCharsets.ISO_8859_1;
+            }
+        };
+    }
+
+    @Test
+    void inclusaoUsaOFormatoEACodificacaoDoRepositorio() throws Exception {
+        Path incluidas = diretorio.resolve("incluidas.txt");
+        Path salvas = diretorio.resolve("salvas.txt");
+        List<Pessoa> pessoas = List.of(
+                new Pessoa(JOSE, "jose@exemplo.com", "11987654321"),
+                new Pessoa(CONCEICAO, "conceicao@exemplo.com", "21987654321"));
+
+        PessoaRepositoryIndexado repositorio = latin1(incluidas);
+        for (Pessoa pessoa : pessoas) {
+            assertTrue(repositorio.adicionar(pessoa));
+        }
+        latin1(salvas).salvarTodas(pessoas);
+
+        // A inclusão grava os mesmos bytes que a gravação completa, e a carga os lê de volta
+        assertArrayEquals(Files.readAllBytes(salvas), Files.readAllBytes(incluidas));
+        byte[] primeira = (JOSE + "|jose@exemplo.com|11987654321" + System.lineSeparator())
+                .getBytes(StandardCharsets.ISO_8859_1);
+        assertArrayEquals(primeira, Arrays.copyOf(Files.readAllBytes(incluidas), primeira.length));
+        PessoaRepositoryIndexado reaberto = latin1(incluidas);
+        assertEquals(JOSE, reaberto.buscarPorEmail("jose@exemplo.com").getNome());
+        assertEquals(CONCEICAO, reaberto.buscarPorEmail("conceicao@exemplo.com").getNome());
+    }
+}
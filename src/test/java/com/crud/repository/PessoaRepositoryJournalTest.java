@@ -0,0 +1,225 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Escritas do {@link PessoaRepositoryJournal} com falha e em paralelo.
+ */
+class PessoaRepositoryJournalTest {
+
+    @TempDir
+    Path diretorio;
+
+    private PessoaRepositoryJournal abrir() {
+        return new PessoaRepositoryJournal(diretorio.resolve("pessoas.txt").toString(),
+                PessoaRepositoryJournal.LIMITE_BYTES_PADRAO, PessoaRepositoryJournal.LIMITE_LIXO_PADRAO,
+                EscritorEmLote.PoliticaSync.POR_OPERACAO, 0);
+    }
+
+    /**
+     * Troca o escritor do journal por um já fechado, que falha todas as escritas.
+     */
+    private void falharEscritas(PessoaRepositoryJournal repositorio) throws Exception {
+        EscritorEmLote fechado = new EscritorEmLote(diretorio.resolve("outro.journal"),
+                EscritorEmLote.PoliticaSync.POR_OPERACAO, 0);
+        fechado.close();
+        Field campo = PessoaRepositoryJournal.class.getDeclaredField("escritor");
+        campo.setAccessible(true);
+        EscritorEmLote anterior = (EscritorEmLote) campo.get(repositorio);
+        campo.set(repositorio, fechado);
+        anterior.close();
+    }
+
+    @Test
+    void escritaComFalhaNaoAlteraOIndice() throws Exception {
+        PessoaRepositoryJournal repositorio = abrir();
+        repositorio.adicionar(new Pessoa("Ana Souza", "ana@exemplo.com", "11987654321"));
+        repositorio.adicionar(new Pessoa("Bruno Lima", "bruno@exemplo.com", "21987654321"));
+        falharEscritas(repositorio);
+
+        assertThrows(IOException.class,
+                () -> repositorio.adicionar(new Pessoa("Carla Dias", "carla@exemplo.com", "31987654321")));
+        assertThrows(IOException.class,
+                () -> repositorio.atualizar(new Pessoa("Ana Maria", "ana@exemplo.com", "11987654321")));
+        assertThrows(IOException.class, () -> repositorio.remover("bruno@exemplo.com"));
+        assertThrows(IOException.class, () -> repositorio.adicionarTodas(Arrays.asList(
+                new Pessoa("Davi Reis", "davi@exemplo.com", "41987654321"))));
+
+        assertNull(repositorio.buscarPorEmail("carla@exemplo.com"));
+        assertNull(repositorio.buscarPorEmail("davi@exemplo.com"));
+        assertEquals("Ana Souza", repositorio.buscarPorEmail("ana@exemplo.com").getNome());
+        assertEquals("Bruno Lima", repositorio.buscarPorEmail("bruno@exemplo.com").getNome());
+        assertEquals(1, repositorio.buscarPorNome("Ana", 0, 10).getItens().size());
+        assertEquals(2, repositorio.lerTodas().size());
+
+        PessoaRepositoryJournal reaberto = abrir();
+        assertEquals(2, reaberto.lerTodas().size());
+        assertEquals("Ana Souza", reaberto.buscarPorEmail("ana@exemplo.com").getNome());
+        reaberto.close();
+    }
+
+    @Test
+    void escritasConcorrentesFicamIguaisAoJournal() throws Exception {
+        PessoaRepositoryJournal repositorio = abrir();
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            tarefas.add(threads.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    String email = "p" + (i % 50) + "@exemplo.com";
+                    String nome = "Pessoa " + thread + " " + i;
+                    switch (i % 3) {
+                        case 0:
+                            repositorio.adicionar(new Pessoa(nome, email, "11987654321"));
+                            break;
+                        case 1:
+                            repositorio.atualizar(new Pessoa(nome, email, "21987654321"));
+                            break;
+                        default:
+                            repositorio.remover(email);
+                    }
+                }
+                return null;
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        threads.shutdown();
+
+        List<Pessoa> emMemoria = repositorio.lerTodas();
+        repositorio.close();
+        PessoaRepositoryJournal reaberto = abrir();
+        List<Pessoa> gravadas = reaberto.lerTodas();
+        assertEquals(emMemoria.size(), gravadas.size());
+        for (Pessoa pessoa : emMemoria) {
+            Pessoa gravada = reaberto.buscarPorEmail(pessoa.getEmail());
+            assertTrue(gravada != null && gravada.getNome().equals(pessoa.getNome())
+                    && gravada.getTelefone().equals(pessoa.getTelefone()), pessoa.getEmail());
+        }
+        reaberto.close();
+    }
+
+    @Test
+    void escritasDuranteACompactacaoNaoSePerdem() throws Exception {
+        PessoaRepositoryJournal repositorio = abrir();
+        List<Pessoa> iniciais = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            iniciais.add(new Pessoa("Pessoa " + i, "p" + i + "@exemplo.com", "11987654321"));
+        }
+        repositorio.adicionarTodas(iniciais);
+
+        ExecutorService threads = Executors.newFixedThreadPool(3);
+        AtomicBoolean compactando = new AtomicBoolean(true);
+        Future<?> compactacoes = threads.submit(() -> {
+            try {
+                for (int i = 0; i < 5; i++) {
+                    repositorio.compactar();
+                }
+            } finally {
+                compactando.set(false);
+            }
+            return null;
+        });
+        List<Future<?>> escritores = new ArrayList<>();
+        for (int t = 0; t < 2; t++) {
+            int thread = t;
+            escritores.add(threads.submit(() -> {
+                for (int i = 0; compactando.get() || i < 200; i++) {
+                    String email = "n" + thread + "-" + i + "@exemplo.com";
+                    repositorio.adicionar(new Pessoa("Nova " + i, email, "21987654321"));
+                    repositorio.atualizar(new Pessoa("Pessoa alterada", "p" + (i % 20_000) + "@exemplo.com",
+                            "31987654321"));
+                    if (i % 2 == 0) {
+                        repositorio.remover(email);
+                    }
+                }
+                return null;
+            }));
+        }
+        compactacoes.get();
+        for (Future<?> escritor : escritores) {
+            escritor.get();
+        }
+        threads.shutdown();
+
+        List<Pessoa> emMemoria = repositorio.lerTodas();
+        repositorio.close();
+        PessoaRepositoryJournal reaberto = abrir();
+        assertEquals(emMemoria.size(), reaberto.lerTodas().size());
+        for (Pessoa pessoa : emMemoria) {
+            Pessoa gravada = reaberto.buscarPorEmail(pessoa.getEmail());
+            assertTrue(gravada != null && gravada.getNome().equals(pessoa.getNome())
+                    && gravada.getTelefone().equals(pessoa.getTelefone()), pessoa.getEmail());
+        }
+        // O journal guarda apenas o que foi escrito depois da última cópia
+        assertTrue(reaberto.getTamanhoJournal() < diretorio.resolve("pessoas.txt").toFile().length());
+        reaberto.close();
+    }
+
+    @Test
+    void substituicaoPrevaleceSobreOJournalAnterior() throws Exception {
+        PessoaRepositoryJournal repositorio = abrir();
+        repositorio.adicionar(new Pessoa("Ana Souza", "ana@exemplo.com", "11987654321"));
+        repositorio.adicionar(new Pessoa("Bruno Lima", "bruno@exemplo.com", "21987654321"));
+        repositorio.compactar();
+        repositorio.remover("bruno@exemplo.com");
+        repositorio.salvarTodas(Arrays.asList(new Pessoa("Carla Dias", "carla@exemplo.com", "31987654321")));
+        assertEquals(1, repositorio.lerTodas().size());
+        repositorio.close();
+
+        // Reaberto antes ou depois da compactação agendada, vale apenas a substituição
+        PessoaRepositoryJournal reaberto = abrir();
+        assertEquals(1, reaberto.lerTodas().size());
+        assertEquals("Carla Dias", reaberto.buscarPorEmail("carla@exemplo.com").getNome());
+        reaberto.compactar();
+        assertEquals(0, reaberto.getTamanhoJournal());
+        assertEquals(List.of("Carla Dias|carla@exemplo.com|31987654321"),
+                Files.readAllLines(diretorio.resolve("pessoas.txt")));
+        reaberto.close();
+    }
+
+    @Test
+    void blocoDeSubstituicaoIncompletoEIgnorado() throws Exception {
+        Path dados = diretorio.resolve("pessoas.txt");
+        Files.write(dados, List.of("Ana Souza|ana@exemplo.com|11987654321"));
+        // Journal antigo (Bruno incluído e Ana removida), uma substituição completa
+        // e outra interrompida no meio pela queda do processo
+        Files.write(diretorio.resolve("pessoas.txt.journal"), List.of(
+                "P|Bruno Lima|bruno@exemplo.com|21987654321",
+                "R|ana@exemplo.com",
+                "S|2",
+                "P|Carla Dias|carla@exemplo.com|31987654321",
+                "P|Davi Reis|davi@exemplo.com|41987654321",
+                "S|3",
+                "P|Eva Melo|eva@exemplo.com|51987654321"));
+
+        PessoaRepositoryJournal repositorio = abrir();
+        List<Pessoa> pessoas = repositorio.lerTodas();
+        assertEquals(2, pessoas.size());
+        assertEquals("carla@exemplo.com", pessoas.get(0).getEmail());
+        assertEquals("davi@exemplo.com", pessoas.get(1).getEmail());
+        assertNull(repositorio.buscarPorEmail("bruno@exemplo.com"));
+        assertNull(repositorio.buscarPorEmail("eva@exemplo.com"));
+        repositorio.close();
+    }
+}
@@ -0,0 +1,86 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.crud.model.Pessoa;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Listagem do {@link PessoaRepositoryParticionado} durante uma redistribuição.
+ */
+class PessoaRepositoryParticionadoTest {
+
+    private static final int PESSOAS = 400;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void streamAbertoNaoPerdeRegistrosAoReparticionar() throws Exception {
+        PessoaRepositoryParticionado repositorio = new PessoaRepositoryParticionado(
+                diretorio.resolve("particoes").toString(), 8);
+        List<Pessoa> pessoas = new ArrayList<>();
+        for (int i = 0; i < PESSOAS; i++) {
+            pessoas.add(new Pessoa("Pessoa " + i, "p" + i + "@exemplo.com", "11987654321"));
+        }
+        repositorio.adicionarTodas(pessoas);
+
+        ExecutorService thread = Executors.newSingleThreadExecutor();
+        try {
+            Set<String> lidos = new HashSet<>();
+            Future<Integer> redistribuicao;
+            try (Stream<Pessoa> listagem = repositorio.stream()) {
+                Iterator<Pessoa> iterador = listagem.iterator();
+                lidos.add(iterador.next().getEmail());
+
+                // A redistribuição espera o stream ser fechado
+                redistribuicao = thread.submit(() -> repositorio.reparticionar(3));
+                Thread.sleep(200);
+                assertFalse(redistribuicao.isDone());
+
+                iterador.forEachRemaining(p -> lidos.add(p.getEmail()));
+            }
+            assertEquals(PESSOAS, lidos.size());
+            assertEquals(PESSOAS, redistribuicao.get(10, TimeUnit.SECONDS).intValue());
+        } finally {
+            thread.shutdown();
+        }
+
+        assertEquals(3, repositorio.getQuantidadeParticoes());
+        assertEquals(PESSOAS, repositorio.lerTodas().size());
+        try (Stream<Pessoa> listagem = repositorio.stream()) {
+            assertEquals(PESSOAS, listagem.count());
+        }
+        assertEquals(PESSOAS, repositorio.reparticionar(5));
+    }
+
+    @Test
+    void migraApenasOArquivoLegadoInformado() throws Exception {
+        Path legado = diretorio.resolve("legado.txt");
+        new PessoaRepository(legado.toString()).adicionarTodas(List.of(
+                new Pessoa("Ana Souza", "ana@exemplo.com", "11987654321"),
+                new Pessoa("Bruno Lima", "bruno@exemplo.com", "21987654321")));
+
+        PessoaRepositoryParticionado migrado = new PessoaRepositoryParticionado(
+                diretorio.resolve("migrado").toString(), 4, legado.toString());
+        assertEquals(2, migrado.lerTodas().size());
+        assertEquals("Bruno Lima", migrado.buscarPorEmail("bruno@exemplo.com").getNome());
+
+        PessoaRepositoryParticionado vazio = new PessoaRepositoryParticionado(
+                diretorio.resolve("vazio").toString(), 4);
+        assertEquals(0, vazio.lerTodas().size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Verificação do arquivo do {@link PessoaRepositorySeguro} ao reabrir.
+ */
+class PessoaRepositorySeguroTest {
+
+    @TempDir
+    Path diretorio;
+
+    private static List<Pessoa> pessoas() {
+        return Arrays.asList(
+                new Pessoa("Ana Souza", "ana@exemplo.com", "11987654321"),
+                new Pessoa("Bruno Lima", "bruno@exemplo.com", "21987654321"));
+    }
+
+    @Test
+    void acrescimoEmArquivoVazioGravaCabecalho() throws IOException {
+        Path arquivo = diretorio.resolve("pessoas.txt");
+        Files.createFile(arquivo);
+
+        new PessoaRepositorySeguro(arquivo.toString()).adicionarTodas(pessoas());
+
+        assertEquals(PessoaRepositorySeguro.CABECALHO,
+                Files.readAllLines(arquivo, StandardCharsets.UTF_8).get(0));
+        PessoaRepositorySeguro reaberto = new PessoaRepositorySeguro(arquivo.toString());
+        PessoaRepositorySeguro.Recuperacao recuperacao = reaberto.recuperar();
+        assertEquals(2, recuperacao.getValidos());
+        assertEquals(0, recuperacao.getQuarentena());
+        assertEquals(2, reaberto.lerTodas().size());
+        assertFalse(Files.exists(reaberto.getArquivoQuarentena().toPath()));
+    }
+
+    @Test
+    void linhasComChecksumSemCabecalhoSaoRecuperadas() throws IOException {
+        Path arquivo = diretorio.resolve("pessoas.txt");
+        PessoaRepositorySeguro repositorio = new PessoaRepositorySeguro(arquivo.toString());
+        StringBuilder conteudo = new StringBuilder();
+        for (Pessoa pessoa : pessoas()) {
+            conteudo.append(repositorio.formatarLinha(pessoa)).append('\n');
+        }
+        Files.write(arquivo, conteudo.toString().getBytes(StandardCharsets.UTF_8));
+
+        PessoaRepositorySeguro.Recuperacao recuperacao = repositorio.recuperar();
+        assertEquals(2, recuperacao.getValidos());
+        assertEquals(0, recuperacao.getQuarentena());
+        assertFalse(recuperacao.isConvertido());
+        assertEquals(PessoaRepositorySeguro.CABECALHO,
+                Files.readAllLines(arquivo, StandardCharsets.UTF_8).get(0));
+    }
+
+    @Test
+    void formatoSemChecksumContinuaConvertido() throws IOException {
+        Path arquivo = diretorio.resolve("pessoas.txt");
+        StringBuilder conteudo = new StringBuilder();
+        for (Pessoa pessoa : pessoas()) {
+            conteudo.append(pessoa.toFileFormat()).append('\n');
+        }
+        Files.write(arquivo, conteudo.toString().getBytes(StandardCharsets.US_ASCII));
+
+        PessoaRepositorySeguro repositorio = new PessoaRepositorySeguro(arquivo.toString());
+        PessoaRepositorySeguro.Recuperacao recuperacao = repositorio.recuperar();
+        assertEquals(2, recuperacao.getValidos());
+        assertEquals(0, recuperacao.getQuarentena());
+        assertTrue(recuperacao.isConvertido());
+        assertEquals(2, new PessoaRepositorySeguro(arquivo.toString()).lerTodas().size());
+    }
+}
@@ -0,0 +1,197 @@
+package com.crud.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Leituras do {@link PessoaRepositoryVersionado} durante escritas: cada
+ * snapshot e cada stream enxergam exatamente uma versão publicada.
+ */
+class PessoaRepositoryVersionadoTest {
+
+    private static final int PESSOAS = 200;
+    private static final int ESCRITAS = 400;
+    private static final int LEITORES = 3;
+
+    @TempDir
+    Path diretorio;
+
+    private static String linha(Pessoa pessoa) {
+        return pessoa.getNome() + "|" + pessoa.getEmail() + "|" + pessoa.getTelefone();
+    }
+
+    private static List<String> linhas(Stream<Pessoa> pessoas) {
+        return pessoas.map(PessoaRepositoryVersionadoTest::linha).collect(Collectors.toList());
+    }
+
+    /**
+     * Guarda o conteúdo da versão publicada agora. Só a thread que escreve
+     * chama, logo a versão não muda durante a leitura.
+     */
+    private static void registrar(PessoaRepositoryVersionado repositorio, Map<Long, List<String>> versoes)
+            throws Exception {
+        try (PessoaRepositoryVersionado.Snapshot snapshot = repositorio.abrirSnapshot()) {
+            versoes.put(snapshot.getVersao(), linhas(snapshot.stream()));
+        }
+    }
+
+    /**
+     * Percorre devagar, cedendo a vez à thread que escreve entre os itens.
+     */
+    private static List<String> percorrer(Stream<Pessoa> pessoas) {
+        List<String> lidas = new ArrayList<>();
+        Iterator<Pessoa> iterador = pessoas.iterator();
+        while (iterador.hasNext()) {
+            lidas.add(linha(iterador.next()));
+            Thread.yield();
+        }
+        return lidas;
+    }
+
+    @Test
+    void leiturasDuranteEscritasVeemUmaUnicaVersao() throws Exception {
+        PessoaRepositoryVersionado repositorio =
+                new PessoaRepositoryVersionado(diretorio.resolve("pessoas.txt").toString());
+        for (int i = 0; i < PESSOAS; i++) {
+            repositorio.adicionar(new Pessoa("Pessoa " + i, "p" + i + "@exemplo.com", "11987654321"));
+        }
+        Map<Long, List<String>> versoes = new ConcurrentHashMap<>();
+        registrar(repositorio, versoes);
+
+        // Aberto antes de todas as escritas e lido só no final
+        PessoaRepositoryVersionado.Snapshot inicial = repositorio.abrirSnapshot();
+        Stream<Pessoa> streamInicial = repositorio.stream();
+
+        List<Map.Entry<Long, List<String>>> lidasPorSnapshot = new ArrayList<>();
+        List<List<String>> lidasPorStream = new ArrayList<>();
+        AtomicBoolean escrevendo = new AtomicBoolean(true);
+        int publicadas;
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService threads = Executors.newFixedThreadPool(LEITORES + 1);
+        try {
+            Future<Integer> escritor = threads.submit(() -> {
+                Random aleatorio = new Random(21L);
+                int alteracoes = 0;
+                largada.await();
+                try {
+                    for (int i = 0; i < ESCRITAS; i++) {
+                        String email = "p" + aleatorio.nextInt(PESSOAS * 2) + "@exemplo.com";
+                        switch (aleatorio.nextInt(20)) {
+                            case 0:
+                                List<Pessoa> todas = repositorio.lerTodas();
+                                todas.removeIf(pessoa -> aleatorio.nextInt(4) == 0);
+                                todas.add(new Pessoa("Substituta " + i, "s" + i + "@exemplo.com", "21987654321"));
+                                repositorio.salvarTodas(todas);
+                                alteracoes++;
+                                break;
+                            case 1: case 2: case 3: case 4: case 5: case 6:
+                                alteracoes += repositorio.adicionar(
+                                        new Pessoa("Nova " + i, email, "31987654321")) ? 1 : 0;
+                                break;
+                            case 7: case 8: case 9: case 10: case 11: case 12:
+                                alteracoes += repositorio.remover(email) ? 1 : 0;
+                                break;
+                            default:
+                                alteracoes += repositorio.atualizar(
+                                        new Pessoa("Alterada " + i, email, "41987654321")) ? 1 : 0;
+                        }
+                        registrar(repositorio, versoes);
+                        Thread.sleep(1); // Dá tempo aos leitores entre as escritas
+                    }
+                } finally {
+                    escrevendo.set(false);
+                }
+                return alteracoes;
+            });
+
+            List<Future<?>> leitores = new ArrayList<>();
+            for (int l = 0; l < LEITORES; l++) {
+                boolean porSnapshot = l % 2 == 0;
+                leitores.add(threads.submit(() -> {
+                    largada.await();
+                    while (escrevendo.get()) {
+                        if (porSnapshot) {
+                            try (PessoaRepositoryVersionado.Snapshot snapshot = repositorio.abrirSnapshot()) {
+                                Thread.sleep(1); // Deixa publicar versões depois da abertura
+                                List<String> lidas = percorrer(snapshot.stream());
+                                assertEquals(snapshot.tamanho(), lidas.size());
+                                // Buscas no mesmo snapshot, depois de mais escritas, veem a mesma versão
+                                for (int i = 0; i < lidas.size(); i += 17) {
+                                    String email = lidas.get(i).split("\\|")[1];
+                                    Pessoa encontrada = snapshot.buscarPorEmail(email);
+                                    assertNotNull(encontrada, email);
+                                    assertEquals(lidas.get(i), linha(encontrada));
+                                }
+                                synchronized (lidasPorSnapshot) {
+                                    lidasPorSnapshot.add(Map.entry(snapshot.getVersao(), lidas));
+                                }
+                            }
+                        } else {
+                            try (Stream<Pessoa> pessoas = repositorio.stream()) {
+                                Thread.sleep(1);
+                                List<String> lidas = percorrer(pessoas);
+                                synchronized (lidasPorStream) {
+                                    lidasPorStream.add(lidas);
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+
+            largada.countDown();
+            publicadas = escritor.get();
+            for (Future<?> leitor : leitores) {
+                leitor.get();
+            }
+        } finally {
+            threads.shutdown();
+        }
+
+        assertEquals(publicadas + 1, versoes.size(), "cada escrita que altera os dados publica uma versão");
+        assertTrue(!lidasPorSnapshot.isEmpty() && !lidasPorStream.isEmpty());
+        for (Map.Entry<Long, List<String>> lida : lidasPorSnapshot) {
+            assertEquals(versoes.get(lida.getKey()), lida.getValue(), "versão " + lida.getKey());
+        }
+        for (List<String> lidas : lidasPorStream) {
+            assertTrue(versoes.containsValue(lidas), "o stream misturou versões");
+        }
+
+        // Os abertos antes das escritas continuam na versão inicial
+        List<String> primeira = versoes.get(inicial.getVersao());
+        assertEquals(primeira, linhas(inicial.stream()));
+        assertEquals(primeira, percorrer(streamInicial));
+        assertEquals(2, repositorio.getSnapshotsAbertos());
+        inicial.close();
+        inicial.close();
+        streamInicial.close();
+        assertEquals(0, repositorio.getSnapshotsAbertos());
+
+        // Um stream fechado sem ser consumido também libera o snapshot
+        try (Stream<Pessoa> pessoas = repositorio.stream()) {
+            assertEquals(1, repositorio.getSnapshotsAbertos());
+            pessoas.findFirst();
+        }
+        assertEquals(0, repositorio.getSnapshotsAbertos());
+    }
+}
@@ -0,0 +1,285 @@
+package com.crud.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.crud.model.Pessoa;
+import com.crud.repository.FeedAlteracoes;
+import com.crud.repository.PessoaRepository;
+import com.crud.repository.PessoaRepositoryArvore;
+import com.crud.repository.PessoaRepositoryComCache;
+import com.crud.repository.PessoaRepositoryCompacto;
+import com.crud.repository.PessoaRepositoryConcorrente;
+import com.crud.repository.PessoaRepositoryIndexado;
+import com.crud.repository.PessoaRepositoryJournal;
+import com.crud.repository.PessoaRepositoryParticionado;
+import com.crud.repository.PessoaRepositoryVersionado;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Alterações concorrentes e lotes pelo {@link PessoaService}.
+ */
+class PessoaServiceTest {
+
+    private static final int ALTERACOES = 300;
+
+    @TempDir
+    Path diretorio;
+
+    @Test
+    void alteracoesDeCamposDiferentesNaoSePerdem() throws Exception {
+        verificarAlteracoesConcorrentes(new PessoaRepositoryConcorrente(
+                diretorio.resolve("concorrente.txt").toString(), 4));
+        verificarAlteracoesConcorrentes(new PessoaRepositoryIndexado(diretorio.resolve("indexado.txt").toString()));
+        verificarAlteracoesConcorrentes(new PessoaRepositoryVersionado(
+                diretorio.resolve("versionado.txt").toString()));
+        try (PessoaRepositoryJournal journal = new PessoaRepositoryJournal(diretorio.resolve("journal.txt").toString(),
+                PessoaRepositoryJournal.LIMITE_BYTES_PADRAO, PessoaRepositoryJournal.LIMITE_LIXO_PADRAO)) {
+            verificarAlteracoesConcorrentes(journal);
+        }
+    }
+
+    /**
+     * Uma thread só altera o nome e outra só altera o telefone da mesma
+     * pessoa; ao final a pessoa tem a última alteração de cada uma.
+     */
+    private static void verificarAlteracoesConcorrentes(PessoaRepository repositorio) throws Exception {
+        PessoaService service = new PessoaService(repositorio);
+        assertTrue(service.cadastrar("Ana Souza", "ana@exemplo.com", "11900000000").isSucesso());
+
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        try {
+            CountDownLatch largada = new CountDownLatch(1);
+            Future<?> nomes = threads.submit(() -> {
+                largada.await();
+                for (int i = 1; i <= ALTERACOES; i++) {
+                    assertTrue(service.alterar("ana@exemplo.com", "Ana " + i, null).isSucesso());
+                }
+                return null;
+            });
+            Future<?> telefones = threads.submit(() -> {
+                largada.await();
+                for (int i = 1; i <= ALTERACOES; i++) {
+                    assertTrue(service.alterar("ana@exemplo.com", null, telefone(i)).isSucesso());
+                }
+                return null;
+            });
+            largada.countDown();
+            nomes.get();
+            telefones.get();
+        } finally {
+            threads.shutdown();
+        }
+
+        Pessoa atualizada = repositorio.buscarPorEmail("ana@exemplo.com");
+        String descricao = repositorio.getClass().getSimpleName();
+        assertEquals("Ana " + ALTERACOES, atualizada.getNome(), descricao);
+        assertEquals(telefone(ALTERACOES), atualizada.getTelefone(), descricao);
+    }
+
+    private static String telefone(int i) {
+        String numero = Integer.toString(i);
+        return "119" + "00000000".substring(numero.length()) + numero;
+    }
+
+    @Test
+    void alteracaoDePessoaInexistenteFalha() {
+        PessoaService service = new PessoaService(new PessoaRepositoryIndexado(
+                diretorio.resolve("pessoas.txt").toString()));
+        assertEquals(CodigoErro.NAO_ENCONTRADA, service.alterar("nada@exemplo.com", "Ana", null).getErro());
+    }
+
+    /**
+     * Cria um repositório no diretório informado que conta as chamadas a
+     * {@code salvarTodas}, a única escrita de uma transação.
+     */
+    private interface Modo {
+        PessoaRepository criar(Path diretorio, AtomicInteger escritas);
+    }
+
+    /**
+     * O repositório base e os modos que sobrescrevem {@code executarTransacao}.
+     */
+    private static Map<String, Modo> modos() {
+        Map<String, Modo> modos = new TreeMap<>();
+        modos.put("base", (diretorio, escritas) -> new PessoaRepository(arquivo(diretorio)) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("concorrente", (diretorio, escritas) -> new PessoaRepositoryConcorrente(arquivo(diretorio), 4) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("indexado", (diretorio, escritas) -> new PessoaRepositoryIndexado(arquivo(diretorio)) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("journal", (diretorio, escritas) -> new PessoaRepositoryJournal(arquivo(diretorio),
+                PessoaRepositoryJournal.LIMITE_BYTES_PADRAO, PessoaRepositoryJournal.LIMITE_LIXO_PADRAO) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("particionado", (diretorio, escritas) -> new PessoaRepositoryParticionado(
+                diretorio.toString(), 4) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("versionado", (diretorio, escritas) -> new PessoaRepositoryVersionado(arquivo(diretorio)) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("cache", (diretorio, escritas) -> new PessoaRepositoryComCache(
+                arquivo(diretorio), 100, 60_000, 0.01) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("compacto", (diretorio, escritas) -> new PessoaRepositoryCompacto(arquivo(diretorio)) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        modos.put("arvore", (diretorio, escritas) -> new PessoaRepositoryArvore(arquivo(diretorio), 16) {
+            @Override
+            public void salvarTodas(List<Pessoa> pessoas) throws IOException {
+                escritas.incrementAndGet();
+                super.salvarTodas(pessoas);
+            }
+        });
+        return modos;
+    }
+
+    private static String arquivo(Path diretorio) {
+        return diretorio.resolve("pessoas.txt").toString();
+    }
+
+    /**
+     * Conteúdo de todos os arquivos do diretório do repositório.
+     */
+    private static Map<String, String> arquivos(Path diretorio) throws IOException {
+        Map<String, String> conteudo = new TreeMap<>();
+        try (Stream<Path> caminhos = Files.walk(diretorio)) {
+            for (Path caminho : (Iterable<Path>) caminhos.filter(Files::isRegularFile)::iterator) {
+                conteudo.put(diretorio.relativize(caminho).toString(),
+                        new String(Files.readAllBytes(caminho), StandardCharsets.ISO_8859_1));
+            }
+        }
+        return conteudo;
+    }
+
+    @Test
+    void loteComUmaOperacaoInvalidaNaoAplicaNenhuma() throws Exception {
+        for (Map.Entry<String, Modo> modo : modos().entrySet()) {
+            String descricao = modo.getKey();
+            Path dados = Files.createDirectories(diretorio.resolve(descricao));
+            AtomicInteger escritas = new AtomicInteger();
+            PessoaRepository repositorio = modo.getValue().criar(dados, escritas);
+            try (FeedAlteracoes feed = new FeedAlteracoes(diretorio.resolve(descricao + ".cdc").toFile())) {
+                repositorio.setFeedAlteracoes(feed);
+                PessoaService service = new PessoaService(repositorio);
+                assertTrue(service.cadastrar("Ana Souza", "ana@exemplo.com", "11987654321").isSucesso());
+                assertTrue(service.cadastrar("Bruno Lima", "bruno@exemplo.com", "21987654321").isSucesso());
+                Map<String, String> antes = arquivos(dados);
+                long sequencia = feed.getUltimaSequencia();
+                escritas.set(0);
+
+                // Dados inválidos: recusado antes de ler o repositório
+                verificarCancelado(service.aplicarLote(List.of(
+                        OperacaoLote.cadastrar("Carla Dias", "carla@exemplo.com", "31987654321"),
+                        OperacaoLote.alterar("ana@exemplo.com", "Ana Maria", null),
+                        OperacaoLote.cadastrar("Daniel", "email-invalido", "41987654321"))),
+                        2, CodigoErro.EMAIL_INVALIDO, descricao);
+
+                // Conflito com o que já está gravado ou com uma operação anterior do lote
+                verificarCancelado(service.aplicarLote(List.of(
+                        OperacaoLote.cadastrar("Carla Dias", "carla@exemplo.com", "31987654321"),
+                        OperacaoLote.alterar("ana@exemplo.com", "Ana Maria", "11912345678"),
+                        OperacaoLote.excluir("bruno@exemplo.com"),
+                        OperacaoLote.cadastrar("Outra Ana", "ANA@exemplo.com", "11987654321"),
+                        OperacaoLote.alterar("carla@exemplo.com", null, "31912345678"))),
+                        3, CodigoErro.EMAIL_EXISTENTE, descricao);
+                verificarCancelado(service.aplicarLote(List.of(
+                        OperacaoLote.excluir("bruno@exemplo.com"),
+                        OperacaoLote.alterar("bruno@exemplo.com", "Bruno", null))),
+                        1, CodigoErro.NAO_ENCONTRADA, descricao);
+
+                assertEquals(0, escritas.get(), descricao);
+                assertEquals(sequencia, feed.getUltimaSequencia(), descricao);
+                assertEquals(antes, arquivos(dados), descricao);
+                assertEquals("Ana Souza", repositorio.buscarPorEmail("ana@exemplo.com").getNome(), descricao);
+                assertEquals("11987654321", repositorio.buscarPorEmail("ana@exemplo.com").getTelefone(), descricao);
+                assertNull(repositorio.buscarPorEmail("carla@exemplo.com"), descricao);
+                assertEquals(2, repositorio.lerTodas().size(), descricao);
+
+                // O mesmo lote sem o conflito é aplicado com uma única escrita
+                List<Resultado<Pessoa>> resultados = service.aplicarLote(List.of(
+                        OperacaoLote.cadastrar("Carla Dias", "carla@exemplo.com", "31987654321"),
+                        OperacaoLote.alterar("ana@exemplo.com", "Ana Maria", "11912345678"),
+                        OperacaoLote.excluir("bruno@exemplo.com")));
+                for (Resultado<Pessoa> resultado : resultados) {
+                    assertTrue(resultado.isSucesso(), descricao + ": " + resultado);
+                }
+                assertEquals(1, escritas.get(), descricao);
+                assertEquals(sequencia + 3, feed.getUltimaSequencia(), descricao);
+                assertEquals("Ana Maria", repositorio.buscarPorEmail("ana@exemplo.com").getNome(), descricao);
+                assertEquals("Carla Dias", repositorio.buscarPorEmail("carla@exemplo.com").getNome(), descricao);
+                assertNull(repositorio.buscarPorEmail("bruno@exemplo.com"), descricao);
+                assertEquals(2, repositorio.lerTodas().size(), descricao);
+            } finally {
+                if (repositorio instanceof Closeable) {
+                    ((Closeable) repositorio).close();
+                }
+            }
+        }
+    }
+
+    /**
+     * A operação na posição informada falhou com o seu erro e as demais
+     * foram canceladas.
+     */
+    private static void verificarCancelado(List<Resultado<Pessoa>> resultados, int posicao, CodigoErro erro,
+            String descricao) {
+        for (int i = 0; i < resultados.size(); i++) {
+            assertEquals(i == posicao ? erro : CodigoErro.LOTE_CANCELADO, resultados.get(i).getErro(),
+                    descricao + ", operação " + i);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.crud.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compara o {@link ValidadorRapido} com o {@link Validador}: para qualquer
+ * entrada, os dois devem dar o mesmo resultado.
+ */
+class ValidadorRapidoTest {
+
+    private static final int GERADOS = 200_000;
+
+    // Caracteres que exercitam as regras dos dois validadores
+    private static final String ALFABETO = "aZ09+_.-@ ()\t\n\r|çé\u000B  \u0000";
+
+    private static final String[] CASOS_LIMITE = {
+        null, "", " ", "  \t ", "a", " a ", "ab", " ab ", "a|b", "Ana\nMaria", "Ana\r", " ab ",
+        "a@b.co", "a@b.c", "@b.com", "a@.com", "a@b.", "a@b.c1", "a@@b.com", "a.b@c.d.com", "a@b-c.com",
+        " a@b.com ", "a@b.com\n", "a b@c.com", "a@b.co m", "a@b..com", "A+_.-@X-Y.COM", "a@b.ção",
+        "1234567890", "123456789", "123456789012345", "1234567890123456", "(11) 98765-4321",
+        "+55 (11) 98765-4321", "+5511987654321", "11 9876 5432\t1", "1198765432a", "11-98765-43-21",
+        "(((1234567890)))", "+++++++++++", "１２３４５６７８９０", "11987654321\u000B", "11 987654321"
+    };
+
+    @Test
+    void concordaNosCasosLimite() {
+        for (String caso : CASOS_LIMITE) {
+            comparar(caso);
+        }
+    }
+
+    @Test
+    void concordaEmEntradasGeradas() {
+        Random aleatorio = new Random(2024);
+        for (int i = 0; i < GERADOS; i++) {
+            comparar(gerar(aleatorio));
+        }
+    }
+
+    @Test
+    void concordaEmEntradasValidasAlteradas() {
+        Random aleatorio = new Random(11);
+        String[] validas = {"Maria Silva", "maria.silva+tag@exemplo.com.br", "(11) 98765-4321", "+55 11 98765 4321"};
+        for (int i = 0; i < GERADOS; i++) {
+            comparar(alterar(validas[aleatorio.nextInt(validas.length)], aleatorio));
+        }
+    }
+
+    @Test
+    void concordaNaValidacaoCompleta() {
+        List<String> entradas = new ArrayList<>();
+        for (String caso : CASOS_LIMITE) {
+            entradas.add(caso);
+        }
+        for (String nome : entradas) {
+            for (String email : entradas) {
+                for (String telefone : new String[] {"11987654321", "123", null}) {
+                    assertEquals(Validador.validarDados(nome, email, telefone),
+                            ValidadorRapido.validarDados(nome, email, telefone),
+                            () -> "validarDados(" + nome + ", " + email + ", " + telefone + ")");
+                }
+            }
+        }
+    }
+
+    private static void comparar(String entrada) {
+        String descricao = entrada == null ? "null" : "'" + entrada + "'";
+        assertEquals(Validador.validarNome(entrada), ValidadorRapido.validarNome(entrada), "nome " + descricao);
+        assertEquals(Validador.validarEmail(entrada), ValidadorRapido.validarEmail(entrada), "email " + descricao);
+        assertEquals(Validador.validarTelefone(entrada), ValidadorRapido.validarTelefone(entrada),
+                "telefone " + descricao);
+    }
+
+    private static String gerar(Random aleatorio) {
+        int tamanho = aleatorio.nextInt(20);
+        StringBuilder texto = new StringBuilder(tamanho);
+        for (int i = 0; i < tamanho; i++) {
+            texto.append(ALFABETO.charAt(aleatorio.nextInt(ALFABETO.length())));
+        }
+        return texto.toString();
+    }
+
+    /**
+     * Insere, remove ou troca um caractere de uma entrada válida.
+     */
+    private static String alterar(String valida, Random aleatorio) {
+        StringBuilder texto = new StringBuilder(valida);
+        int alteracoes = 1 + aleatorio.nextInt(3);
+        for (int i = 0; i < alteracoes; i++) {
+            int posicao = aleatorio.nextInt(texto.length() + 1);
+            char c = ALFABETO.charAt(aleatorio.nextInt(ALFABETO.length()));
+            switch (aleatorio.nextInt(3)) {
+                case 0:
+                    texto.insert(posicao, c);
+                    break;
+                case 1:
+                    if (posicao < texto.length()) {
+                        texto.deleteCharAt(posicao);
+                    }
+                    break;
+                default:
+                    if (posicao < texto.length()) {
+                        texto.setCharAt(posicao, c);
+                    }
+            }
+        }
+        return texto.toString();
+    }
+}